@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Creates the files the benchmarks work on in a temporary directory.
+ */
+final class BenchmarkData {
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates a new temporary directory.
+     */
+    static File createDirectory(final String prefix) throws IOException {
+        final File dir = File.createTempFile(prefix, "");
+        if (!dir.delete() || !dir.mkdirs()) {
+            throw new IOException("Could not create directory " + dir);
+        }
+        return dir;
+    }
+
+    /**
+     * Creates {@code count} files of {@code size} random bytes named file0, file1, ... in the directory.
+     */
+    static void createFiles(final File dir, final int count, final int size) throws IOException {
+        for (int i = 0; i < count; i++) {
+            writeFile(new File(dir, "file" + i), size);
+        }
+    }
+
+    /**
+     * Creates a file of {@code size} random bytes.
+     */
+    static void writeFile(final File file, final int size) throws IOException {
+        final OutputStream output = new FileOutputStream(file);
+        try {
+            output.write(randomBytes(size));
+        } finally {
+            output.close();
+        }
+    }
+
+    /**
+     * Creates a zip with {@code count} entries of {@code size} random bytes named file0, file1, ...
+     */
+    static void createZip(final File zip, final int count, final int size) throws IOException {
+        final ZipOutputStream output = new ZipOutputStream(new FileOutputStream(zip));
+        try {
+            final byte[] content = randomBytes(size);
+            for (int i = 0; i < count; i++) {
+                output.putNextEntry(new ZipEntry("dir/file" + i));
+                output.write(content);
+                output.closeEntry();
+            }
+        } finally {
+            output.close();
+        }
+    }
+
+    /**
+     * Deletes a file or a directory with everything in it.
+     */
+    static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    /**
+     * Finds a free local port for an embedded server.
+     */
+    static int findFreePort() throws IOException {
+        final ServerSocket socket = new ServerSocket(0);
+        try {
+            return socket.getLocalPort();
+        } finally {
+            socket.close();
+        }
+    }
+
+    static byte[] randomBytes(final int size) {
+        final byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+}
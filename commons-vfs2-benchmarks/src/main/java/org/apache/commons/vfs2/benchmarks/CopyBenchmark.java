@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.benchmarks;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.impl.StandardFileSystemManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Copies a file with {@link org.apache.commons.vfs2.FileContent#write(FileObject)} between local and RAM files.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CopyBenchmark {
+    @Param({ "file-file", "file-ram", "ram-file", "ram-ram" })
+    public String direction;
+
+    @Param({ "4096", "1048576", "16777216" })
+    public int size;
+
+    private StandardFileSystemManager manager;
+    private File dir;
+    private FileObject source;
+    private FileObject target;
+
+    @Setup
+    public void setUp() throws Exception {
+        manager = new StandardFileSystemManager();
+        manager.init();
+        dir = BenchmarkData.createDirectory("vfs-copy");
+        final String[] schemes = direction.split("-");
+        final File sourceFile = new File(dir, "source");
+        BenchmarkData.writeFile(sourceFile, size);
+        source = manager.resolveFile(sourceFile.toURI().toString());
+        if ("ram".equals(schemes[0])) {
+            final FileObject ramSource = manager.resolveFile("ram:///source");
+            source.getContent().write(ramSource);
+            source = ramSource;
+        }
+        if ("ram".equals(schemes[1])) {
+            target = manager.resolveFile("ram:///target");
+        } else {
+            target = manager.resolveFile(new File(dir, "target").toURI().toString());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        manager.close();
+        BenchmarkData.delete(dir);
+    }
+
+    @Benchmark
+    public long write() throws Exception {
+        return source.getContent().write(target);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.vfs2.FileName;
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.FileType;
+import org.apache.commons.vfs2.NameScope;
+import org.apache.commons.vfs2.impl.StandardFileSystemManager;
+import org.apache.commons.vfs2.provider.AbstractFileName;
+import org.apache.commons.vfs2.provider.UriParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parses and builds file names, which every resolve goes through.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileNameBenchmark {
+    private static final String PATH = "/many/path/./elements/with/../dots/and/any/where/to/file.txt";
+    private static final String ENCODED = "/many/path/elements/with%25esc/any%25where/to/file%20name.txt";
+
+    private StandardFileSystemManager manager;
+    private AbstractFileName root;
+
+    @Setup
+    public void setUp() throws Exception {
+        manager = new StandardFileSystemManager();
+        manager.init();
+        root = (AbstractFileName) manager.resolveName(manager.resolveURI("sftp://user@example.com/"), "/", NameScope.FILE_SYSTEM);
+    }
+
+    @TearDown
+    public void tearDown() {
+        manager.close();
+    }
+
+    @Benchmark
+    public FileType normalisePath() throws FileSystemException {
+        return UriParser.normalisePath(new StringBuilder(PATH));
+    }
+
+    @Benchmark
+    public String decode() throws FileSystemException {
+        return UriParser.decode(ENCODED);
+    }
+
+    @Benchmark
+    public FileName createName() {
+        return root.createName("/many/path/elements/to/file.txt", FileType.FILE);
+    }
+
+    @Benchmark
+    public FileName resolveName() throws FileSystemException {
+        return manager.resolveName(root, ENCODED);
+    }
+
+    @Benchmark
+    public FileName resolveURI() throws FileSystemException {
+        return manager.resolveURI("sftp://user@example.com" + ENCODED);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystem;
+import org.apache.commons.vfs2.FilesCache;
+import org.apache.commons.vfs2.cache.ClockFilesCache;
+import org.apache.commons.vfs2.cache.DefaultFilesCache;
+import org.apache.commons.vfs2.cache.LRUFilesCache;
+import org.apache.commons.vfs2.cache.NullFilesCache;
+import org.apache.commons.vfs2.cache.SoftRefFilesCache;
+import org.apache.commons.vfs2.cache.WeakRefFilesCache;
+import org.apache.commons.vfs2.impl.StandardFileSystemManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Looks up and stores file objects in each {@link FilesCache} implementation from several threads at once.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class FilesCacheBenchmark {
+    private static final int FILES = 4096;
+
+    @Param({ "default", "softref", "weakref", "lru", "clock", "null" })
+    public String cache;
+
+    private StandardFileSystemManager manager;
+    private FilesCache filesCache;
+    private FileSystem fileSystem;
+    private FileObject[] files;
+
+    @Setup
+    public void setUp() throws Exception {
+        filesCache = createCache();
+        manager = new StandardFileSystemManager();
+        manager.setFilesCache(filesCache);
+        manager.init();
+        final FileObject root = manager.resolveFile("ram:///");
+        fileSystem = root.getFileSystem();
+        files = new FileObject[FILES];
+        for (int i = 0; i < FILES; i++) {
+            files[i] = root.resolveFile("file" + i);
+        }
+    }
+
+    private FilesCache createCache() {
+        if ("softref".equals(cache)) {
+            return new SoftRefFilesCache();
+        } else if ("weakref".equals(cache)) {
+            return new WeakRefFilesCache();
+        } else if ("lru".equals(cache)) {
+            // smaller than the number of files, so entries get evicted
+            return new LRUFilesCache(FILES / 2);
+        } else if ("clock".equals(cache)) {
+            return new ClockFilesCache(FILES / 2);
+        } else if ("null".equals(cache)) {
+            return new NullFilesCache();
+        }
+        return new DefaultFilesCache();
+    }
+
+    @TearDown
+    public void tearDown() {
+        manager.close();
+    }
+
+    @Benchmark
+    public FileObject getFile() {
+        final FileObject file = files[ThreadLocalRandom.current().nextInt(FILES)];
+        return filesCache.getFile(fileSystem, file.getName());
+    }
+
+    @Benchmark
+    public FileObject getOrPutFile() {
+        final FileObject file = files[ThreadLocalRandom.current().nextInt(FILES)];
+        final FileObject cached = filesCache.getFile(fileSystem, file.getName());
+        if (cached == null) {
+            filesCache.putFile(file);
+            return file;
+        }
+        return cached;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.benchmarks;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.impl.StandardFileSystemManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lists a folder of local, RAM and zip files. The folder is refreshed before every listing, so the children are
+ * listed again instead of being served from the cached names.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GetChildrenBenchmark {
+    @Param({ "file", "ram", "zip" })
+    public String scheme;
+
+    @Param({ "10", "1000" })
+    public int children;
+
+    private StandardFileSystemManager manager;
+    private File dir;
+    private FileObject folder;
+
+    @Setup
+    public void setUp() throws Exception {
+        manager = new StandardFileSystemManager();
+        manager.init();
+        dir = BenchmarkData.createDirectory("vfs-children");
+        if ("file".equals(scheme)) {
+            BenchmarkData.createFiles(dir, children, 16);
+            folder = manager.resolveFile(dir.toURI().toString());
+        } else if ("ram".equals(scheme)) {
+            folder = manager.resolveFile("ram:///children-" + children);
+            for (int i = 0; i < children; i++) {
+                folder.resolveFile("file" + i).createFile();
+            }
+        } else {
+            final File zip = new File(dir, "data.zip");
+            BenchmarkData.createZip(zip, children, 16);
+            folder = manager.resolveFile("zip:" + zip.toURI() + "!/dir");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        manager.close();
+        BenchmarkData.delete(dir);
+    }
+
+    @Benchmark
+    public FileObject[] getChildren() throws FileSystemException {
+        folder.refresh();
+        return folder.getChildren();
+    }
+}
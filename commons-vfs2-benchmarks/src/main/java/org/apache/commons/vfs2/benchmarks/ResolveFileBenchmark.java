@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.benchmarks;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.impl.StandardFileSystemManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Resolves files through {@link org.apache.commons.vfs2.impl.DefaultFileSystemManager#resolveFile(String)}, with the
+ * file systems and file objects already cached.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResolveFileBenchmark {
+    @Param({ "file", "ram", "zip" })
+    public String scheme;
+
+    private StandardFileSystemManager manager;
+    private File dir;
+    private String uri;
+    private String relativeUri;
+    private FileObject base;
+
+    @Setup
+    public void setUp() throws Exception {
+        manager = new StandardFileSystemManager();
+        manager.init();
+        dir = BenchmarkData.createDirectory("vfs-resolve");
+        final String path = "dir/sub/file.txt";
+        if ("file".equals(scheme)) {
+            final File file = new File(dir, path);
+            file.getParentFile().mkdirs();
+            BenchmarkData.writeFile(file, 16);
+            uri = file.toURI().toString();
+            base = manager.resolveFile(dir.toURI().toString());
+        } else if ("ram".equals(scheme)) {
+            uri = "ram:///" + path;
+            manager.resolveFile(uri).createFile();
+            base = manager.resolveFile("ram:///");
+        } else {
+            final File zip = new File(dir, "data.zip");
+            BenchmarkData.createZip(zip, 1, 16);
+            base = manager.resolveFile("zip:" + zip.toURI() + "!/");
+            uri = base.getName().getURI() + "dir/file0";
+        }
+        relativeUri = "file".equals(scheme) || "ram".equals(scheme) ? path : "dir/file0";
+        // Populate the caches
+        manager.resolveFile(uri);
+    }
+
+    @TearDown
+    public void tearDown() {
+        manager.close();
+        BenchmarkData.delete(dir);
+    }
+
+    @Benchmark
+    public FileObject resolveAbsolute() throws FileSystemException {
+        return manager.resolveFile(uri);
+    }
+
+    @Benchmark
+    public FileObject resolveRelative() throws FileSystemException {
+        return manager.resolveFile(base, relativeUri);
+    }
+}
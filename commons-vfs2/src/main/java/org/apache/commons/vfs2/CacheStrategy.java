@@ -34,7 +34,17 @@ public enum CacheStrategy {
      * Refresh the data every time you call a method on the fileObject. You'll use this only if you really need the
      * latest info as this setting is a major performance loss.
      */
-    ON_CALL("oncall");
+    ON_CALL("oncall"),
+
+    /**
+     * Refresh the data when you call a method on the fileObject and the data is older than the cache time to live. This
+     * saves the server round trips of {@link #ON_CALL} when the same file is asked for its type, size or modification
+     * time several times in a row, at the price of seeing changes up to one time to live late.
+     *
+     * @see org.apache.commons.vfs2.impl.DefaultFileSystemManager#setCacheTtl(long)
+     * @see org.apache.commons.vfs2.impl.DefaultFileSystemConfigBuilder#setCacheTtl(FileSystemOptions, long)
+     */
+    ON_EXPIRY("onexpiry");
 
     /**
      * Cache strategy name
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2;
+
+/**
+ * A {@link FileSelector} that declares whether it may be used by several threads at once. The standard selectors do
+ * not need to implement it, see {@link Selectors#isThreadSafe(FileSelector)}.
+ * <p>
+ * When the file system being traversed allows it, {@link FileObject#findFiles} lists sibling folders concurrently if
+ * the selector is thread safe. {@link #includeFile} is still called for a folder after it has been called for all of
+ * its descendants, but calls for different folders may happen at the same time and in any order.
+ *
+ * @see org.apache.commons.vfs2.impl.DefaultFileSystemConfigBuilder#setTraversalThreads(FileSystemOptions, int)
+ */
+public interface ConcurrentFileSelector extends FileSelector {
+    /**
+     * Determines if {@link #includeFile} and {@link #traverseDescendents} may be called from several threads at once.
+     *
+     * @return true if this selector is thread safe.
+     */
+    boolean isThreadSafe();
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2;
+
+/**
+ * Receives measurements of the I/O done by file systems.
+ * <p>
+ * Instrumentation is registered with
+ * {@link org.apache.commons.vfs2.impl.DefaultFileSystemManager#addInstrumentation(FileSystemInstrumentation)}, and is
+ * then told about every operation of every file system of that manager. The methods are called by the threads doing
+ * the I/O, often while they hold locks of the file system, so they must be quick and must not throw.
+ *
+ * @see org.apache.commons.vfs2.impl.FileSystemMetrics
+ */
+public interface FileSystemInstrumentation {
+    /**
+     * The kinds of operation measured.
+     */
+    enum Operation {
+        /** Creating a file system of an originating provider, or opening another connection to its server. */
+        CONNECT,
+        /** Attaching a file and determining its type. */
+        STAT,
+        /** Listing the children of a folder. */
+        LIST,
+        /** Opening an input stream, output stream or random access content. */
+        OPEN,
+        /** Reading a file through an input stream, from opening the stream to closing it. */
+        READ,
+        /** Writing a file through an output stream, from opening the stream to closing it. */
+        WRITE,
+        /** Renaming a file within its file system. */
+        RENAME,
+        /** Deleting a file. */
+        DELETE
+    }
+
+    /**
+     * Called when an operation has completed.
+     *
+     * @param rootName The root name of the file system.
+     * @param operation The operation.
+     * @param nanos The duration of the operation in nanoseconds.
+     * @param bytes The number of bytes read or written, 0 for operations that do not transfer content.
+     * @param failed true if the operation failed.
+     */
+    void operationCompleted(FileName rootName, Operation operation, long nanos, long bytes, boolean failed);
+
+    /**
+     * Called when a file system looked up a file in the {@link FilesCache}.
+     *
+     * @param rootName The root name of the file system.
+     * @param hit true if the file was found in the cache.
+     */
+    void filesCacheAccessed(FileName rootName, boolean hit);
+
+    /**
+     * Called when a connection pool of a file system lent or took back a connection.
+     *
+     * @param rootName The root name of the file system.
+     * @param active The number of connections in use.
+     * @param idle The number of idle connections.
+     * @param max The maximum number of connections in use.
+     */
+    void poolUsageChanged(FileName rootName, int active, int idle, int max);
+}
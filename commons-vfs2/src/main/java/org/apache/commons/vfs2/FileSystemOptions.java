@@ -17,9 +17,8 @@
 package org.apache.commons.vfs2;
 
 import java.util.Arrays;
-import java.util.Iterator;
+import java.util.Collections;
 import java.util.Map;
-import java.util.SortedMap;
 import java.util.TreeMap;
 
 /**
@@ -30,6 +29,9 @@ import java.util.TreeMap;
  * <p>
  * To use the options, pass them to {@link FileSystemManager#resolveFile(String,FileSystemOptions)}. From there, the
  * options apply to all files that are resolved relative to that file.
+ * <p>
+ * File systems are cached by their root and a {@link #freeze() frozen} copy of their options, so that looking up the
+ * file system of a set of options compares precomputed hash codes instead of the option values.
  *
  * @see org.apache.commons.vfs2.impl.DefaultFileSystemConfigBuilder
  * @see org.apache.commons.vfs2.provider.ftp.FtpFileSystemConfigBuilder
@@ -46,6 +48,18 @@ public final class FileSystemOptions implements Cloneable {
     /** The options */
     private final Map<FileSystemOptionKey, Object> options;
 
+    /** The frozen copy of these options, null until needed and after an option is set. This if frozen. */
+    private volatile FileSystemOptions frozen;
+
+    /** The sorted keys, only set if frozen. */
+    private final FileSystemOptionKey[] frozenKeys;
+
+    /** The deep hash code of the values in key order, only set if frozen. */
+    private final int valuesHash;
+
+    /** The hash code, only set if frozen. */
+    private final int hash;
+
     /**
      * Creates a new instance.
      */
@@ -55,6 +69,22 @@ public final class FileSystemOptions implements Cloneable {
 
     protected FileSystemOptions(final Map<FileSystemOptionKey, Object> options) {
         this.options = options;
+        this.frozenKeys = null;
+        this.valuesHash = 0;
+        this.hash = 0;
+    }
+
+    /**
+     * Creates a frozen copy of options.
+     */
+    private FileSystemOptions(final FileSystemOptions source) {
+        final TreeMap<FileSystemOptionKey, Object> sorted = new TreeMap<>(source.options);
+        this.options = Collections.unmodifiableSortedMap(sorted);
+        this.frozenKeys = sorted.keySet().toArray(new FileSystemOptionKey[sorted.size()]);
+        this.valuesHash = Arrays.deepHashCode(sorted.values().toArray());
+        final int prime = 31;
+        this.hash = prime * (prime + sorted.keySet().hashCode()) + valuesHash;
+        this.frozen = this;
     }
 
     /**
@@ -123,6 +153,7 @@ public final class FileSystemOptions implements Cloneable {
 
     void setOption(final Class<? extends FileSystem> fileSystemClass, final String name, final Object value) {
         options.put(new FileSystemOptionKey(fileSystemClass, name), value);
+        frozen = null;
     }
 
     Object getOption(final Class<? extends FileSystem> fileSystemClass, final String name) {
@@ -135,14 +166,46 @@ public final class FileSystemOptions implements Cloneable {
         return options.containsKey(key);
     }
 
+    /**
+     * Returns an immutable copy of these options, which caches its hash code. The copy is kept until an option is set
+     * on these options, so freezing unchanged options again returns the same instance.
+     * <p>
+     * Setting an option on a frozen copy throws an {@link UnsupportedOperationException}.
+     *
+     * @return The frozen options, this if these options are frozen.
+     */
+    public FileSystemOptions freeze() {
+        FileSystemOptions result = frozen;
+        if (result == null) {
+            result = new FileSystemOptions(this);
+            frozen = result;
+        }
+        return result;
+    }
+
+    /**
+     * Tests whether these options are a frozen copy, see {@link #freeze()}.
+     *
+     * @return true if these options cannot be changed.
+     */
+    public boolean isFrozen() {
+        return frozen == this;
+    }
+
     public int compareTo(final FileSystemOptions other) {
         if (this == other) {
             // the same instance
             return 0;
         }
 
-        final int propsSz = options == null ? 0 : options.size();
-        final int propsFkSz = other.options == null ? 0 : other.options.size();
+        final FileSystemOptions mine = freeze();
+        final FileSystemOptions theirs = other.freeze();
+        if (mine == theirs) {
+            return 0;
+        }
+
+        final int propsSz = mine.frozenKeys.length;
+        final int propsFkSz = theirs.frozenKeys.length;
         if (propsSz < propsFkSz) {
             return -1;
         }
@@ -154,25 +217,16 @@ public final class FileSystemOptions implements Cloneable {
             return 0;
         }
 
-        // ensure proper sequence of options
-        final SortedMap<FileSystemOptionKey, Object> myOptions = options instanceof SortedMap
-                ? (SortedMap<FileSystemOptionKey, Object>) options
-                : new TreeMap<>(options);
-        final SortedMap<FileSystemOptionKey, Object> theirOptions = other.options instanceof SortedMap
-                ? (SortedMap<FileSystemOptionKey, Object>) other.options
-                : new TreeMap<>(other.options);
-        final Iterator<FileSystemOptionKey> optKeysIter = myOptions.keySet().iterator();
-        final Iterator<FileSystemOptionKey> otherKeysIter = theirOptions.keySet().iterator();
-        while (optKeysIter.hasNext()) {
-            final int comp = optKeysIter.next().compareTo(otherKeysIter.next());
+        // keys are sorted
+        for (int i = 0; i < propsSz; i++) {
+            final int comp = mine.frozenKeys[i].compareTo(theirs.frozenKeys[i]);
             if (comp != 0) {
                 return comp;
             }
         }
 
-        final Object[] array = new Object[propsSz];
-        final int hash = Arrays.deepHashCode(myOptions.values().toArray(array));
-        final int hashFk = Arrays.deepHashCode(theirOptions.values().toArray(array));
+        final int hash = mine.valuesHash;
+        final int hashFk = theirs.valuesHash;
         if (hash < hashFk) {
             return -1;
         }
@@ -186,18 +240,7 @@ public final class FileSystemOptions implements Cloneable {
 
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        if (options == null) {
-            result = prime * result;
-        } else {
-            final SortedMap<FileSystemOptionKey, Object> myOptions = options instanceof SortedMap
-                    ? (SortedMap<FileSystemOptionKey, Object>) options
-                    : new TreeMap<>(options);
-            result = prime * result + myOptions.keySet().hashCode();
-            result = prime * result + Arrays.deepHashCode(myOptions.values().toArray(new Object[options.size()]));
-        }
-        return result;
+        return freeze().hash;
     }
 
     @Override
@@ -212,7 +255,7 @@ public final class FileSystemOptions implements Cloneable {
             return false;
         }
         final FileSystemOptions other = (FileSystemOptions) obj;
-        return compareTo(other) == 0;
+        return hashCode() == other.hashCode() && compareTo(other) == 0;
     }
 
     /**
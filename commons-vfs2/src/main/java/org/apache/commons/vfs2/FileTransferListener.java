@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2;
+
+/**
+ * Receives the progress of a {@link org.apache.commons.vfs2.impl.FileTransfer}.
+ * <p>
+ * The methods are called from the worker threads of the transfer, possibly at the same time.
+ */
+public interface FileTransferListener {
+    /**
+     * Called when a file has been copied, or moved, to its destination.
+     *
+     * @param source The source file. It no longer exists if the file was moved.
+     * @param destination The destination file.
+     * @param bytes The number of bytes copied.
+     */
+    void fileTransferred(FileObject source, FileObject destination, long bytes);
+
+    /**
+     * Called when a file is not copied because the destination already matches it.
+     *
+     * @param source The source file.
+     * @param destination The destination file.
+     */
+    void fileSkipped(FileObject source, FileObject destination);
+
+    /**
+     * Called when a file could not be transferred. The destination file is left as it was.
+     *
+     * @param source The source file.
+     * @param destination The destination file.
+     * @param exception The cause of the failure.
+     */
+    void fileFailed(FileObject source, FileObject destination, FileSystemException exception);
+}
@@ -47,4 +47,8 @@ public class InvertIncludeFileSelector implements FileSelector {
         return delegateFileSelector.traverseDescendents(fileInfo);
     }
 
+    FileSelector getDelegate() {
+        return delegateFileSelector;
+    }
+
 }
@@ -16,6 +16,11 @@
  */
 package org.apache.commons.vfs2;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * Several standard file selectors.
  */
@@ -56,6 +61,32 @@ public final class Selectors {
      */
     public static final FileSelector SELECT_ALL = new AllFileSelector();
 
+    /**
+     * The selectors without state that changes during a traversal. Their subclasses may have some.
+     */
+    private static final Set<Class<?>> STATELESS_SELECTORS = Collections.unmodifiableSet(new HashSet<Class<?>>(
+            Arrays.<Class<?>>asList(AllFileSelector.class, FileDepthSelector.class, FileExtensionSelector.class,
+                    FileTypeSelector.class, PatternFileSelector.class)));
+
+    /**
+     * Determines if a selector may be used by several threads at once.
+     * <p>
+     * The selectors of this package are, but not their subclasses. An {@link InvertIncludeFileSelector} is if its
+     * delegate is. Any other selector is if it is a {@link ConcurrentFileSelector} that says so.
+     *
+     * @param selector The selector.
+     * @return true if the selector is thread safe.
+     */
+    public static boolean isThreadSafe(final FileSelector selector) {
+        if (selector instanceof ConcurrentFileSelector) {
+            return ((ConcurrentFileSelector) selector).isThreadSafe();
+        }
+        if (selector != null && selector.getClass() == InvertIncludeFileSelector.class) {
+            return isThreadSafe(((InvertIncludeFileSelector) selector).getDelegate());
+        }
+        return selector != null && STATELESS_SELECTORS.contains(selector.getClass());
+    }
+
     /**
      * Prevent the class from being instantiated.
      */
@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.cache;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.commons.vfs2.FileName;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystem;
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.VfsLog;
+import org.apache.commons.vfs2.util.Messages;
+
+/**
+ * A size bounded cache which evicts files using the CLOCK (second chance) algorithm.
+ * <p>
+ * Unlike {@link LRUFilesCache} a cache hit does not reorder anything, it only sets the referenced flag of the entry,
+ * so lookups run on a {@link ConcurrentHashMap} without any lock. Entries are kept in a queue in insertion order;
+ * when the cache grows over its bounds the eviction takes entries from the head, gives referenced entries a second
+ * chance by clearing the flag and queueing them again, and evicts the first entry which was not used since the last
+ * pass.
+ * <p>
+ * As in {@link LRUFilesCache} files which are attached or have open content are never evicted. The cache can be
+ * bounded by the number of entries, by the estimated memory of the entries (see {@link #estimateSize(FileObject)})
+ * or both. The bounds hold for the whole cache, not per file system. Concurrent inserts may exceed them for a short
+ * time while another thread evicts.
+ */
+public class ClockFilesCache extends AbstractFilesCache {
+    /** The default maximum number of entries. */
+    private static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    /** The estimated size of a cached file object without its name. */
+    private static final long ENTRY_OVERHEAD = 512;
+
+    /** The logger to use. */
+    private static final Log log = LogFactory.getLog(ClockFilesCache.class);
+
+    /** The FileSystem cache */
+    private final ConcurrentMap<FileSystem, ConcurrentMap<FileName, Entry>> filesystemCache = new ConcurrentHashMap<>(
+            10);
+
+    /** The clock, entries in insertion order. May contain entries which are no longer cached. */
+    private final ConcurrentLinkedQueue<Entry> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger clockSize = new AtomicInteger();
+
+    private final AtomicInteger entries = new AtomicInteger();
+    private final AtomicLong weight = new AtomicLong();
+
+    private final Lock evictionLock = new ReentrantLock();
+
+    private final int maxEntries;
+    private final long maxWeight;
+
+    /**
+     * A cached file.
+     */
+    private static final class Entry {
+        private final ConcurrentMap<FileName, Entry> files;
+        private final FileObject file;
+        private final long weight;
+        private volatile boolean referenced;
+
+        private Entry(final ConcurrentMap<FileName, Entry> files, final FileObject file, final long weight) {
+            this.files = files;
+            this.file = file;
+            this.weight = weight;
+        }
+
+        private boolean isCached() {
+            return files.get(file.getName()) == this;
+        }
+    }
+
+    /**
+     * Default constructor. Uses a maximum of 1000 entries.
+     */
+    public ClockFilesCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Creates a cache bounded by the number of entries.
+     *
+     * @param maxEntries the maximum number of cached files
+     */
+    public ClockFilesCache(final int maxEntries) {
+        this(maxEntries, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a cache bounded by the number of entries and by their estimated memory.
+     *
+     * @param maxEntries the maximum number of cached files, {@link Integer#MAX_VALUE} for no limit
+     * @param maxWeight the maximum estimated size of all cached files in bytes, {@link Long#MAX_VALUE} for no limit
+     */
+    public ClockFilesCache(final int maxEntries, final long maxWeight) {
+        if (maxEntries < 1 || maxWeight < 1) {
+            throw new IllegalArgumentException("The cache bounds must be positive.");
+        }
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    @Override
+    public void putFile(final FileObject file) {
+        final ConcurrentMap<FileName, Entry> files = getOrCreateFilesystemCache(file.getFileSystem());
+        final Entry entry = newEntry(files, file);
+        final Entry previous = files.put(file.getName(), entry);
+        if (previous != null) {
+            removed(previous);
+        }
+        added(entry);
+    }
+
+    @Override
+    public boolean putFileIfAbsent(final FileObject file) {
+        final ConcurrentMap<FileName, Entry> files = getOrCreateFilesystemCache(file.getFileSystem());
+        final Entry entry = newEntry(files, file);
+        if (files.putIfAbsent(file.getName(), entry) != null) {
+            return false;
+        }
+        added(entry);
+        return true;
+    }
+
+    @Override
+    public FileObject getFile(final FileSystem filesystem, final FileName name) {
+        final ConcurrentMap<FileName, Entry> files = filesystemCache.get(filesystem);
+        if (files == null) {
+            return null;
+        }
+        final Entry entry = files.get(name);
+        if (entry == null) {
+            return null;
+        }
+        markReferenced(entry);
+        return entry.file;
+    }
+
+    @Override
+    public void touchFile(final FileObject file) {
+        getFile(file.getFileSystem(), file.getName());
+    }
+
+    @Override
+    public void clear(final FileSystem filesystem) {
+        final ConcurrentMap<FileName, Entry> files = filesystemCache.remove(filesystem);
+        if (files == null) {
+            return;
+        }
+        for (final Entry entry : files.values()) {
+            if (files.remove(entry.file.getName(), entry)) {
+                removed(entry);
+            }
+        }
+    }
+
+    @Override
+    public void removeFile(final FileSystem filesystem, final FileName name) {
+        final ConcurrentMap<FileName, Entry> files = filesystemCache.get(filesystem);
+        if (files == null) {
+            return;
+        }
+        final Entry entry = files.remove(name);
+        if (entry != null) {
+            removed(entry);
+        }
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        for (final FileSystem filesystem : filesystemCache.keySet()) {
+            clear(filesystem);
+        }
+        evictionLock.lock();
+        try {
+            clock.clear();
+            clockSize.set(0);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of cached files.
+     *
+     * @return the number of cached files
+     */
+    public int size() {
+        return entries.get();
+    }
+
+    /**
+     * Gets the estimated size of all cached files.
+     *
+     * @return the estimated size in bytes
+     */
+    public long weight() {
+        return weight.get();
+    }
+
+    /**
+     * Estimates the memory used by a cached file. The default implementation counts a fixed overhead plus the
+     * characters of the URI.
+     *
+     * @param file the file to cache
+     * @return the estimated size in bytes
+     */
+    protected long estimateSize(final FileObject file) {
+        return ENTRY_OVERHEAD + 2L * file.getName().getURI().length();
+    }
+
+    private ConcurrentMap<FileName, Entry> getOrCreateFilesystemCache(final FileSystem filesystem) {
+        ConcurrentMap<FileName, Entry> files = filesystemCache.get(filesystem);
+        if (files == null) {
+            files = new ConcurrentHashMap<>();
+            final ConcurrentMap<FileName, Entry> existing = filesystemCache.putIfAbsent(filesystem, files);
+            if (existing != null) {
+                files = existing;
+            }
+        }
+        return files;
+    }
+
+    private Entry newEntry(final ConcurrentMap<FileName, Entry> files, final FileObject file) {
+        return new Entry(files, file, maxWeight == Long.MAX_VALUE ? 0 : estimateSize(file));
+    }
+
+    private void markReferenced(final Entry entry) {
+        // avoid the volatile write when the flag is already set, it is the common case for hot entries
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+    }
+
+    private void added(final Entry entry) {
+        entries.incrementAndGet();
+        weight.addAndGet(entry.weight);
+        clock.offer(entry);
+        clockSize.incrementAndGet();
+        if (isOverBounds() || clockSize.get() > 2 * entries.get() + 16) {
+            evict();
+        }
+    }
+
+    private void removed(final Entry entry) {
+        entries.decrementAndGet();
+        weight.addAndGet(-entry.weight);
+    }
+
+    private boolean isOverBounds() {
+        return entries.get() > maxEntries || weight.get() > maxWeight;
+    }
+
+    /**
+     * Evicts entries until the cache is within its bounds. Only one thread evicts at a time; other threads inserting
+     * meanwhile do not wait for it.
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            if (clockSize.get() > 2 * entries.get() + 16) {
+                purge();
+            }
+            // every entry gets at most one second chance per eviction
+            int remaining = 2 * clockSize.get();
+            while (isOverBounds() && remaining-- > 0) {
+                final Entry entry = clock.poll();
+                if (entry == null) {
+                    break;
+                }
+                if (!entry.isCached()) {
+                    clockSize.decrementAndGet();
+                    continue;
+                }
+                final FileObject file = entry.file;
+                if (entry.referenced) {
+                    entry.referenced = false;
+                    clock.offer(entry);
+                    continue;
+                }
+                if (file.isAttached() || file.isContentOpen()) {
+                    // do not allow open or attached files to be removed
+                    clock.offer(entry);
+                    continue;
+                }
+                clockSize.decrementAndGet();
+                if (entry.files.remove(file.getName(), entry)) {
+                    removed(entry);
+                    try {
+                        // force detach
+                        file.close();
+                    } catch (final FileSystemException e) {
+                        VfsLog.warn(getLogger(), log, Messages.getString("vfs.impl/ClockFilesCache-remove-ex.warn"),
+                                e);
+                    }
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Drops the entries from the clock which were removed from the cache.
+     */
+    private void purge() {
+        final Iterator<Entry> iterator = clock.iterator();
+        while (iterator.hasNext()) {
+            if (!iterator.next().isCached()) {
+                iterator.remove();
+                clockSize.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.commons.vfs2.FileContent;
+import org.apache.commons.vfs2.FileObject;
+
+/**
+ * Helper class for VFSClassLoader. Keeps the bytes and certificates of loaded classes in a local folder, so that a
+ * later class loader skips reading them from their file system. An entry is used as long as the last modified time
+ * and size of the class file are unchanged. Failures are logged and treated as a missing entry.
+ *
+ * @see VFSClassLoader
+ */
+final class BytecodeCache {
+    private static final Log log = LogFactory.getLog(BytecodeCache.class);
+
+    private static final int VERSION = 1;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final File directory;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param directory The folder to keep the entries in, created if it does not exist.
+     */
+    BytecodeCache(final File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * The cached bytes and certificates of a class.
+     */
+    static final class Entry {
+        private final byte[] bytes;
+        private final Certificate[] certificates;
+
+        Entry(final byte[] bytes, final Certificate[] certificates) {
+            this.bytes = bytes;
+            this.certificates = certificates;
+        }
+
+        byte[] getBytes() {
+            return bytes;
+        }
+
+        Certificate[] getCertificates() {
+            return certificates;
+        }
+    }
+
+    /**
+     * Returns the cached entry of a class file, if it is still up to date.
+     *
+     * @param codeSource The code source the class is loaded from.
+     * @param name The resource name of the class.
+     * @param file The class file.
+     * @return The entry, or null.
+     */
+    Entry get(final URL codeSource, final String name, final FileObject file) {
+        final File entryFile = getEntryFile(codeSource, name);
+        if (!entryFile.isFile()) {
+            return null;
+        }
+        try (final DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(entryFile)))) {
+            if (in.readInt() != VERSION) {
+                return null;
+            }
+            final FileContent content = file.getContent();
+            if (in.readLong() != content.getLastModifiedTime() || in.readLong() != content.getSize()) {
+                return null;
+            }
+            final byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            final int count = in.readInt();
+            final Certificate[] certificates = count < 0 ? null : new Certificate[count];
+            for (int i = 0; i < count; i++) {
+                final String type = in.readUTF();
+                final byte[] encoded = new byte[in.readInt()];
+                in.readFully(encoded);
+                certificates[i] = CertificateFactory.getInstance(type)
+                        .generateCertificate(new ByteArrayInputStream(encoded));
+            }
+            return new Entry(bytes, certificates);
+        } catch (final IOException | GeneralSecurityException | RuntimeException e) {
+            log.debug("Could not read the cached class " + name + " from " + entryFile, e);
+            return null;
+        }
+    }
+
+    /**
+     * Caches a class file.
+     *
+     * @param codeSource The code source the class is loaded from.
+     * @param name The resource name of the class.
+     * @param file The class file.
+     * @param bytes The content of the class file.
+     * @param certificates The certificates of the class file, may be null.
+     */
+    void put(final URL codeSource, final String name, final FileObject file, final byte[] bytes,
+            final Certificate[] certificates) {
+        final File entryFile = getEntryFile(codeSource, name);
+        File tempFile = null;
+        try {
+            final FileContent content = file.getContent();
+            final long lastModified = content.getLastModifiedTime();
+            final long size = content.getSize();
+            if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+                throw new IOException("Could not create the folder " + directory);
+            }
+            tempFile = File.createTempFile(entryFile.getName(), ".tmp", directory);
+            try (final DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeInt(VERSION);
+                out.writeLong(lastModified);
+                out.writeLong(size);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+                out.writeInt(certificates == null ? -1 : certificates.length);
+                if (certificates != null) {
+                    for (final Certificate certificate : certificates) {
+                        final byte[] encoded = certificate.getEncoded();
+                        out.writeUTF(certificate.getType());
+                        out.writeInt(encoded.length);
+                        out.write(encoded);
+                    }
+                }
+            }
+            // readers see either the old or the new entry
+            try {
+                Files.move(tempFile.toPath(), entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            tempFile = null;
+        } catch (final IOException | GeneralSecurityException | RuntimeException e) {
+            log.debug("Could not cache the class " + name + " in " + entryFile, e);
+        } finally {
+            if (tempFile != null && !tempFile.delete()) {
+                tempFile.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Names the entry after a digest of the code source and the class, so that entries of all code sources can be
+     * kept in one flat folder.
+     */
+    private File getEntryFile(final URL codeSource, final String name) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(String.valueOf(codeSource).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(name.getBytes(StandardCharsets.UTF_8));
+        final byte[] hash = digest.digest();
+        final char[] chars = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            chars[i * 2] = HEX[(hash[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[hash[i] & 0xF];
+        }
+        return new File(directory, new String(chars) + ".class");
+    }
+}
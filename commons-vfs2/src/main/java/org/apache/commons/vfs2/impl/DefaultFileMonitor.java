@@ -16,9 +16,23 @@
  */
 package org.apache.commons.vfs2.impl;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -52,6 +66,12 @@ import org.apache.commons.vfs2.provider.AbstractFileSystem;
  * <p>
  * For performance reasons, added a delay that increases as the number of files monitored increases. The default is a
  * delay of 1 second for every 1000 files processed.
+ * <p>
+ * With {@link #setWorkerThreads(int) worker threads} the agents are not checked one after the other by a single
+ * thread. Every agent is scheduled on its own in a pool of worker threads, so a slow file system only delays the
+ * checks of its own files. An agent whose check fails or takes longer than the delay backs off, doubling its delay up
+ * to the {@link #setMaxDelay(long) maximum delay}, and returns to the normal delay after a quick successful check.
+ * {@link #getMaxLag()} and {@link #getAverageLag()} tell how late the checks run.
  *
  * <h2>Example usage:</h2>
  *
@@ -74,10 +94,12 @@ public class DefaultFileMonitor implements Runnable, FileMonitor {
 
     private static final int DEFAULT_MAX_FILES = 1000;
 
+    private static final long DEFAULT_MAX_DELAY = 60000;
+
     /**
      * Map from FileName to FileObject being monitored.
      */
-    private final Map<FileName, FileMonitorAgent> monitorMap = new HashMap<>();
+    private final ConcurrentMap<FileName, FileMonitorAgent> monitorMap = new ConcurrentHashMap<>();
 
     /**
      * The low priority thread used for checking the files being monitored.
@@ -85,14 +107,19 @@ public class DefaultFileMonitor implements Runnable, FileMonitor {
     private Thread monitorThread;
 
     /**
-     * File objects to be removed from the monitor map.
+     * The worker threads checking the files being monitored, when {@link #workerThreads} is set.
+     */
+    private volatile ScheduledExecutorService executor;
+
+    /**
+     * File objects to be added to or removed from the monitor map, the last request for a file wins.
      */
-    private final Stack<FileObject> deleteStack = new Stack<>();
+    private final Map<FileName, PendingChange> pendingChanges = new LinkedHashMap<>();
 
     /**
-     * File objects to be added to the monitor map.
+     * Whether a worker is asked to process the pending changes.
      */
-    private final Stack<FileObject> addStack = new Stack<>();
+    private final AtomicBoolean pendingChangesScheduled = new AtomicBoolean();
 
     /**
      * A flag used to determine if the monitor thread should be running.
@@ -114,6 +141,16 @@ public class DefaultFileMonitor implements Runnable, FileMonitor {
      */
     private int checksPerRun = DEFAULT_MAX_FILES;
 
+    /**
+     * The number of worker threads, 0 to check the files on a single thread.
+     */
+    private int workerThreads;
+
+    /**
+     * The longest delay an agent backs off to.
+     */
+    private long maxDelay = DEFAULT_MAX_DELAY;
+
     /**
      * A listener object that if set, is notified on file creation and deletion.
      */
@@ -178,28 +215,31 @@ public class DefaultFileMonitor implements Runnable, FileMonitor {
      * @param file The FileObject to add.
      */
     private void doAddFile(final FileObject file) {
-        synchronized (this.monitorMap) {
-            if (this.monitorMap.get(file.getName()) == null) {
-                this.monitorMap.put(file.getName(), new FileMonitorAgent(this, file));
-
-                try {
-                    if (this.listener != null) {
-                        file.getFileSystem().addListener(file, this.listener);
-                    }
+        if (this.monitorMap.containsKey(file.getName())) {
+            return;
+        }
+        // The agent reads the file, do not hold any lock meanwhile
+        final FileMonitorAgent agent = new FileMonitorAgent(this, file);
+        if (this.monitorMap.putIfAbsent(file.getName(), agent) != null) {
+            return;
+        }
+        startSchedule(agent, getDelay());
 
-                    if (file.getType().hasChildren() && this.recursive) {
-                        // Traverse the children
-                        final FileObject[] children = file.getChildren();
-                        for (final FileObject element : children) {
-                            this.addFile(element); // Add depth first
-                        }
-                    }
+        try {
+            if (this.listener != null) {
+                file.getFileSystem().addListener(file, this.listener);
+            }
 
-                } catch (final FileSystemException fse) {
-                    LOG.error(fse.getLocalizedMessage(), fse);
+            if (file.getType().hasChildren() && this.recursive) {
+                // Traverse the children
+                final FileObject[] children = file.getChildren();
+                for (final FileObject element : children) {
+                    this.addFile(element); // Add depth first
                 }
-
             }
+
+        } catch (final FileSystemException fse) {
+            LOG.error(fse.getLocalizedMessage(), fse);
         }
     }
 
@@ -210,23 +250,24 @@ public class DefaultFileMonitor implements Runnable, FileMonitor {
      */
     @Override
     public void removeFile(final FileObject file) {
-        synchronized (this.monitorMap) {
-            final FileName fn = file.getName();
-            if (this.monitorMap.get(fn) != null) {
-                FileObject parent;
-                try {
-                    parent = file.getParent();
-                } catch (final FileSystemException fse) {
-                    parent = null;
-                }
+        final FileName fn = file.getName();
+        if (this.monitorMap.get(fn) != null) {
+            FileObject parent;
+            try {
+                parent = file.getParent();
+            } catch (final FileSystemException fse) {
+                parent = null;
+            }
 
-                this.monitorMap.remove(fn);
+            final FileMonitorAgent agent = this.monitorMap.remove(fn);
+            if (agent != null) {
+                agent.cancel();
+            }
 
-                if (parent != null) { // Not the root
-                    final FileMonitorAgent parentAgent = this.monitorMap.get(parent.getName());
-                    if (parentAgent != null) {
-                        parentAgent.resetChildrenList();
-                    }
+            if (parent != null) { // Not the root
+                final FileMonitorAgent parentAgent = this.monitorMap.get(parent.getName());
+                if (parentAgent != null) {
+                    parentAgent.resetChildrenList();
                 }
             }
         }
@@ -238,7 +279,7 @@ public class DefaultFileMonitor implements Runnable, FileMonitor {
      * @param file The FileObject to be removed from being monitored.
      */
     protected void queueRemoveFile(final FileObject file) {
-        this.deleteStack.push(file);
+        queueChange(file, false);
     }
 
     /**
@@ -281,19 +322,166 @@ public class DefaultFileMonitor implements Runnable, FileMonitor {
         this.checksPerRun = checksPerRun;
     }
 
+    /**
+     * Get the number of worker threads.
+     *
+     * @return The number of worker threads, 0 if the files are checked on a single thread.
+     */
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    /**
+     * Set the number of worker threads checking the files, each file on its own schedule. Has to be set before
+     * {@link #start()}. With 0, the default, a single thread checks the files one after the other and
+     * {@link #setChecksPerRun(int) checks per run} applies.
+     *
+     * @param workerThreads The number of worker threads.
+     */
+    public void setWorkerThreads(final int workerThreads) {
+        this.workerThreads = Math.max(0, workerThreads);
+    }
+
+    /**
+     * Get the longest delay a file backs off to when its checks fail or are slow.
+     *
+     * @return The maximum delay period.
+     */
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * Set the longest delay a file backs off to when its checks fail or are slow. Only used with worker threads.
+     *
+     * @param maxDelay The maximum delay period.
+     */
+    public void setMaxDelay(final long maxDelay) {
+        if (maxDelay > 0) {
+            this.maxDelay = maxDelay;
+        } else {
+            this.maxDelay = DEFAULT_MAX_DELAY;
+        }
+    }
+
+    /**
+     * Get how late the most delayed file was checked the last time, compared to when its check was due.
+     *
+     * @return The lag in milliseconds.
+     */
+    public long getMaxLag() {
+        long max = 0;
+        for (final FileMonitorAgent agent : this.monitorMap.values()) {
+            max = Math.max(max, agent.lag);
+        }
+        return max;
+    }
+
+    /**
+     * Get how late the files were checked the last time on average, compared to when their checks were due.
+     *
+     * @return The lag in milliseconds.
+     */
+    public long getAverageLag() {
+        long total = 0;
+        int count = 0;
+        for (final FileMonitorAgent agent : this.monitorMap.values()) {
+            total += agent.lag;
+            count++;
+        }
+        return count == 0 ? 0 : total / count;
+    }
+
     /**
      * Queues a file for addition to be monitored.
      *
      * @param file The FileObject to add.
      */
     protected void queueAddFile(final FileObject file) {
-        this.addStack.push(file);
+        queueChange(file, true);
+    }
+
+    private void queueChange(final FileObject file, final boolean add) {
+        synchronized (this.pendingChanges) {
+            // keep the order of the requests, the last one for a file wins
+            this.pendingChanges.remove(file.getName());
+            this.pendingChanges.put(file.getName(), new PendingChange(file, add));
+        }
+        final ScheduledExecutorService service = this.executor;
+        if (service != null && this.pendingChangesScheduled.compareAndSet(false, true)) {
+            try {
+                service.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        processPendingChanges();
+                    }
+                });
+            } catch (final RejectedExecutionException e) {
+                // stopped
+                this.pendingChangesScheduled.set(false);
+            }
+        }
+    }
+
+    private void processPendingChanges() {
+        this.pendingChangesScheduled.set(false);
+        final List<PendingChange> changes;
+        synchronized (this.pendingChanges) {
+            changes = new ArrayList<>(this.pendingChanges.values());
+            this.pendingChanges.clear();
+        }
+        for (final PendingChange change : changes) {
+            if (change.add) {
+                this.addFile(change.file);
+            } else {
+                this.removeFile(change.file);
+            }
+        }
+    }
+
+    /**
+     * Schedules the first check of an agent, unless it is already scheduled.
+     */
+    private void startSchedule(final FileMonitorAgent agent, final long delay) {
+        synchronized (agent) {
+            if (agent.future == null) {
+                schedule(agent, delay);
+            }
+        }
+    }
+
+    /**
+     * Schedules the next check of an agent, if the worker threads are running.
+     */
+    private void schedule(final FileMonitorAgent agent, final long delay) {
+        final ScheduledExecutorService service = this.executor;
+        if (service == null) {
+            return;
+        }
+        // the delay runs from the end of the previous check, so that is when the next one is due from
+        agent.due = System.currentTimeMillis() + delay;
+        try {
+            agent.scheduled(service.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (shouldRun && monitorMap.get(agent.file.getName()) == agent) {
+                        schedule(agent, agent.checkAndGetNextDelay());
+                    }
+                }
+            }, delay, TimeUnit.MILLISECONDS), delay);
+        } catch (final RejectedExecutionException e) {
+            // stopped
+        }
     }
 
     /**
      * Starts monitoring the files that have been added.
      */
     public void start() {
+        if (this.workerThreads > 0) {
+            startWorkers();
+            return;
+        }
         if (this.monitorThread == null) {
             this.monitorThread = new Thread(this);
             this.monitorThread.setDaemon(true);
@@ -302,11 +490,52 @@ public class DefaultFileMonitor implements Runnable, FileMonitor {
         this.monitorThread.start();
     }
 
+    private void startWorkers() {
+        final AtomicInteger count = new AtomicInteger();
+        final ScheduledThreadPoolExecutor service = new ScheduledThreadPoolExecutor(this.workerThreads,
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(final Runnable runnable) {
+                        final Thread thread = new Thread(runnable,
+                                DefaultFileMonitor.class.getSimpleName() + "-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        thread.setPriority(Thread.MIN_PRIORITY);
+                        return thread;
+                    }
+                });
+        service.setRemoveOnCancelPolicy(true);
+        this.shouldRun = true;
+        this.executor = service;
+        for (final FileMonitorAgent agent : this.monitorMap.values()) {
+            // spread the first checks over the delay
+            startSchedule(agent, ThreadLocalRandom.current().nextLong(getDelay()));
+        }
+        synchronized (this.pendingChanges) {
+            if (!this.pendingChanges.isEmpty()) {
+                this.pendingChangesScheduled.set(true);
+                service.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        processPendingChanges();
+                    }
+                });
+            }
+        }
+    }
+
     /**
      * Stops monitoring the files that have been added.
      */
     public void stop() {
         this.shouldRun = false;
+        final ScheduledExecutorService service = this.executor;
+        if (service != null) {
+            this.executor = null;
+            service.shutdownNow();
+            for (final FileMonitorAgent agent : this.monitorMap.values()) {
+                agent.cancel();
+            }
+        }
     }
 
     /**
@@ -314,23 +543,21 @@ public class DefaultFileMonitor implements Runnable, FileMonitor {
      */
     @Override
     public void run() {
+        // the checks are due when the thread starts and then a delay after each sleep starts
+        long due = System.currentTimeMillis();
         mainloop: while (!monitorThread.isInterrupted() && this.shouldRun) {
             // For each entry in the map
-            Object[] fileNames;
-            synchronized (this.monitorMap) {
-                fileNames = this.monitorMap.keySet().toArray();
-            }
+            final Object[] fileNames = this.monitorMap.keySet().toArray();
             for (int iterFileNames = 0; iterFileNames < fileNames.length; iterFileNames++) {
                 final FileName fileName = (FileName) fileNames[iterFileNames];
-                FileMonitorAgent agent;
-                synchronized (this.monitorMap) {
-                    agent = this.monitorMap.get(fileName);
-                }
+                final FileMonitorAgent agent = this.monitorMap.get(fileName);
                 if (agent != null) {
-                    agent.check();
+                    agent.due = due;
+                    agent.checkAndGetNextDelay();
                 }
 
                 if (getChecksPerRun() > 0 && (iterFileNames + 1) % getChecksPerRun() == 0) {
+                    due = System.currentTimeMillis() + getDelay();
                     try {
                         Thread.sleep(getDelay());
                     } catch (final InterruptedException e) {
@@ -343,14 +570,9 @@ public class DefaultFileMonitor implements Runnable, FileMonitor {
                 }
             }
 
-            while (!this.addStack.empty()) {
-                this.addFile(this.addStack.pop());
-            }
-
-            while (!this.deleteStack.empty()) {
-                this.removeFile(this.deleteStack.pop());
-            }
+            processPendingChanges();
 
+            due = System.currentTimeMillis() + getDelay();
             try {
                 Thread.sleep(getDelay());
             } catch (final InterruptedException e) {
@@ -361,6 +583,19 @@ public class DefaultFileMonitor implements Runnable, FileMonitor {
         this.shouldRun = true;
     }
 
+    /**
+     * A file to add to or remove from the monitor map.
+     */
+    private static final class PendingChange {
+        private final FileObject file;
+        private final boolean add;
+
+        private PendingChange(final FileObject file, final boolean add) {
+            this.file = file;
+            this.add = add;
+        }
+    }
+
     /**
      * File monitor agent.
      */
@@ -370,7 +605,16 @@ public class DefaultFileMonitor implements Runnable, FileMonitor {
 
         private boolean exists;
         private long timestamp;
-        private Map<FileName, Object> children;
+        /** Replaced as a whole, it is reset by other threads while the agent checks. */
+        private volatile Map<FileName, Object> children;
+
+        /** The current delay between the checks, grows while checks fail or are slow. */
+        private long interval;
+        /** When the next check is due, set before it is scheduled or checked by the monitor thread. */
+        private volatile long due;
+        /** How late the last check started. */
+        private volatile long lag;
+        private ScheduledFuture<?> future;
 
         private FileMonitorAgent(final DefaultFileMonitor fm, final FileObject file) {
             this.fm = fm;
@@ -395,14 +639,45 @@ public class DefaultFileMonitor implements Runnable, FileMonitor {
             }
         }
 
+        private synchronized void scheduled(final ScheduledFuture<?> future, final long delay) {
+            this.future = future;
+            this.interval = delay;
+        }
+
+        private synchronized void cancel() {
+            if (this.future != null) {
+                this.future.cancel(false);
+                this.future = null;
+            }
+        }
+
+        /**
+         * Checks the file and works out when to check it again.
+         *
+         * @return The delay until the next check.
+         */
+        private long checkAndGetNextDelay() {
+            final long start = System.currentTimeMillis();
+            final long delay = this.fm.getDelay();
+            this.lag = Math.max(0, start - this.due);
+            final boolean success = this.check();
+            final long duration = System.currentTimeMillis() - start;
+            if (success && duration < delay) {
+                return delay;
+            }
+            // back off from a failing or slow file system
+            return Math.min(Math.max(this.interval, delay) * 2, Math.max(delay, this.fm.getMaxDelay()));
+        }
+
         private void resetChildrenList() {
             try {
                 if (this.file.getType().hasChildren()) {
-                    this.children = new HashMap<>();
+                    final Map<FileName, Object> newChildren = new HashMap<>();
                     final FileObject[] childrenList = this.file.getChildren();
                     for (final FileObject element : childrenList) {
-                        this.children.put(element.getName(), new Object()); // null?
+                        newChildren.put(element.getName(), new Object()); // null?
                     }
+                    this.children = newChildren;
                 }
             } catch (final FileSystemException fse) {
                 this.children = null;
@@ -460,7 +735,8 @@ public class DefaultFileMonitor implements Runnable, FileMonitor {
             try {
                 if (this.file.getType().hasChildren()) {
                     final FileObject[] newChildren = this.file.getChildren();
-                    if (this.children != null) {
+                    final Map<FileName, Object> knownChildren = this.children;
+                    if (knownChildren != null) {
                         // See which new children are not listed in the current children map.
                         final Map<FileName, Object> newChildrenMap = new HashMap<>();
                         final Stack<FileObject> missingChildren = new Stack<>();
@@ -468,7 +744,7 @@ public class DefaultFileMonitor implements Runnable, FileMonitor {
                         for (int i = 0; i < newChildren.length; i++) {
                             newChildrenMap.put(newChildren[i].getName(), new Object()); // null ?
                             // If the child's not there
-                            if (!this.children.containsKey(newChildren[i].getName())) {
+                            if (!knownChildren.containsKey(newChildren[i].getName())) {
                                 missingChildren.push(newChildren[i]);
                             }
                         }
@@ -486,11 +762,14 @@ public class DefaultFileMonitor implements Runnable, FileMonitor {
 
                     } else {
                         // First set of children - Break out the cigars
+                        final Map<FileName, Object> firstChildren = new HashMap<>();
+                        for (final FileObject element : newChildren) {
+                            firstChildren.put(element.getName(), new Object()); // null?
+                        }
                         if (newChildren.length > 0) {
-                            this.children = new HashMap<>();
+                            this.children = firstChildren;
                         }
                         for (final FileObject element : newChildren) {
-                            this.children.put(element.getName(), new Object()); // null?
                             this.fireAllCreate(element);
                         }
                     }
@@ -500,7 +779,10 @@ public class DefaultFileMonitor implements Runnable, FileMonitor {
             }
         }
 
-        private void check() {
+        /**
+         * @return false if the file could not be checked.
+         */
+        private boolean check() {
             this.refresh();
 
             try {
@@ -548,7 +830,9 @@ public class DefaultFileMonitor implements Runnable, FileMonitor {
 
             } catch (final FileSystemException fse) {
                 LOG.error(fse.getLocalizedMessage(), fse);
+                return false;
             }
+            return true;
         }
 
     }
@@ -16,10 +16,14 @@
  */
 package org.apache.commons.vfs2.impl;
 
+import org.apache.commons.vfs2.CacheStrategy;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSelector;
 import org.apache.commons.vfs2.FileSystem;
 import org.apache.commons.vfs2.FileSystemConfigBuilder;
 import org.apache.commons.vfs2.FileSystemException;
 import org.apache.commons.vfs2.FileSystemOptions;
+import org.apache.commons.vfs2.Selectors;
 import org.apache.commons.vfs2.UserAuthenticator;
 
 /**
@@ -59,6 +63,76 @@ public class DefaultFileSystemConfigBuilder extends FileSystemConfigBuilder {
         return (UserAuthenticator) getParam(opts, "userAuthenticator");
     }
 
+    /**
+     * Sets whether the file objects of a file system are locked one by one instead of all together.
+     * <p>
+     * By default every operation which reads or updates the cached state of a file object, like its type or its
+     * children, holds the lock of the whole file system. With per file locking such an operation only holds the lock of
+     * the file it is called on, so slow operations on unrelated files, like a remote stat, can proceed in parallel. The
+     * locks are kept by file name, so file objects with the same name share their lock even if the files cache holds
+     * more than one of them or none at all.
+     *
+     * @param opts The FileSystemOptions.
+     * @param perFileLocking true to lock file objects one by one.
+     */
+    public void setPerFileLocking(final FileSystemOptions opts, final boolean perFileLocking) {
+        setParam(opts, "perFileLocking", Boolean.valueOf(perFileLocking));
+    }
+
+    /**
+     * @see #setPerFileLocking
+     * @param opts The FileSystemOptions.
+     * @return true if file objects are locked one by one, defaults to false.
+     */
+    public boolean isPerFileLocking(final FileSystemOptions opts) {
+        return getBoolean(opts, "perFileLocking", false);
+    }
+
+    /**
+     * Sets how long the cached state of a file object stays valid with the {@link CacheStrategy#ON_EXPIRY} cache
+     * strategy. Overrides the time to live the file system manager uses for the scheme.
+     *
+     * @param opts The FileSystemOptions.
+     * @param cacheTtl The time to live in milliseconds.
+     * @see DefaultFileSystemManager#setCacheTtl(String, long)
+     */
+    public void setCacheTtl(final FileSystemOptions opts, final long cacheTtl) {
+        setParam(opts, "cacheTtl", Long.valueOf(cacheTtl));
+    }
+
+    /**
+     * @see #setCacheTtl
+     * @param opts The FileSystemOptions.
+     * @return The time to live in milliseconds, or null to use the one of the file system manager.
+     */
+    public Long getCacheTtl(final FileSystemOptions opts) {
+        return getLong(opts, "cacheTtl");
+    }
+
+    /**
+     * Sets how many folders of a file system may be listed at the same time by {@link FileObject#findFiles}.
+     * <p>
+     * With more than one thread, sibling folders are listed concurrently when the selector is thread safe, see
+     * {@link Selectors#isThreadSafe(FileSelector)}. The threads are shared by all traversals of the file system.
+     * Listings only overlap if the file system does not hold its lock while listing, see
+     * {@link #setPerFileLocking}.
+     *
+     * @param opts The FileSystemOptions.
+     * @param traversalThreads The maximum number of concurrent listings, 1 to traverse on the calling thread.
+     */
+    public void setTraversalThreads(final FileSystemOptions opts, final int traversalThreads) {
+        setParam(opts, "traversalThreads", Integer.valueOf(traversalThreads));
+    }
+
+    /**
+     * @see #setTraversalThreads
+     * @param opts The FileSystemOptions.
+     * @return The maximum number of concurrent listings, defaults to 1.
+     */
+    public int getTraversalThreads(final FileSystemOptions opts) {
+        return getInteger(opts, "traversalThreads", 1);
+    }
+
     /**
      * Dummy class that implements FileSystem.
      */
@@ -26,6 +26,7 @@ import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystem;
 import org.apache.commons.vfs2.FileSystemConfigBuilder;
 import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.FileSystemInstrumentation;
 import org.apache.commons.vfs2.FileSystemManager;
 import org.apache.commons.vfs2.FileSystemOptions;
 import org.apache.commons.vfs2.FileType;
@@ -37,6 +38,7 @@ import org.apache.commons.vfs2.cache.SoftRefFilesCache;
 import org.apache.commons.vfs2.operations.FileOperationProvider;
 import org.apache.commons.vfs2.provider.AbstractFileName;
 import org.apache.commons.vfs2.provider.AbstractFileProvider;
+import org.apache.commons.vfs2.provider.AbstractOriginatingFileProvider;
 import org.apache.commons.vfs2.provider.DefaultURLStreamHandler;
 import org.apache.commons.vfs2.provider.FileProvider;
 import org.apache.commons.vfs2.provider.FileReplicator;
@@ -58,13 +60,26 @@ import java.net.URLStreamHandlerFactory;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * The default file system manager implementation.
  */
 public class DefaultFileSystemManager implements FileSystemManager {
+    /**
+     * The default time to live in milliseconds of cached file state with {@link CacheStrategy#ON_EXPIRY}.
+     */
+    public static final long DEFAULT_CACHE_TTL = 1000L;
+
+    /**
+     * The default number of resolved URIs remembered by {@link #resolveFile(FileObject, String, FileSystemOptions)}.
+     */
+    public static final int DEFAULT_RESOLVE_CACHE_SIZE = 1024;
+
     /**
      * Mapping from URI scheme to FileProvider.
      */
@@ -126,6 +141,28 @@ public class DefaultFileSystemManager implements FileSystemManager {
      */
     private CacheStrategy fileCacheStrategy;
 
+    /**
+     * The time to live of cached file state with {@link CacheStrategy#ON_EXPIRY}, by default and per scheme.
+     */
+    private long cacheTtl = DEFAULT_CACHE_TTL;
+    private final Map<String, Long> schemeCacheTtls = new HashMap<>();
+
+    /**
+     * The file systems and names that absolute URIs resolved to, so that resolving the same URI again skips parsing.
+     */
+    private final ConcurrentMap<ResolvedUriKey, ResolvedUri> resolvedUris = new ConcurrentHashMap<>();
+    private volatile int resolveCacheSize = DEFAULT_RESOLVE_CACHE_SIZE;
+
+    /**
+     * The registered instrumentation.
+     */
+    private final List<FileSystemInstrumentation> instrumentations = new ArrayList<>();
+
+    /**
+     * Dispatches to the registered instrumentation, null if there is none.
+     */
+    private volatile FileSystemInstrumentation instrumentation;
+
     /**
      * Class which decorates all returned fileObjects
      */
@@ -313,6 +350,129 @@ public class DefaultFileSystemManager implements FileSystemManager {
         return fileCacheStrategy;
     }
 
+    /**
+     * Sets how long the cached state of a file object stays valid with the {@link CacheStrategy#ON_EXPIRY} cache
+     * strategy.
+     * <p>
+     * Can only be set before the FileSystemManager is initialized.
+     * <p>
+     * The default is {@value #DEFAULT_CACHE_TTL} milliseconds.
+     *
+     * @param cacheTtl The time to live in milliseconds.
+     * @throws FileSystemException if the manager is already initialized.
+     */
+    public void setCacheTtl(final long cacheTtl) throws FileSystemException {
+        if (init) {
+            throw new FileSystemException("vfs.impl/already-inited.error");
+        }
+
+        this.cacheTtl = cacheTtl;
+    }
+
+    /**
+     * Sets the time to live of cached file state for the file systems of one scheme, see {@link #setCacheTtl(long)}.
+     * File systems created with {@link DefaultFileSystemConfigBuilder#setCacheTtl} use the time to live of their
+     * options instead.
+     *
+     * @param scheme The URI scheme.
+     * @param cacheTtl The time to live in milliseconds.
+     * @throws FileSystemException if the manager is already initialized.
+     */
+    public void setCacheTtl(final String scheme, final long cacheTtl) throws FileSystemException {
+        if (init) {
+            throw new FileSystemException("vfs.impl/already-inited.error");
+        }
+
+        schemeCacheTtls.put(scheme, Long.valueOf(cacheTtl));
+    }
+
+    /**
+     * Get the time to live of cached file state for a scheme.
+     *
+     * @param scheme The URI scheme.
+     * @return The time to live in milliseconds.
+     */
+    public long getCacheTtl(final String scheme) {
+        final Long schemeCacheTtl = schemeCacheTtls.get(scheme);
+        return schemeCacheTtl != null ? schemeCacheTtl.longValue() : cacheTtl;
+    }
+
+    /**
+     * Sets how many resolved URIs are remembered.
+     * <p>
+     * {@link #resolveFile(FileObject, String, FileSystemOptions)} remembers the file system and file name an absolute
+     * URI of an originating provider resolved to, keyed by the URI, the base file and the content of the options. A
+     * repeated call with an equal URI and equal options then skips checking, parsing and applying the query
+     * parameters of the URI. Entries are dropped when their file system is closed. Zero disables the cache.
+     * <p>
+     * The default is {@value #DEFAULT_RESOLVE_CACHE_SIZE}.
+     *
+     * @param resolveCacheSize The maximum number of remembered URIs.
+     */
+    public void setResolveCacheSize(final int resolveCacheSize) {
+        this.resolveCacheSize = Math.max(0, resolveCacheSize);
+        resolvedUris.clear();
+    }
+
+    /**
+     * Get how many resolved URIs are remembered, see {@link #setResolveCacheSize(int)}.
+     *
+     * @return The maximum number of remembered URIs.
+     */
+    public int getResolveCacheSize() {
+        return resolveCacheSize;
+    }
+
+    /**
+     * Adds instrumentation which is told about the I/O done by the file systems of this manager, see
+     * {@link FileSystemInstrumentation}.
+     * <p>
+     * Can be called at any time. File systems report to instrumentation from the moment it is added.
+     *
+     * @param instrumentation The instrumentation.
+     */
+    public void addInstrumentation(final FileSystemInstrumentation instrumentation) {
+        synchronized (instrumentations) {
+            instrumentations.add(instrumentation);
+            updateInstrumentation();
+        }
+    }
+
+    /**
+     * Removes instrumentation added with {@link #addInstrumentation(FileSystemInstrumentation)}.
+     *
+     * @param instrumentation The instrumentation.
+     */
+    public void removeInstrumentation(final FileSystemInstrumentation instrumentation) {
+        synchronized (instrumentations) {
+            instrumentations.remove(instrumentation);
+            updateInstrumentation();
+        }
+    }
+
+    /**
+     * Returns the instrumentation the file systems of this manager report to.
+     *
+     * @return The registered instrumentation, or null if none is registered.
+     */
+    public FileSystemInstrumentation getInstrumentation() {
+        return instrumentation;
+    }
+
+    private void updateInstrumentation() {
+        switch (instrumentations.size()) {
+        case 0:
+            instrumentation = null;
+            break;
+        case 1:
+            instrumentation = instrumentations.get(0);
+            break;
+        default:
+            instrumentation = new CompositeInstrumentation(
+                    instrumentations.toArray(new FileSystemInstrumentation[instrumentations.size()]));
+        }
+    }
+
     /**
      * Get the file object decorator used.
      *
@@ -532,6 +692,8 @@ public class DefaultFileSystemManager implements FileSystemManager {
         // org.apache.commons.vfs2.impl.StandardFileSystemManager.configure(Element)
         // are closed here
 
+        resolvedUris.clear();
+
         // Close the file system providers.
         for (final FileProvider provider : providers.values()) {
             closeComponent(provider);
@@ -687,6 +849,94 @@ public class DefaultFileSystemManager implements FileSystemManager {
         return resolveFile(baseFile, uri, baseFile == null ? null : baseFile.getFileSystem().getFileSystemOptions());
     }
 
+    /**
+     * Applies the SFTP settings given as query parameters of a URI. The options passed in are never changed, the
+     * settings are made on a copy which is only created if a parameter is present.
+     *
+     * @param provider The SFTP provider.
+     * @param queryParam The query parameters of the URI.
+     * @param fileSystemOptions The options to resolve the file with, may be null.
+     * @return The options to resolve the file with.
+     * @throws FileSystemException if a parameter has an invalid value.
+     */
+    private FileSystemOptions applySftpQueryParams(final FileProvider provider, final Map<String, String> queryParam,
+            final FileSystemOptions fileSystemOptions) throws FileSystemException {
+        FileSystemOptions options = fileSystemOptions == null ? new FileSystemOptions() : fileSystemOptions;
+        final SftpFileSystemConfigBuilder builder = (SftpFileSystemConfigBuilder) provider.getConfigBuilder();
+
+        final String permissionCheck = queryParam.get(PERMISSION_CHECK);
+        if (permissionCheck != null && builder.getAvoidPermissionCheck(options) == null) {
+            options = writableOptions(options, fileSystemOptions);
+            builder.setAvoidPermissionCheck(options, permissionCheck);
+        }
+
+        final String timeoutStr = queryParam.get(SftpConstants.TIMEOUT);
+        if (timeoutStr != null && builder.getTimeout(options) == null) {
+            Integer timeout = null;
+            try {
+                timeout = Integer.parseInt(timeoutStr);
+            } catch (NumberFormatException e) {
+                log.warn("Invalid timeout " + timeoutStr + " specified in FileURI.");
+            }
+            options = writableOptions(options, fileSystemOptions);
+            builder.setTimeout(options, timeout);
+        }
+
+        if ("true".equals(queryParam.get(SftpConstants.SFTP_PATH_FROM_ROOT))) {
+            options = writableOptions(options, fileSystemOptions);
+            builder.setUserDirIsRoot(options, false);
+        }
+
+        final String strictHostKeyChecking = queryParam.get(SftpConstants.STRICT_HOST_KEY_CHECKING);
+        if (strictHostKeyChecking != null) {
+            options = writableOptions(options, fileSystemOptions);
+            builder.setStrictHostKeyChecking(options, strictHostKeyChecking);
+        }
+
+        final String proxyHost = queryParam.get(SftpConstants.PROXY_SERVER);
+        if (proxyHost != null && !proxyHost.isEmpty()) {
+            options = writableOptions(options, fileSystemOptions);
+            final String proxyPortStr = queryParam.get(SftpConstants.PROXY_PORT);
+            int proxyPort = 8080;
+            if (proxyPortStr != null) {
+                try {
+                    proxyPort = Integer.parseInt(proxyPortStr);
+                } catch (NumberFormatException e) {
+                    log.warn("Invalid proxy port " + proxyPort + ". Set the port as 8080. (default)");
+                    proxyPort = 8080;
+                }
+            }
+
+            final String proxyUser = queryParam.get(SftpConstants.PROXY_USERNAME);
+            final String proxyPassword = queryParam.get(SftpConstants.PROXY_PASSWORD);
+            final String proxyType = queryParam.get(SftpConstants.PROXY_TYPE);
+
+            if (SftpConstants.SOCKS.equals(proxyType)) {
+                builder.setProxyType(options, SftpFileSystemConfigBuilder.PROXY_SOCKS5);
+            } else {
+                if (proxyType != null && !proxyType.isEmpty() && !SftpConstants.HTTP.equals(proxyType)) {
+                    log.warn(proxyType + " is not a supported proxy type. Trying with HTTP");
+                }
+                builder.setProxyType(options, SftpFileSystemConfigBuilder.PROXY_HTTP);
+            }
+            builder.setProxyHost(options, proxyHost);
+            builder.setProxyPort(options, proxyPort);
+            if (proxyUser != null && !proxyUser.isEmpty()) {
+                builder.setProxyUserAuthenticator(options, new StaticUserAuthenticator(null, proxyUser,
+                        (proxyPassword != null) ? proxyPassword : ""));
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Returns options which can be changed, a copy of the caller's options if those are about to be changed.
+     */
+    private static FileSystemOptions writableOptions(final FileSystemOptions options,
+            final FileSystemOptions callerOptions) {
+        return options == callerOptions ? (FileSystemOptions) options.clone() : options;
+    }
+
     /**
      * Resolves a URI, relative to a base file with specified FileSystem configuration.
      *
@@ -706,6 +956,17 @@ public class DefaultFileSystemManager implements FileSystemManager {
         }
         // TODO: use resolveName and use this name to resolve the fileObject
 
+        final ResolvedUriKey resolvedUriKey;
+        if (uri != null && resolveCacheSize > 0) {
+            resolvedUriKey = new ResolvedUriKey(realBaseFile, uri, fileSystemOptions);
+            final FileObject file = findResolvedFile(resolvedUriKey);
+            if (file != null) {
+                return file;
+            }
+        } else {
+            resolvedUriKey = null;
+        }
+
         UriParser.checkUriEncoding(uri);
 
         if (uri == null) {
@@ -720,80 +981,14 @@ public class DefaultFileSystemManager implements FileSystemManager {
             final FileProvider provider = providers.get(scheme);
             //In the case of SFTP set the path from root if the param is presented in URL
             if (provider instanceof SftpFileProvider) {
-                if (fileSystemOptions == null) {
-                    fileSystemOptions = new FileSystemOptions();
-                }
-
-                String permissionCheck = queryParam.get(PERMISSION_CHECK);
-                SftpFileSystemConfigBuilder builder = SftpFileSystemConfigBuilder.getInstance();
-                if (builder.getAvoidPermissionCheck(fileSystemOptions) == null) {
-                    builder.setAvoidPermissionCheck(fileSystemOptions, permissionCheck);
-                }
-
-                String timeoutStr = queryParam.get(SftpConstants.TIMEOUT);
-                Integer timeout = null;
-                if (timeoutStr != null && builder.getTimeout(fileSystemOptions) == null) {
-                    try {
-                        timeout = Integer.parseInt(timeoutStr);
-                    } catch (NumberFormatException e) {
-                        log.warn("Invalid timeout " + timeoutStr + " specified in FileURI.");
-                    }
-                    builder.setTimeout(fileSystemOptions, timeout);
-                }
-
-                if ("true".equals(queryParam.get(SftpConstants.SFTP_PATH_FROM_ROOT))) {
-                    ((SftpFileSystemConfigBuilder) (((SftpFileProvider) provider).getConfigBuilder()))
-                            .setUserDirIsRoot(fileSystemOptions, false);
-                }
-
-                String strictHostKeyChecking = queryParam.get(SftpConstants.STRICT_HOST_KEY_CHECKING);
-
-                if (strictHostKeyChecking != null) {
-                    ((SftpFileSystemConfigBuilder) (provider.getConfigBuilder()))
-                            .setStrictHostKeyChecking(fileSystemOptions, strictHostKeyChecking);
-                }
-
-                String proxyHost = queryParam.get(SftpConstants.PROXY_SERVER);
-
-                if (proxyHost != null && !proxyHost.isEmpty()) {
-                    String proxyPortStr = queryParam.get(SftpConstants.PROXY_PORT);
-                    int proxyPort = 8080;
-                    if (proxyPortStr != null) {
-                        try {
-                            proxyPort = Integer.parseInt(proxyPortStr);
-                        } catch (NumberFormatException e) {
-                            log.warn("Invalid proxy port " + proxyPort + ". Set the port as 8080. (default)");
-                            proxyPort = 8080;
-                        }
-                    }
-
-                    String proxyUser = queryParam.get(SftpConstants.PROXY_USERNAME);
-                    String proxyPassword = queryParam.get(SftpConstants.PROXY_PASSWORD);
-                    String proxyType = queryParam.get(SftpConstants.PROXY_TYPE);
-
-                    if (SftpConstants.SOCKS.equals(proxyType)) {
-                        ((SftpFileSystemConfigBuilder) (provider.getConfigBuilder())).setProxyType(fileSystemOptions,
-                                SftpFileSystemConfigBuilder.PROXY_SOCKS5);
-                    } else {
-                        if (proxyType != null && !proxyType.isEmpty() && !SftpConstants.HTTP.equals(proxyType)) {
-                            log.warn(proxyType + " is not a supported proxy type. Trying with HTTP");
-                        }
-                        ((SftpFileSystemConfigBuilder) (provider.getConfigBuilder())).setProxyType(fileSystemOptions,
-                                SftpFileSystemConfigBuilder.PROXY_HTTP);
-                    }
-                    ((SftpFileSystemConfigBuilder) (provider.getConfigBuilder())).setProxyHost(fileSystemOptions,
-                            proxyHost);
-                    ((SftpFileSystemConfigBuilder) (provider.getConfigBuilder())).setProxyPort(fileSystemOptions,
-                            proxyPort);
-                    if (proxyUser != null && !proxyUser.isEmpty()) {
-                        ((SftpFileSystemConfigBuilder) (provider.getConfigBuilder())).setProxyUserAuthenticator
-                                (fileSystemOptions, new StaticUserAuthenticator(null, proxyUser,
-                                        (proxyPassword != null) ? proxyPassword : ""));
-                    }
-                }
+                fileSystemOptions = applySftpQueryParams(provider, queryParam, fileSystemOptions);
             }
             if (provider != null) {
-                return provider.findFile(realBaseFile, uri, fileSystemOptions);
+                final FileObject file = provider.findFile(realBaseFile, uri, fileSystemOptions);
+                if (resolvedUriKey != null && provider instanceof AbstractOriginatingFileProvider) {
+                    rememberResolvedFile(resolvedUriKey, (AbstractFileProvider) provider, file);
+                }
+                return file;
             }
             // Otherwise, assume a local file
         }
@@ -819,6 +1014,57 @@ public class DefaultFileSystemManager implements FileSystemManager {
         return realBaseFile.resolveFile(uri);
     }
 
+    /**
+     * Locates a file from a remembered resolved URI.
+     *
+     * @param key The URI, base file and options.
+     * @return The file, or null if the URI is not remembered or its file system has to be looked up again.
+     */
+    private FileObject findResolvedFile(final ResolvedUriKey key) {
+        final ResolvedUri resolved = resolvedUris.get(key);
+        if (resolved == null) {
+            return null;
+        }
+        if (!resolved.provider.isFileSystemCached(resolved.fileSystem)) {
+            resolvedUris.remove(key, resolved);
+            return null;
+        }
+        try {
+            final FileObject file = resolved.fileSystem.resolveFile(resolved.name);
+            // same check as the provider does, a broken connection is handled on the slow path
+            file.exists();
+            return file;
+        } catch (final FileSystemException e) {
+            resolvedUris.remove(key, resolved);
+            return null;
+        }
+    }
+
+    /**
+     * Remembers the file system and name an URI resolved to.
+     *
+     * @param key The URI, base file and options.
+     * @param provider The provider that resolved the URI.
+     * @param file The resolved file.
+     */
+    private void rememberResolvedFile(final ResolvedUriKey key, final AbstractFileProvider provider,
+            final FileObject file) {
+        final int maxSize = resolveCacheSize;
+        if (maxSize <= 0) {
+            return;
+        }
+        // evict arbitrary entries, a polling client resolves the same few URIs again soon anyway
+        while (resolvedUris.size() >= maxSize) {
+            final Iterator<ResolvedUriKey> iterator = resolvedUris.keySet().iterator();
+            if (!iterator.hasNext()) {
+                break;
+            }
+            iterator.next();
+            iterator.remove();
+        }
+        resolvedUris.put(key, new ResolvedUri(provider, file.getFileSystem(), file.getName()));
+    }
+
     /**
      * Resolves a name, relative to the file. If the supplied name is an absolute path, then it is resolved relative to
      * the root of the file system that the file belongs to. If a relative name is supplied, then it is resolved
@@ -1090,6 +1336,12 @@ public class DefaultFileSystemManager implements FileSystemManager {
      * @param filesystem The FileSystem to close.
      */
     public void _closeFileSystem(final FileSystem filesystem) {
+        for (final Iterator<ResolvedUri> iterator = resolvedUris.values().iterator(); iterator.hasNext();) {
+            if (iterator.next().fileSystem == filesystem) {
+                iterator.remove();
+            }
+        }
+
         final FileProvider provider = providers.get(filesystem.getRootName().getScheme());
         if (provider != null) {
             ((AbstractFileProvider) provider).closeFileSystem(filesystem);
@@ -1304,4 +1556,93 @@ public class DefaultFileSystemManager implements FileSystemManager {
         return false;
     }
 
+
+    /**
+     * The key of a remembered resolved URI.
+     */
+    private static final class ResolvedUriKey {
+        private final FileName base;
+        private final String uri;
+        private final FileSystemOptions fileSystemOptions;
+        private final int hashCode;
+
+        ResolvedUriKey(final FileObject baseFile, final String uri, final FileSystemOptions fileSystemOptions) {
+            this.base = baseFile != null ? baseFile.getName() : null;
+            this.uri = uri;
+            // a snapshot, so that later changes of the caller's options do not affect the key
+            this.fileSystemOptions = fileSystemOptions != null ? fileSystemOptions.freeze() : null;
+            int hash = uri.hashCode();
+            hash = 31 * hash + (base != null ? base.hashCode() : 0);
+            hash = 31 * hash + (this.fileSystemOptions != null ? this.fileSystemOptions.hashCode() : 0);
+            this.hashCode = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ResolvedUriKey)) {
+                return false;
+            }
+            final ResolvedUriKey other = (ResolvedUriKey) obj;
+            return hashCode == other.hashCode && uri.equals(other.uri)
+                    && (base == null ? other.base == null : base.equals(other.base))
+                    && (fileSystemOptions == null ? other.fileSystemOptions == null
+                            : fileSystemOptions.equals(other.fileSystemOptions));
+        }
+    }
+
+    /**
+     * The file system and name an URI resolved to.
+     */
+    private static final class ResolvedUri {
+        private final AbstractFileProvider provider;
+        private final FileSystem fileSystem;
+        private final FileName name;
+
+        ResolvedUri(final AbstractFileProvider provider, final FileSystem fileSystem, final FileName name) {
+            this.provider = provider;
+            this.fileSystem = fileSystem;
+            this.name = name;
+        }
+    }
+
+    /**
+     * Reports to several instrumentations.
+     */
+    private static final class CompositeInstrumentation implements FileSystemInstrumentation {
+        private final FileSystemInstrumentation[] instrumentations;
+
+        private CompositeInstrumentation(final FileSystemInstrumentation[] instrumentations) {
+            this.instrumentations = instrumentations;
+        }
+
+        @Override
+        public void operationCompleted(final FileName rootName, final Operation operation, final long nanos,
+                final long bytes, final boolean failed) {
+            for (final FileSystemInstrumentation instrumentation : instrumentations) {
+                instrumentation.operationCompleted(rootName, operation, nanos, bytes, failed);
+            }
+        }
+
+        @Override
+        public void filesCacheAccessed(final FileName rootName, final boolean hit) {
+            for (final FileSystemInstrumentation instrumentation : instrumentations) {
+                instrumentation.filesCacheAccessed(rootName, hit);
+            }
+        }
+
+        @Override
+        public void poolUsageChanged(final FileName rootName, final int active, final int idle, final int max) {
+            for (final FileSystemInstrumentation instrumentation : instrumentations) {
+                instrumentation.poolUsageChanged(rootName, active, idle, max);
+            }
+        }
+    }
 }
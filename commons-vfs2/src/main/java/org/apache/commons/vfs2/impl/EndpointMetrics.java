@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.vfs2.FileName;
+import org.apache.commons.vfs2.FileSystemInstrumentation.Operation;
+
+/**
+ * The I/O measured by {@link FileSystemMetrics} for the file systems of one scheme and host.
+ * <p>
+ * Several file systems share the metrics of their scheme and host, for instance when they log in as different users.
+ * Their pool usage is summed.
+ */
+public final class EndpointMetrics implements EndpointMetricsMXBean {
+    private final String scheme;
+    private final String host;
+    private final OperationMetrics[] operations = new OperationMetrics[Operation.values().length];
+    private final AtomicLong filesCacheHits = new AtomicLong();
+    private final AtomicLong filesCacheMisses = new AtomicLong();
+
+    /** The last reported pool usage, by root URI. */
+    private final ConcurrentMap<String, PoolUsage> poolUsages = new ConcurrentHashMap<>();
+
+    /**
+     * The pool usage of one file system.
+     */
+    private static final class PoolUsage {
+        private final int active;
+        private final int idle;
+        private final int max;
+
+        private PoolUsage(final int active, final int idle, final int max) {
+            this.active = active;
+            this.idle = idle;
+            this.max = max;
+        }
+    }
+
+    EndpointMetrics(final String scheme, final String host) {
+        this.scheme = scheme;
+        this.host = host;
+        for (int i = 0; i < operations.length; i++) {
+            operations[i] = new OperationMetrics();
+        }
+    }
+
+    /**
+     * Returns the metrics of one kind of operation.
+     *
+     * @param operation The operation.
+     * @return The metrics.
+     */
+    public OperationMetrics getMetrics(final Operation operation) {
+        return operations[operation.ordinal()];
+    }
+
+    void operationCompleted(final Operation operation, final long nanos, final long bytes, final boolean failed) {
+        operations[operation.ordinal()].record(nanos, bytes, failed);
+    }
+
+    void filesCacheAccessed(final boolean hit) {
+        if (hit) {
+            filesCacheHits.incrementAndGet();
+        } else {
+            filesCacheMisses.incrementAndGet();
+        }
+    }
+
+    void poolUsageChanged(final FileName rootName, final int active, final int idle, final int max) {
+        poolUsages.put(rootName.getURI(), new PoolUsage(active, idle, max));
+    }
+
+    @Override
+    public String getScheme() {
+        return scheme;
+    }
+
+    @Override
+    public String getHost() {
+        return host;
+    }
+
+    @Override
+    public OperationMetrics getConnect() {
+        return getMetrics(Operation.CONNECT);
+    }
+
+    @Override
+    public OperationMetrics getStat() {
+        return getMetrics(Operation.STAT);
+    }
+
+    @Override
+    public OperationMetrics getList() {
+        return getMetrics(Operation.LIST);
+    }
+
+    @Override
+    public OperationMetrics getOpen() {
+        return getMetrics(Operation.OPEN);
+    }
+
+    @Override
+    public OperationMetrics getRead() {
+        return getMetrics(Operation.READ);
+    }
+
+    @Override
+    public OperationMetrics getWrite() {
+        return getMetrics(Operation.WRITE);
+    }
+
+    @Override
+    public OperationMetrics getRename() {
+        return getMetrics(Operation.RENAME);
+    }
+
+    @Override
+    public OperationMetrics getDelete() {
+        return getMetrics(Operation.DELETE);
+    }
+
+    @Override
+    public long[] getHistogramBoundsMillis() {
+        return OperationMetrics.getHistogramBoundsMillis();
+    }
+
+    @Override
+    public long getFilesCacheHits() {
+        return filesCacheHits.get();
+    }
+
+    @Override
+    public long getFilesCacheMisses() {
+        return filesCacheMisses.get();
+    }
+
+    @Override
+    public double getFilesCacheHitRatio() {
+        final long hits = filesCacheHits.get();
+        final long total = hits + filesCacheMisses.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public int getPoolActive() {
+        int active = 0;
+        for (final PoolUsage usage : poolUsages.values()) {
+            active += usage.active;
+        }
+        return active;
+    }
+
+    @Override
+    public int getPoolIdle() {
+        int idle = 0;
+        for (final PoolUsage usage : poolUsages.values()) {
+            idle += usage.idle;
+        }
+        return idle;
+    }
+
+    @Override
+    public int getPoolMax() {
+        int max = 0;
+        for (final PoolUsage usage : poolUsages.values()) {
+            max += usage.max;
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return host.isEmpty() ? scheme : scheme + "://" + host;
+    }
+}
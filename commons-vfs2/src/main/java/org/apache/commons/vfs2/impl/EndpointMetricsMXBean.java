@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.impl;
+
+/**
+ * The JMX interface of {@link EndpointMetrics}.
+ */
+public interface EndpointMetricsMXBean {
+    /**
+     * @return The URI scheme of the file systems.
+     */
+    String getScheme();
+
+    /**
+     * @return The host name of the file systems, empty for file systems without a host.
+     */
+    String getHost();
+
+    /**
+     * @return The file systems created and connections opened.
+     */
+    OperationMetrics getConnect();
+
+    /**
+     * @return The files attached.
+     */
+    OperationMetrics getStat();
+
+    /**
+     * @return The folders listed.
+     */
+    OperationMetrics getList();
+
+    /**
+     * @return The streams and random access contents opened.
+     */
+    OperationMetrics getOpen();
+
+    /**
+     * @return The input streams read and closed.
+     */
+    OperationMetrics getRead();
+
+    /**
+     * @return The output streams written and closed.
+     */
+    OperationMetrics getWrite();
+
+    /**
+     * @return The files renamed.
+     */
+    OperationMetrics getRename();
+
+    /**
+     * @return The files deleted.
+     */
+    OperationMetrics getDelete();
+
+    /**
+     * @return The upper bounds in milliseconds of the buckets of the histograms.
+     */
+    long[] getHistogramBoundsMillis();
+
+    /**
+     * @return The number of files found in the files cache.
+     */
+    long getFilesCacheHits();
+
+    /**
+     * @return The number of files not found in the files cache.
+     */
+    long getFilesCacheMisses();
+
+    /**
+     * @return The ratio of files found in the files cache, 0 if none were looked up.
+     */
+    double getFilesCacheHitRatio();
+
+    /**
+     * @return The number of pooled connections in use.
+     */
+    int getPoolActive();
+
+    /**
+     * @return The number of idle pooled connections.
+     */
+    int getPoolIdle();
+
+    /**
+     * @return The maximum number of pooled connections in use.
+     */
+    int getPoolMax();
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.commons.vfs2.FileName;
+import org.apache.commons.vfs2.FileSystemInstrumentation;
+import org.apache.commons.vfs2.provider.GenericFileName;
+import org.apache.commons.vfs2.util.Messages;
+
+/**
+ * Instrumentation which aggregates the I/O of file systems by scheme and host, and publishes it as JMX MXBeans.
+ * <p>
+ * Each scheme and host gets an {@link EndpointMetrics} MXBean, registered as
+ * {@code org.apache.commons.vfs2:type=FileSystemMetrics,scheme="sftp",host="example.com"}.
+ *
+ * <h2>Example usage:</h2>
+ *
+ * <pre>
+ * FileSystemMetrics metrics = new FileSystemMetrics(ManagementFactory.getPlatformMBeanServer());
+ * ((DefaultFileSystemManager) VFS.getManager()).addInstrumentation(metrics);
+ * ...
+ * EndpointMetrics sftp = metrics.getEndpointMetrics("sftp", "example.com");
+ * long slowConnects = sftp.getConnect().getHistogram()[OperationMetrics.getHistogramBoundsMillis().length];
+ * </pre>
+ */
+public class FileSystemMetrics implements FileSystemInstrumentation {
+    /**
+     * The JMX domain of the MXBeans.
+     */
+    public static final String JMX_DOMAIN = "org.apache.commons.vfs2";
+
+    private static final Log LOG = LogFactory.getLog(FileSystemMetrics.class);
+
+    private final MBeanServer mbeanServer;
+
+    private final ConcurrentMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+    private final Set<ObjectName> registeredNames = Collections
+            .newSetFromMap(new ConcurrentHashMap<ObjectName, Boolean>());
+
+    /**
+     * Creates metrics which are not published through JMX.
+     */
+    public FileSystemMetrics() {
+        this(null);
+    }
+
+    /**
+     * Creates metrics which are published through JMX.
+     *
+     * @param mbeanServer The server to register the MXBeans with, or null to not use JMX.
+     */
+    public FileSystemMetrics(final MBeanServer mbeanServer) {
+        this.mbeanServer = mbeanServer;
+    }
+
+    /**
+     * Returns the metrics of a scheme and host.
+     *
+     * @param scheme The URI scheme.
+     * @param host The host name, empty for file systems without a host.
+     * @return The metrics, or null if no file system of that scheme and host reported anything.
+     */
+    public EndpointMetrics getEndpointMetrics(final String scheme, final String host) {
+        return endpoints.get(getKey(scheme, host));
+    }
+
+    /**
+     * Returns the metrics of all schemes and hosts.
+     *
+     * @return The metrics.
+     */
+    public Collection<EndpointMetrics> getEndpointMetrics() {
+        return new ArrayList<>(endpoints.values());
+    }
+
+    /**
+     * Unregisters the MXBeans and forgets all metrics.
+     */
+    public void close() {
+        for (final ObjectName name : registeredNames) {
+            try {
+                mbeanServer.unregisterMBean(name);
+            } catch (final JMException e) {
+                LOG.warn(Messages.getString("vfs.impl/unregister-mbean.warn", name), e);
+            }
+        }
+        registeredNames.clear();
+        endpoints.clear();
+    }
+
+    @Override
+    public void operationCompleted(final FileName rootName, final Operation operation, final long nanos,
+            final long bytes, final boolean failed) {
+        getEndpoint(rootName).operationCompleted(operation, nanos, bytes, failed);
+    }
+
+    @Override
+    public void filesCacheAccessed(final FileName rootName, final boolean hit) {
+        getEndpoint(rootName).filesCacheAccessed(hit);
+    }
+
+    @Override
+    public void poolUsageChanged(final FileName rootName, final int active, final int idle, final int max) {
+        getEndpoint(rootName).poolUsageChanged(rootName, active, idle, max);
+    }
+
+    /**
+     * Returns the name an endpoint's MXBean is registered with.
+     *
+     * @param endpoint The metrics of the endpoint.
+     * @return The object name.
+     * @throws JMException if the name is not valid.
+     */
+    public static ObjectName getObjectName(final EndpointMetrics endpoint) throws JMException {
+        return new ObjectName(JMX_DOMAIN + ":type=FileSystemMetrics,scheme=" + ObjectName.quote(endpoint.getScheme())
+                + ",host=" + ObjectName.quote(endpoint.getHost()));
+    }
+
+    private EndpointMetrics getEndpoint(final FileName rootName) {
+        final String scheme = rootName.getScheme();
+        final String host = rootName instanceof GenericFileName ? ((GenericFileName) rootName).getHostName() : "";
+        final String key = getKey(scheme, host);
+        EndpointMetrics endpoint = endpoints.get(key);
+        if (endpoint == null) {
+            final EndpointMetrics created = new EndpointMetrics(scheme, host != null ? host : "");
+            endpoint = endpoints.putIfAbsent(key, created);
+            if (endpoint == null) {
+                endpoint = created;
+                register(endpoint);
+            }
+        }
+        return endpoint;
+    }
+
+    private void register(final EndpointMetrics endpoint) {
+        if (mbeanServer == null) {
+            return;
+        }
+        try {
+            final ObjectName name = getObjectName(endpoint);
+            mbeanServer.registerMBean(endpoint, name);
+            registeredNames.add(name);
+        } catch (final JMException e) {
+            LOG.warn(Messages.getString("vfs.impl/register-mbean.warn", endpoint), e);
+        }
+    }
+
+    private static String getKey(final String scheme, final String host) {
+        return scheme + "://" + (host != null ? host : "");
+    }
+}
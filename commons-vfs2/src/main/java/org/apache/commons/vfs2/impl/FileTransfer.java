@@ -0,0 +1,586 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.commons.vfs2.Capability;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSelector;
+import org.apache.commons.vfs2.FileSystem;
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.FileTransferListener;
+import org.apache.commons.vfs2.FileType;
+import org.apache.commons.vfs2.NameScope;
+import org.apache.commons.vfs2.provider.AbstractFileObject;
+import org.apache.commons.vfs2.util.FileObjectUtils;
+import org.apache.commons.vfs2.util.FileTreeIterator;
+
+/**
+ * Copies or moves files with a pool of worker threads.
+ * <p>
+ * Unlike {@link FileObject#copyFrom}, each file is written to a temporary file next to its destination and renamed
+ * once it is complete and verified, so a failed or interrupted transfer never leaves a partial destination file. With
+ * {@link #setResume(Comparison) resume} enabled, files whose destination already matches are skipped, so a failed
+ * transfer can simply be run again. A move deletes each source file only after its copy has been verified.
+ * <p>
+ * The number of files transferred at the same time is bounded by {@link #setThreads(int) the pool size}, and can be
+ * further limited for each source and each destination file system.
+ *
+ * <h2>Example usage:</h2>
+ *
+ * <pre>
+ * FileTransfer transfer = new FileTransfer();
+ * transfer.setThreads(8);
+ * transfer.setMaxPerSource(4);
+ * transfer.setResume(FileTransfer.Comparison.SIZE);
+ * transfer.copy(sourceFolder, destinationFolder, Selectors.SELECT_ALL);
+ * </pre>
+ *
+ * Single files can be queued with {@link #addCopy} and {@link #addMove}, followed by {@link #await()}. A transfer
+ * object runs one transfer at a time; its settings must not be changed while files are queued.
+ */
+public class FileTransfer {
+    /**
+     * How a source file and a destination file are compared.
+     */
+    public enum Comparison {
+        /** Files never match. */
+        NONE,
+        /** Files match if they have the same size. */
+        SIZE,
+        /** Files match if they have the same size and MD5 checksum. */
+        CHECKSUM
+    }
+
+    private static final Log LOG = LogFactory.getLog(FileTransfer.class);
+
+    private static final String TEMP_SUFFIX = ".part";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private int threads = 4;
+    private int maxPerSource;
+    private int maxPerDestination;
+    private Comparison resume = Comparison.NONE;
+    private Comparison verify = Comparison.SIZE;
+    private boolean useTempFile = true;
+    private boolean preserveLastModified;
+    private FileTransferListener listener;
+
+    private ThreadPoolExecutor executor;
+    private Semaphore queued;
+    private int queueSize;
+    private final ConcurrentMap<FileSystem, Semaphore> sourceLimits = new ConcurrentHashMap<>();
+    private final ConcurrentMap<FileSystem, Semaphore> destinationLimits = new ConcurrentHashMap<>();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicReference<FileSystemException> firstFailure = new AtomicReference<>();
+
+    /**
+     * Sets the number of files transferred at the same time. Defaults to 4.
+     *
+     * @param threads The number of worker threads.
+     */
+    public void setThreads(final int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * @return The number of worker threads.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the number of files read at the same time from any one source file system. Defaults to 0, which only
+     * applies the limit of the pool.
+     *
+     * @param maxPerSource The maximum number of concurrent reads per file system, or 0 for no limit.
+     */
+    public void setMaxPerSource(final int maxPerSource) {
+        this.maxPerSource = maxPerSource;
+    }
+
+    /**
+     * @return The maximum number of concurrent reads per file system, 0 for no limit.
+     */
+    public int getMaxPerSource() {
+        return maxPerSource;
+    }
+
+    /**
+     * Sets the number of files written at the same time to any one destination file system. Defaults to 0, which only
+     * applies the limit of the pool.
+     *
+     * @param maxPerDestination The maximum number of concurrent writes per file system, or 0 for no limit.
+     */
+    public void setMaxPerDestination(final int maxPerDestination) {
+        this.maxPerDestination = maxPerDestination;
+    }
+
+    /**
+     * @return The maximum number of concurrent writes per file system, 0 for no limit.
+     */
+    public int getMaxPerDestination() {
+        return maxPerDestination;
+    }
+
+    /**
+     * Sets how an existing destination file is compared with its source to decide it need not be copied again.
+     * Defaults to {@link Comparison#NONE}, which always copies.
+     *
+     * @param resume The comparison of existing destination files.
+     */
+    public void setResume(final Comparison resume) {
+        this.resume = resume;
+    }
+
+    /**
+     * @return The comparison of existing destination files.
+     */
+    public Comparison getResume() {
+        return resume;
+    }
+
+    /**
+     * Sets how a copy is compared with its source before it replaces the destination file. Defaults to
+     * {@link Comparison#SIZE}.
+     *
+     * @param verify The comparison of copied files.
+     */
+    public void setVerify(final Comparison verify) {
+        this.verify = verify;
+    }
+
+    /**
+     * @return The comparison of copied files.
+     */
+    public Comparison getVerify() {
+        return verify;
+    }
+
+    /**
+     * Sets whether files are written to a temporary file which is then renamed to the destination. Only used if the
+     * destination file system can rename files. Defaults to true.
+     * <p>
+     * The destination is never left partly written. Where the provider supports it, like local files and SFTP servers
+     * with the {@code posix-rename@openssh.com} extension, the temporary file replaces an existing destination
+     * atomically, see {@link AbstractFileObject#renameReplacing(FileObject)}. Otherwise the destination is deleted
+     * before the temporary file takes its place.
+     *
+     * @param useTempFile true to write to a temporary file first.
+     */
+    public void setUseTempFile(final boolean useTempFile) {
+        this.useTempFile = useTempFile;
+    }
+
+    /**
+     * @return true if files are written to a temporary file first.
+     */
+    public boolean isUseTempFile() {
+        return useTempFile;
+    }
+
+    /**
+     * Sets whether the destination files get the last modified time of their source. Defaults to false.
+     *
+     * @param preserveLastModified true to copy the last modified time.
+     */
+    public void setPreserveLastModified(final boolean preserveLastModified) {
+        this.preserveLastModified = preserveLastModified;
+    }
+
+    /**
+     * @return true if the last modified time is copied.
+     */
+    public boolean isPreserveLastModified() {
+        return preserveLastModified;
+    }
+
+    /**
+     * Sets the listener notified of each transferred, skipped and failed file.
+     *
+     * @param listener The listener, or null.
+     */
+    public void setListener(final FileTransferListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return The listener, or null.
+     */
+    public FileTransferListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Copies the descendants of a file selected by a selector to a destination, as {@link FileObject#copyFrom} does,
+     * and waits for the copy to finish.
+     *
+     * @param source The file to copy from.
+     * @param destination The file to copy to.
+     * @param selector Selects the descendants of the source to copy.
+     * @throws FileSystemException if the source does not exist, or any file could not be copied.
+     */
+    public void copy(final FileObject source, final FileObject destination, final FileSelector selector)
+            throws FileSystemException {
+        transferTree(source, destination, selector, false);
+    }
+
+    /**
+     * Moves the descendants of a file selected by a selector to a destination, and waits for the move to finish.
+     * Source folders are deleted once all the selected files in them have been moved.
+     *
+     * @param source The file to move from.
+     * @param destination The file to move to.
+     * @param selector Selects the descendants of the source to move.
+     * @throws FileSystemException if the source does not exist, or any file could not be moved.
+     */
+    public void move(final FileObject source, final FileObject destination, final FileSelector selector)
+            throws FileSystemException {
+        transferTree(source, destination, selector, true);
+    }
+
+    /**
+     * Queues the copy of a single file. Blocks while the queue is full.
+     *
+     * @param source The file to copy.
+     * @param destination The file to copy to.
+     * @throws FileSystemException if the file cannot be queued.
+     * @see #await()
+     */
+    public void addCopy(final FileObject source, final FileObject destination) throws FileSystemException {
+        submit(source, destination, false);
+    }
+
+    /**
+     * Queues the move of a single file. Blocks while the queue is full.
+     *
+     * @param source The file to move.
+     * @param destination The file to move to.
+     * @throws FileSystemException if the file cannot be queued.
+     * @see #await()
+     */
+    public void addMove(final FileObject source, final FileObject destination) throws FileSystemException {
+        submit(source, destination, true);
+    }
+
+    /**
+     * Waits until all queued files have been transferred, and stops the worker threads.
+     *
+     * @throws FileSystemException if any file could not be transferred; the first failure is its cause.
+     */
+    public void await() throws FileSystemException {
+        synchronized (this) {
+            if (executor != null) {
+                queued.acquireUninterruptibly(queueSize);
+                queued.release(queueSize);
+                executor.shutdown();
+                executor = null;
+                sourceLimits.clear();
+                destinationLimits.clear();
+            }
+        }
+        final int failed = failures.getAndSet(0);
+        final FileSystemException first = firstFailure.getAndSet(null);
+        if (failed > 0) {
+            throw new FileSystemException("vfs.impl/transfer.error", first, Integer.valueOf(failed));
+        }
+    }
+
+    private void transferTree(final FileObject source, final FileObject destination, final FileSelector selector,
+            final boolean move) throws FileSystemException {
+        if (!source.exists()) {
+            throw new FileSystemException("vfs.provider/copy-missing-file.error", source);
+        }
+
+        FileSystemException failure = null;
+        try {
+            // Walk parents first, so that folders are created before their files are queued
+            final FileTreeIterator files = new FileTreeIterator(source, selector, false);
+            for (FileObject file = files.nextFile(); file != null && failures.get() == 0; file = files.nextFile()) {
+                final String relPath = source.getName().getRelativeName(file.getName());
+                final FileObject destFile = destination.resolveFile(relPath, NameScope.DESCENDENT_OR_SELF);
+                if (file.getType().hasContent()) {
+                    submit(file, destFile, move);
+                } else if (file.getType().hasChildren()) {
+                    if (destFile.exists() && destFile.getType() != file.getType()) {
+                        destFile.deleteAll();
+                    }
+                    destFile.createFolder();
+                }
+            }
+        } catch (final FileSystemException e) {
+            failure = e;
+        } finally {
+            // Stop the workers even if the selector throws, a failure of the walk is reported first
+            try {
+                await();
+            } catch (final FileSystemException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+
+        if (move) {
+            // Only the folders are left
+            source.delete(selector);
+        }
+    }
+
+    private void submit(final FileObject source, final FileObject destination, final boolean move)
+            throws FileSystemException {
+        final Semaphore permits;
+        final ThreadPoolExecutor pool;
+        synchronized (this) {
+            if (executor == null) {
+                startExecutor();
+            }
+            permits = queued;
+            pool = executor;
+        }
+        try {
+            permits.acquire();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileSystemException("vfs.impl/transfer-interrupted.error", e, source);
+        }
+        try {
+            pool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        transferFile(source, destination, move);
+                    } finally {
+                        permits.release();
+                    }
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            permits.release();
+            throw new FileSystemException("vfs.impl/transfer-interrupted.error", e, source);
+        }
+    }
+
+    private void startExecutor() {
+        final AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                    @Override
+                    public Thread newThread(final Runnable runnable) {
+                        final Thread thread = new Thread(runnable,
+                                FileTransfer.class.getSimpleName() + "-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        // keep a few files queued for each thread, without holding the whole tree
+        queueSize = threads * 4;
+        queued = new Semaphore(queueSize);
+    }
+
+    private void transferFile(final FileObject source, final FileObject destination, final boolean move) {
+        FileObject target = destination;
+        try {
+            final Semaphore sourceLimit = getLimit(sourceLimits, source.getFileSystem(), maxPerSource);
+            final Semaphore destinationLimit = getLimit(destinationLimits, destination.getFileSystem(),
+                    maxPerDestination);
+            acquire(sourceLimit, source);
+            try {
+                acquire(destinationLimit, source);
+                try {
+                    if (resume != Comparison.NONE && destination.isFile() && matches(source, destination, resume)) {
+                        if (move) {
+                            deleteSource(source);
+                        }
+                        skipped(source, destination);
+                        return;
+                    }
+
+                    if (destination.exists() && !destination.isFile()) {
+                        destination.deleteAll();
+                    }
+                    if (useTempFile && destination.getFileSystem().hasCapability(Capability.RENAME)) {
+                        target = destination.getParent().resolveFile(
+                                "." + destination.getName().getBaseName() + TEMP_SUFFIX, NameScope.CHILD);
+                    }
+                    final long bytes = source.getContent().write(target);
+                    if (verify != Comparison.NONE && !matches(source, target, verify)) {
+                        throw new FileSystemException("vfs.impl/transfer-verify.error", source, destination);
+                    }
+                    if (target != destination) {
+                        if (!FileObjectUtils.isInstanceOf(target, AbstractFileObject.class)
+                                || !FileObjectUtils.getAbstractFileObject(target).renameReplacing(destination)) {
+                            target.moveTo(destination);
+                        }
+                        target = destination;
+                    }
+                    if (preserveLastModified && source.getFileSystem().hasCapability(Capability.GET_LAST_MODIFIED)
+                            && destination.getFileSystem().hasCapability(Capability.SET_LAST_MODIFIED_FILE)) {
+                        destination.getContent().setLastModifiedTime(source.getContent().getLastModifiedTime());
+                    }
+                    if (move) {
+                        deleteSource(source);
+                    }
+                    transferred(source, destination, bytes);
+                } finally {
+                    release(destinationLimit);
+                }
+            } finally {
+                release(sourceLimit);
+            }
+        } catch (final FileSystemException e) {
+            fail(source, destination, target, e);
+        } catch (final IOException | RuntimeException e) {
+            fail(source, destination, target,
+                    new FileSystemException("vfs.provider/copy-file.error", e, source, destination));
+        }
+    }
+
+    private void fail(final FileObject source, final FileObject destination, final FileObject target,
+            final FileSystemException e) {
+        if (target != destination) {
+            try {
+                target.delete();
+            } catch (final FileSystemException ignored) {
+                LOG.warn(ignored.getMessage(), ignored);
+            }
+        }
+        failures.incrementAndGet();
+        firstFailure.compareAndSet(null, e);
+        if (listener != null) {
+            try {
+                listener.fileFailed(source, destination, e);
+            } catch (final RuntimeException listenerFailure) {
+                LOG.warn(listenerFailure.getMessage(), listenerFailure);
+            }
+        }
+    }
+
+    /**
+     * Tells the listener about a transferred file. The file is in place, so an exception of the listener is only
+     * logged.
+     */
+    private void transferred(final FileObject source, final FileObject destination, final long bytes) {
+        if (listener != null) {
+            try {
+                listener.fileTransferred(source, destination, bytes);
+            } catch (final RuntimeException e) {
+                LOG.warn(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Tells the listener about a skipped file, logging an exception of the listener.
+     */
+    private void skipped(final FileObject source, final FileObject destination) {
+        if (listener != null) {
+            try {
+                listener.fileSkipped(source, destination);
+            } catch (final RuntimeException e) {
+                LOG.warn(e.getMessage(), e);
+            }
+        }
+    }
+
+    private static void deleteSource(final FileObject source) throws FileSystemException {
+        if (!source.delete()) {
+            throw new FileSystemException("vfs.provider/delete.error", source);
+        }
+    }
+
+    private static Semaphore getLimit(final ConcurrentMap<FileSystem, Semaphore> limits, final FileSystem fileSystem,
+            final int max) {
+        if (max <= 0) {
+            return null;
+        }
+        Semaphore limit = limits.get(fileSystem);
+        if (limit == null) {
+            final Semaphore created = new Semaphore(max);
+            limit = limits.putIfAbsent(fileSystem, created);
+            if (limit == null) {
+                limit = created;
+            }
+        }
+        return limit;
+    }
+
+    private static void acquire(final Semaphore limit, final FileObject source) throws FileSystemException {
+        if (limit != null) {
+            try {
+                limit.acquire();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FileSystemException("vfs.impl/transfer-interrupted.error", e, source);
+            }
+        }
+    }
+
+    private static void release(final Semaphore limit) {
+        if (limit != null) {
+            limit.release();
+        }
+    }
+
+    private static boolean matches(final FileObject source, final FileObject destination, final Comparison comparison)
+            throws IOException {
+        if (source.getContent().getSize() != destination.getContent().getSize()) {
+            return false;
+        }
+        return comparison != Comparison.CHECKSUM || Arrays.equals(checksum(source), checksum(destination));
+    }
+
+    private static byte[] checksum(final FileObject file) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        try (final InputStream in = file.getContent().getInputStream()) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        return digest.digest();
+    }
+}
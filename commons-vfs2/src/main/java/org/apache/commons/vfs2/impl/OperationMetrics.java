@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts and latency histogram of one kind of operation, see {@link EndpointMetrics}.
+ * <p>
+ * The histogram has a bucket for each bound of {@link #getHistogramBoundsMillis()}, counting the operations which took
+ * at most that long and longer than the previous bound, and a last bucket for the operations which took longer than
+ * the last bound.
+ */
+public final class OperationMetrics {
+    private static final long[] BOUNDS_MILLIS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000 };
+
+    private static final long[] BOUNDS_NANOS = new long[BOUNDS_MILLIS.length];
+
+    static {
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            BOUNDS_NANOS[i] = TimeUnit.MILLISECONDS.toNanos(BOUNDS_MILLIS[i]);
+        }
+    }
+
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLongArray histogram = new AtomicLongArray(BOUNDS_MILLIS.length + 1);
+
+    OperationMetrics() {
+    }
+
+    /**
+     * Returns the upper bounds of the histogram buckets.
+     *
+     * @return The bounds in milliseconds.
+     */
+    public static long[] getHistogramBoundsMillis() {
+        return BOUNDS_MILLIS.clone();
+    }
+
+    void record(final long nanos, final long byteCount, final boolean failed) {
+        count.incrementAndGet();
+        if (failed) {
+            failures.incrementAndGet();
+        }
+        totalNanos.addAndGet(nanos);
+        bytes.addAndGet(byteCount);
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+        int bucket = 0;
+        while (bucket < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[bucket]) {
+            bucket++;
+        }
+        histogram.incrementAndGet(bucket);
+    }
+
+    /**
+     * @return The number of operations.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return The number of operations which failed.
+     */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * @return The total duration of the operations in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    /**
+     * @return The duration of the longest operation in nanoseconds.
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * @return The mean duration of the operations in milliseconds, 0 if there were none.
+     */
+    public double getMeanMillis() {
+        final long n = count.get();
+        return n == 0 ? 0 : totalNanos.get() / (n * 1e6);
+    }
+
+    /**
+     * @return The number of bytes read or written by the operations.
+     */
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    /**
+     * @return The number of operations in each bucket of the histogram.
+     */
+    public long[] getHistogram() {
+        final long[] counts = new long[histogram.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = histogram.get(i);
+        }
+        return counts;
+    }
+}
@@ -30,6 +30,7 @@ import org.apache.commons.vfs2.FileUtil;
  * @see VFSClassLoader
  */
 class Resource {
+    private final String name;
     private final FileObject root;
     private final FileObject resource;
     private final FileObject packageFolder;
@@ -42,6 +43,7 @@ class Resource {
      * @param resource The resource of the FileObject.
      */
     public Resource(final String name, final FileObject root, final FileObject resource) throws FileSystemException {
+        this.name = name;
         this.root = root;
         this.resource = resource;
         packageFolder = resource.getParent();
@@ -53,6 +55,13 @@ class Resource {
         }
     }
 
+    /**
+     * Returns the name the resource was loaded with.
+     */
+    public String getName() {
+        return name;
+    }
+
     /**
      * Returns the URL of the resource.
      */
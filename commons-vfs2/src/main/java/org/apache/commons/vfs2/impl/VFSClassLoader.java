@@ -16,6 +16,7 @@
  */
 package org.apache.commons.vfs2.impl;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.security.CodeSource;
@@ -25,16 +26,21 @@ import java.security.Permissions;
 import java.security.SecureClassLoader;
 import java.security.cert.Certificate;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.jar.Attributes;
 import java.util.jar.Attributes.Name;
 
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemException;
 import org.apache.commons.vfs2.FileSystemManager;
+import org.apache.commons.vfs2.FileType;
+import org.apache.commons.vfs2.FileTypeSelector;
 import org.apache.commons.vfs2.NameScope;
 
 /**
@@ -43,13 +49,32 @@ import org.apache.commons.vfs2.NameScope;
  * The search path can consist of VFS FileObjects referring both to folders and JAR files. Any FileObject of type
  * FileType.FILE is assumed to be a JAR and is opened by creating a layered file system with the "jar" scheme.
  * <p>
+ * The folders of the JARs are indexed on first use, so that a class or resource is only looked up in the JARs that
+ * contain its package. Folders of the search path are not indexed and always searched, as they may change. Class
+ * bytes and certificates can be kept in a local folder to skip reading them from their file system again, see
+ * {@link #VFSClassLoader(FileObject[], FileSystemManager, ClassLoader, File)}. The class loader is parallel capable.
+ * <p>
  * TODO - Test this with signed Jars and a SecurityManager.
  *
  * @see FileSystemManager#createFileSystem
  */
 public class VFSClassLoader extends SecureClassLoader {
+    static {
+        registerAsParallelCapable();
+    }
+
     private final ArrayList<FileObject> resources = new ArrayList<>();
 
+    /**
+     * The search path entries that may contain each package, built on first use.
+     */
+    private volatile PackageIndex packageIndex;
+
+    /**
+     * The local cache of class bytes, or null.
+     */
+    private final BytecodeCache bytecodeCache;
+
     /**
      * Constructors a new VFSClassLoader for the given file.
      *
@@ -96,7 +121,24 @@ public class VFSClassLoader extends SecureClassLoader {
      */
     public VFSClassLoader(final FileObject[] files, final FileSystemManager manager, final ClassLoader parent)
             throws FileSystemException {
+        this(files, manager, parent, null);
+    }
+
+    /**
+     * Constructors a new VFSClassLoader for the given FileObjects, which keeps the bytes and certificates of the
+     * classes it loads in a local folder. Later class loaders with the same folder read unchanged classes from there.
+     * An entry is up to date while the last modified time and size of its class file are unchanged.
+     *
+     * @param files the FileObjects to load the classes and resources from.
+     * @param manager the FileManager to use when trying create a layered Jar file system.
+     * @param parent the parent class loader for delegation.
+     * @param bytecodeCacheDir the folder to cache class bytes in, or null to not cache them.
+     * @throws FileSystemException if an error occurs.
+     */
+    public VFSClassLoader(final FileObject[] files, final FileSystemManager manager, final ClassLoader parent,
+            final File bytecodeCacheDir) throws FileSystemException {
         super(parent);
+        this.bytecodeCache = bytecodeCacheDir != null ? new BytecodeCache(bytecodeCacheDir) : null;
         addFileObjects(manager, files);
     }
 
@@ -172,12 +214,31 @@ public class VFSClassLoader extends SecureClassLoader {
                     }
                 }
             } else {
-                definePackage(pkgName, res);
+                try {
+                    definePackage(pkgName, res);
+                } catch (final IllegalArgumentException e) {
+                    // defined by a concurrent class load
+                    if (getPackage(pkgName) == null) {
+                        throw e;
+                    }
+                }
             }
         }
 
-        final byte[] bytes = res.getBytes();
-        final Certificate[] certs = res.getFileObject().getContent().getCertificates();
+        final byte[] bytes;
+        final Certificate[] certs;
+        final BytecodeCache.Entry cached = bytecodeCache != null
+                ? bytecodeCache.get(url, res.getName(), res.getFileObject()) : null;
+        if (cached != null) {
+            bytes = cached.getBytes();
+            certs = cached.getCertificates();
+        } else {
+            bytes = res.getBytes();
+            certs = res.getFileObject().getContent().getCertificates();
+            if (bytecodeCache != null) {
+                bytecodeCache.put(url, res.getName(), res.getFileObject(), bytes, certs);
+            }
+        }
         final CodeSource cs = new CodeSource(url, certs);
         return defineClass(name, bytes, 0, bytes.length, cs);
     }
@@ -307,7 +368,9 @@ public class VFSClassLoader extends SecureClassLoader {
     protected Enumeration<URL> findResources(final String name) throws IOException {
         final List<URL> result = new ArrayList<>(2);
 
-        for (final FileObject baseFile : resources) {
+        final BitSet candidates = getPackageIndex().getCandidates(name);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            final FileObject baseFile = resources.get(i);
             final FileObject file = baseFile.resolveFile(name, NameScope.DESCENDENT_OR_SELF);
             if (file.exists()) {
                 result.add(new Resource(name, baseFile, file).getURL());
@@ -325,7 +388,9 @@ public class VFSClassLoader extends SecureClassLoader {
      * @throws FileSystemException if an error occurs.
      */
     private Resource loadResource(final String name) throws FileSystemException {
-        for (final FileObject baseFile : resources) {
+        final BitSet candidates = getPackageIndex().getCandidates(name);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            final FileObject baseFile = resources.get(i);
             final FileObject file = baseFile.resolveFile(name, NameScope.DESCENDENT_OR_SELF);
             if (file.exists()) {
                 return new Resource(name, baseFile, file);
@@ -333,4 +398,79 @@ public class VFSClassLoader extends SecureClassLoader {
         }
         return null;
     }
+
+    /**
+     * Returns the package index, building it on first use.
+     */
+    private PackageIndex getPackageIndex() {
+        PackageIndex index = packageIndex;
+        if (index == null) {
+            synchronized (resources) {
+                index = packageIndex;
+                if (index == null) {
+                    index = new PackageIndex(resources);
+                    packageIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Maps the folders of the JARs in the search path to the positions of the JARs that contain them.
+     * <p>
+     * JARs are layered file systems, which do not change once opened. Other entries of the search path, and JARs that
+     * cannot be listed, are searched for every name.
+     */
+    private static final class PackageIndex {
+        private final Map<String, BitSet> packages = new HashMap<>();
+        private final BitSet unindexed = new BitSet();
+        private final BitSet all = new BitSet();
+
+        PackageIndex(final List<FileObject> resources) {
+            final FileTypeSelector folders = new FileTypeSelector(FileType.FOLDER);
+            for (int i = 0; i < resources.size(); i++) {
+                final FileObject baseFile = resources.get(i);
+                all.set(i);
+                try {
+                    if (baseFile.getFileSystem().getParentLayer() == null) {
+                        unindexed.set(i);
+                        continue;
+                    }
+                    index(i, "");
+                    for (final FileObject folder : baseFile.findFiles(folders)) {
+                        final String path = baseFile.getName().getRelativeName(folder.getName());
+                        index(i, ".".equals(path) ? "" : path);
+                    }
+                } catch (final FileSystemException e) {
+                    unindexed.set(i);
+                }
+            }
+            for (final BitSet candidates : packages.values()) {
+                candidates.or(unindexed);
+            }
+        }
+
+        private void index(final int position, final String path) {
+            BitSet candidates = packages.get(path);
+            if (candidates == null) {
+                candidates = new BitSet();
+                packages.put(path, candidates);
+            }
+            candidates.set(position);
+        }
+
+        /**
+         * Returns the positions of the search path entries that may contain a class or resource.
+         */
+        BitSet getCandidates(final String name) {
+            if (name.startsWith("/") || name.startsWith(".") || name.contains("//") || name.contains("/.")) {
+                // not a plain path, let the file systems resolve it
+                return all;
+            }
+            final int pos = name.lastIndexOf('/');
+            final BitSet candidates = packages.get(pos == -1 ? "" : name.substring(0, pos));
+            return candidates != null ? candidates : unindexed;
+        }
+    }
 }
@@ -0,0 +1,666 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.impl;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.commons.vfs2.FileChangeEvent;
+import org.apache.commons.vfs2.FileListener;
+import org.apache.commons.vfs2.FileMonitor;
+import org.apache.commons.vfs2.FileName;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.NameScope;
+import org.apache.commons.vfs2.provider.UriParser;
+import org.apache.commons.vfs2.provider.local.LocalFileName;
+
+/**
+ * A {@link FileMonitor} which uses the native file events of {@link WatchService} for local files.
+ * <p>
+ * A monitored folder registers itself with the watch service, and with {@link #setRecursive(boolean) recursive} set
+ * every folder below it does too. A monitored file registers its parent folder and only reports events for itself.
+ * The watch events are translated to the {@link FileListener} callbacks the way {@link DefaultFileMonitor} reports
+ * them: create and delete for files and folders, change only for files.
+ * <p>
+ * Each watched folder keeps the names and last modified times of its children. When the watch service drops events
+ * (an overflow) the folder is listed again and compared against them, so no event is lost. Files of other schemes,
+ * and local folders which cannot be registered, for instance because the limit of native watches is reached, are
+ * monitored by a {@link DefaultFileMonitor} which polls them.
+ *
+ * <h2>Example usage:</h2>
+ *
+ * <pre>
+ * FileSystemManager fsManager = VFS.getManager();
+ * FileObject listendir = fsManager.resolveFile("/home/username/monitored/");
+ *
+ * WatchServiceFileMonitor fm = new WatchServiceFileMonitor(new CustomFileListener());
+ * fm.setRecursive(true);
+ * fm.addFile(listendir);
+ * fm.start();
+ * </pre>
+ */
+public class WatchServiceFileMonitor implements Runnable, FileMonitor {
+    private static final Log LOG = LogFactory.getLog(WatchServiceFileMonitor.class);
+
+    private static final long DEFAULT_DELAY = 1000;
+
+    /**
+     * How long to wait for related events before the signalled keys are processed, so that a new file which is
+     * written right away is reported once as created instead of created and changed.
+     */
+    private static final long SETTLE_DELAY = 50;
+
+    private static final int CREATED = 0;
+    private static final int DELETED = 1;
+    private static final int CHANGED = 2;
+
+    /**
+     * The watched folders by path. Guards all watch state.
+     */
+    private final Map<Path, WatchedFolder> folders = new HashMap<>();
+
+    private final Map<WatchKey, WatchedFolder> keys = new HashMap<>();
+
+    private final WatchService watchService;
+
+    /**
+     * The monitor for the files which cannot be watched, created on demand.
+     */
+    private DefaultFileMonitor pollingMonitor;
+
+    /**
+     * The thread taking the events from the watch service.
+     */
+    private Thread monitorThread;
+
+    private volatile boolean shouldRun = true; // used for inter-thread communication
+
+    private volatile boolean started;
+
+    private boolean recursive;
+
+    private long delay = DEFAULT_DELAY;
+
+    private final FileListener listener;
+
+    /**
+     * A folder registered with the watch service.
+     */
+    private static final class WatchedFolder {
+        private final Path path;
+        private final FileObject folder;
+        private final WatchKey key;
+
+        /** The names of the monitored children, null when every child is monitored. */
+        private Set<String> names;
+
+        /** Whether the sub folders are watched too. */
+        private boolean recursive;
+
+        /** The last modified time of each known child. */
+        private final Map<String, Long> children = new HashMap<>();
+
+        private WatchedFolder(final Path path, final FileObject folder, final WatchKey key) {
+            this.path = path;
+            this.folder = folder;
+            this.key = key;
+        }
+
+        private boolean accepts(final String name) {
+            return names == null || names.contains(name);
+        }
+    }
+
+    /**
+     * An event to report once the watch state is updated.
+     */
+    private static final class Change {
+        private final int type;
+        private final FileObject folder;
+        private final String name;
+
+        private Change(final int type, final FileObject folder, final String name) {
+            this.type = type;
+            this.folder = folder;
+            this.name = name;
+        }
+    }
+
+    public WatchServiceFileMonitor(final FileListener listener) {
+        this.listener = listener;
+        WatchService service;
+        try {
+            service = FileSystems.getDefault().newWatchService();
+        } catch (final IOException | UnsupportedOperationException e) {
+            LOG.warn(e.getLocalizedMessage(), e);
+            service = null;
+        }
+        this.watchService = service;
+    }
+
+    /**
+     * Access method to get the recursive setting when adding files for monitoring.
+     *
+     * @return true if monitoring is enabled for children.
+     */
+    public boolean isRecursive() {
+        return this.recursive;
+    }
+
+    /**
+     * Access method to set the recursive setting when adding files for monitoring.
+     *
+     * @param newRecursive true if monitoring should be enabled for children.
+     */
+    public void setRecursive(final boolean newRecursive) {
+        this.recursive = newRecursive;
+    }
+
+    /**
+     * Get the delay between the checks of the polled files, and the longest time the monitor thread waits before it
+     * notices {@link #stop()}.
+     *
+     * @return The delay period.
+     */
+    public long getDelay() {
+        return delay;
+    }
+
+    /**
+     * Set the delay between the checks of the polled files.
+     *
+     * @param delay The delay period.
+     */
+    public void setDelay(final long delay) {
+        if (delay > 0) {
+            this.delay = delay;
+        } else {
+            this.delay = DEFAULT_DELAY;
+        }
+        synchronized (folders) {
+            if (pollingMonitor != null) {
+                pollingMonitor.setDelay(this.delay);
+            }
+        }
+    }
+
+    /**
+     * Adds a file to be monitored.
+     *
+     * @param file The FileObject to monitor.
+     */
+    @Override
+    public void addFile(final FileObject file) {
+        final Path path = toPath(file);
+        if (path == null) {
+            getPollingMonitor().addFile(file);
+            return;
+        }
+        final List<Path> registered = new ArrayList<>();
+        try {
+            if (Files.isDirectory(path)) {
+                try {
+                    watchFolder(path, file, null, recursive, registered);
+                    return;
+                } catch (final IOException e) {
+                    // most likely the limit of native watches, poll the folder instead
+                    LOG.warn(e.getLocalizedMessage(), e);
+                }
+                synchronized (folders) {
+                    // the polled folder reports everything below it, drop the watches made so far
+                    unwatch(path);
+                }
+                getPollingMonitor().addFile(file);
+                return;
+            }
+            final Path parent = path.getParent();
+            if (parent != null && Files.isDirectory(parent)) {
+                watchFolder(parent, file.getParent(), path.getFileName().toString(), false, registered);
+                return;
+            }
+        } catch (final IOException e) {
+            LOG.warn(e.getLocalizedMessage(), e);
+            synchronized (folders) {
+                final String name = path.getFileName().toString();
+                final WatchedFolder watched = folders.get(path.getParent());
+                if (registered.contains(path.getParent())) {
+                    unwatch(path.getParent());
+                } else if (watched != null && watched.names != null) {
+                    watched.names.remove(name);
+                    watched.children.remove(name);
+                } else if (watched != null) {
+                    // the whole folder was already watched
+                    return;
+                }
+            }
+        }
+        getPollingMonitor().addFile(file);
+    }
+
+    /**
+     * Removes a file from being monitored. A file inside a monitored folder is reported until the folder is removed.
+     *
+     * @param file The FileObject to remove from monitoring.
+     */
+    @Override
+    public void removeFile(final FileObject file) {
+        final Path path = toPath(file);
+        synchronized (folders) {
+            if (pollingMonitor != null) {
+                pollingMonitor.removeFile(file);
+            }
+            if (path == null) {
+                return;
+            }
+            if (folders.containsKey(path)) {
+                unwatch(path);
+                return;
+            }
+            final WatchedFolder parent = path.getParent() == null ? null : folders.get(path.getParent());
+            if (parent != null && parent.names != null) {
+                final String name = path.getFileName().toString();
+                parent.names.remove(name);
+                parent.children.remove(name);
+                if (parent.names.isEmpty()) {
+                    unwatch(parent.path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts monitoring the files that have been added.
+     */
+    public void start() {
+        synchronized (folders) {
+            started = true;
+            if (pollingMonitor != null) {
+                pollingMonitor.start();
+            }
+        }
+        if (watchService == null) {
+            return;
+        }
+        if (this.monitorThread == null) {
+            this.monitorThread = new Thread(this);
+            this.monitorThread.setName(WatchServiceFileMonitor.class.getSimpleName());
+            this.monitorThread.setDaemon(true);
+        }
+        this.monitorThread.start();
+    }
+
+    /**
+     * Stops monitoring the files that have been added, and releases the native watches. A stopped monitor cannot be
+     * started again.
+     */
+    public void stop() {
+        this.shouldRun = false;
+        synchronized (folders) {
+            started = false;
+            if (pollingMonitor != null) {
+                pollingMonitor.stop();
+            }
+            folders.clear();
+            keys.clear();
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (final IOException e) {
+                LOG.warn(e.getLocalizedMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Takes the events from the watch service and reports them.
+     */
+    @Override
+    public void run() {
+        while (!monitorThread.isInterrupted() && this.shouldRun) {
+            final WatchKey key;
+            try {
+                key = watchService.poll(getDelay(), TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException e) {
+                continue;
+            } catch (final ClosedWatchServiceException e) {
+                break;
+            }
+            if (key == null) {
+                continue;
+            }
+            try {
+                Thread.sleep(SETTLE_DELAY);
+            } catch (final InterruptedException e) {
+                // Woke up, the keys must be processed anyway.
+            }
+            // the one settle delay covers every key signalled meanwhile
+            final List<Change> changes = process(key);
+            WatchKey next;
+            try {
+                while ((next = watchService.poll()) != null) {
+                    changes.addAll(process(next));
+                }
+            } catch (final ClosedWatchServiceException e) {
+                break;
+            }
+            fire(changes);
+        }
+
+        this.shouldRun = true;
+    }
+
+    /**
+     * Updates the watch state from the events of a key.
+     *
+     * @return the changes to report.
+     */
+    private List<Change> process(final WatchKey key) {
+        final List<Change> changes = new ArrayList<>();
+        synchronized (folders) {
+            final WatchedFolder watched = keys.get(key);
+            if (watched == null) {
+                key.cancel();
+                return changes;
+            }
+            for (final WatchEvent<?> event : key.pollEvents()) {
+                final WatchEvent.Kind<?> kind = event.kind();
+                if (kind == StandardWatchEventKinds.OVERFLOW) {
+                    rescan(watched, changes);
+                    continue;
+                }
+                final String name = event.context().toString();
+                if (!watched.accepts(name)) {
+                    continue;
+                }
+                if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
+                    created(watched, name, changes);
+                } else if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+                    deleted(watched, name, changes);
+                } else {
+                    modified(watched, name, changes);
+                }
+            }
+            if (!key.reset()) {
+                unwatch(watched.path);
+                // a watched parent reports the delete, otherwise report it here
+                final Path parent = watched.path.getParent();
+                if (watched.names == null && parent != null && !folders.containsKey(parent)) {
+                    try {
+                        changes.add(new Change(DELETED, watched.folder.getParent(),
+                                watched.path.getFileName().toString()));
+                    } catch (final FileSystemException e) {
+                        LOG.error(e.getLocalizedMessage(), e);
+                    }
+                }
+            }
+        }
+        return changes;
+    }
+
+    private void created(final WatchedFolder watched, final String name, final List<Change> changes) {
+        if (watched.children.containsKey(name)) {
+            return;
+        }
+        final Path path = watched.path.resolve(name);
+        final long lastModified = getLastModified(path);
+        if (lastModified == -1) {
+            // already deleted again
+            return;
+        }
+        watched.children.put(name, Long.valueOf(lastModified));
+        changes.add(new Change(CREATED, watched.folder, name));
+        if (watched.recursive && Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+            FileObject folder = null;
+            try {
+                folder = resolveChild(watched.folder, name);
+                final WatchedFolder child = watchFolder(path, folder, null, true, new ArrayList<Path>());
+                // the children created before the folder was registered
+                reportChildren(child, changes);
+            } catch (final IOException e) {
+                // most likely the limit of native watches, poll the new folder instead
+                LOG.warn(e.getLocalizedMessage(), e);
+                unwatch(path);
+                if (folder != null) {
+                    getPollingMonitor().addFile(folder);
+                }
+            }
+        }
+    }
+
+    private void reportChildren(final WatchedFolder watched, final List<Change> changes) {
+        for (final String name : watched.children.keySet()) {
+            changes.add(new Change(CREATED, watched.folder, name));
+            final WatchedFolder child = folders.get(watched.path.resolve(name));
+            if (child != null) {
+                reportChildren(child, changes);
+            }
+        }
+    }
+
+    private void deleted(final WatchedFolder watched, final String name, final List<Change> changes) {
+        if (watched.children.remove(name) == null) {
+            return;
+        }
+        changes.add(new Change(DELETED, watched.folder, name));
+        unwatch(watched.path.resolve(name));
+    }
+
+    private void modified(final WatchedFolder watched, final String name, final List<Change> changes) {
+        final Path path = watched.path.resolve(name);
+        if (Files.isDirectory(path)) {
+            // new and deleted children of a folder have their own events
+            return;
+        }
+        final long lastModified = getLastModified(path);
+        if (lastModified == -1) {
+            return;
+        }
+        final Long previous = watched.children.put(name, Long.valueOf(lastModified));
+        if (previous == null) {
+            changes.add(new Change(CREATED, watched.folder, name));
+        } else if (previous.longValue() != lastModified) {
+            changes.add(new Change(CHANGED, watched.folder, name));
+        }
+    }
+
+    /**
+     * Lists a folder after the watch service dropped its events, and compares it with the known children.
+     */
+    private void rescan(final WatchedFolder watched, final List<Change> changes) {
+        final Set<String> current = new HashSet<>();
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(watched.path)) {
+            for (final Path path : stream) {
+                final String name = path.getFileName().toString();
+                if (watched.accepts(name)) {
+                    current.add(name);
+                }
+            }
+        } catch (final IOException e) {
+            LOG.error(e.getLocalizedMessage(), e);
+            return;
+        }
+        for (final String name : new ArrayList<>(watched.children.keySet())) {
+            if (!current.contains(name)) {
+                deleted(watched, name, changes);
+            }
+        }
+        for (final String name : current) {
+            if (watched.children.containsKey(name)) {
+                modified(watched, name, changes);
+            } else {
+                created(watched, name, changes);
+            }
+        }
+    }
+
+    /**
+     * Registers a folder, or adds a name to a folder already registered.
+     *
+     * @param name the only child to report, null to report every child.
+     * @param registered collects the folders which were not registered before, to undo them on failure.
+     */
+    private WatchedFolder watchFolder(final Path path, final FileObject folder, final String name,
+            final boolean recursiveFolder, final List<Path> registered) throws IOException {
+        if (watchService == null) {
+            throw new IOException("No watch service available.");
+        }
+        final List<Path> subFolders = new ArrayList<>();
+        WatchedFolder watched;
+        synchronized (folders) {
+            watched = folders.get(path);
+            if (watched == null) {
+                final WatchKey key = path.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                watched = new WatchedFolder(path, folder, key);
+                if (name != null) {
+                    watched.names = new HashSet<>();
+                    watched.names.add(name);
+                }
+                folders.put(path, watched);
+                keys.put(key, watched);
+                registered.add(path);
+            } else if (name == null) {
+                watched.names = null;
+            } else if (watched.names != null) {
+                watched.names.add(name);
+            }
+            watched.recursive |= recursiveFolder;
+            try (final DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+                for (final Path child : stream) {
+                    final String childName = child.getFileName().toString();
+                    if (!watched.accepts(childName) || watched.children.containsKey(childName)) {
+                        continue;
+                    }
+                    watched.children.put(childName, Long.valueOf(getLastModified(child)));
+                    if (watched.recursive && Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                        subFolders.add(child);
+                    }
+                }
+            }
+            for (final Path subFolder : subFolders) {
+                watchFolder(subFolder, resolveChild(folder, subFolder.getFileName().toString()), null, true,
+                        registered);
+            }
+        }
+        return watched;
+    }
+
+    /**
+     * Unregisters a folder and every folder below it.
+     */
+    private void unwatch(final Path path) {
+        final Iterator<Map.Entry<Path, WatchedFolder>> iterator = folders.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final WatchedFolder watched = iterator.next().getValue();
+            if (watched.path.startsWith(path)) {
+                watched.key.cancel();
+                keys.remove(watched.key);
+                iterator.remove();
+            }
+        }
+    }
+
+    private void fire(final List<Change> changes) {
+        if (listener == null) {
+            return;
+        }
+        for (final Change change : changes) {
+            try {
+                final FileObject file = resolveChild(change.folder, change.name);
+                file.refresh();
+                final FileChangeEvent event = new FileChangeEvent(file);
+                switch (change.type) {
+                case CREATED:
+                    listener.fileCreated(event);
+                    break;
+                case DELETED:
+                    listener.fileDeleted(event);
+                    break;
+                default:
+                    listener.fileChanged(event);
+                    break;
+                }
+            } catch (final Exception e) {
+                LOG.error(e.getLocalizedMessage(), e);
+            }
+        }
+    }
+
+    private DefaultFileMonitor getPollingMonitor() {
+        synchronized (folders) {
+            if (pollingMonitor == null) {
+                pollingMonitor = new DefaultFileMonitor(listener);
+                pollingMonitor.setRecursive(recursive);
+                pollingMonitor.setDelay(delay);
+                if (started) {
+                    pollingMonitor.start();
+                }
+            }
+            return pollingMonitor;
+        }
+    }
+
+    private static FileObject resolveChild(final FileObject folder, final String name) throws FileSystemException {
+        return folder.resolveFile(UriParser.encode(name), NameScope.CHILD);
+    }
+
+    private static long getLastModified(final Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (final IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Gets the local path of a file, or null when the file is not local.
+     */
+    private static Path toPath(final FileObject file) {
+        final FileName name = file.getName();
+        if (!(name instanceof LocalFileName)) {
+            return null;
+        }
+        try {
+            return Paths.get(((LocalFileName) name).getRootFile() + name.getPathDecoded());
+        } catch (final FileSystemException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -33,6 +33,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.commons.vfs2.CacheStrategy;
 import org.apache.commons.vfs2.Capability;
 import org.apache.commons.vfs2.FileContent;
 import org.apache.commons.vfs2.FileContentInfoFactory;
@@ -42,6 +43,7 @@ import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSelector;
 import org.apache.commons.vfs2.FileSystem;
 import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.FileSystemInstrumentation.Operation;
 import org.apache.commons.vfs2.FileType;
 import org.apache.commons.vfs2.FileUtil;
 import org.apache.commons.vfs2.NameScope;
@@ -50,6 +52,7 @@ import org.apache.commons.vfs2.Selectors;
 import org.apache.commons.vfs2.operations.DefaultFileOperations;
 import org.apache.commons.vfs2.operations.FileOperations;
 import org.apache.commons.vfs2.util.FileObjectUtils;
+import org.apache.commons.vfs2.util.FileTreeIterator;
 import org.apache.commons.vfs2.util.RandomAccessMode;
 
 /**
@@ -76,6 +79,7 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
     private FileContent content;
     // Cached info
     private boolean attached;
+    private long attachedAt;
     private FileType type;
 
     private FileObject parent;
@@ -84,8 +88,23 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
     // private FileObject[] children;
     private FileName[] children;
 
+    /**
+     * Guards {@link #children}, which is updated by children of this file while they hold their own lock.
+     */
+    private final Object childrenLock = new Object();
+
+    /**
+     * Incremented on every change to the cached children, to detect changes made while the children are listed.
+     */
+    private int childrenVersion;
+
     private List<Object> objects;
 
+    /**
+     * The lock returned by {@link #getLock()}, held to keep the lock of the file name alive as long as this object.
+     */
+    private volatile Object lock;
+
     private boolean updateLastModified;
 
     /**
@@ -114,58 +133,29 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
         this.updateLastModified = updateLastModified;
     }
 
-    /**
-     * Traverses a file.
-     */
-    private static void traverse(final DefaultFileSelectorInfo fileInfo, final FileSelector selector,
-            final boolean depthwise, final List<FileObject> selected) throws Exception {
-        // Check the file itself
-        final FileObject file = fileInfo.getFile();
-        final int index = selected.size();
-
-        // If the file is a folder, traverse it
-        if (file.getType().hasChildren() && selector.traverseDescendents(fileInfo)) {
-            final int curDepth = fileInfo.getDepth();
-            fileInfo.setDepth(curDepth + 1);
-
-            // Traverse the children
-            final FileObject[] children = file.getChildren();
-            for (final FileObject child : children) {
-                fileInfo.setFile(child);
-                traverse(fileInfo, selector, depthwise, selected);
-            }
-
-            fileInfo.setFile(file);
-            fileInfo.setDepth(curDepth);
-        }
-
-        // Add the file if doing depthwise traversal
-        if (selector.includeFile(fileInfo)) {
-            if (depthwise) {
-                // Add this file after its descendants
-                selected.add(file);
-            } else {
-                // Add this file before its descendants
-                selected.add(index, file);
-            }
-        }
-    }
-
     /**
      * Attaches to the file.
      *
      * @throws FileSystemException if an error occurs.
      */
     private void attach() throws FileSystemException {
-        synchronized (fs) {
+        synchronized (getLock()) {
             if (attached) {
-                return;
+                if (!isExpired()) {
+                    return;
+                }
+                // Let the provider drop its cached state too, it may attach again while doing so
+                refresh();
+                if (attached) {
+                    return;
+                }
             }
 
             try {
                 // Attach and determine the file type
                 doAttach();
                 attached = true;
+                attachedAt = System.nanoTime();
                 // now the type could already be injected by doAttach (e.g from parent to child)
 
                 /*
@@ -180,6 +170,15 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
         }
     }
 
+    /**
+     * Checks whether the cached state of this file outlived the time to live of the {@link CacheStrategy#ON_EXPIRY}
+     * cache strategy.
+     */
+    private boolean isExpired() {
+        final long ttl = fs.getCacheTtlNanos();
+        return ttl >= 0 && System.nanoTime() - attachedAt >= ttl;
+    }
+
     /**
      * Queries the object if a simple rename to the filename of {@code newfile} is possible.
      *
@@ -201,16 +200,19 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
     protected void childrenChanged(final FileName childName, final FileType newType) throws Exception {
         // TODO - this may be called when not attached
 
-        if (children != null && childName != null && newType != null) {
-            // TODO - figure out if children[] can be replaced by list
-            final ArrayList<FileName> list = new ArrayList<>(Arrays.asList(children));
-            if (newType.equals(FileType.IMAGINARY)) {
-                list.remove(childName);
-            } else {
-                list.add(childName);
+        synchronized (childrenLock) {
+            if (children != null && childName != null && newType != null) {
+                // TODO - figure out if children[] can be replaced by list
+                final ArrayList<FileName> list = new ArrayList<>(Arrays.asList(children));
+                if (newType.equals(FileType.IMAGINARY)) {
+                    list.remove(childName);
+                } else {
+                    list.add(childName);
+                }
+                children = new FileName[list.size()];
+                list.toArray(children);
             }
-            children = new FileName[list.size()];
-            list.toArray(children);
+            childrenVersion++;
         }
 
         // removeChildrenCache();
@@ -314,7 +316,7 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
      */
     @Override
     public void createFile() throws FileSystemException {
-        synchronized (fs) {
+        synchronized (getLock()) {
             try {
                 // VFS-210: We do not want to trunc any existing file, checking for its existence is
                 // still required
@@ -341,7 +343,7 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
      */
     @Override
     public void createFolder() throws FileSystemException {
-        synchronized (fs) {
+        synchronized (getLock()) {
             // VFS-210: we create a folder only if it does not already exist. So this check should be safe.
             if (getType().hasChildren()) {
                 // Already exists as correct type
@@ -355,11 +357,18 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
              * if (!isWriteable()) { throw new FileSystemException("vfs.provider/create-folder-read-only.error", name);
              * }
              */
+        }
 
-            // Traverse up the hierarchy and make sure everything is a folder
-            final FileObject parent = getParent();
-            if (parent != null) {
-                parent.createFolder();
+        // Traverse up the hierarchy and make sure everything is a folder, without keeping this file locked meanwhile
+        final FileObject parent = getParent();
+        if (parent != null) {
+            parent.createFolder();
+        }
+
+        synchronized (getLock()) {
+            if (getType().hasChildren()) {
+                // Created by another thread in the meantime
+                return;
             }
 
             try {
@@ -391,6 +400,10 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
 
     /**
      * Deletes this file, and all children matching the {@code selector}.
+     * <p>
+     * The whole selection is collected before anything is deleted, so the selector sees the tree as it was when the
+     * call started. A folder is only deleted once all its children have been.
+     * </p>
      *
      * @param selector The FileSelector.
      * @return the number of deleted files.
@@ -451,16 +464,19 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
      * @throws FileSystemException if an error occurs.
      */
     private boolean deleteSelf() throws FileSystemException {
-        synchronized (fs) {
+        synchronized (getLock()) {
             // Its possible to delete a read-only file if you have write-execute access to the directory
 
             /*
              * VFS-210 if (getType() == FileType.IMAGINARY) { // File does not exist return false; }
              */
 
+            final long startTime = fs.operationStarted();
+            boolean failed = true;
             try {
                 // Delete the file
                 doDelete();
+                failed = false;
 
                 // Update cached info
                 handleDelete();
@@ -468,6 +484,8 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
                 throw re;
             } catch (final Exception exc) {
                 throw new FileSystemException("vfs.provider/delete.error", exc, fileName);
+            } finally {
+                fs.operationCompleted(Operation.DELETE, startTime, 0L, failed);
             }
 
             return true;
@@ -481,7 +499,7 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
      * @throws Exception if an error occurs.
      */
     private void detach() throws Exception {
-        synchronized (fs) {
+        synchronized (getLock()) {
             if (attached) {
                 try {
                     doDetach();
@@ -792,6 +810,21 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
         throw new FileSystemException("vfs.provider/rename-not-supported.error");
     }
 
+    /**
+     * Renames the file, replacing the destination file in a single step if it exists. Called from
+     * {@link #renameReplacing}.
+     * <p>
+     * This implementation returns false.
+     *
+     * @param newFile A FileObject of the same file system with the new file name.
+     * @return true if the file has been renamed, false if the provider cannot replace the destination atomically, in
+     *         which case nothing has been changed.
+     * @throws Exception if an error occurs.
+     */
+    protected boolean doRenameReplacing(final FileObject newFile) throws Exception {
+        return false;
+    }
+
     /**
      * Sets an attribute of this file.
      * <p>
@@ -947,11 +980,8 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
         try {
             if (exists()) {
                 // Traverse starting at this file
-                final DefaultFileSelectorInfo info = new DefaultFileSelectorInfo();
-                info.setBaseFolder(this);
-                info.setDepth(0);
-                info.setFile(this);
-                traverse(info, selector, depthwise, selected);
+                FileTreeTraversal.traverse(this, selector, depthwise, selected,
+                        getAbstractFileSystem().getTraversalExecutor());
             }
         } catch (final Exception e) {
             throw new FileSystemException("vfs.provider/find-files.error", fileName, e);
@@ -996,7 +1026,8 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
      */
     @Override
     public FileObject[] getChildren() throws FileSystemException {
-        synchronized (fs) {
+        final FileName[] names;
+        synchronized (getLock()) {
             // VFS-210
             if (!fs.hasCapability(Capability.LIST_CHILDREN)) {
                 throw new FileNotFolderException(fileName);
@@ -1008,60 +1039,66 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
              */
             attach();
 
-            // Use cached info, if present
-            if (children != null) {
-                return resolveFiles(children);
-            }
-
-            // allow the filesystem to return resolved children. e.g. prefill type for webdav
-            FileObject[] childrenObjects;
-            try {
-                childrenObjects = doListChildrenResolved();
-                children = extractNames(childrenObjects);
-            } catch (final FileSystemException exc) {
-                // VFS-210
-                throw exc;
-            } catch (final Exception exc) {
-                throw new FileSystemException("vfs.provider/list-children.error", exc, fileName);
+            final FileName[] cached;
+            final int version;
+            synchronized (childrenLock) {
+                cached = children;
+                version = childrenVersion;
             }
 
-            if (childrenObjects != null) {
-                return childrenObjects;
-            }
+            // Use cached info, if present
+            if (cached != null) {
+                names = cached;
+            } else {
+                // allow the filesystem to return resolved children. e.g. prefill type for webdav
+                FileObject[] childrenObjects;
+                final String[] files;
+                final long startTime = fs.operationStarted();
+                boolean failed = true;
+                try {
+                    childrenObjects = doListChildrenResolved();
+                    // List the children
+                    files = childrenObjects != null ? null : doListChildren();
+                    failed = false;
+                } catch (final FileSystemException exc) {
+                    // VFS-210
+                    throw exc;
+                } catch (final Exception exc) {
+                    throw new FileSystemException("vfs.provider/list-children.error", exc, fileName);
+                } finally {
+                    fs.operationCompleted(Operation.LIST, startTime, 0L, failed);
+                }
 
-            // List the children
-            final String[] files;
-            try {
-                files = doListChildren();
-            } catch (final FileSystemException exc) {
-                // VFS-210
-                throw exc;
-            } catch (final Exception exc) {
-                throw new FileSystemException("vfs.provider/list-children.error", exc, fileName);
-            }
+                if (childrenObjects != null) {
+                    setChildrenCache(extractNames(childrenObjects), version);
+                    return childrenObjects;
+                }
 
-            if (files == null) {
-                // VFS-210
-                // honor the new doListChildren contract
-                // return null;
-                throw new FileNotFolderException(fileName);
-            } else if (files.length == 0) {
-                // No children
-                children = EMPTY_FILE_ARRAY;
-            } else {
-                // Create file objects for the children
-                final FileName[] cache = new FileName[files.length];
-                for (int i = 0; i < files.length; i++) {
-                    final String file = files[i];
-                    cache[i] = fs.getFileSystemManager().resolveName(fileName, file, NameScope.CHILD);
+                if (files == null) {
+                    // VFS-210
+                    // honor the new doListChildren contract
+                    // return null;
+                    throw new FileNotFolderException(fileName);
+                } else if (files.length == 0) {
+                    // No children
+                    names = EMPTY_FILE_ARRAY;
+                } else {
+                    // Create file objects for the children
+                    final FileName[] cache = new FileName[files.length];
+                    for (int i = 0; i < files.length; i++) {
+                        final String file = files[i];
+                        cache[i] = fs.getFileSystemManager().resolveName(fileName, file, NameScope.CHILD);
+                    }
+                    // VFS-285: only assign the children filenames after all of them have been
+                    // resolved successfully to prevent an inconsistent internal state
+                    names = cache;
                 }
-                // VFS-285: only assign the children filenames after all of them have been
-                // resolved successfully to prevent an inconsistent internal state
-                children = cache;
+                setChildrenCache(names, version);
             }
-
-            return resolveFiles(children);
         }
+
+        // Resolving may lock the children, a file never waits for the lock of a child while holding its own
+        return resolveFiles(names);
     }
 
     /**
@@ -1072,7 +1109,7 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
      */
     @Override
     public FileContent getContent() throws FileSystemException {
-        synchronized (fs) {
+        synchronized (getLock()) {
             attach();
             if (content == null) {
                 content = doCreateFileContent();
@@ -1126,8 +1163,12 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
          */
 
         // Get the raw input stream
+        final long startTime = fs.operationStarted();
+        boolean failed = true;
         try {
-            return doGetInputStream();
+            final InputStream inputStream = doGetInputStream();
+            failed = false;
+            return inputStream;
         } catch (final org.apache.commons.vfs2.FileNotFoundException exc) {
             throw new org.apache.commons.vfs2.FileNotFoundException(fileName, exc);
         } catch (final FileNotFoundException exc) {
@@ -1136,7 +1177,26 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
             throw exc;
         } catch (final Exception exc) {
             throw new FileSystemException("vfs.provider/read.error", fileName, exc);
+        } finally {
+            fs.operationCompleted(Operation.OPEN, startTime, 0L, failed);
+        }
+    }
+
+    /**
+     * Returns the object to synchronize on while reading or updating the cached state of this file. This is the file
+     * system, unless it locks its files one by one.
+     *
+     * @return The lock of this file.
+     * @see AbstractFileSystem#getFileLock(AbstractFileObject)
+     */
+    protected Object getLock() {
+        Object lock = this.lock;
+        if (lock == null) {
+            // threads racing here get the same lock, the file system keeps it while one of them refers to it
+            lock = fs.getFileLock(this);
+            this.lock = lock;
         }
+        return lock;
     }
 
     /**
@@ -1200,12 +1260,18 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
         }
 
         // Get the raw output stream
+        final long startTime = fs.operationStarted();
+        boolean failed = true;
         try {
-            return doGetOutputStream(bAppend);
+            final OutputStream outputStream = doGetOutputStream(bAppend);
+            failed = false;
+            return outputStream;
         } catch (final RuntimeException re) {
             throw re;
         } catch (final Exception exc) {
             throw new FileSystemException("vfs.provider/write.error", exc, fileName);
+        } finally {
+            fs.operationCompleted(Operation.OPEN, startTime, 0L, failed);
         }
     }
 
@@ -1227,14 +1293,22 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
             return fs.getParentLayer().getParent();
         }
 
-        synchronized (fs) {
-            // Locate the parent of this file
+        synchronized (getLock()) {
+            if (parent != null) {
+                return parent;
+            }
+        }
+
+        // Locate the parent of this file, without keeping this file locked meanwhile
+        final FileName name = fileName.getParent();
+        if (name == null) {
+            return null;
+        }
+        final FileObject resolved = fs.resolveFile(name);
+
+        synchronized (getLock()) {
             if (parent == null) {
-                final FileName name = fileName.getParent();
-                if (name == null) {
-                    return null;
-                }
-                parent = fs.resolveFile(name);
+                parent = resolved;
             }
             return parent;
         }
@@ -1272,10 +1346,16 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
         }
 
         // Get the raw input stream
+        final long startTime = fs.operationStarted();
+        boolean failed = true;
         try {
-            return doGetRandomAccessContent(mode);
+            final RandomAccessContent content = doGetRandomAccessContent(mode);
+            failed = false;
+            return content;
         } catch (final Exception exc) {
             throw new FileSystemException("vfs.provider/random-access.error", fileName, exc);
+        } finally {
+            fs.operationCompleted(Operation.OPEN, startTime, 0L, failed);
         }
     }
 
@@ -1287,22 +1367,33 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
      */
     @Override
     public FileType getType() throws FileSystemException {
-        synchronized (fs) {
-            attach();
-
-            // VFS-210: get the type only if requested for
+        synchronized (getLock()) {
+            final long startTime = fs.operationStarted();
+            boolean stat = !attached;
+            boolean failed = true;
             try {
-                if (type == null) {
-                    setFileType(doGetType());
+                attach();
+
+                // VFS-210: get the type only if requested for
+                try {
+                    if (type == null) {
+                        stat = true;
+                        setFileType(doGetType());
+                    }
+                    if (type == null) {
+                        setFileType(FileType.IMAGINARY);
+                    }
+                } catch (final Exception e) {
+                    throw new FileSystemException("vfs.provider/get-type.error", e, fileName);
                 }
-                if (type == null) {
-                    setFileType(FileType.IMAGINARY);
+
+                failed = false;
+                return type;
+            } finally {
+                if (stat) {
+                    fs.operationCompleted(Operation.STAT, startTime, 0L, failed);
                 }
-            } catch (final Exception e) {
-                throw new FileSystemException("vfs.provider/get-type.error", e, fileName);
             }
-
-            return type;
         }
     }
 
@@ -1348,7 +1439,7 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
      * @throws Exception if an error occurs.
      */
     protected void handleCreate(final FileType newType) throws Exception {
-        synchronized (fs) {
+        synchronized (getLock()) {
             if (attached) {
                 // Fix up state
                 injectType(newType);
@@ -1373,7 +1464,7 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
      * @throws Exception if an error occurs.
      */
     protected void handleDelete() throws Exception {
-        synchronized (fs) {
+        synchronized (getLock()) {
             if (attached) {
                 // Fix up state
                 injectType(FileType.IMAGINARY);
@@ -1548,11 +1639,7 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
      */
     @Override
     public Iterator<FileObject> iterator() {
-        try {
-            return listFiles(Selectors.SELECT_ALL).iterator();
-        } catch (final FileSystemException e) {
-            throw new IllegalStateException(e);
-        }
+        return new FileTreeIterator(this, Selectors.SELECT_ALL, true);
     }
 
     /**
@@ -1603,7 +1690,14 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
                 // remember type to avoid attach
                 final FileType srcType = getType();
 
-                doRename(destFile);
+                final long startTime = fs.operationStarted();
+                boolean failed = true;
+                try {
+                    doRename(destFile);
+                    failed = false;
+                } finally {
+                    fs.operationCompleted(Operation.RENAME, startTime, 0L, failed);
+                }
 
                 FileObjectUtils.getAbstractFileObject(destFile).handleCreate(srcType);
                 destFile.close(); // now the destFile is no longer imaginary. force reattach.
@@ -1632,6 +1726,58 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
 
     }
 
+    /**
+     * Renames this file to a file of the same file system, replacing the destination if it exists. Unlike
+     * {@link #moveTo(FileObject)}, which deletes the destination before renaming, readers of the destination see either
+     * the old or the new file, but never no file.
+     *
+     * @param destFile The destination file.
+     * @return true if the file has been renamed, false if the destination is on another file system or the provider
+     *         cannot replace files atomically, in which case nothing has been changed.
+     * @throws FileSystemException if an error occurs.
+     */
+    public boolean renameReplacing(final FileObject destFile) throws FileSystemException {
+        if (!canRenameTo(destFile)) {
+            return false;
+        }
+        try {
+            attach();
+            // remember type to avoid attach
+            final FileType srcType = getType();
+            final boolean destExists = destFile.exists();
+
+            final long startTime = fs.operationStarted();
+            boolean renamed = false;
+            boolean failed = true;
+            try {
+                renamed = doRenameReplacing(destFile);
+                failed = false;
+            } finally {
+                if (renamed || failed) {
+                    fs.operationCompleted(Operation.RENAME, startTime, 0L, failed);
+                }
+            }
+            if (!renamed) {
+                return false;
+            }
+
+            final AbstractFileObject<?> dest = FileObjectUtils.getAbstractFileObject(destFile);
+            if (destExists) {
+                dest.handleChanged();
+            } else {
+                dest.handleCreate(srcType);
+            }
+            destFile.close(); // force reattach, the destination has new content.
+
+            handleDelete(); // fire delete-events. This file-object (src) is like deleted.
+            return true;
+        } catch (final RuntimeException re) {
+            throw re;
+        } catch (final Exception exc) {
+            throw new FileSystemException("vfs.provider/rename.error", exc, getName(), destFile.getName());
+        }
+    }
+
     /**
      * will be called after this file-object closed all its streams.
      */
@@ -1698,7 +1844,21 @@ public abstract class AbstractFileObject<AFS extends AbstractFileSystem> impleme
     }
 
     private void removeChildrenCache() {
-        children = null;
+        synchronized (childrenLock) {
+            children = null;
+            childrenVersion++;
+        }
+    }
+
+    /**
+     * Caches the listed children, unless the children changed while they were listed.
+     */
+    private void setChildrenCache(final FileName[] names, final int version) {
+        synchronized (childrenLock) {
+            if (childrenVersion == version) {
+                children = names;
+            }
+        }
     }
 
     private FileObject resolveFile(final FileName child) throws FileSystemException {
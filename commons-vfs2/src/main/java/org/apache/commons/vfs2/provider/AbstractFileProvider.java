@@ -16,8 +16,10 @@
  */
 package org.apache.commons.vfs2.provider;
 
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.vfs2.FileName;
 import org.apache.commons.vfs2.FileObject;
@@ -36,9 +38,11 @@ public abstract class AbstractFileProvider extends AbstractVfsContainer implemen
     /**
      * The cached file systems.
      * <p>
-     * This is a mapping from {@link FileSystemKey} (root URI and options) to {@link FileSystem}.
+     * This is a mapping from the root of a file system to its {@link FileSystemOptions#freeze() frozen} options to
+     * the {@link FileSystem}, so that finding a cached file system compares precomputed hash codes only.
      */
-    private final Map<FileSystemKey, FileSystem> fileSystems = new TreeMap<>(); // @GuardedBy("self")
+    private final ConcurrentMap<Comparable<?>, ConcurrentMap<FileSystemOptions, FileSystem>> fileSystems =
+            new ConcurrentHashMap<>();
 
     private FileNameParser parser;
 
@@ -59,9 +63,7 @@ public abstract class AbstractFileProvider extends AbstractVfsContainer implemen
      */
     @Override
     public void close() {
-        synchronized (fileSystems) {
-            fileSystems.clear();
-        }
+        fileSystems.clear();
 
         super.close();
     }
@@ -95,11 +97,25 @@ public abstract class AbstractFileProvider extends AbstractVfsContainer implemen
         // Add to the container and initialize
         addComponent(fs);
 
-        final FileSystemKey treeKey = new FileSystemKey(key, fs.getFileSystemOptions());
-        ((AbstractFileSystem) fs).setCacheKey(treeKey);
-
-        synchronized (fileSystems) {
-            fileSystems.put(treeKey, fs);
+        final FileSystemKey cacheKey = new FileSystemKey(key, fs.getFileSystemOptions());
+        ((AbstractFileSystem) fs).setCacheKey(cacheKey);
+
+        while (true) {
+            ConcurrentMap<FileSystemOptions, FileSystem> byOptions = fileSystems.get(key);
+            if (byOptions == null) {
+                final ConcurrentMap<FileSystemOptions, FileSystem> created = new ConcurrentHashMap<>(2);
+                byOptions = fileSystems.putIfAbsent(key, created);
+                if (byOptions == null) {
+                    byOptions = created;
+                }
+            }
+            // The map is dropped by closeFileSystem once it is empty, retry if that happened meanwhile
+            synchronized (byOptions) {
+                if (fileSystems.get(key) == byOptions) {
+                    byOptions.put(cacheKey.getFileSystemOptions(), fs);
+                    return;
+                }
+            }
         }
     }
 
@@ -111,11 +127,8 @@ public abstract class AbstractFileProvider extends AbstractVfsContainer implemen
      * @return The file system instance, or null if it is not cached.
      */
     public FileSystem findFileSystem(final Comparable<?> key, final FileSystemOptions fileSystemProps) {
-        final FileSystemKey treeKey = new FileSystemKey(key, fileSystemProps);
-
-        synchronized (fileSystems) {
-            return fileSystems.get(treeKey);
-        }
+        final ConcurrentMap<FileSystemOptions, FileSystem> byOptions = fileSystems.get(key);
+        return byOptions != null ? byOptions.get(FileSystemKey.freeze(fileSystemProps)) : null;
     }
 
     /**
@@ -132,13 +145,12 @@ public abstract class AbstractFileProvider extends AbstractVfsContainer implemen
      * Free unused resources.
      */
     public void freeUnusedResources() {
-        AbstractFileSystem[] abstractFileSystems;
-        synchronized (fileSystems) {
-            // create snapshot under lock
-            abstractFileSystems = fileSystems.values().toArray(EMPTY_ABSTRACTFILESYSTEMS);
+        final List<FileSystem> snapshot = new ArrayList<>();
+        for (final ConcurrentMap<FileSystemOptions, FileSystem> byOptions : fileSystems.values()) {
+            snapshot.addAll(byOptions.values());
         }
+        final AbstractFileSystem[] abstractFileSystems = snapshot.toArray(EMPTY_ABSTRACTFILESYSTEMS);
 
-        // process snapshot outside lock
         for (final AbstractFileSystem fs : abstractFileSystems) {
             if (fs.isReleaseable()) {
                 fs.closeCommunicationLink();
@@ -156,8 +168,14 @@ public abstract class AbstractFileProvider extends AbstractVfsContainer implemen
 
         final FileSystemKey key = fs.getCacheKey();
         if (key != null) {
-            synchronized (fileSystems) {
-                fileSystems.remove(key);
+            final ConcurrentMap<FileSystemOptions, FileSystem> byOptions = fileSystems.get(key.getKey());
+            if (byOptions != null) {
+                synchronized (byOptions) {
+                    byOptions.remove(key.getFileSystemOptions(), fs);
+                    if (byOptions.isEmpty()) {
+                        fileSystems.remove(key.getKey(), byOptions);
+                    }
+                }
             }
         }
 
@@ -182,6 +200,21 @@ public abstract class AbstractFileProvider extends AbstractVfsContainer implemen
         throw new FileSystemException("vfs.provider/filename-parser-missing.error");
     }
 
+    /**
+     * Checks whether a file system is still cached by this provider, that is it has not been closed since it was
+     * created.
+     *
+     * @param fs The file system.
+     * @return true if the file system is cached.
+     */
+    public boolean isFileSystemCached(final FileSystem fs) {
+        if (!(fs instanceof AbstractFileSystem)) {
+            return false;
+        }
+        final FileSystemKey cacheKey = ((AbstractFileSystem) fs).getCacheKey();
+        return cacheKey != null && findFileSystem(cacheKey.getKey(), cacheKey.getFileSystemOptions()) == fs;
+    }
+
     public boolean isFileSystemCached(final FileName name, final FileSystemOptions fileSystemOptions)
             throws FileSystemException {
         // Check in the cache for the file system
@@ -17,12 +17,19 @@
 package org.apache.commons.vfs2.provider;
 
 import java.io.File;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -37,6 +44,7 @@ import org.apache.commons.vfs2.FileSelector;
 import org.apache.commons.vfs2.FileSystem;
 import org.apache.commons.vfs2.FileSystemConfigBuilder;
 import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.FileSystemInstrumentation;
 import org.apache.commons.vfs2.FileSystemManager;
 import org.apache.commons.vfs2.FileSystemOptions;
 import org.apache.commons.vfs2.FilesCache;
@@ -47,6 +55,7 @@ import org.apache.commons.vfs2.events.ChangedEvent;
 import org.apache.commons.vfs2.events.CreateEvent;
 import org.apache.commons.vfs2.events.DeleteEvent;
 import org.apache.commons.vfs2.impl.DefaultFileSystemConfigBuilder;
+import org.apache.commons.vfs2.impl.DefaultFileSystemManager;
 import org.apache.commons.vfs2.util.Messages;
 
 /**
@@ -92,6 +101,48 @@ public abstract class AbstractFileSystem extends AbstractVfsComponent implements
      */
     private final AtomicInteger openStreams = new AtomicInteger(0);
 
+    /**
+     * true if file objects are locked one by one instead of on this file system.
+     */
+    private final boolean perFileLocking;
+
+    /**
+     * Guards the file cache when file objects are locked one by one.
+     */
+    private final Object resolveLock = new Object();
+
+    /**
+     * The locks of the files by name when file objects are locked one by one. A lock is forgotten once no file object
+     * or thread refers to it any more, so there are never more entries than live file objects.
+     */
+    private final Map<FileName, FileLockReference> fileLocks = new HashMap<>();
+
+    /**
+     * The references of forgotten file locks, to remove from {@link #fileLocks}.
+     */
+    private final ReferenceQueue<Object> staleFileLocks = new ReferenceQueue<>();
+
+    /**
+     * Time to live in nanoseconds of the cached state of file objects, negative unless the cache strategy is
+     * {@link CacheStrategy#ON_EXPIRY}. Determined on first use, as the manager is not known on construction.
+     */
+    private volatile long cacheTtlNanos = Long.MIN_VALUE;
+
+    /**
+     * The maximum number of folders listed at the same time by a traversal.
+     */
+    private final int traversalThreads;
+
+    /**
+     * Lists folders for concurrent traversals, created on first use.
+     */
+    private ThreadPoolExecutor traversalExecutor;
+
+    /**
+     * Guards the creation and shutdown of the traversal executor.
+     */
+    private final Object traversalLock = new Object();
+
     protected AbstractFileSystem(final FileName rootName, final FileObject parentLayer,
             final FileSystemOptions fileSystemOptions) {
         this.parentLayer = parentLayer;
@@ -103,6 +154,8 @@ public abstract class AbstractFileSystem extends AbstractVfsComponent implements
             uri = rootName.getURI();
         }
         this.rootURI = uri;
+        this.perFileLocking = DefaultFileSystemConfigBuilder.getInstance().isPerFileLocking(fileSystemOptions);
+        this.traversalThreads = DefaultFileSystemConfigBuilder.getInstance().getTraversalThreads(fileSystemOptions);
     }
 
     /**
@@ -122,6 +175,13 @@ public abstract class AbstractFileSystem extends AbstractVfsComponent implements
     public void close() {
         closeCommunicationLink();
 
+        synchronized (traversalLock) {
+            if (traversalExecutor != null) {
+                traversalExecutor.shutdown();
+                traversalExecutor = null;
+            }
+        }
+
         parentLayer = null;
     }
 
@@ -300,8 +360,25 @@ public abstract class AbstractFileSystem extends AbstractVfsComponent implements
         return resolveFile(name, true);
     }
 
-    private synchronized FileObject resolveFile(final FileName name, final boolean useCache)
-            throws FileSystemException {
+    private FileObject resolveFile(final FileName name, final boolean useCache) throws FileSystemException {
+        if (perFileLocking) {
+            // Refreshing locks the file, which must not happen while the cache is locked
+            final FileObject file;
+            synchronized (resolveLock) {
+                file = locateFile(name, useCache);
+            }
+            refreshOnResolve(file);
+            return file;
+        }
+
+        synchronized (this) {
+            final FileObject file = locateFile(name, useCache);
+            refreshOnResolve(file);
+            return file;
+        }
+    }
+
+    private FileObject locateFile(final FileName name, final boolean useCache) throws FileSystemException {
         if (!rootName.getRootURI().equals(name.getRootURI())) {
             throw new FileSystemException("vfs.provider/mismatched-fs-for-name.error", name, rootName,
                     name.getRootURI());
@@ -311,6 +388,10 @@ public abstract class AbstractFileSystem extends AbstractVfsComponent implements
         FileObject file;
         if (useCache) {
             file = getFileFromCache(name);
+            final FileSystemInstrumentation instrumentation = getInstrumentation();
+            if (instrumentation != null) {
+                instrumentation.filesCacheAccessed(rootName, file != null);
+            }
         } else {
             file = null;
         }
@@ -329,14 +410,116 @@ public abstract class AbstractFileSystem extends AbstractVfsComponent implements
                 putFileToCache(file);
             }
         }
+        return file;
+    }
 
+    private void refreshOnResolve(final FileObject file) throws FileSystemException {
         /**
          * resync the file information if requested
          */
         if (getFileSystemManager().getCacheStrategy().equals(CacheStrategy.ON_RESOLVE)) {
             file.refresh();
         }
-        return file;
+    }
+
+    /**
+     * Returns the object to synchronize on while reading or updating the cached state of a file object.
+     * <p>
+     * The lock depends on the name of the file only, so every file object of the same name gets the same lock, whether
+     * it is cached or not.
+     *
+     * @param file The file object.
+     * @return The lock of the file name if file objects are locked one by one, otherwise this file system.
+     * @see DefaultFileSystemConfigBuilder#setPerFileLocking(FileSystemOptions, boolean)
+     */
+    protected Object getFileLock(final AbstractFileObject<?> file) {
+        if (!perFileLocking) {
+            return this;
+        }
+        final FileName name = file.getName();
+        synchronized (fileLocks) {
+            FileLockReference stale;
+            while ((stale = (FileLockReference) staleFileLocks.poll()) != null) {
+                // the name may have got a new lock since
+                if (fileLocks.get(stale.name) == stale) {
+                    fileLocks.remove(stale.name);
+                }
+            }
+            final FileLockReference reference = fileLocks.get(name);
+            Object lock = reference == null ? null : reference.get();
+            if (lock == null) {
+                lock = new Object();
+                fileLocks.put(name, new FileLockReference(name, lock, staleFileLocks));
+            }
+            return lock;
+        }
+    }
+
+    /**
+     * A weak reference to the lock of a file, which remembers the file name to remove it by.
+     */
+    private static final class FileLockReference extends WeakReference<Object> {
+        private final FileName name;
+
+        FileLockReference(final FileName name, final Object lock, final ReferenceQueue<Object> queue) {
+            super(lock, queue);
+            this.name = name;
+        }
+    }
+
+    /**
+     * Returns how long file objects of this file system may use their cached state.
+     *
+     * @return The time to live in nanoseconds, or a negative value if cached state does not expire.
+     * @see CacheStrategy#ON_EXPIRY
+     */
+    long getCacheTtlNanos() {
+        long ttl = cacheTtlNanos;
+        if (ttl == Long.MIN_VALUE) {
+            ttl = -1L;
+            final FileSystemManager manager = getFileSystemManager();
+            if (manager.getCacheStrategy() == CacheStrategy.ON_EXPIRY) {
+                Long cacheTtl = DefaultFileSystemConfigBuilder.getInstance().getCacheTtl(fileSystemOptions);
+                if (cacheTtl == null) {
+                    cacheTtl = Long.valueOf(manager instanceof DefaultFileSystemManager
+                            ? ((DefaultFileSystemManager) manager).getCacheTtl(rootName.getScheme())
+                            : DefaultFileSystemManager.DEFAULT_CACHE_TTL);
+                }
+                ttl = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, cacheTtl.longValue()));
+            }
+            cacheTtlNanos = ttl;
+        }
+        return ttl;
+    }
+
+    /**
+     * Returns the executor traversals of this file system list folders with. Providers may run other tree walks on it,
+     * as long as their tasks do not wait for each other.
+     *
+     * @return The executor, or null if folders are listed on the calling thread.
+     * @see DefaultFileSystemConfigBuilder#setTraversalThreads(FileSystemOptions, int)
+     */
+    protected ExecutorService getTraversalExecutor() {
+        if (traversalThreads <= 1) {
+            return null;
+        }
+        synchronized (traversalLock) {
+            if (traversalExecutor == null) {
+                final AtomicInteger count = new AtomicInteger();
+                final String prefix = rootName.getScheme() + "-traversal-";
+                traversalExecutor = new ThreadPoolExecutor(traversalThreads, traversalThreads, 30, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                            @Override
+                            public Thread newThread(final Runnable runnable) {
+                                final Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+                                thread.setDaemon(true);
+                                return thread;
+                            }
+                        });
+                traversalExecutor.allowCoreThreadTimeOut(true);
+            }
+            return traversalExecutor;
+        }
     }
 
     protected FileObject decorateFileObject(FileObject file) throws FileSystemException {
@@ -404,6 +587,49 @@ public abstract class AbstractFileSystem extends AbstractVfsComponent implements
         return getContext().getFileSystemManager();
     }
 
+    /**
+     * Returns the instrumentation this file system reports its I/O to.
+     *
+     * @return The instrumentation of the file system manager, or null if there is none.
+     * @see DefaultFileSystemManager#addInstrumentation(FileSystemInstrumentation)
+     */
+    public FileSystemInstrumentation getInstrumentation() {
+        return getInstrumentation(getContext());
+    }
+
+    /**
+     * Returns the instrumentation of the file system manager of a context.
+     */
+    static FileSystemInstrumentation getInstrumentation(final VfsComponentContext context) {
+        final FileSystemManager manager = context != null ? context.getFileSystemManager() : null;
+        return manager instanceof DefaultFileSystemManager
+                ? ((DefaultFileSystemManager) manager).getInstrumentation()
+                : null;
+    }
+
+    /**
+     * Starts timing an operation for {@link #operationCompleted}.
+     *
+     * @return The start time, or 0 if there is no instrumentation to report the operation to.
+     */
+    long operationStarted() {
+        return getInstrumentation() != null ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Reports an operation timed with {@link #operationStarted()}.
+     */
+    void operationCompleted(final FileSystemInstrumentation.Operation operation, final long startTime,
+            final long bytes, final boolean failed) {
+        if (startTime != 0L) {
+            final FileSystemInstrumentation instrumentation = getInstrumentation();
+            if (instrumentation != null) {
+                instrumentation.operationCompleted(rootName, operation, System.nanoTime() - startTime, bytes,
+                        failed);
+            }
+        }
+    }
+
     /**
      * Returns the accuracy of the last modification time.
      *
@@ -20,6 +20,7 @@ import org.apache.commons.vfs2.FileName;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystem;
 import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.FileSystemInstrumentation;
 import org.apache.commons.vfs2.FileSystemOptions;
 import org.apache.commons.vfs2.impl.DefaultFileSystemManager;
 
@@ -155,7 +156,18 @@ public abstract class AbstractOriginatingFileProvider extends AbstractFileProvid
         FileSystem fs = findFileSystem(rootName, fileSystemOptions);
         if (fs == null) {
             // Need to create the file system, and cache it
-            fs = doCreateFileSystem(rootName, fileSystemOptions);
+            final FileSystemInstrumentation instrumentation = AbstractFileSystem.getInstrumentation(getContext());
+            final long startTime = instrumentation != null ? System.nanoTime() : 0L;
+            boolean failed = true;
+            try {
+                fs = doCreateFileSystem(rootName, fileSystemOptions);
+                failed = false;
+            } finally {
+                if (instrumentation != null) {
+                    instrumentation.operationCompleted(rootName, FileSystemInstrumentation.Operation.CONNECT,
+                            System.nanoTime() - startTime, 0L, failed);
+                }
+            }
             addFileSystem(rootName, fs);
         }
         return fs;
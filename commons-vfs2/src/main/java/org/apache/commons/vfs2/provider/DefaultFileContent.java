@@ -29,6 +29,7 @@ import org.apache.commons.vfs2.FileContentInfo;
 import org.apache.commons.vfs2.FileContentInfoFactory;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.FileSystemInstrumentation.Operation;
 import org.apache.commons.vfs2.RandomAccessContent;
 import org.apache.commons.vfs2.util.MonitorInputStream;
 import org.apache.commons.vfs2.util.MonitorOutputStream;
@@ -555,10 +556,58 @@ public final class DefaultFileContent implements FileContent {
     private final class FileContentInputStream extends MonitorInputStream {
         // avoid gc
         private final FileObject file;
+        private final long startTime;
+
+        /** Bytes read from the raw stream by a direct transfer. */
+        private long rawCount;
+
+        /** true once reading from the provider failed, reported with the read when the stream is closed. */
+        private volatile boolean failed;
+
+        /** true from {@link #onClose()} until the read has been reported by {@link #close()}. */
+        private boolean reportOnClose;
 
         FileContentInputStream(final FileObject file, final InputStream instr) {
             super(instr);
             this.file = file;
+            this.startTime = fileObject.getAbstractFileSystem().operationStarted();
+        }
+
+        /**
+         * Returns the stream of the provider this stream reads from.
+         */
+        InputStream getRawStream() {
+            return in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return super.read();
+            } catch (final IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            try {
+                return super.read(buffer, offset, length);
+            } catch (final IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            try {
+                return super.skip(n);
+            } catch (final IOException e) {
+                failed = true;
+                throw e;
+            }
         }
 
         /**
@@ -566,10 +615,18 @@ public final class DefaultFileContent implements FileContent {
          */
         @Override
         public void close() throws FileSystemException {
+            boolean closeFailed = true;
             try {
                 super.close();
+                closeFailed = false;
             } catch (final IOException e) {
                 throw new FileSystemException("vfs.provider/close-instr.error", file, e);
+            } finally {
+                if (reportOnClose) {
+                    reportOnClose = false;
+                    fileObject.getAbstractFileSystem().operationCompleted(Operation.READ, startTime,
+                            getCount() + rawCount, failed || closeFailed);
+                }
             }
         }
 
@@ -578,6 +635,7 @@ public final class DefaultFileContent implements FileContent {
          */
         @Override
         protected void onClose() throws IOException {
+            reportOnClose = true;
             try {
                 super.onClose();
             } finally {
@@ -626,21 +684,77 @@ public final class DefaultFileContent implements FileContent {
     final class FileContentOutputStream extends MonitorOutputStream {
         // avoid gc
         private final FileObject file;
+        private final long startTime;
+
+        /** Bytes written to the raw stream by a direct transfer. */
+        private long rawCount;
+
+        /** true once writing to the provider failed, reported with the write when the stream is closed. */
+        private volatile boolean failed;
+
+        /** true from {@link #onClose()} until the write has been reported by {@link #close()}. */
+        private boolean reportOnClose;
 
         FileContentOutputStream(final FileObject file, final OutputStream outstr) {
             super(outstr);
             this.file = file;
+            this.startTime = fileObject.getAbstractFileSystem().operationStarted();
         }
 
         /**
-         * Closes this output stream.
+         * Returns the stream of the provider this stream writes to. Only to be written to while nothing is buffered.
+         */
+        OutputStream getRawStream() {
+            return out;
+        }
+
+        @Override
+        public synchronized void write(final int b) throws IOException {
+            try {
+                super.write(b);
+            } catch (final IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public synchronized void write(final byte[] b, final int off, final int len) throws IOException {
+            try {
+                super.write(b, off, len);
+            } catch (final IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public synchronized void flush() throws IOException {
+            try {
+                super.flush();
+            } catch (final IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+
+        /**
+         * Closes this output stream. A failure to write the buffered content is reported as a failed write.
          */
         @Override
         public void close() throws FileSystemException {
+            boolean closeFailed = true;
             try {
                 super.close();
+                closeFailed = false;
             } catch (final IOException e) {
                 throw new FileSystemException("vfs.provider/close-outstr.error", file, e);
+            } finally {
+                if (reportOnClose) {
+                    reportOnClose = false;
+                    fileObject.getAbstractFileSystem().operationCompleted(Operation.WRITE, startTime,
+                            getCount() + rawCount, failed || closeFailed);
+                }
             }
         }
 
@@ -649,6 +763,7 @@ public final class DefaultFileContent implements FileContent {
          */
         @Override
         protected void onClose() throws IOException {
+            reportOnClose = true;
             try {
                 super.onClose();
             } finally {
@@ -688,6 +803,9 @@ public final class DefaultFileContent implements FileContent {
     public long write(final FileContent fileContent) throws IOException {
         final OutputStream output = fileContent.getOutputStream();
         try {
+            if (output instanceof FileContentOutputStream) {
+                return transfer((FileContentOutputStream) output);
+            }
             return this.write(output);
         } finally {
             output.close();
@@ -732,18 +850,58 @@ public final class DefaultFileContent implements FileContent {
     @Override
     public long write(final OutputStream output, final int bufferSize) throws IOException {
         final InputStream input = this.getInputStream();
-        long count = 0;
         try {
-            // This read/write code from Apache Commons IO
-            final byte[] buffer = new byte[bufferSize];
-            int n = 0;
-            while (-1 != (n = input.read(buffer))) {
-                output.write(buffer, 0, n);
-                count += n;
+            return copy(input, output, bufferSize);
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     * Copies this content to the output stream of another file, letting either file transfer the content directly
+     * if it implements {@link FileContentTransfer}.
+     */
+    private long transfer(final FileContentOutputStream output) throws IOException {
+        final FileContentInputStream input = (FileContentInputStream) this.getInputStream();
+        try {
+            final InputStream rawInput = input.getRawStream();
+            final OutputStream rawOutput = output.getRawStream();
+            long count = -1;
+            try {
+                if (fileObject instanceof FileContentTransfer) {
+                    count = ((FileContentTransfer) fileObject).transferTo(rawInput, rawOutput);
+                }
+                if (count < 0 && output.file instanceof FileContentTransfer) {
+                    count = ((FileContentTransfer) output.file).transferFrom(rawInput, rawOutput);
+                }
+            } catch (final IOException e) {
+                // a direct transfer does not tell which side failed
+                input.failed = true;
+                output.failed = true;
+                throw e;
+            }
+            if (count < 0) {
+                count = copy(input, output, WRITE_BUFFER_SIZE);
+            } else {
+                input.rawCount = count;
+                output.rawCount = count;
             }
+            return count;
         } finally {
             input.close();
         }
+    }
+
+    private static long copy(final InputStream input, final OutputStream output, final int bufferSize)
+            throws IOException {
+        long count = 0;
+        // This read/write code from Apache Commons IO
+        final byte[] buffer = new byte[bufferSize];
+        int n = 0;
+        while (-1 != (n = input.read(buffer))) {
+            output.write(buffer, 0, n);
+            count += n;
+        }
         return count;
     }
 }
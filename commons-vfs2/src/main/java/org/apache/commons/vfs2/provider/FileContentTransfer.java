@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.provider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Implemented by file objects which can copy content to or from another file more efficiently than through a
+ * buffer, for example with {@link java.nio.channels.FileChannel#transferTo(long, long,
+ * java.nio.channels.WritableByteChannel)}.
+ * <p>
+ * {@link DefaultFileContent#write(org.apache.commons.vfs2.FileContent)} opens the streams of both files as usual and
+ * hands the raw streams, as returned by {@link AbstractFileObject#doGetInputStream()} and
+ * {@link AbstractFileObject#doGetOutputStream(boolean)}, to the source file and then to the destination file. If
+ * neither transfers the content it is copied through a buffer.
+ */
+public interface FileContentTransfer {
+    /**
+     * Copies the content of this file to the destination.
+     *
+     * @param input The raw input stream of this file.
+     * @param output The raw output stream of the destination file.
+     * @return The number of bytes copied, or -1 if this file cannot copy to the output, in which case neither stream
+     *         has been used.
+     * @throws IOException if an error occurs.
+     */
+    long transferTo(InputStream input, OutputStream output) throws IOException;
+
+    /**
+     * Copies the content of the source to this file.
+     *
+     * @param input The raw input stream of the source file.
+     * @param output The raw output stream of this file.
+     * @return The number of bytes copied, or -1 if this file cannot copy from the input, in which case neither stream
+     *         has been used.
+     * @throws IOException if an error occurs.
+     */
+    long transferFrom(InputStream input, OutputStream output) throws IOException;
+}
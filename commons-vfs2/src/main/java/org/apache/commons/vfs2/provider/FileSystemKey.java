@@ -21,9 +21,9 @@ import org.apache.commons.vfs2.FileSystemOptions;
 /**
  * Used to identify a filesystem
  */
-class FileSystemKey implements Comparable<FileSystemKey> {
+class FileSystemKey {
 
-    private static final FileSystemOptions EMPTY_OPTIONS = new FileSystemOptions();
+    private static final FileSystemOptions EMPTY_OPTIONS = new FileSystemOptions().freeze();
 
     private final Comparable<?> key;
     private final FileSystemOptions fileSystemOptions;
@@ -31,28 +31,29 @@ class FileSystemKey implements Comparable<FileSystemKey> {
     /**
      * Create the FS key.
      *
-     * @param key must implement Comparable, and must be self-comparable
+     * @param key must implement equals and hashCode consistently with its compareTo
      * @param fileSystemOptions the required options
      */
     FileSystemKey(final Comparable<?> key, final FileSystemOptions fileSystemOptions) {
         this.key = key;
-        if (fileSystemOptions != null) {
-            this.fileSystemOptions = fileSystemOptions;
-        } else {
-            this.fileSystemOptions = EMPTY_OPTIONS;
-        }
+        this.fileSystemOptions = freeze(fileSystemOptions);
     }
 
-    @Override
-    public int compareTo(final FileSystemKey o) {
-        @SuppressWarnings("unchecked") // Keys must implement comparable, and be comparable to themselves
-        final Comparable<Comparable<?>> comparable = (Comparable<Comparable<?>>) key;
-        final int ret = comparable.compareTo(o.key);
-        if (ret != 0) {
-            // other filesystem
-            return ret;
-        }
-
-        return fileSystemOptions.compareTo(o.fileSystemOptions);
+    /**
+     * Returns the frozen options a file system is cached with.
+     *
+     * @param fileSystemOptions the options, may be null.
+     * @return the frozen options, never null.
+     */
+    static FileSystemOptions freeze(final FileSystemOptions fileSystemOptions) {
+        return fileSystemOptions != null ? fileSystemOptions.freeze() : EMPTY_OPTIONS;
+    }
+
+    Comparable<?> getKey() {
+        return key;
+    }
+
+    FileSystemOptions getFileSystemOptions() {
+        return fileSystemOptions;
     }
 }
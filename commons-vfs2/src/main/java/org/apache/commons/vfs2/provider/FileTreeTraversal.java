@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.provider;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSelectInfo;
+import org.apache.commons.vfs2.FileSelector;
+import org.apache.commons.vfs2.Selectors;
+
+/**
+ * Walks a file tree and collects the files accepted by a {@link FileSelector}.
+ * <p>
+ * The walk first builds a tree of the visited files, keeping only the branches that contain selected files, and then
+ * flattens it into the result list in depthwise or non-depthwise order. When an executor is given, each file is
+ * visited by a separate task so that sibling folders are listed concurrently. Tasks never wait for each other: the task
+ * that completes the last child of a folder calls {@link FileSelector#includeFile} for that folder.
+ */
+final class FileTreeTraversal {
+    /**
+     * A visited file, which is also the selection information passed to the selector.
+     */
+    private final class Node implements FileSelectInfo {
+        private final FileObject file;
+        private final int depth;
+        private final Node parent;
+        private final int index;
+        private Node[] children;
+        private AtomicInteger pending;
+        private boolean included;
+
+        Node(final FileObject file, final int depth, final Node parent, final int index) {
+            this.file = file;
+            this.depth = depth;
+            this.parent = parent;
+            this.index = index;
+        }
+
+        @Override
+        public FileObject getBaseFolder() {
+            return baseFolder;
+        }
+
+        @Override
+        public FileObject getFile() {
+            return file;
+        }
+
+        @Override
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * Determines if neither this file nor any of its descendants were selected.
+         */
+        boolean isEmpty() {
+            if (included) {
+                return false;
+            }
+            if (children != null) {
+                for (final Node child : children) {
+                    if (child != null) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return super.toString() + " [baseFolder=" + baseFolder + ", file=" + file + ", depth=" + depth + "]";
+        }
+    }
+
+    private final FileObject baseFolder;
+    private final FileSelector selector;
+    private final ExecutorService executor;
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    private FileTreeTraversal(final FileObject baseFolder, final FileSelector selector, final ExecutorService executor) {
+        this.baseFolder = baseFolder;
+        this.selector = selector;
+        this.executor = executor;
+    }
+
+    /**
+     * Traverses a file and its descendants, and adds the selected files to a list.
+     *
+     * @param baseFolder The file to start from.
+     * @param selector The selector.
+     * @param depthwise if true files are added after their descendants, before otherwise.
+     * @param selected The list to add the selected files to.
+     * @param executor The executor to list folders with, or null to traverse on the calling thread. Only used if the
+     *            selector is thread safe.
+     * @throws Exception if the file tree cannot be traversed or the selector fails.
+     */
+    static void traverse(final FileObject baseFolder, final FileSelector selector, final boolean depthwise,
+            final List<FileObject> selected, final ExecutorService executor) throws Exception {
+        final boolean parallel = executor != null && Selectors.isThreadSafe(selector);
+        final FileTreeTraversal traversal = new FileTreeTraversal(baseFolder, selector, parallel ? executor : null);
+        final Node root = traversal.new Node(baseFolder, 0, null, 0);
+        if (parallel) {
+            traversal.walkConcurrently(root);
+        } else {
+            traversal.walk(root);
+        }
+        flatten(root, depthwise, selected);
+    }
+
+    /**
+     * Visits a file and its descendants on the calling thread.
+     */
+    private void walk(final Node node) throws Exception {
+        if (node.file.getType().hasChildren() && selector.traverseDescendents(node)) {
+            final FileObject[] files = node.file.getChildren();
+            node.children = new Node[files.length];
+            for (int i = 0; i < files.length; i++) {
+                final Node child = new Node(files[i], node.depth + 1, node, i);
+                walk(child);
+                if (!child.isEmpty()) {
+                    node.children[i] = child;
+                }
+            }
+        }
+        node.included = selector.includeFile(node);
+    }
+
+    /**
+     * Visits a file and its descendants on the executor, and waits until all of them have been visited.
+     */
+    private void walkConcurrently(final Node root) throws Exception {
+        submit(root);
+        try {
+            done.await();
+        } catch (final InterruptedException e) {
+            failure.compareAndSet(null, e);
+            Thread.currentThread().interrupt();
+        }
+        final Exception e = failure.get();
+        if (e != null) {
+            throw e;
+        }
+    }
+
+    private void submit(final Node node) {
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    visit(node);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Lists a folder and submits its children, or completes the file if there is nothing to list.
+     */
+    private void visit(final Node node) {
+        if (failure.get() != null) {
+            return;
+        }
+        try {
+            if (node.file.getType().hasChildren() && selector.traverseDescendents(node)) {
+                final FileObject[] files = node.file.getChildren();
+                if (files.length > 0) {
+                    final Node[] children = new Node[files.length];
+                    for (int i = 0; i < files.length; i++) {
+                        children[i] = new Node(files[i], node.depth + 1, node, i);
+                    }
+                    node.children = children;
+                    node.pending = new AtomicInteger(children.length);
+                    for (final Node child : children) {
+                        submit(child);
+                    }
+                    return;
+                }
+            }
+            complete(node);
+        } catch (final Exception e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Selects a file whose descendants have all been visited, then its parent if this was the last child it waited for,
+     * and so on up the tree.
+     */
+    private void complete(final Node completed) throws Exception {
+        Node node = completed;
+        while (true) {
+            node.included = selector.includeFile(node);
+            final Node parent = node.parent;
+            if (parent == null) {
+                done.countDown();
+                return;
+            }
+            if (node.isEmpty()) {
+                parent.children[node.index] = null;
+            }
+            // the decrement publishes the writes above to the thread completing the parent
+            if (parent.pending.decrementAndGet() != 0) {
+                return;
+            }
+            node = parent;
+        }
+    }
+
+    private void fail(final Exception e) {
+        failure.compareAndSet(null, e);
+        done.countDown();
+    }
+
+    private static void flatten(final Node node, final boolean depthwise, final List<FileObject> selected) {
+        if (!depthwise && node.included) {
+            selected.add(node.file);
+        }
+        if (node.children != null) {
+            for (final Node child : node.children) {
+                if (child != null) {
+                    flatten(child, depthwise, selected);
+                }
+            }
+        }
+        if (depthwise && node.included) {
+            selected.add(node.file);
+        }
+    }
+}
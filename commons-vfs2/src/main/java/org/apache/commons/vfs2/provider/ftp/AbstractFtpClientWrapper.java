@@ -20,9 +20,12 @@ package org.apache.commons.vfs2.provider.ftp;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.commons.net.MalformedServerReplyException;
 import org.apache.commons.net.ftp.FTPClient;
 import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPListParseEngine;
 import org.apache.commons.net.ftp.FTPReply;
+import org.apache.commons.net.ftp.parser.MLSxEntryParser;
 import org.apache.commons.vfs2.FileSystemException;
 import org.apache.commons.vfs2.FileSystemOptions;
 import org.apache.commons.vfs2.provider.GenericFileName;
@@ -132,6 +135,24 @@ public abstract class AbstractFtpClientWrapper implements FtpClient {
         return files;
     }
 
+    public FTPListParseEngine initiateMListParsing(String relPath) throws IOException {
+        try {
+            return mlistDirectory(relPath);
+        } catch (IOException e) {
+            disconnect();
+            return mlistDirectory(relPath);
+        }
+    }
+
+    private FTPListParseEngine mlistDirectory(String relPath) throws IOException {
+        final FTPListParseEngine engine = getFtpClient().initiateMListParsing(relPath);
+        if (FTPReply.isPositiveCompletion(getFtpClient().getReplyCode())) {
+            return engine;
+        }
+        // let the caller fall back to LIST, see VFS-307
+        return null;
+    }
+
     public boolean removeDirectory(String relPath) throws IOException {
         try {
             return getFtpClient().removeDirectory(relPath);
@@ -230,4 +251,80 @@ public abstract class AbstractFtpClientWrapper implements FtpClient {
     public String getReplyString() throws IOException {
         return getFtpClient().getReplyString();
     }
+
+    public boolean hasFeature(String feature) throws IOException {
+        try {
+            return getFtpClient().hasFeature(feature);
+        } catch (IOException e) {
+            disconnect();
+            return getFtpClient().hasFeature(feature);
+        }
+    }
+
+    public FTPFile mlistFile(String relPath) throws IOException {
+        try {
+            return sendMlst(relPath);
+        } catch (IOException e) {
+            disconnect();
+            return sendMlst(relPath);
+        }
+    }
+
+    private FTPFile sendMlst(String relPath) throws IOException {
+        final FTPClient client = getFtpClient();
+        try {
+            return client.mlistFile(relPath);
+        } catch (MalformedServerReplyException e) {
+            // Some servers omit the space RFC 3659 requires in front of the facts, parse the entry anyway
+            final String[] reply = client.getReplyStrings();
+            final FTPFile ftpFile = reply.length > 1 ? MLSxEntryParser.parseEntry(reply[1]) : null;
+            if (ftpFile == null) {
+                throw e;
+            }
+            return ftpFile;
+        }
+    }
+
+    public String getSize(String relPath) throws IOException {
+        try {
+            return sendSize(relPath);
+        } catch (IOException e) {
+            disconnect();
+            return sendSize(relPath);
+        }
+    }
+
+    private String sendSize(String relPath) throws IOException {
+        // SIZE is an RFC 3659 command commons-net has no dedicated method for, the reply is "213 <size>"
+        final FTPClient client = getFtpClient();
+        if (FTPReply.isPositiveCompletion(client.sendCommand("SIZE", relPath))) {
+            return client.getReplyString().substring(4).trim();
+        }
+        return null;
+    }
+
+    public FTPFile mdtmFile(String relPath) throws IOException {
+        try {
+            return getFtpClient().mdtmFile(relPath);
+        } catch (IOException e) {
+            disconnect();
+            return getFtpClient().mdtmFile(relPath);
+        }
+    }
+
+    /**
+     * Sends a NOOP to check whether the control connection is still alive. Does not reconnect.
+     *
+     * @return true if the server answered with a positive completion reply.
+     */
+    public boolean sendNoOp() {
+        if (ftpClient == null) {
+            return false;
+        }
+        try {
+            return ftpClient.sendNoOp();
+        } catch (IOException e) {
+            return false;
+        }
+    }
 }
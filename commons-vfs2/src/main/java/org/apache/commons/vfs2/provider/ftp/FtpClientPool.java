@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.vfs2.provider.ftp;
+
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.FileSystemInstrumentation;
+import org.apache.commons.vfs2.FileSystemOptions;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded pool of logged-in {@link FtpClient}s for one {@link FtpFileSystem}.
+ * <p>
+ * The pool caps the number of control connections to the server, keeps up to a configured number of them idle for
+ * reuse, and serves waiting callers in arrival order once the cap is reached. As a file system is created per root
+ * name and set of options, the pool is effectively keyed by host, credentials and options.
+ * </p>
+ * <p>
+ * Once the pool is closed it keeps serving callers with fresh clients, which are disconnected as soon as they are
+ * returned. This matches what {@link FtpFileSystem} did before pooling after its communication link was closed.
+ * </p>
+ *
+ * @see FtpFileSystemConfigBuilder#setPoolMaxTotal
+ * @see FtpFileSystemConfigBuilder#setPoolMaxIdle
+ */
+final class FtpClientPool {
+    private final FtpFileSystem fileSystem;
+    private final ClientWrapperFactory clientWrapperFactory;
+
+    private final int maxTotal;
+    private final int maxIdle;
+    private final long idleTimeout;
+    private final long maxWait;
+    private final boolean validateOnBorrow;
+
+    /** Fair, so that waiting callers are served in arrival order. */
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition released = lock.newCondition();
+
+    /** Idle clients, most recently returned first. */
+    private final Deque<IdleClient> idleClients = new ArrayDeque<>();
+
+    /** Clients handed out or being connected. */
+    private int activeCount;
+
+    private boolean closed;
+
+    /**
+     * An idle client and the time it was returned.
+     */
+    private static final class IdleClient {
+        private final FtpClient client;
+        private final long returnedTime;
+
+        private IdleClient(final FtpClient client, final long returnedTime) {
+            this.client = client;
+            this.returnedTime = returnedTime;
+        }
+    }
+
+    /**
+     * Creates the pool with one connected idle client, so that connection problems surface when the file system is
+     * created.
+     *
+     * @param fileSystem The file system the clients connect to.
+     * @param clientWrapperFactory The factory creating logged-in clients.
+     * @param fileSystemOptions The FileSystemOptions.
+     * @throws FileSystemException if the initial client cannot connect.
+     */
+    FtpClientPool(final FtpFileSystem fileSystem, final ClientWrapperFactory clientWrapperFactory,
+            final FileSystemOptions fileSystemOptions) throws FileSystemException {
+        this.fileSystem = fileSystem;
+        this.clientWrapperFactory = clientWrapperFactory;
+
+        final FtpFileSystemConfigBuilder builder = FtpFileSystemConfigBuilder.getInstance();
+        this.maxTotal = Math.max(1, builder.getPoolMaxTotal(fileSystemOptions));
+        this.maxIdle = Math.max(0, builder.getPoolMaxIdle(fileSystemOptions));
+        this.idleTimeout = builder.getPoolIdleTimeout(fileSystemOptions);
+        this.maxWait = builder.getPoolMaxWait(fileSystemOptions);
+        this.validateOnBorrow = builder.getPoolValidateOnBorrow(fileSystemOptions);
+
+        final FtpClient client = clientWrapperFactory.create();
+        if (maxIdle > 0) {
+            idleClients.addFirst(new IdleClient(client, System.currentTimeMillis()));
+        } else {
+            fileSystem.closeConnection(client);
+        }
+    }
+
+    /**
+     * Borrows an idle client or connects a new one. Waits when {@code maxTotal} clients are in use.
+     *
+     * @return a client which must be handed back through {@link #returnClient(FtpClient)}.
+     * @throws FileSystemException if a client cannot connect or no client became available in time.
+     */
+    FtpClient borrowClient() throws FileSystemException {
+        final FtpClient client = borrow();
+        reportUsage();
+        return client;
+    }
+
+    private FtpClient borrow() throws FileSystemException {
+        final long deadline = maxWait > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWait) : 0;
+        while (true) {
+            final List<FtpClient> evicted = new ArrayList<>();
+            IdleClient idle = null;
+            lock.lock();
+            try {
+                if (closed) {
+                    return clientWrapperFactory.create();
+                }
+                evictIdle(System.currentTimeMillis(), evicted);
+                idle = idleClients.pollFirst();
+                if (idle == null && activeCount >= maxTotal) {
+                    awaitRelease(deadline);
+                    continue;
+                }
+                activeCount++;
+            } finally {
+                lock.unlock();
+                closeConnections(evicted);
+            }
+
+            if (idle == null) {
+                try {
+                    return connect();
+                } catch (final FileSystemException | RuntimeException e) {
+                    release();
+                    throw e;
+                }
+            }
+            if (isUsable(idle.client)) {
+                return idle.client;
+            }
+            fileSystem.closeConnection(idle.client);
+            release();
+        }
+    }
+
+    /**
+     * Hands a client back to the pool. It is disconnected if the pool is closed, the client lost its connection or
+     * {@code maxIdle} clients are already idle.
+     *
+     * @param client the client obtained from {@link #borrowClient()}.
+     */
+    void returnClient(final FtpClient client) {
+        final List<FtpClient> evicted = new ArrayList<>();
+        boolean keep = false;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            activeCount--;
+            final long now = System.currentTimeMillis();
+            if (idleClients.size() < maxIdle && isConnected(client)) {
+                idleClients.addFirst(new IdleClient(client, now));
+                keep = true;
+            }
+            evictIdle(now, evicted);
+            released.signal();
+        } finally {
+            lock.unlock();
+            if (!keep) {
+                evicted.add(client);
+            }
+            closeConnections(evicted);
+        }
+        reportUsage();
+    }
+
+    /**
+     * Disconnects all idle clients. Clients in use are disconnected when they are returned.
+     */
+    void close() {
+        final List<FtpClient> evicted = new ArrayList<>();
+        lock.lock();
+        try {
+            closed = true;
+            for (final IdleClient idle : idleClients) {
+                evicted.add(idle.client);
+            }
+            idleClients.clear();
+            released.signalAll();
+        } finally {
+            lock.unlock();
+            closeConnections(evicted);
+        }
+        reportUsage();
+    }
+
+    /**
+     * Connects a new client, timed as a {@link FileSystemInstrumentation.Operation#CONNECT}.
+     */
+    private FtpClient connect() throws FileSystemException {
+        final FileSystemInstrumentation instrumentation = fileSystem.getInstrumentation();
+        final long startTime = instrumentation != null ? System.nanoTime() : 0L;
+        boolean failed = true;
+        try {
+            final FtpClient client = clientWrapperFactory.create();
+            failed = false;
+            return client;
+        } finally {
+            if (instrumentation != null) {
+                instrumentation.operationCompleted(fileSystem.getRootName(),
+                        FileSystemInstrumentation.Operation.CONNECT, System.nanoTime() - startTime, 0L, failed);
+            }
+        }
+    }
+
+    /**
+     * Reports the number of clients in use and idle to the instrumentation of the file system.
+     */
+    private void reportUsage() {
+        final FileSystemInstrumentation instrumentation = fileSystem.getInstrumentation();
+        if (instrumentation == null) {
+            return;
+        }
+        final int active;
+        final int idle;
+        lock.lock();
+        try {
+            active = activeCount;
+            idle = idleClients.size();
+        } finally {
+            lock.unlock();
+        }
+        instrumentation.poolUsageChanged(fileSystem.getRootName(), active, idle, maxTotal);
+    }
+
+    private boolean isUsable(final FtpClient client) {
+        if (!isConnected(client)) {
+            return false;
+        }
+        if (validateOnBorrow && client instanceof AbstractFtpClientWrapper) {
+            return ((AbstractFtpClientWrapper) client).sendNoOp();
+        }
+        return true;
+    }
+
+    private static boolean isConnected(final FtpClient client) {
+        try {
+            return client.isConnected();
+        } catch (final FileSystemException e) {
+            return false;
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            activeCount--;
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Must be called with the lock held.
+     */
+    private void awaitRelease(final long deadline) throws FileSystemException {
+        try {
+            if (deadline == 0) {
+                released.await();
+            } else {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || released.awaitNanos(remaining) <= 0) {
+                    throw new FileSystemException("vfs.provider.ftp/pool-exhausted.error", fileSystem.getRootName(),
+                            Long.valueOf(maxWait));
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileSystemException("vfs.provider.ftp/pool-exhausted.error", e, fileSystem.getRootName(),
+                    Long.valueOf(maxWait));
+        }
+    }
+
+    /**
+     * Collects the idle clients which exceeded the idle timeout. Must be called with the lock held, the collected
+     * clients are disconnected after the lock is released.
+     */
+    private void evictIdle(final long now, final List<FtpClient> evicted) {
+        if (idleTimeout <= 0) {
+            return;
+        }
+        for (final Iterator<IdleClient> iterator = idleClients.descendingIterator(); iterator.hasNext();) {
+            final IdleClient idle = iterator.next();
+            if (now - idle.returnedTime < idleTimeout) {
+                // the deque is ordered by return time
+                break;
+            }
+            iterator.remove();
+            evicted.add(idle.client);
+        }
+    }
+
+    private void closeConnections(final List<FtpClient> clients) {
+        for (final FtpClient client : clients) {
+            fileSystem.closeConnection(client);
+        }
+    }
+}
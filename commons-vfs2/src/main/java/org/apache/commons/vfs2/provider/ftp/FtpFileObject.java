@@ -19,6 +19,7 @@ package org.apache.commons.vfs2.provider.ftp;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPListParseEngine;
 import org.apache.commons.vfs2.FileName;
 import org.apache.commons.vfs2.FileNotFolderException;
 import org.apache.commons.vfs2.FileObject;
@@ -39,23 +40,30 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * An FTP file.
  */
 public class FtpFileObject extends AbstractFileObject<FtpFileSystem> {
-    private static final ConcurrentSkipListMap<String, FTPFile> EMPTY_FTP_FILE_MAP =
-            new ConcurrentSkipListMap<>();
+    private static final Map<String, FTPFile> EMPTY_FTP_FILE_MAP = Collections.emptyMap();
     private static final FTPFile UNKNOWN = new FTPFile();
     private static final Log log = LogFactory.getLog(FtpFileObject.class);
+    private static final int LIST_PAGE_SIZE = 1000;
 
     private final String relPath;
 
     // Cached info
     private FTPFile fileInfo;
-    private ConcurrentSkipListMap<String, FTPFile> children;
+    /**
+     * The cached listing of this folder, empty if not listed. A listing is built before it is published here, and is
+     * never filled in place, as children read it while holding their own lock only.
+     */
+    private volatile Map<String, FTPFile> children;
     private FileObject linkDestination;
 
     private boolean inRefresh;
@@ -64,7 +72,7 @@ public class FtpFileObject extends AbstractFileObject<FtpFileSystem> {
             throws FileSystemException {
         super(name, fileSystem);
         final String relPath = UriParser.decode(rootName.getRelativeName(name));
-        children = new ConcurrentSkipListMap<>();
+        children = EMPTY_FTP_FILE_MAP;
         if (".".equals(relPath)) {
             // do not use the "." as path against the ftp-server
             // e.g. the uu.net ftp-server do a recursive listing then
@@ -83,34 +91,31 @@ public class FtpFileObject extends AbstractFileObject<FtpFileSystem> {
      * @param flush recreate children cache
      */
     private FTPFile getChildFile(final String name, final boolean flush) throws IOException {
-        /*
-         * If we should flush cached children, clear our children map unless we're in the middle of a refresh in which
-         * case we've just recently refreshed our children. No need to do it again when our children are refresh()ed,
-         * calling getChildFile() for themselves from within getInfo(). See getChildren().
-         */
-        if (flush && !inRefresh) {
-            children.clear();
-        }
-
-        // List the children of this file
-        doGetChildren();
+        // Children only ever lock their parent while holding their own lock, never the other way round
+        synchronized (getLock()) {
+            /*
+             * If we should flush cached children, clear our children map unless we're in the middle of a refresh in
+             * which case we've just recently refreshed our children. No need to do it again when our children are
+             * refresh()ed, calling getChildFile() for themselves from within getInfo(). See getChildren().
+             */
+            if (flush && !inRefresh) {
+                children = EMPTY_FTP_FILE_MAP;
+            }
 
-        // VFS-210
-        if (children == null) {
-            return null;
+            // List the children of this file, and look for the requested child
+            return doGetChildren().get(name);
         }
-
-        // Look for the requested child
-        final FTPFile ftpFile = children.get(name);
-        return ftpFile;
     }
 
     /**
      * Fetches the children of this file, if not already cached.
+     *
+     * @return The children of this file by name.
      */
-    private void doGetChildren() throws IOException {
-        if (!children.isEmpty()) {
-            return;
+    private Map<String, FTPFile> doGetChildren() throws IOException {
+        final Map<String, FTPFile> cachedChildren = children;
+        if (!cachedChildren.isEmpty()) {
+            return cachedChildren;
         }
 
         final FtpClient client = getAbstractFileSystem().getClient();
@@ -119,30 +124,87 @@ public class FtpFileObject extends AbstractFileObject<FtpFileSystem> {
                     ? getFileSystem().getFileSystemManager().resolveName(getParent().getName(), fileInfo.getLink())
                             .getPath()
                     : relPath;
-            final FTPFile[] tmpChildren = client.listFiles(path);
-            if (tmpChildren == null || tmpChildren.length == 0) {
-                children = EMPTY_FTP_FILE_MAP;
+            // MLSD is only known to the VFS client wrappers, other clients always use LIST
+            FTPListParseEngine engine = null;
+            if (getAbstractFileSystem().isMlsdListing() && client instanceof AbstractFtpClientWrapper) {
+                final AbstractFtpClientWrapper wrapper = (AbstractFtpClientWrapper) client;
+                if (wrapper.hasFeature("MLST")) {
+                    engine = wrapper.initiateMListParsing(path);
+                }
+            }
+            final Map<String, FTPFile> newChildren;
+            if (engine != null) {
+                newChildren = readChildren(engine);
             } else {
-                children = new ConcurrentSkipListMap<>();
+                newChildren = listChildren(client.listFiles(path));
+            }
+            children = newChildren;
+            return newChildren;
+        } finally {
+            getAbstractFileSystem().putClient(client);
+        }
+    }
 
-                // Remove '.' and '..' elements
-                for (int i = 0; i < tmpChildren.length; i++) {
-                    final FTPFile child = tmpChildren[i];
-                    if (child == null) {
-                        if (log.isDebugEnabled()) {
-                            log.debug(Messages.getString("vfs.provider.ftp/invalid-directory-entry.debug",
-                                    Integer.valueOf(i), relPath));
-                        }
-                        continue;
-                    }
-                    if (!".".equals(child.getName()) && !"..".equals(child.getName())) {
-                        children.put(child.getName(), child);
+    /**
+     * Collects the entries of a LIST reply, without the '.' and '..' elements.
+     */
+    private Map<String, FTPFile> listChildren(final FTPFile[] tmpChildren) {
+        if (tmpChildren == null || tmpChildren.length == 0) {
+            return EMPTY_FTP_FILE_MAP;
+        }
+        final Map<String, FTPFile> newChildren = new ConcurrentSkipListMap<>();
+        for (int i = 0; i < tmpChildren.length; i++) {
+            final FTPFile child = tmpChildren[i];
+            if (child == null) {
+                if (log.isDebugEnabled()) {
+                    log.debug(Messages.getString("vfs.provider.ftp/invalid-directory-entry.debug",
+                            Integer.valueOf(i), relPath));
+                }
+                continue;
+            }
+            if (!".".equals(child.getName()) && !"..".equals(child.getName())) {
+                newChildren.put(child.getName(), child);
+            }
+        }
+        return newChildren.isEmpty() ? EMPTY_FTP_FILE_MAP : newChildren;
+    }
+
+    /**
+     * Parses an MLSD listing a page at a time, so that no array of all entries is built for large folders.
+     */
+    private Map<String, FTPFile> readChildren(final FTPListParseEngine engine) {
+        final Map<String, FTPFile> newChildren = new ConcurrentSkipListMap<>();
+        int i = 0;
+        while (engine.hasNext()) {
+            for (final FTPFile child : engine.getNext(LIST_PAGE_SIZE)) {
+                if (child == null) {
+                    if (log.isDebugEnabled()) {
+                        log.debug(Messages.getString("vfs.provider.ftp/invalid-directory-entry.debug",
+                                Integer.valueOf(i), relPath));
                     }
+                } else if (!isCurrentOrParentFolder(child)) {
+                    newChildren.put(child.getName(), child);
                 }
+                i++;
             }
-        } finally {
-            getAbstractFileSystem().putClient(client);
         }
+        return newChildren.isEmpty() ? EMPTY_FTP_FILE_MAP : newChildren;
+    }
+
+    /**
+     * MLSD may list the folder itself and its parent, by any name, with the cdir and pdir types.
+     */
+    private static boolean isCurrentOrParentFolder(final FTPFile child) {
+        if (".".equals(child.getName()) || "..".equals(child.getName())) {
+            return true;
+        }
+        final String rawListing = child.getRawListing();
+        final int end = rawListing == null ? -1 : rawListing.indexOf(' ');
+        if (end < 0) {
+            return false;
+        }
+        final String facts = rawListing.substring(0, end).toLowerCase(Locale.ROOT);
+        return facts.contains("type=cdir;") || facts.contains("type=pdir;");
     }
 
     /**
@@ -161,7 +223,13 @@ public class FtpFileObject extends AbstractFileObject<FtpFileSystem> {
         final FtpFileObject parent = (FtpFileObject) FileObjectUtils.getAbstractFileObject(getParent());
         FTPFile newFileInfo;
         if (parent != null) {
-            newFileInfo = parent.getChildFile(UriParser.decode(getName().getBaseName()), flush);
+            // Siblings listed by the parent are cheaper to reuse than a round trip per file
+            newFileInfo = !flush && parent.hasCachedChildren() ? null : statFile();
+            if (newFileInfo == null) {
+                newFileInfo = parent.getChildFile(UriParser.decode(getName().getBaseName()), flush);
+            } else if (newFileInfo == UNKNOWN) {
+                newFileInfo = null;
+            }
         } else {
             // Assume the root is a directory and exists
             newFileInfo = new FTPFile();
@@ -175,6 +243,62 @@ public class FtpFileObject extends AbstractFileObject<FtpFileSystem> {
         }
     }
 
+    /**
+     * Looks up this file on the server without listing the parent, using the configured {@link FtpStatStrategy}.
+     *
+     * @return The file info, {@link #UNKNOWN} if MLST reports there is no such file, or null if the parent has to be
+     *         listed instead.
+     */
+    private FTPFile statFile() throws IOException {
+        final FtpStatStrategy statStrategy = getAbstractFileSystem().getStatStrategy();
+        if (statStrategy == FtpStatStrategy.LIST) {
+            return null;
+        }
+
+        final FtpClient client = getAbstractFileSystem().getClient();
+        try {
+            // The single file commands are only known to the VFS client wrappers, other clients list the parent
+            if (!(client instanceof AbstractFtpClientWrapper)) {
+                return null;
+            }
+            final AbstractFtpClientWrapper wrapper = (AbstractFtpClientWrapper) client;
+            if (statStrategy == FtpStatStrategy.MLST && wrapper.hasFeature("MLST")) {
+                final FTPFile ftpFile = wrapper.mlistFile(relPath);
+                if (ftpFile == null) {
+                    return UNKNOWN;
+                }
+                // Leave types the MLSx parser does not know, e.g. OS specific links, to the list parser
+                return ftpFile.getType() == FTPFile.UNKNOWN_TYPE ? null : ftpFile;
+            }
+
+            // SIZE is only answered for plain files. A 550 reply may mean a folder, a missing file, or a file the
+            // server does not size in the current transfer type, so only the parent listing can tell them apart.
+            final String size = wrapper.getSize(relPath);
+            if (size == null) {
+                return null;
+            }
+            final FTPFile ftpFile = new FTPFile();
+            ftpFile.setName(UriParser.decode(getName().getBaseName()));
+            ftpFile.setType(FTPFile.FILE_TYPE);
+            try {
+                ftpFile.setSize(Long.parseLong(size));
+            } catch (final NumberFormatException e) {
+                return null;
+            }
+            final FTPFile mdtmFile = wrapper.mdtmFile(relPath);
+            if (mdtmFile != null) {
+                ftpFile.setTimestamp(mdtmFile.getTimestamp());
+            }
+            return ftpFile;
+        } finally {
+            getAbstractFileSystem().putClient(client);
+        }
+    }
+
+    private boolean hasCachedChildren() {
+        return !children.isEmpty();
+    }
+
     /**
      * @throws FileSystemException if an error occurs.
      */
@@ -185,7 +309,7 @@ public class FtpFileObject extends AbstractFileObject<FtpFileSystem> {
                 inRefresh = true;
                 super.refresh();
 
-                synchronized (getFileSystem()) {
+                synchronized (getLock()) {
                     this.fileInfo = null;
                 }
 
@@ -204,9 +328,9 @@ public class FtpFileObject extends AbstractFileObject<FtpFileSystem> {
      */
     @Override
     protected void doDetach() {
-        synchronized (getFileSystem()) {
+        synchronized (getLock()) {
             this.fileInfo = null;
-            children.clear();
+            children = EMPTY_FTP_FILE_MAP;
         }
     }
 
@@ -216,12 +340,13 @@ public class FtpFileObject extends AbstractFileObject<FtpFileSystem> {
     @Override
     protected void onChildrenChanged(final FileName child, final FileType newType) {
         if (FileType.IMAGINARY.equals(newType)) {
-
-            if (!(children.isEmpty())) {
+            // only a listing of its own is changed in place, never the shared empty map
+            final Map<String, FTPFile> cachedChildren = children;
+            if (!(cachedChildren.isEmpty())) {
 
                 try {
-                    if (children.containsKey(UriParser.decode(child.getBaseName()))) {
-                        children.remove(UriParser.decode(child.getBaseName()));
+                    if (cachedChildren.containsKey(UriParser.decode(child.getBaseName()))) {
+                        cachedChildren.remove(UriParser.decode(child.getBaseName()));
                     } else {
                         if (log.isDebugEnabled()) {
                             log.debug("Map does not contain the " + child.getBaseName() + "in the map");
@@ -239,7 +364,7 @@ public class FtpFileObject extends AbstractFileObject<FtpFileSystem> {
         } else {
             // if child was added we have to rescan the children
             // TODO - get rid of this
-            children.clear();
+            children = EMPTY_FTP_FILE_MAP;
         }
     }
 
@@ -248,11 +373,11 @@ public class FtpFileObject extends AbstractFileObject<FtpFileSystem> {
      */
     @Override
     protected void onChange() throws IOException {
-        children.clear();
+        children = EMPTY_FTP_FILE_MAP;
 
         if (getType().equals(FileType.IMAGINARY)) {
             // file is deleted, avoid server lookup
-            synchronized (getFileSystem()) {
+            synchronized (getLock()) {
                 this.fileInfo = UNKNOWN;
             }
             return;
@@ -267,7 +392,7 @@ public class FtpFileObject extends AbstractFileObject<FtpFileSystem> {
     @Override
     protected FileType doGetType() throws Exception {
         // VFS-210
-        synchronized (getFileSystem()) {
+        synchronized (getLock()) {
             if (this.fileInfo == null) {
                 getInfo(false);
             }
@@ -298,7 +423,7 @@ public class FtpFileObject extends AbstractFileObject<FtpFileSystem> {
     private FileObject getLinkDestination() throws FileSystemException {
         if (linkDestination == null) {
             final String path;
-            synchronized (getFileSystem()) {
+            synchronized (getLock()) {
                 path = this.fileInfo.getLink();
             }
             FileName relativeTo = getName().getParent();
@@ -314,7 +439,7 @@ public class FtpFileObject extends AbstractFileObject<FtpFileSystem> {
 
     @Override
     protected FileObject[] doListChildrenResolved() throws Exception {
-        synchronized (getFileSystem()) {
+        synchronized (getLock()) {
             if (this.fileInfo != null && this.fileInfo.isSymbolicLink()) {
                 final FileObject linkDest = getLinkDestination();
                 // VFS-437: Try to avoid a recursion loop.
@@ -366,19 +491,17 @@ public class FtpFileObject extends AbstractFileObject<FtpFileSystem> {
     @Override
     protected String[] doListChildren() throws Exception {
         // List the children of this file
-        doGetChildren();
+        final Map<String, FTPFile> listing = doGetChildren();
 
         // VFS-210
-        if (children.isEmpty()) {
+        if (listing.isEmpty()) {
             return null;
-        } else if (children.isEmpty()) {
-            return new String[0];
         }
 
         // TODO - get rid of this children stuff
-        final String[] childNames = new String[children.size()];
+        final String[] childNames = new String[listing.size()];
         int childNum = -1;
-        final Iterator<FTPFile> iterChildren = children.values().iterator();
+        final Iterator<FTPFile> iterChildren = listing.values().iterator();
         while (iterChildren.hasNext()) {
             childNum++;
             final FTPFile child = iterChildren.next();
@@ -393,7 +516,7 @@ public class FtpFileObject extends AbstractFileObject<FtpFileSystem> {
      */
     @Override
     protected void doDelete() throws Exception {
-        synchronized (getFileSystem()) {
+        synchronized (getLock()) {
             final boolean ok;
             final FtpClient ftpClient = getAbstractFileSystem().getClient();
             try {
@@ -419,7 +542,7 @@ public class FtpFileObject extends AbstractFileObject<FtpFileSystem> {
      */
     @Override
     protected void doRename(final FileObject newFile) throws Exception {
-        synchronized (getFileSystem()) {
+        synchronized (getLock()) {
             final boolean ok;
             final FtpClient ftpClient = getAbstractFileSystem().getClient();
             try {
@@ -461,7 +584,7 @@ public class FtpFileObject extends AbstractFileObject<FtpFileSystem> {
      */
     @Override
     protected long doGetContentSize() throws Exception {
-        synchronized (getFileSystem()) {
+        synchronized (getLock()) {
             if (this.fileInfo.isSymbolicLink()) {
                 final FileObject linkDest = getLinkDestination();
                 // VFS-437: Try to avoid a recursion loop.
@@ -481,7 +604,7 @@ public class FtpFileObject extends AbstractFileObject<FtpFileSystem> {
      */
     @Override
     protected long doGetLastModifiedTime() throws Exception {
-        synchronized (getFileSystem()) {
+        synchronized (getLock()) {
             if (this.fileInfo.isSymbolicLink()) {
                 final FileObject linkDest = getLinkDestination();
                 // VFS-437: Try to avoid a recursion loop.
@@ -29,7 +29,6 @@ import org.apache.commons.vfs2.provider.GenericFileName;
 
 import java.io.IOException;
 import java.util.Collection;
-import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * An FTP file system.
@@ -37,12 +36,9 @@ import java.util.concurrent.atomic.AtomicReference;
 public class FtpFileSystem extends AbstractFileSystem {
     private static final Log LOG = LogFactory.getLog(FtpFileSystem.class);
 
-    // An idle client
-    private final AtomicReference<FtpClient> idleClient = new AtomicReference<>();
-
-    private final ClientWrapperFactory clientWrapperFactory;
-
-    private volatile boolean isFileSystemClosed = false;
+    private final FtpClientPool clientPool;
+    private final FtpStatStrategy statStrategy;
+    private final boolean mlsdListing;
 
     /**
      * @param rootName The root of the file system.
@@ -54,18 +50,15 @@ public class FtpFileSystem extends AbstractFileSystem {
                          final FileSystemOptions fileSystemOptions) throws FileSystemException {
         super(rootName, null, fileSystemOptions);
 
-        this.clientWrapperFactory = clientWrapperFactory;
-        idleClient.set(clientWrapperFactory.create());
+        clientPool = new FtpClientPool(this, clientWrapperFactory, fileSystemOptions);
+        statStrategy = FtpFileSystemConfigBuilder.getInstance().getStatStrategy(fileSystemOptions);
+        mlsdListing = FtpFileSystemConfigBuilder.getInstance().getMlsdListing(fileSystemOptions);
     }
 
     @Override
     protected void doCloseCommunicationLink() {
-        isFileSystemClosed = true;
-        final FtpClient idle = idleClient.getAndSet(null);
-        // Clean up the connection
-        if (idle != null) {
-            closeConnection(idle);
-        }
+        // Clean up the idle connections
+        clientPool.close();
     }
 
     /**
@@ -81,7 +74,7 @@ public class FtpFileSystem extends AbstractFileSystem {
      *
      * @param client The FtpClient.
      */
-    private void closeConnection(final FtpClient client) {
+    void closeConnection(final FtpClient client) {
         try {
             // Clean up
             if (client.isConnected()) {
@@ -94,18 +87,15 @@ public class FtpFileSystem extends AbstractFileSystem {
 
     /**
      * Creates an FTP client to use.
+     * <p>
+     * Clients are taken from a bounded pool, see {@link FtpFileSystemConfigBuilder#setPoolMaxTotal}.
+     * </p>
      *
      * @return An FTPCleint.
      * @throws FileSystemException if an error occurs.
      */
     public FtpClient getClient() throws FileSystemException {
-        FtpClient client = idleClient.getAndSet(null);
-
-        if (client == null || !client.isConnected()) {
-            client = clientWrapperFactory.create();
-        }
-
-        return client;
+        return clientPool.borrowClient();
     }
 
     /**
@@ -114,13 +104,27 @@ public class FtpFileSystem extends AbstractFileSystem {
      * @param client The FTPClient.
      */
     void putClient(final FtpClient client) {
-        // Save client for reuse if none is idle.
-        if (isFileSystemClosed) {
-            closeConnection(client);
-        } else if (!idleClient.compareAndSet(null, client)) {
-            // An idle client is already present so close the connection.
-            closeConnection(client);
-        }
+        clientPool.returnClient(client);
+    }
+
+    /**
+     * Returns how file objects look up a single file.
+     *
+     * @return The stat strategy.
+     * @see FtpFileSystemConfigBuilder#setStatStrategy
+     */
+    FtpStatStrategy getStatStrategy() {
+        return statStrategy;
+    }
+
+    /**
+     * Returns whether file objects list their children with MLSD when the server supports it.
+     *
+     * @return true to list with MLSD.
+     * @see FtpFileSystemConfigBuilder#setMlsdListing
+     */
+    boolean isMlsdListing() {
+        return mlsdListing;
     }
 
     /**
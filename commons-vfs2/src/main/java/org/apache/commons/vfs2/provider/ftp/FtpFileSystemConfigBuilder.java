@@ -38,6 +38,7 @@ public class FtpFileSystemConfigBuilder extends FileSystemConfigBuilder {
     private static final String ENCODING = _PREFIX + ".ENCODING";
     private static final String FACTORY_KEY = FTPFileEntryParserFactory.class.getName() + ".KEY";
     private static final String FILE_TYPE = _PREFIX + ".FILE_TYPE";
+    private static final String MLSD_LISTING = _PREFIX + ".MLSD_LISTING";
     private static final String PASSIVE_MODE = _PREFIX + ".PASSIVE";
     private static final String PROXY = _PREFIX + ".PROXY";
     private static final String RECENT_DATE_FORMAT = _PREFIX + ".RECENT_DATE_FORMAT";
@@ -46,7 +47,25 @@ public class FtpFileSystemConfigBuilder extends FileSystemConfigBuilder {
     private static final String SERVER_TIME_ZONE_ID = _PREFIX + ".SERVER_TIME_ZONE_ID";
     private static final String SHORT_MONTH_NAMES = _PREFIX + ".SHORT_MONTH_NAMES";
     private static final String SO_TIMEOUT = _PREFIX + ".SO_TIMEOUT";
+    private static final String STAT_STRATEGY = _PREFIX + ".STAT_STRATEGY";
     private static final String USER_DIR_IS_ROOT = _PREFIX + ".USER_DIR_IS_ROOT";
+    private static final String POOL_MAX_TOTAL = _PREFIX + ".POOL_MAX_TOTAL";
+    private static final String POOL_MAX_IDLE = _PREFIX + ".POOL_MAX_IDLE";
+    private static final String POOL_IDLE_TIMEOUT = _PREFIX + ".POOL_IDLE_TIMEOUT";
+    private static final String POOL_MAX_WAIT = _PREFIX + ".POOL_MAX_WAIT";
+    private static final String POOL_VALIDATE_ON_BORROW = _PREFIX + ".POOL_VALIDATE_ON_BORROW";
+
+    /** Default upper bound of connections opened by the client pool, unbounded. */
+    public static final int DEFAULT_POOL_MAX_TOTAL = Integer.MAX_VALUE;
+
+    /** Default number of idle connections kept by the client pool. */
+    public static final int DEFAULT_POOL_MAX_IDLE = 1;
+
+    /** Default time in milliseconds after which idle connections are closed, never. */
+    public static final long DEFAULT_POOL_IDLE_TIMEOUT = 0L;
+
+    /** Default time in milliseconds to wait for a connection when the pool is exhausted. */
+    public static final long DEFAULT_POOL_MAX_WAIT = 30000L;
 
     private FtpFileSystemConfigBuilder() {
         super("ftp.");
@@ -156,6 +175,15 @@ public class FtpFileSystemConfigBuilder extends FileSystemConfigBuilder {
         return getEnum(FtpFileType.class, opts, FILE_TYPE);
     }
 
+    /**
+     * @param opts The FileSystemOptions.
+     * @return true if folders are listed with MLSD when the server supports it, defaults to false.
+     * @see #setMlsdListing
+     */
+    public boolean getMlsdListing(final FileSystemOptions opts) {
+        return getBoolean(opts, MLSD_LISTING, false);
+    }
+
     /**
      * @param opts The FileSystemOptions.
      * @return true if passive mode is set.
@@ -237,6 +265,15 @@ public class FtpFileSystemConfigBuilder extends FileSystemConfigBuilder {
         return getInteger(opts, SO_TIMEOUT);
     }
 
+    /**
+     * @param opts The FileSystemOptions.
+     * @return The strategy used to look up a single file, defaults to {@link FtpStatStrategy#LIST}.
+     * @see #setStatStrategy
+     */
+    public FtpStatStrategy getStatStrategy(final FileSystemOptions opts) {
+        return getEnum(FtpStatStrategy.class, opts, STAT_STRATEGY, FtpStatStrategy.LIST);
+    }
+
     /**
      * Returns {@link Boolean#TRUE} if VFS should treat the user directory as the root directory. Defaults to
      * <code>Boolean.TRUE</code> if the method {@link #setUserDirIsRoot(FileSystemOptions, boolean)} has not been
@@ -342,6 +379,20 @@ public class FtpFileSystemConfigBuilder extends FileSystemConfigBuilder {
         setParam(opts, FILE_TYPE, ftpFileType);
     }
 
+    /**
+     * Sets whether folders are listed with the MLSD command when the server advertises MLST in its FEAT reply.
+     * <p>
+     * MLSD entries carry exact UTC timestamps, so the date formats and month names used to parse LIST output are not
+     * needed. The listing is parsed a page at a time instead of into one array of all entries.
+     * </p>
+     *
+     * @param opts The FileSystemOptions.
+     * @param mlsdListing true to list folders with MLSD.
+     */
+    public void setMlsdListing(final FileSystemOptions opts, final boolean mlsdListing) {
+        setParam(opts, MLSD_LISTING, mlsdListing ? Boolean.TRUE : Boolean.FALSE);
+    }
+
     /**
      * Enter into passive mode.
      *
@@ -435,6 +486,20 @@ public class FtpFileSystemConfigBuilder extends FileSystemConfigBuilder {
         setParam(opts, SO_TIMEOUT, soTimeout);
     }
 
+    /**
+     * Sets how the type, size and modification time of a single file are looked up.
+     * <p>
+     * The default lists the parent folder, which transfers and parses every sibling of the file. Use
+     * {@link FtpStatStrategy#MLST} or {@link FtpStatStrategy#SIZE_MDTM} to ask the server for the file itself.
+     * </p>
+     *
+     * @param opts The FileSystemOptions.
+     * @param statStrategy The stat strategy.
+     */
+    public void setStatStrategy(final FileSystemOptions opts, final FtpStatStrategy statStrategy) {
+        setParam(opts, STAT_STRATEGY, statStrategy);
+    }
+
     /**
      * Use user directory as root (do not change to fs root).
      *
@@ -445,4 +510,102 @@ public class FtpFileSystemConfigBuilder extends FileSystemConfigBuilder {
         setParam(opts, USER_DIR_IS_ROOT, userDirIsRoot ? Boolean.TRUE : Boolean.FALSE);
     }
 
+
+    /**
+     * Sets the maximum number of control connections the client pool opens to the server. Once they are all in use,
+     * callers wait for one to be returned, see {@link #setPoolMaxWait}.
+     *
+     * @param opts The FileSystemOptions.
+     * @param maxTotal The maximum number of connections.
+     */
+    public void setPoolMaxTotal(final FileSystemOptions opts, final int maxTotal) {
+        setParam(opts, POOL_MAX_TOTAL, Integer.valueOf(maxTotal));
+    }
+
+    /**
+     * @param opts The FileSystemOptions.
+     * @return The maximum number of pooled connections, unbounded by default.
+     * @see #setPoolMaxTotal
+     */
+    public int getPoolMaxTotal(final FileSystemOptions opts) {
+        return getInteger(opts, POOL_MAX_TOTAL, DEFAULT_POOL_MAX_TOTAL);
+    }
+
+    /**
+     * Sets the number of logged-in connections kept for reuse. Connections returned beyond this number are closed.
+     *
+     * @param opts The FileSystemOptions.
+     * @param maxIdle The maximum number of idle connections.
+     */
+    public void setPoolMaxIdle(final FileSystemOptions opts, final int maxIdle) {
+        setParam(opts, POOL_MAX_IDLE, Integer.valueOf(maxIdle));
+    }
+
+    /**
+     * @param opts The FileSystemOptions.
+     * @return The maximum number of idle connections, defaults to {@value #DEFAULT_POOL_MAX_IDLE}.
+     * @see #setPoolMaxIdle
+     */
+    public int getPoolMaxIdle(final FileSystemOptions opts) {
+        return getInteger(opts, POOL_MAX_IDLE, DEFAULT_POOL_MAX_IDLE);
+    }
+
+    /**
+     * Sets the time after which idle connections are closed. A value of 0 or less keeps them open until the file
+     * system is closed.
+     *
+     * @param opts The FileSystemOptions.
+     * @param idleTimeout The idle timeout in milliseconds.
+     */
+    public void setPoolIdleTimeout(final FileSystemOptions opts, final long idleTimeout) {
+        setParam(opts, POOL_IDLE_TIMEOUT, Long.valueOf(idleTimeout));
+    }
+
+    /**
+     * @param opts The FileSystemOptions.
+     * @return The idle timeout in milliseconds, idle connections are not closed by default.
+     * @see #setPoolIdleTimeout
+     */
+    public long getPoolIdleTimeout(final FileSystemOptions opts) {
+        return getLong(opts, POOL_IDLE_TIMEOUT, DEFAULT_POOL_IDLE_TIMEOUT);
+    }
+
+    /**
+     * Sets how long a caller waits for a connection when the pool is exhausted before failing. A value of 0 or less
+     * waits indefinitely.
+     *
+     * @param opts The FileSystemOptions.
+     * @param maxWait The maximum wait in milliseconds.
+     */
+    public void setPoolMaxWait(final FileSystemOptions opts, final long maxWait) {
+        setParam(opts, POOL_MAX_WAIT, Long.valueOf(maxWait));
+    }
+
+    /**
+     * @param opts The FileSystemOptions.
+     * @return The maximum wait in milliseconds, defaults to {@value #DEFAULT_POOL_MAX_WAIT}.
+     * @see #setPoolMaxWait
+     */
+    public long getPoolMaxWait(final FileSystemOptions opts) {
+        return getLong(opts, POOL_MAX_WAIT, DEFAULT_POOL_MAX_WAIT);
+    }
+
+    /**
+     * Sets whether an idle connection is checked with a NOOP command before it is handed out.
+     *
+     * @param opts The FileSystemOptions.
+     * @param validateOnBorrow true to validate pooled connections on borrow.
+     */
+    public void setPoolValidateOnBorrow(final FileSystemOptions opts, final boolean validateOnBorrow) {
+        setParam(opts, POOL_VALIDATE_ON_BORROW, validateOnBorrow ? Boolean.TRUE : Boolean.FALSE);
+    }
+
+    /**
+     * @param opts The FileSystemOptions.
+     * @return true if pooled connections are validated on borrow, defaults to false.
+     * @see #setPoolValidateOnBorrow
+     */
+    public boolean getPoolValidateOnBorrow(final FileSystemOptions opts) {
+        return getBoolean(opts, POOL_VALIDATE_ON_BORROW, false);
+    }
 }
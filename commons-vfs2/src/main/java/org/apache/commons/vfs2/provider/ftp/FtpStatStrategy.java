@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.provider.ftp;
+
+/**
+ * How an FTP file object looks up the type, size and modification time of a single file.
+ * <p>
+ * Every strategy falls back to the next cheaper one the server supports, listing the parent folder is the last
+ * resort.
+ * </p>
+ *
+ * @see FtpFileSystemConfigBuilder#setStatStrategy
+ */
+public enum FtpStatStrategy {
+    /**
+     * List the parent folder and pick the file from the listing. This works with every server but transfers the
+     * whole parent listing.
+     */
+    LIST,
+
+    /**
+     * Ask for the file with the {@code SIZE} and {@code MDTM} commands. Files the server does not report a size for,
+     * such as folders, missing files, or files some servers refuse to size in ASCII mode, are looked up in the parent
+     * listing.
+     */
+    SIZE_MDTM,
+
+    /**
+     * Ask for the file with the {@code MLST} command when the server advertises it in its {@code FEAT} reply,
+     * otherwise behave like {@link #SIZE_MDTM}.
+     */
+    MLST
+}
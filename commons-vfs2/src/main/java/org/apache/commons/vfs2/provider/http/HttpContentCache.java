@@ -0,0 +1,415 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.provider.http;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.commons.httpclient.Header;
+import org.apache.commons.httpclient.HttpMethod;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.commons.vfs2.FileSystemException;
+
+/**
+ * An on-disk cache of HTTP response bodies, and an in-memory cache of the headers of HEAD responses, both revalidated
+ * with conditional requests.
+ * <p>
+ * Each entry keeps the body of a {@code 200} response in a local file together with its {@code ETag} and
+ * {@code Last-Modified} validators. The index is kept in memory in least recently used order, and entries are evicted
+ * once the total size of the cached bodies exceeds the configured maximum.
+ * <p>
+ * The headers of a {@code 200} reply to a HEAD request, which carry the type, length and modification time of a file,
+ * are kept with their validators as well, for up to {@link #MAX_METADATA_ENTRIES} files. A {@code 304} reply to a
+ * conditional HEAD request means they are still valid.
+ */
+class HttpContentCache {
+    private static final Log LOG = LogFactory.getLog(HttpContentCache.class);
+
+    /**
+     * The maximum number of files the HEAD response headers are kept for.
+     */
+    static final int MAX_METADATA_ENTRIES = 1024;
+
+    /**
+     * A cached response body and the validators it was served with.
+     */
+    static final class Entry {
+        private final File file;
+        private final long length;
+        private final String etag;
+        private final String lastModified;
+
+        Entry(final File file, final long length, final String etag, final String lastModified) {
+            this.file = file;
+            this.length = length;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * Makes the given request conditional on the entry being up to date.
+         */
+        void setConditions(final HttpMethod method) {
+            HttpContentCache.setConditions(method, etag, lastModified);
+        }
+    }
+
+    /**
+     * The headers of a HEAD response and the validators they were served with.
+     */
+    static final class Metadata {
+        private final Header[] headers;
+        private final String etag;
+        private final String lastModified;
+
+        Metadata(final Header[] headers) {
+            this.headers = headers;
+            this.etag = findHeader(headers, "ETag");
+            this.lastModified = findHeader(headers, "Last-Modified");
+        }
+
+        /**
+         * Returns the response headers.
+         */
+        Header[] getHeaders() {
+            return headers.clone();
+        }
+
+        /**
+         * Makes the given request conditional on the headers being up to date.
+         */
+        void setConditions(final HttpMethod method) {
+            HttpContentCache.setConditions(method, etag, lastModified);
+        }
+    }
+
+    private final File parentDir;
+    private final long maxSize;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Metadata> metadata = new LinkedHashMap<String, Metadata>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Metadata> eldest) {
+            return size() > MAX_METADATA_ENTRIES;
+        }
+    };
+
+    private File dir;
+    private long size;
+
+    HttpContentCache(final File parentDir, final long maxSize) {
+        this.parentDir = parentDir;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the entry cached for a key, or null.
+     */
+    synchronized Entry get(final String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Opens the content of an entry, or returns null if it has been replaced or evicted in the meantime.
+     */
+    synchronized InputStream open(final String key, final Entry entry) throws FileNotFoundException {
+        if (entries.get(key) != entry) {
+            return null;
+        }
+        return new FileInputStream(entry.file);
+    }
+
+    /**
+     * Drops the entry cached for a key.
+     */
+    synchronized void remove(final String key) {
+        final Entry entry = entries.remove(key);
+        if (entry != null) {
+            size -= entry.length;
+            delete(entry.file);
+        }
+    }
+
+    /**
+     * Returns the HEAD response headers cached for a key, or null.
+     */
+    synchronized Metadata getMetadata(final String key) {
+        return metadata.get(key);
+    }
+
+    /**
+     * Caches the headers of a HEAD response if it is a {@code 200} reply with validators, otherwise drops the headers
+     * cached for the key.
+     */
+    void storeMetadata(final String key, final HttpMethod method) {
+        final String cacheControl = getHeader(method, "Cache-Control");
+        if (method.getStatusCode() != HttpURLConnection.HTTP_OK
+                || getHeader(method, "ETag") == null && getHeader(method, "Last-Modified") == null
+                || cacheControl != null && cacheControl.toLowerCase(Locale.ENGLISH).contains("no-store")) {
+            removeMetadata(key);
+            return;
+        }
+        putMetadata(key, new Metadata(method.getResponseHeaders()));
+    }
+
+    /**
+     * Caches the headers of a HEAD response.
+     */
+    synchronized void putMetadata(final String key, final Metadata entry) {
+        metadata.put(key, entry);
+    }
+
+    /**
+     * Drops the HEAD response headers cached for a key.
+     */
+    synchronized void removeMetadata(final String key) {
+        metadata.remove(key);
+    }
+
+    /**
+     * Wraps the body of a {@code 200} response so that it is added to the cache once it has been read to the end.
+     * Returns the body unchanged if the response cannot be cached.
+     */
+    InputStream store(final String key, final HttpMethod method, final InputStream body) {
+        if (body == null) {
+            return null;
+        }
+        final String etag = getHeader(method, "ETag");
+        final String lastModified = getHeader(method, "Last-Modified");
+        if (etag == null && lastModified == null) {
+            return body;
+        }
+        final String cacheControl = getHeader(method, "Cache-Control");
+        if (cacheControl != null && cacheControl.toLowerCase(Locale.ENGLISH).contains("no-store")) {
+            return body;
+        }
+        final String contentLength = getHeader(method, "Content-Length");
+        if (contentLength != null) {
+            try {
+                if (Long.parseLong(contentLength) > maxSize) {
+                    return body;
+                }
+            } catch (final NumberFormatException e) {
+                return body;
+            }
+        }
+        try {
+            final File file = File.createTempFile("content", ".tmp", getDir());
+            return new StoringInputStream(body, key, file, etag, lastModified);
+        } catch (final IOException e) {
+            LOG.warn(e.getMessage(), e);
+            return body;
+        }
+    }
+
+    /**
+     * Deletes all cached content.
+     */
+    synchronized void clear() {
+        for (final Entry entry : entries.values()) {
+            delete(entry.file);
+        }
+        entries.clear();
+        metadata.clear();
+        size = 0;
+        if (dir != null) {
+            delete(dir);
+            dir = null;
+        }
+    }
+
+    private synchronized File getDir() throws IOException {
+        if (dir == null) {
+            if (!parentDir.isDirectory() && !parentDir.mkdirs() && !parentDir.isDirectory()) {
+                throw new FileSystemException("vfs.provider/create-folder.error", parentDir);
+            }
+            dir = Files.createTempDirectory(parentDir.toPath(), "vfs-http-").toFile();
+        }
+        return dir;
+    }
+
+    private synchronized void put(final String key, final Entry entry) {
+        if (entry.length > maxSize || !entry.file.getParentFile().equals(dir)) {
+            // too large, or stored before the cache was cleared
+            delete(entry.file);
+            return;
+        }
+        final Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            size -= previous.length;
+            delete(previous.file);
+        }
+        size += entry.length;
+        final Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            final Entry eldest = iterator.next().getValue();
+            iterator.remove();
+            size -= eldest.length;
+            delete(eldest.file);
+        }
+    }
+
+    private static String getHeader(final HttpMethod method, final String name) {
+        final Header header = method.getResponseHeader(name);
+        return header == null ? null : header.getValue();
+    }
+
+    private static String findHeader(final Header[] headers, final String name) {
+        for (final Header header : headers) {
+            if (header.getName().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static void setConditions(final HttpMethod method, final String etag, final String lastModified) {
+        if (etag != null) {
+            method.setRequestHeader("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            method.setRequestHeader("If-Modified-Since", lastModified);
+        }
+    }
+
+    private static void delete(final File file) {
+        // an entry may still be open for reading
+        if (!file.delete() && file.exists()) {
+            file.deleteOnExit();
+        }
+    }
+
+    /**
+     * Copies a response body to a cache file while it is read, and adds the file to the cache once the whole body has
+     * been read.
+     */
+    private final class StoringInputStream extends FilterInputStream {
+        private final String key;
+        private final File file;
+        private final String etag;
+        private final String lastModified;
+        private OutputStream out;
+        private long length;
+        private boolean complete;
+
+        StoringInputStream(final InputStream in, final String key, final File file, final String etag,
+                final String lastModified) throws IOException {
+            super(in);
+            this.key = key;
+            this.file = file;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.out = new FileOutputStream(file);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b < 0) {
+                complete = true;
+            } else if (out != null) {
+                try {
+                    out.write(b);
+                    if (++length > maxSize) {
+                        abandon(null);
+                    }
+                } catch (final IOException e) {
+                    abandon(e);
+                }
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int count = super.read(b, off, len);
+            if (count < 0) {
+                complete = true;
+            } else if (out != null) {
+                try {
+                    out.write(b, off, count);
+                    length += count;
+                    if (length > maxSize) {
+                        abandon(null);
+                    }
+                } catch (final IOException e) {
+                    abandon(e);
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            // skipped bytes never reach the cache file
+            abandon(null);
+            return super.skip(n);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (out != null) {
+                    try {
+                        out.close();
+                        if (complete) {
+                            put(key, new Entry(file, length, etag, lastModified));
+                        } else {
+                            delete(file);
+                        }
+                    } catch (final IOException e) {
+                        LOG.warn(e.getMessage(), e);
+                        delete(file);
+                    }
+                    out = null;
+                }
+            }
+        }
+
+        private void abandon(final IOException e) {
+            if (e != null) {
+                LOG.warn(e.getMessage(), e);
+            }
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (final IOException ignored) {
+                    // already failing
+                }
+                out = null;
+                delete(file);
+            }
+        }
+    }
+}
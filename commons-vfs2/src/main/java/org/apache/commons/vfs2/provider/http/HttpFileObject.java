@@ -55,7 +55,11 @@ public class HttpFileObject<FS extends HttpFileSystem> extends AbstractFileObjec
         private final GetMethod method;
 
         public HttpInputStream(final GetMethod method) throws IOException {
-            super(method.getResponseBodyAsStream());
+            this(method, method.getResponseBodyAsStream());
+        }
+
+        HttpInputStream(final GetMethod method, final InputStream body) {
+            super(body);
             this.method = method;
         }
 
@@ -68,9 +72,33 @@ public class HttpFileObject<FS extends HttpFileSystem> extends AbstractFileObjec
         }
     }
 
+    /**
+     * A HEAD request which may revalidate cached headers. Once restored from the cache it reports the status and
+     * headers of the cached {@code 200} reply instead of the {@code 304} reply.
+     */
+    static class RevalidatingHeadMethod extends HeadMethod {
+        private boolean restored;
+
+        /**
+         * Replaces the headers of a {@code 304} reply with the cached ones.
+         */
+        void restore(final HttpContentCache.Metadata metadata) {
+            getResponseHeaderGroup().setHeaders(metadata.getHeaders());
+            restored = true;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return restored ? HttpURLConnection.HTTP_OK : super.getStatusCode();
+        }
+    }
+
     private final String urlCharset;
     private final String userAgent;
     private final boolean followRedirect;
+    private final long parallelDownloadThreshold;
+    private final int parallelDownloadSegments;
+    private final int parallelDownloadSegmentSize;
 
     private HeadMethod method;
 
@@ -85,6 +113,9 @@ public class HttpFileObject<FS extends HttpFileSystem> extends AbstractFileObjec
         urlCharset = builder.getUrlCharset(fileSystemOptions);
         userAgent = builder.getUserAgent(fileSystemOptions);
         followRedirect = builder.getFollowRedirect(fileSystemOptions);
+        parallelDownloadThreshold = builder.getParallelDownloadThreshold(fileSystemOptions);
+        parallelDownloadSegments = builder.getParallelDownloadSegments(fileSystemOptions);
+        parallelDownloadSegmentSize = builder.getParallelDownloadSegmentSize(fileSystemOptions);
     }
 
     /**
@@ -118,16 +149,46 @@ public class HttpFileObject<FS extends HttpFileSystem> extends AbstractFileObjec
      */
     @Override
     protected InputStream doGetInputStream() throws Exception {
+        final HttpContentCache cache = getAbstractFileSystem().getContentCache();
+        if (cache == null && parallelDownloadThreshold > 0) {
+            final long rangedLength = getRangedContentLength();
+            if (rangedLength >= parallelDownloadThreshold) {
+                return new HttpRangedInputStream(this, rangedLength, parallelDownloadSegments,
+                        parallelDownloadSegmentSize);
+            }
+        }
+        final String cacheKey = cache == null ? null : getCacheKey();
+        final HttpContentCache.Entry cached = cache == null ? null : cache.get(cacheKey);
         final GetMethod getMethod = new GetMethod();
         setupMethod(getMethod);
+        if (cached != null) {
+            cached.setConditions(getMethod);
+        }
         final int status = getAbstractFileSystem().getClient().executeMethod(getMethod);
+        if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+            getMethod.releaseConnection();
+            final InputStream in = cache.open(cacheKey, cached);
+            if (in != null) {
+                return in;
+            }
+            // evicted since the request was sent, fetch it again
+            return doGetInputStream();
+        }
         if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+            if (cache != null) {
+                cache.remove(cacheKey);
+                cache.removeMetadata(cacheKey);
+            }
             throw new FileNotFoundException(getName());
         }
         if (status != HttpURLConnection.HTTP_OK) {
             throw new FileSystemException("vfs.provider.http/get.error", getName(), Integer.valueOf(status));
         }
 
+        if (cache != null) {
+            return new HttpInputStream(getMethod,
+                    cache.store(cacheKey, getMethod, getMethod.getResponseBodyAsStream()));
+        }
         return new HttpInputStream(getMethod);
     }
 
@@ -202,14 +263,59 @@ public class HttpFileObject<FS extends HttpFileSystem> extends AbstractFileObjec
         if (method != null) {
             return method;
         }
-        method = new HeadMethod();
-        setupMethod(method);
+        // With the content cache, the headers of the last 200 reply are revalidated instead of sent again
+        final HttpContentCache cache = getAbstractFileSystem().getContentCache();
+        final String cacheKey = cache == null ? null : getCacheKey();
+        final HttpContentCache.Metadata cached = cache == null ? null : cache.getMetadata(cacheKey);
+        final RevalidatingHeadMethod headMethod = new RevalidatingHeadMethod();
+        setupMethod(headMethod);
+        if (cached != null) {
+            cached.setConditions(headMethod);
+        }
         final HttpClient client = getAbstractFileSystem().getClient();
-        client.executeMethod(method);
-        method.releaseConnection();
+        client.executeMethod(headMethod);
+        headMethod.releaseConnection();
+        if (cache != null) {
+            if (cached != null && headMethod.getStatusCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                headMethod.restore(cached);
+            } else {
+                cache.storeMetadata(cacheKey, headMethod);
+            }
+        }
+        method = headMethod;
         return method;
     }
 
+    /**
+     * Returns the key of this file in the content cache.
+     */
+    private String getCacheKey() throws URIException, FileSystemException {
+        return ((URLFileName) getName()).getPathQueryEncoded(urlCharset);
+    }
+
+    /**
+     * Returns the content length from the HEAD response if the server accepts byte ranges for this file, -1 otherwise.
+     */
+    private long getRangedContentLength() throws IOException {
+        final HeadMethod headMethod = getHeadMethod();
+        if (headMethod.getStatusCode() != HttpURLConnection.HTTP_OK) {
+            return -1;
+        }
+        final Header acceptRanges = headMethod.getResponseHeader("accept-ranges");
+        if (acceptRanges == null || !"bytes".equalsIgnoreCase(acceptRanges.getValue().trim())) {
+            return -1;
+        }
+        final Header contentLength = headMethod.getResponseHeader("content-length");
+        if (contentLength == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(contentLength.getValue().trim());
+        } catch (final NumberFormatException e) {
+            return -1;
+        }
+    }
+
     protected String getUrlCharset() {
         return urlCharset;
     }
@@ -16,7 +16,15 @@
  */
 package org.apache.commons.vfs2.provider.http;
 
+import java.io.File;
 import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.HttpConnectionManager;
@@ -33,11 +41,27 @@ import org.apache.commons.vfs2.provider.GenericFileName;
  */
 public class HttpFileSystem extends AbstractFileSystem {
     private final HttpClient client;
+    private final HttpContentCache contentCache;
+    private final int rangeThreads;
+
+    /**
+     * Fetches the byte ranges of parallel downloads, created on first use.
+     */
+    private ThreadPoolExecutor rangeExecutor;
 
     protected HttpFileSystem(final GenericFileName rootName, final HttpClient client,
             final FileSystemOptions fileSystemOptions) {
+        this(rootName, client, fileSystemOptions, HttpFileSystemConfigBuilder.getInstance());
+    }
+
+    protected HttpFileSystem(final GenericFileName rootName, final HttpClient client,
+            final FileSystemOptions fileSystemOptions, final HttpFileSystemConfigBuilder builder) {
         super(rootName, null, fileSystemOptions);
         this.client = client;
+        final File cacheDir = builder.getContentCacheDir(fileSystemOptions);
+        contentCache = cacheDir == null ? null
+                : new HttpContentCache(cacheDir, builder.getContentCacheMaxSize(fileSystemOptions));
+        rangeThreads = Math.max(1, builder.getParallelDownloadSegments(fileSystemOptions));
     }
 
     /**
@@ -52,9 +76,58 @@ public class HttpFileSystem extends AbstractFileSystem {
         return client;
     }
 
+    /**
+     * Returns the content cache of this file system, or null if it is disabled.
+     */
+    HttpContentCache getContentCache() {
+        return contentCache;
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        if (contentCache != null) {
+            contentCache.clear();
+        }
+    }
+
+    /**
+     * Returns the executor the byte ranges of parallel downloads are fetched with. All the streams of this file system
+     * share it.
+     */
+    synchronized ExecutorService getRangeExecutor() {
+        if (rangeExecutor == null) {
+            final AtomicInteger count = new AtomicInteger();
+            final String prefix = getRootName().getScheme() + "-range-";
+            rangeExecutor = new ThreadPoolExecutor(rangeThreads, rangeThreads, 30, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                        @Override
+                        public Thread newThread(final Runnable runnable) {
+                            final Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+            rangeExecutor.allowCoreThreadTimeOut(true);
+        }
+        return rangeExecutor;
+    }
+
+    @Override
+    protected void doCloseCommunicationLink() {
+        if (rangeExecutor != null) {
+            // ranges which have not started are never run, fail the streams waiting for them
+            for (final Runnable queued : rangeExecutor.shutdownNow()) {
+                ((Future<?>) queued).cancel(false);
+            }
+            rangeExecutor = null;
+        }
+    }
+
     /** @since 2.0 */
     @Override
     public void closeCommunicationLink() {
+        super.closeCommunicationLink();
         if (getClient() != null) {
             final HttpConnectionManager mgr = getClient().getHttpConnectionManager();
             if (mgr instanceof MultiThreadedHttpConnectionManager) {
@@ -16,6 +16,8 @@
  */
 package org.apache.commons.vfs2.provider.http;
 
+import java.io.File;
+
 import org.apache.commons.httpclient.Cookie;
 import org.apache.commons.httpclient.params.HttpConnectionManagerParams;
 import org.apache.commons.httpclient.params.HttpConnectionParams;
@@ -48,6 +50,24 @@ public class HttpFileSystemConfigBuilder extends FileSystemConfigBuilder {
 
     private static final String KEY_PREEMPTIVE_AUTHENTICATION = "preemptiveAuth";
 
+    private static final String KEY_PARALLEL_DOWNLOAD_THRESHOLD = "parallelDownloadThreshold";
+
+    private static final String KEY_PARALLEL_DOWNLOAD_SEGMENTS = "parallelDownloadSegments";
+
+    private static final String KEY_PARALLEL_DOWNLOAD_SEGMENT_SIZE = "parallelDownloadSegmentSize";
+
+    private static final String KEY_CONTENT_CACHE_DIR = "contentCacheDir";
+
+    private static final String KEY_CONTENT_CACHE_MAX_SIZE = "contentCacheMaxSize";
+
+    private static final long DEFAULT_PARALLEL_DOWNLOAD_THRESHOLD = 0;
+
+    private static final int DEFAULT_PARALLEL_DOWNLOAD_SEGMENTS = 4;
+
+    private static final int DEFAULT_PARALLEL_DOWNLOAD_SEGMENT_SIZE = 1024 * 1024;
+
+    private static final long DEFAULT_CONTENT_CACHE_MAX_SIZE = 64L * 1024 * 1024;
+
     /**
      * Create new config builder.
      *
@@ -333,6 +353,131 @@ public class HttpFileSystemConfigBuilder extends FileSystemConfigBuilder {
         return userAgent != null ? userAgent : DEFAULT_USER_AGENT;
     }
 
+    /**
+     * Sets the content size from which files are downloaded as several byte ranges in parallel.
+     * <p>
+     * Ranged downloads are only used when the server advertises {@code Accept-Ranges: bytes} and a content length for
+     * the file, and not when the content cache is enabled. A value of 0 or less (the default) always reads the content
+     * over a single connection.
+     *
+     * @param opts The FileSystem options.
+     * @param threshold The minimum content size in bytes, or 0 to disable parallel downloads.
+     */
+    public void setParallelDownloadThreshold(final FileSystemOptions opts, final long threshold) {
+        setParam(opts, KEY_PARALLEL_DOWNLOAD_THRESHOLD, Long.valueOf(threshold));
+    }
+
+    /**
+     * Gets the content size from which files are downloaded as several byte ranges in parallel.
+     *
+     * @param opts The FileSystem options.
+     * @return The minimum content size in bytes; 0 or less if parallel downloads are disabled.
+     * @see #setParallelDownloadThreshold
+     */
+    public long getParallelDownloadThreshold(final FileSystemOptions opts) {
+        return getLong(opts, KEY_PARALLEL_DOWNLOAD_THRESHOLD, DEFAULT_PARALLEL_DOWNLOAD_THRESHOLD);
+    }
+
+    /**
+     * Sets the number of byte ranges fetched concurrently by a parallel download.
+     * <p>
+     * Each range holds a connection from the pool while it is fetched, so this should not exceed
+     * {@link #getMaxConnectionsPerHost}. Defaults to 4.
+     *
+     * @param opts The FileSystem options.
+     * @param segments The number of concurrent range requests.
+     */
+    public void setParallelDownloadSegments(final FileSystemOptions opts, final int segments) {
+        setParam(opts, KEY_PARALLEL_DOWNLOAD_SEGMENTS, Integer.valueOf(segments));
+    }
+
+    /**
+     * Gets the number of byte ranges fetched concurrently by a parallel download.
+     *
+     * @param opts The FileSystem options.
+     * @return The number of concurrent range requests.
+     * @see #setParallelDownloadSegments
+     */
+    public int getParallelDownloadSegments(final FileSystemOptions opts) {
+        return getInteger(opts, KEY_PARALLEL_DOWNLOAD_SEGMENTS, DEFAULT_PARALLEL_DOWNLOAD_SEGMENTS);
+    }
+
+    /**
+     * Sets the size of each byte range requested by a parallel download.
+     * <p>
+     * Ranges are buffered in memory until they are read, so a download holds at most one more segment than
+     * {@link #getParallelDownloadSegments} in memory. Defaults to 1 MiB.
+     *
+     * @param opts The FileSystem options.
+     * @param segmentSize The range size in bytes.
+     */
+    public void setParallelDownloadSegmentSize(final FileSystemOptions opts, final int segmentSize) {
+        setParam(opts, KEY_PARALLEL_DOWNLOAD_SEGMENT_SIZE, Integer.valueOf(segmentSize));
+    }
+
+    /**
+     * Gets the size of each byte range requested by a parallel download.
+     *
+     * @param opts The FileSystem options.
+     * @return The range size in bytes.
+     * @see #setParallelDownloadSegmentSize
+     */
+    public int getParallelDownloadSegmentSize(final FileSystemOptions opts) {
+        return getInteger(opts, KEY_PARALLEL_DOWNLOAD_SEGMENT_SIZE, DEFAULT_PARALLEL_DOWNLOAD_SEGMENT_SIZE);
+    }
+
+    /**
+     * Enables the content cache and sets the directory it keeps downloaded content in.
+     * <p>
+     * When enabled, file content is stored locally together with its {@code ETag} and {@code Last-Modified} headers.
+     * Later reads of the same file send {@code If-None-Match}/{@code If-Modified-Since} and are served from the local
+     * copy when the server answers {@code 304 Not Modified}. The headers of the HEAD request sent when a file is
+     * attached, which give its type, size and modification time, are kept in memory and revalidated the same way. Each
+     * file system uses its own subdirectory, which is removed when the file system is closed. Defaults to null, which
+     * disables the cache.
+     *
+     * @param opts The FileSystem options.
+     * @param cacheDir The directory to store cached content in, or null to disable the cache.
+     */
+    public void setContentCacheDir(final FileSystemOptions opts, final File cacheDir) {
+        setParam(opts, KEY_CONTENT_CACHE_DIR, cacheDir);
+    }
+
+    /**
+     * Gets the directory the content cache keeps downloaded content in.
+     *
+     * @param opts The FileSystem options.
+     * @return The cache directory, or null if the content cache is disabled.
+     * @see #setContentCacheDir
+     */
+    public File getContentCacheDir(final FileSystemOptions opts) {
+        return (File) getParam(opts, KEY_CONTENT_CACHE_DIR);
+    }
+
+    /**
+     * Sets the maximum number of bytes kept by the content cache.
+     * <p>
+     * The least recently used entries are evicted once the limit is exceeded; files larger than the limit are never
+     * cached. Defaults to 64 MiB.
+     *
+     * @param opts The FileSystem options.
+     * @param maxSize The maximum cache size in bytes.
+     */
+    public void setContentCacheMaxSize(final FileSystemOptions opts, final long maxSize) {
+        setParam(opts, KEY_CONTENT_CACHE_MAX_SIZE, Long.valueOf(maxSize));
+    }
+
+    /**
+     * Gets the maximum number of bytes kept by the content cache.
+     *
+     * @param opts The FileSystem options.
+     * @return The maximum cache size in bytes.
+     * @see #setContentCacheMaxSize
+     */
+    public long getContentCacheMaxSize(final FileSystemOptions opts) {
+        return getLong(opts, KEY_CONTENT_CACHE_MAX_SIZE, DEFAULT_CONTENT_CACHE_MAX_SIZE);
+    }
+
     @Override
     protected Class<? extends FileSystem> getConfigClass() {
         return HttpFileSystem.class;
@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.provider.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.commons.httpclient.Header;
+import org.apache.commons.httpclient.HttpClient;
+import org.apache.commons.httpclient.methods.GetMethod;
+import org.apache.commons.vfs2.FileNotFoundException;
+import org.apache.commons.vfs2.FileSystemException;
+
+/**
+ * An InputStream that downloads the content of a file as consecutive byte ranges, several at a time, and returns them
+ * in order.
+ * <p>
+ * At most {@code segments} ranges are being fetched at any time, and each one is buffered until the reader gets to it,
+ * so the memory used by the stream is bounded by the segment count and size, not by the size of the file. The ranges
+ * are fetched on the executor of the file system, which all its streams share.
+ */
+class HttpRangedInputStream extends InputStream {
+    private final HttpFileObject<?> fileObject;
+    private final HttpFileSystem fileSystem;
+    private final long contentLength;
+    private final int segments;
+    private final int segmentSize;
+    private final Deque<RangeRequest> pending;
+
+    private long nextOffset;
+    private byte[] buffer;
+    private int bufferPos;
+    private boolean closed;
+
+    HttpRangedInputStream(final HttpFileObject<?> fileObject, final long contentLength, final int segments,
+            final int segmentSize) {
+        this.fileObject = fileObject;
+        this.fileSystem = (HttpFileSystem) fileObject.getFileSystem();
+        this.contentLength = contentLength;
+        this.segments = Math.max(1, segments);
+        this.segmentSize = Math.max(1, segmentSize);
+        this.pending = new ArrayDeque<>(this.segments);
+    }
+
+    /**
+     * Queues the request for the next range of the file, if any is left.
+     */
+    private boolean submitNext() throws FileSystemException {
+        if (nextOffset >= contentLength) {
+            return false;
+        }
+        final long start = nextOffset;
+        final int length = (int) Math.min(segmentSize, contentLength - start);
+        final RangeRequest request = new RangeRequest(start, length);
+        final ExecutorService executor = fileSystem.getRangeExecutor();
+        try {
+            request.future = executor.submit(request);
+        } catch (final RejectedExecutionException e) {
+            // the file system has been closed
+            throw new FileSystemException("vfs.provider/closed.error", e);
+        }
+        nextOffset += length;
+        pending.addLast(request);
+        return true;
+    }
+
+    /**
+     * Makes sure the buffer has unread bytes, waiting for the next range if needed.
+     *
+     * @return false at the end of the content.
+     */
+    private boolean fill() throws IOException {
+        if (closed) {
+            throw new FileSystemException("vfs.provider/closed.error");
+        }
+        if (nextOffset == 0) {
+            for (int i = 0; i < segments && submitNext(); i++) {
+                // keep submitting until the stream has all its ranges in flight or the file is covered
+            }
+        }
+        while (buffer == null || bufferPos >= buffer.length) {
+            final RangeRequest request = pending.pollFirst();
+            if (request == null) {
+                buffer = null;
+                return false;
+            }
+            // Keep the other threads busy while we wait for this range.
+            submitNext();
+            buffer = request.await();
+            bufferPos = 0;
+        }
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return buffer[bufferPos++] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        final int count = Math.min(len, buffer.length - bufferPos);
+        System.arraycopy(buffer, bufferPos, b, off, count);
+        bufferPos += count;
+        return count;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return buffer == null ? 0 : buffer.length - bufferPos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        buffer = null;
+        for (final RangeRequest request : pending) {
+            request.abort();
+        }
+        pending.clear();
+    }
+
+    /**
+     * Fetches a single byte range of the file into memory.
+     */
+    private final class RangeRequest implements Callable<byte[]> {
+        private final long start;
+        private final int length;
+        private volatile GetMethod method;
+        private volatile boolean aborted;
+        private Future<byte[]> future;
+
+        RangeRequest(final long start, final int length) {
+            this.start = start;
+            this.length = length;
+        }
+
+        @Override
+        public byte[] call() throws Exception {
+            final GetMethod getMethod = new GetMethod();
+            fileObject.setupMethod(getMethod);
+            getMethod.setRequestHeader("Range", "bytes=" + start + "-" + (start + length - 1));
+            method = getMethod;
+            if (aborted) {
+                return null;
+            }
+            try {
+                final int status = fileSystem.getClient().executeMethod(getMethod);
+                if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+                    throw new FileNotFoundException(fileObject.getName());
+                }
+                if (status != HttpURLConnection.HTTP_PARTIAL) {
+                    throw new FileSystemException("vfs.provider.http/get-range.error", fileObject.getName(),
+                            Long.valueOf(start), Integer.valueOf(status));
+                }
+                final String expected = "bytes " + start + "-" + (start + length - 1) + "/";
+                final Header contentRange = getMethod.getResponseHeader("Content-Range");
+                if (contentRange == null || !contentRange.getValue().trim().startsWith(expected)) {
+                    throw new FileSystemException("vfs.provider.http/get-range-mismatch.error", fileObject.getName(),
+                            Long.valueOf(start), contentRange == null ? null : contentRange.getValue());
+                }
+                final byte[] data = new byte[length];
+                int count = 0;
+                final InputStream in = getMethod.getResponseBodyAsStream();
+                if (in != null) {
+                    while (count < length) {
+                        final int read = in.read(data, count, length - count);
+                        if (read < 0) {
+                            break;
+                        }
+                        count += read;
+                    }
+                }
+                if (count != length) {
+                    throw new FileSystemException("vfs.provider.http/get-range-short.error", fileObject.getName(),
+                            Long.valueOf(start), Integer.valueOf(count), Integer.valueOf(length));
+                }
+                return data;
+            } finally {
+                getMethod.releaseConnection();
+            }
+        }
+
+        byte[] await() throws IOException {
+            try {
+                return future.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            } catch (final CancellationException e) {
+                // the file system has been closed
+                throw new FileSystemException("vfs.provider/closed.error", e);
+            } catch (final ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                throw new FileSystemException(cause);
+            }
+        }
+
+        void abort() {
+            aborted = true;
+            future.cancel(true);
+            final GetMethod getMethod = method;
+            if (getMethod != null) {
+                getMethod.abort();
+            }
+        }
+    }
+}
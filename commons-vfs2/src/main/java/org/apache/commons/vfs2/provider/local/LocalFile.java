@@ -22,6 +22,11 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemException;
@@ -29,6 +34,7 @@ import org.apache.commons.vfs2.FileType;
 import org.apache.commons.vfs2.RandomAccessContent;
 import org.apache.commons.vfs2.provider.AbstractFileName;
 import org.apache.commons.vfs2.provider.AbstractFileObject;
+import org.apache.commons.vfs2.provider.FileContentTransfer;
 import org.apache.commons.vfs2.provider.UriParser;
 import org.apache.commons.vfs2.util.FileObjectUtils;
 import org.apache.commons.vfs2.util.RandomAccessMode;
@@ -36,7 +42,7 @@ import org.apache.commons.vfs2.util.RandomAccessMode;
 /**
  * A file object implementation which uses direct file access.
  */
-public class LocalFile extends AbstractFileObject<LocalFileSystem> {
+public class LocalFile extends AbstractFileObject<LocalFileSystem> implements FileContentTransfer {
     private final String rootFile;
 
     private File file;
@@ -132,6 +138,22 @@ public class LocalFile extends AbstractFileObject<LocalFileSystem> {
         }
     }
 
+    /**
+     * Renames this file with {@link Files#move(Path, Path, java.nio.file.CopyOption...)}, replacing the destination
+     * atomically.
+     */
+    @Override
+    protected boolean doRenameReplacing(final FileObject newFile) throws Exception {
+        final LocalFile newLocalFile = (LocalFile) FileObjectUtils.getAbstractFileObject(newFile);
+        try {
+            Files.move(file.toPath(), newLocalFile.getLocalFile().toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (final AtomicMoveNotSupportedException e) {
+            return false;
+        }
+    }
+
     /**
      * Creates this folder.
      */
@@ -215,6 +237,45 @@ public class LocalFile extends AbstractFileObject<LocalFileSystem> {
         return new FileInputStream(file);
     }
 
+    /**
+     * Copies the content of this file with {@link FileChannel#transferTo(long, long,
+     * java.nio.channels.WritableByteChannel)} when the destination is a file on disk as well.
+     */
+    @Override
+    public long transferTo(final InputStream input, final OutputStream output) throws IOException {
+        return transferChannels(input, output);
+    }
+
+    /**
+     * Copies the content of the source with {@link FileChannel#transferTo(long, long,
+     * java.nio.channels.WritableByteChannel)} when the source is a file on disk as well.
+     */
+    @Override
+    public long transferFrom(final InputStream input, final OutputStream output) throws IOException {
+        return transferChannels(input, output);
+    }
+
+    private static long transferChannels(final InputStream input, final OutputStream output) throws IOException {
+        if (!(input instanceof FileInputStream) || !(output instanceof FileOutputStream)) {
+            return -1;
+        }
+        final FileChannel source = ((FileInputStream) input).getChannel();
+        final FileChannel target = ((FileOutputStream) output).getChannel();
+        final long size = source.size();
+        long position = source.position();
+        long count = 0;
+        while (position < size) {
+            final long transferred = source.transferTo(position, size - position, target);
+            if (transferred <= 0) {
+                break;
+            }
+            position += transferred;
+            count += transferred;
+        }
+        source.position(position);
+        return count;
+    }
+
     /**
      * Creates an output stream to write the file content to.
      */
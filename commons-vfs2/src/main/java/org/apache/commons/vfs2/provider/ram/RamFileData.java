@@ -16,8 +16,18 @@
  */
 package org.apache.commons.vfs2.provider.ram;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 
@@ -27,14 +37,32 @@ import org.apache.commons.vfs2.FileType;
 
 /**
  * RAM File Object Data.
+ * <p>
+ * The content is kept in pages of {@value #PAGE_SIZE} bytes, so appending allocates at most one new page and never
+ * copies the content written before, and a file may grow beyond 2 GB. Only the last page of a small file is allocated
+ * smaller and doubled as it fills up. Pages are heap or direct {@link ByteBuffer}s.
+ * <p>
+ * A {@link Snapshot} shares the pages with the data. A page shared with a snapshot is copied before it is written to,
+ * so the snapshot keeps reading the content it was taken from without holding the lock of the data.
  */
 class RamFileData implements Serializable {
-    static final byte[] EMPTY = new byte[0];
+    /**
+     * The size of a content page.
+     */
+    static final int PAGE_SIZE = 1 << 16;
+
+    private static final int PAGE_SHIFT = 16;
+
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final int MIN_PAGE_CAPACITY = 256;
+
+    private static final ByteBuffer[] NO_PAGES = new ByteBuffer[0];
 
     /**
      * serialVersionUID format is YYYYMMDD for the date of the last binary change.
      */
-    private static final long serialVersionUID = 20101208L;
+    private static final long serialVersionUID = 20261017L;
 
     /**
      * File Name.
@@ -47,9 +75,29 @@ class RamFileData implements Serializable {
     private FileType type;
 
     /**
-     * Bytes.
+     * Content pages, all but the last one {@link #PAGE_SIZE} bytes long.
+     */
+    private transient ByteBuffer[] pages;
+
+    /**
+     * The number of pages in use.
+     */
+    private transient int pageCount;
+
+    /**
+     * The pages which may be shared with a snapshot, null if none is.
+     */
+    private transient BitSet sharedPages;
+
+    /**
+     * The content size.
+     */
+    private transient long size;
+
+    /**
+     * Whether pages are allocated outside the heap.
      */
-    private byte[] content;
+    private final boolean direct;
 
     /**
      * Last modified time
@@ -67,7 +115,18 @@ class RamFileData implements Serializable {
      * @param name The file name.
      */
     public RamFileData(final FileName name) {
+        this(name, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param name The file name.
+     * @param direct Whether to keep the content in direct buffers.
+     */
+    RamFileData(final FileName name, final boolean direct) {
         super();
+        this.direct = direct;
         this.children = Collections.synchronizedCollection(new ArrayList<RamFileData>());
         this.clear();
         if (name == null) {
@@ -77,18 +136,32 @@ class RamFileData implements Serializable {
     }
 
     /**
-     * @return Returns the buffer.
-     */
-    byte[] getContent() {
-        return content;
-    }
-
-    /**
-     * @param content The buffer.
+     * Takes over the content of another file, which is left empty.
+     *
+     * @param other The file data to take the content from.
      */
-    void setContent(final byte[] content) {
+    void moveContent(final RamFileData other) {
+        final ByteBuffer[] otherPages;
+        final int otherPageCount;
+        final long otherSize;
+        final BitSet otherSharedPages;
+        synchronized (other) {
+            otherPages = other.pages;
+            otherPageCount = other.pageCount;
+            otherSize = other.size;
+            otherSharedPages = other.sharedPages;
+            other.pages = NO_PAGES;
+            other.pageCount = 0;
+            other.size = 0;
+            other.sharedPages = null;
+        }
+        synchronized (this) {
+            this.pages = otherPages;
+            this.pageCount = otherPageCount;
+            this.size = otherSize;
+            this.sharedPages = otherSharedPages;
+        }
         updateLastModified();
-        this.content = content;
     }
 
     /**
@@ -122,7 +195,12 @@ class RamFileData implements Serializable {
     /**
      */
     void clear() {
-        this.content = EMPTY;
+        synchronized (this) {
+            this.pages = NO_PAGES;
+            this.pageCount = 0;
+            this.size = 0;
+            this.sharedPages = null;
+        }
         updateLastModified();
         this.type = FileType.IMAGINARY;
         this.children.clear();
@@ -232,29 +310,385 @@ class RamFileData implements Serializable {
     }
 
     /**
-     * @return Returns the size of the buffer
+     * @return Returns the size of the content.
      */
-    int size() {
-        return content.length;
+    synchronized long size() {
+        return size;
     }
 
     /**
-     * Resize the buffer
+     * Resize the content. Bytes added are zero.
      *
-     * @param newSize The new buffer size.
-     */
-    void resize(final long newSize) {
-        // A future implementation may allow longs/multiple buffer/and so on
-        if (newSize > Integer.MAX_VALUE) {
-            throw new IllegalArgumentException(
-                    String.format("newSize(%d) > Integer.MAX_VALUE(%d)", newSize, Integer.MAX_VALUE));
-        }
-        final int resize = (int) newSize;
-        final int size = this.size();
-        final byte[] newBuf = new byte[resize];
-        System.arraycopy(this.content, 0, newBuf, 0, Math.min(resize, size));
-        this.content = newBuf;
+     * @param newSize The new content size.
+     */
+    synchronized void resize(final long newSize) {
+        if (newSize < 0) {
+            throw new IllegalArgumentException(String.format("newSize(%d) < 0", newSize));
+        }
+        if (newSize > size) {
+            ensureCapacity(newSize);
+        } else if (newSize < size) {
+            truncate(newSize);
+        }
+        this.size = newSize;
         updateLastModified();
     }
 
+    /**
+     * Reads a byte.
+     *
+     * @param pos The position in the content.
+     * @return The byte, or -1 if the position is at or beyond the end of the content.
+     */
+    synchronized int read(final long pos) {
+        if (pos >= size) {
+            return -1;
+        }
+        return pages[(int) (pos >>> PAGE_SHIFT)].get((int) (pos & PAGE_MASK)) & 0xFF;
+    }
+
+    /**
+     * Reads bytes.
+     *
+     * @param pos The position in the content.
+     * @param b The array to read to.
+     * @param off The offset in the array.
+     * @param len The maximum number of bytes to read.
+     * @return The number of bytes read, or -1 if the position is at or beyond the end of the content.
+     */
+    synchronized int read(long pos, final byte[] b, int off, final int len) {
+        if (pos >= size) {
+            return len == 0 ? 0 : -1;
+        }
+        final int count = (int) Math.min(len, size - pos);
+        int remaining = count;
+        while (remaining > 0) {
+            final ByteBuffer page = pages[(int) (pos >>> PAGE_SHIFT)];
+            final int pageOffset = (int) (pos & PAGE_MASK);
+            final int n = Math.min(remaining, page.capacity() - pageOffset);
+            // cast, ByteBuffer only overrides position(int) since Java 9
+            ((Buffer) page).position(pageOffset);
+            page.get(b, off, n);
+            pos += n;
+            off += n;
+            remaining -= n;
+        }
+        return count;
+    }
+
+    /**
+     * Writes bytes over existing content, call {@link #resize(long)} first to append.
+     *
+     * @param pos The position in the content.
+     * @param b The array to write from.
+     * @param off The offset in the array.
+     * @param len The number of bytes to write.
+     */
+    synchronized void write(long pos, final byte[] b, int off, int len) {
+        if (pos < 0 || pos + len > size) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Writing %d bytes at %d exceeds the size %d", len, pos, size));
+        }
+        while (len > 0) {
+            final ByteBuffer page = writablePage((int) (pos >>> PAGE_SHIFT));
+            final int pageOffset = (int) (pos & PAGE_MASK);
+            final int n = Math.min(len, page.capacity() - pageOffset);
+            ((Buffer) page).position(pageOffset);
+            page.put(b, off, n);
+            pos += n;
+            off += n;
+            len -= n;
+        }
+        updateLastModified();
+    }
+
+    /**
+     * Takes a snapshot of the content, which can be read without holding the lock of this data.
+     *
+     * @return The snapshot.
+     */
+    synchronized Snapshot snapshot() {
+        if (pageCount > 0) {
+            if (sharedPages == null) {
+                sharedPages = new BitSet(pageCount);
+            }
+            sharedPages.set(0, pageCount);
+        }
+        return new Snapshot(Arrays.copyOf(pages, pageCount), size);
+    }
+
+    /**
+     * Writes the content from a position to the end to a stream. Pages on the heap are written without copying.
+     * The stream is written to without holding the lock of this data.
+     *
+     * @param pos The position in the content.
+     * @param output The stream to write to.
+     * @return The number of bytes written.
+     * @throws IOException if the stream fails.
+     */
+    long writeTo(final long pos, final OutputStream output) throws IOException {
+        return snapshot().writeTo(pos, output);
+    }
+
+    /**
+     * Writes the whole content to a file channel, straight from the pages.
+     *
+     * @param channel The channel to write to.
+     * @param position The position in the channel.
+     * @return The number of bytes written.
+     * @throws IOException if the channel fails.
+     */
+    long writeTo(final FileChannel channel, final long position) throws IOException {
+        return snapshot().writeTo(channel, position);
+    }
+
+    /**
+     * Fills the whole content from a file channel, straight into the pages. Call {@link #resize(long)} first.
+     *
+     * @param channel The channel to read from.
+     * @param position The position in the channel.
+     * @throws IOException if the channel fails or ends before the content is filled.
+     */
+    synchronized void readFrom(final FileChannel channel, final long position) throws IOException {
+        long pos = 0;
+        while (pos < size) {
+            final ByteBuffer view = writablePage((int) (pos >>> PAGE_SHIFT)).duplicate();
+            ((Buffer) view).clear();
+            ((Buffer) view).limit((int) Math.min(view.capacity(), size - pos));
+            while (view.hasRemaining()) {
+                final int n = channel.read(view, position + pos);
+                if (n < 0) {
+                    throw new EOFException();
+                }
+                pos += n;
+            }
+        }
+        updateLastModified();
+    }
+
+    /**
+     * Makes sure the pages can hold the given number of bytes.
+     */
+    private void ensureCapacity(final long capacity) {
+        final int lastPage = (int) ((capacity - 1) >>> PAGE_SHIFT);
+        if (pageCount > 0) {
+            // complete a last page that was allocated smaller
+            final int current = pageCount - 1;
+            final ByteBuffer page = pages[current];
+            if (page.capacity() < PAGE_SIZE) {
+                final int needed = lastPage == current ? (int) (capacity - ((long) current << PAGE_SHIFT)) : PAGE_SIZE;
+                if (needed > page.capacity()) {
+                    // the grown page is a copy, a snapshot keeps the old one
+                    pages[current] = growPage(page, needed);
+                    if (sharedPages != null) {
+                        sharedPages.clear(current);
+                    }
+                }
+            }
+        }
+        if (lastPage >= pages.length) {
+            pages = Arrays.copyOf(pages, Math.max(lastPage + 1, pages.length * 2));
+        }
+        while (pageCount <= lastPage) {
+            final int needed = pageCount < lastPage ? PAGE_SIZE
+                    : (int) (capacity - ((long) pageCount << PAGE_SHIFT));
+            pages[pageCount++] = allocatePage(pageCapacity(needed, 0));
+        }
+    }
+
+    /**
+     * Drops the pages beyond a new size and zeroes the rest of the last page, so growing again reads zeros.
+     */
+    private void truncate(final long newSize) {
+        final int newPageCount = (int) ((newSize + PAGE_MASK) >>> PAGE_SHIFT);
+        Arrays.fill(pages, newPageCount, pageCount, null);
+        if (sharedPages != null) {
+            sharedPages.clear(newPageCount, pageCount);
+        }
+        pageCount = newPageCount;
+        if (newPageCount == 0) {
+            pages = NO_PAGES;
+            sharedPages = null;
+            return;
+        }
+        final ByteBuffer page = writablePage(newPageCount - 1);
+        final int from = (int) (newSize - ((long) (newPageCount - 1) << PAGE_SHIFT));
+        final int to = (int) Math.min(page.capacity(), size - ((long) (newPageCount - 1) << PAGE_SHIFT));
+        for (int i = from; i < to; i++) {
+            page.put(i, (byte) 0);
+        }
+    }
+
+    /**
+     * Returns a page to write to, copying it first if a snapshot may still read it.
+     */
+    private ByteBuffer writablePage(final int index) {
+        if (sharedPages != null && sharedPages.get(index)) {
+            sharedPages.clear(index);
+            final ByteBuffer copy = allocatePage(pages[index].capacity());
+            final ByteBuffer source = pages[index].duplicate();
+            ((Buffer) source).clear();
+            copy.put(source);
+            pages[index] = copy;
+        }
+        return pages[index];
+    }
+
+    private ByteBuffer growPage(final ByteBuffer page, final int needed) {
+        final ByteBuffer grown = allocatePage(pageCapacity(needed, page.capacity()));
+        final ByteBuffer source = page.duplicate();
+        ((Buffer) source).clear();
+        grown.put(source);
+        return grown;
+    }
+
+    private static int pageCapacity(final int needed, final int current) {
+        return Math.min(PAGE_SIZE, Math.max(needed, Math.max(MIN_PAGE_CAPACITY, current * 2)));
+    }
+
+    private ByteBuffer allocatePage(final int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private synchronized void writeObject(final ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeLong(size);
+        writeTo(0, out);
+    }
+
+    /**
+     * The content of a file at the time it was taken. Its pages are never written to again, see
+     * {@link RamFileData#snapshot()}. A snapshot is not thread-safe.
+     */
+    static final class Snapshot {
+        private final ByteBuffer[] pages;
+        private final long size;
+
+        private Snapshot(final ByteBuffer[] pages, final long size) {
+            this.pages = pages;
+            this.size = size;
+        }
+
+        /**
+         * @return The size of the content.
+         */
+        long size() {
+            return size;
+        }
+
+        /**
+         * Reads a byte.
+         *
+         * @param pos The position in the content.
+         * @return The byte, or -1 if the position is at or beyond the end of the content.
+         */
+        int read(final long pos) {
+            if (pos >= size) {
+                return -1;
+            }
+            // absolute get, the position of the page is left alone
+            return pages[(int) (pos >>> PAGE_SHIFT)].get((int) (pos & PAGE_MASK)) & 0xFF;
+        }
+
+        /**
+         * Reads bytes.
+         *
+         * @param pos The position in the content.
+         * @param b The array to read to.
+         * @param off The offset in the array.
+         * @param len The maximum number of bytes to read.
+         * @return The number of bytes read, or -1 if the position is at or beyond the end of the content.
+         */
+        int read(long pos, final byte[] b, int off, final int len) {
+            if (pos >= size) {
+                return len == 0 ? 0 : -1;
+            }
+            final int count = (int) Math.min(len, size - pos);
+            int remaining = count;
+            while (remaining > 0) {
+                final ByteBuffer page = pages[(int) (pos >>> PAGE_SHIFT)];
+                final int pageOffset = (int) (pos & PAGE_MASK);
+                final int n = Math.min(remaining, page.capacity() - pageOffset);
+                if (page.hasArray()) {
+                    System.arraycopy(page.array(), page.arrayOffset() + pageOffset, b, off, n);
+                } else {
+                    // the data and other snapshots move the position of the page itself
+                    final ByteBuffer view = page.duplicate();
+                    ((Buffer) view).position(pageOffset);
+                    view.get(b, off, n);
+                }
+                pos += n;
+                off += n;
+                remaining -= n;
+            }
+            return count;
+        }
+
+        /**
+         * Writes the content from a position to the end to a stream. Pages on the heap are written without copying.
+         *
+         * @param pos The position in the content.
+         * @param output The stream to write to.
+         * @return The number of bytes written.
+         * @throws IOException if the stream fails.
+         */
+        long writeTo(long pos, final OutputStream output) throws IOException {
+            final long start = pos;
+            byte[] buffer = null;
+            while (pos < size) {
+                final ByteBuffer page = pages[(int) (pos >>> PAGE_SHIFT)];
+                final int pageOffset = (int) (pos & PAGE_MASK);
+                final int n = (int) Math.min(size - pos, page.capacity() - pageOffset);
+                if (page.hasArray()) {
+                    output.write(page.array(), page.arrayOffset() + pageOffset, n);
+                } else {
+                    if (buffer == null) {
+                        buffer = new byte[(int) Math.min(PAGE_SIZE, size - pos)];
+                    }
+                    final ByteBuffer view = page.duplicate();
+                    ((Buffer) view).position(pageOffset);
+                    view.get(buffer, 0, n);
+                    output.write(buffer, 0, n);
+                }
+                pos += n;
+            }
+            return Math.max(0, size - start);
+        }
+
+        /**
+         * Writes the whole content to a file channel, straight from the pages.
+         *
+         * @param channel The channel to write to.
+         * @param position The position in the channel.
+         * @return The number of bytes written.
+         * @throws IOException if the channel fails.
+         */
+        long writeTo(final FileChannel channel, final long position) throws IOException {
+            long pos = 0;
+            while (pos < size) {
+                final ByteBuffer view = pages[(int) (pos >>> PAGE_SHIFT)].duplicate();
+                ((Buffer) view).clear();
+                ((Buffer) view).limit((int) Math.min(view.capacity(), size - pos));
+                while (view.hasRemaining()) {
+                    pos += channel.write(view, position + pos);
+                }
+            }
+            return size;
+        }
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        pages = NO_PAGES;
+        final long contentSize = in.readLong();
+        resize(contentSize);
+        final byte[] buffer = new byte[(int) Math.min(PAGE_SIZE, contentSize)];
+        long pos = 0;
+        while (pos < contentSize) {
+            final int n = (int) Math.min(buffer.length, contentSize - pos);
+            in.readFully(buffer, 0, n);
+            write(pos, buffer, 0, n);
+            pos += n;
+        }
+    }
 }
@@ -16,18 +16,17 @@
  */
 package org.apache.commons.vfs2.provider.ram;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemException;
-import org.apache.commons.vfs2.FileSystemOptions;
 import org.apache.commons.vfs2.FileType;
 import org.apache.commons.vfs2.RandomAccessContent;
 import org.apache.commons.vfs2.provider.AbstractFileName;
 import org.apache.commons.vfs2.provider.AbstractFileObject;
+import org.apache.commons.vfs2.provider.FileContentTransfer;
 import org.apache.commons.vfs2.util.FileObjectUtils;
 import org.apache.commons.vfs2.util.RandomAccessMode;
 
@@ -35,7 +34,7 @@ import org.apache.commons.vfs2.util.RandomAccessMode;
  * A RAM File contains a single RAM FileData instance, it provides methods to access the data by implementing FileObject
  * interface.
  */
-public class RamFileObject extends AbstractFileObject<RamFileSystem> {
+public class RamFileObject extends AbstractFileObject<RamFileSystem> implements FileContentTransfer {
     /**
      * RAM File Object Data.
      */
@@ -96,7 +95,26 @@ public class RamFileObject extends AbstractFileObject<RamFileSystem> {
             throw new FileSystemException("vfs.provider/read-not-file.error", getName());
         }
 
-        return new ByteArrayInputStream(this.data.getContent());
+        return new RamFileInputStream(this.data);
+    }
+
+    /**
+     * Writes the content pages to the destination without copying them.
+     */
+    @Override
+    public long transferTo(final InputStream input, final OutputStream output) throws IOException {
+        if (!(input instanceof RamFileInputStream)) {
+            return -1;
+        }
+        return ((RamFileInputStream) input).writeContentTo(output);
+    }
+
+    /**
+     * Appending to the content pages is cheap, so the default copy is used.
+     */
+    @Override
+    public long transferFrom(final InputStream input, final OutputStream output) throws IOException {
+        return -1;
     }
 
     /*
@@ -107,7 +125,7 @@ public class RamFileObject extends AbstractFileObject<RamFileSystem> {
     @Override
     protected OutputStream doGetOutputStream(final boolean bAppend) throws Exception {
         if (!bAppend) {
-            this.data.setContent(RamFileData.EMPTY);
+            this.resize(0);
         }
         return new RamFileOutputStream(this);
     }
@@ -230,7 +248,7 @@ public class RamFileObject extends AbstractFileObject<RamFileSystem> {
     /**
      * @return Returns the size of the {@link RamFileData}.
      */
-    int size() {
+    long size() {
         return data == null ? 0 : data.size();
     }
 
@@ -239,15 +257,76 @@ public class RamFileObject extends AbstractFileObject<RamFileSystem> {
      * @throws IOException if the new size exceeds the limit
      */
     synchronized void resize(final long newSize) throws IOException {
-        final RamFileSystem afs = getAbstractFileSystem();
-        final FileSystemOptions afsOptions = afs.getFileSystemOptions();
-        if (afsOptions != null) {
-            final long maxSize = RamFileSystemConfigBuilder.getInstance().getLongMaxSize(afsOptions);
-            if (afs.size() + newSize - this.size() > maxSize) {
-                throw new IOException("FileSystem capacity (" + maxSize + ") exceeded.");
+        getAbstractFileSystem().resize(this.data, newSize);
+    }
+
+    /**
+     * Reads the content pages of a file, which can be handed to another file as a whole.
+     * <p>
+     * The stream reads the content the file had when it was opened, also if the file is written or truncated while
+     * the stream is open.
+     */
+    private static final class RamFileInputStream extends InputStream {
+        private final RamFileData.Snapshot content;
+        private long pos;
+        private long mark;
+
+        RamFileInputStream(final RamFileData data) {
+            this.content = data.snapshot();
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = content.read(pos);
+            if (b >= 0) {
+                pos++;
             }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            }
+            final int n = content.read(pos, b, off, len);
+            if (n > 0) {
+                pos += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final long skipped = Math.max(0, Math.min(n, content.size() - pos));
+            pos += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.max(0, Math.min(Integer.MAX_VALUE, content.size() - pos));
         }
-        this.data.resize(newSize);
-    }
 
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public synchronized void mark(final int readlimit) {
+            mark = pos;
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            pos = mark;
+        }
+
+        long writeContentTo(final OutputStream output) throws IOException {
+            final long n = content.writeTo(pos, output);
+            pos += n;
+            return n;
+        }
+    }
 }
@@ -16,17 +16,37 @@
  */
 package org.apache.commons.vfs2.provider.ram;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.io.Serializable;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.vfs2.Capability;
 import org.apache.commons.vfs2.FileName;
@@ -36,12 +56,27 @@ import org.apache.commons.vfs2.FileSystemOptions;
 import org.apache.commons.vfs2.FileType;
 import org.apache.commons.vfs2.provider.AbstractFileName;
 import org.apache.commons.vfs2.provider.AbstractFileSystem;
+import org.apache.commons.vfs2.provider.UriParser;
 
 /**
  * A RAM File System.
  */
 public class RamFileSystem extends AbstractFileSystem implements Serializable {
-    private static final int BUFFER_SIZE = 512;
+    /**
+     * The size of the blocks files are imported in.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int SNAPSHOT_BUFFER_SIZE = 8192;
+
+    private static final int SNAPSHOT_MAGIC = 0x52414d53;
+
+    private static final int SNAPSHOT_VERSION = 1;
+
+    /**
+     * Magic number, version and offset of the index.
+     */
+    private static final int SNAPSHOT_HEADER_SIZE = 16;
 
     /**
      * serialVersionUID format is YYYYMMDD for the date of the last binary change.
@@ -53,12 +88,30 @@ public class RamFileSystem extends AbstractFileSystem implements Serializable {
      */
     private final Map<FileName, RamFileData> cache;
 
+    /**
+     * The content bytes of all files, kept up to date on every resize instead of summing the files.
+     */
+    private final AtomicLong size = new AtomicLong();
+
+    /**
+     * The maximum size.
+     */
+    private final long maxSize;
+
+    /**
+     * Whether file content is allocated in direct buffers.
+     */
+    private final boolean directBuffers;
+
     /**
      * @param rootName The root file name.
      * @param fileSystemOptions The FileSystem options.
      */
     protected RamFileSystem(final FileName rootName, final FileSystemOptions fileSystemOptions) {
         super(rootName, null, fileSystemOptions);
+        final RamFileSystemConfigBuilder builder = RamFileSystemConfigBuilder.getInstance();
+        this.maxSize = fileSystemOptions != null ? builder.getLongMaxSize(fileSystemOptions) : Long.MAX_VALUE;
+        this.directBuffers = fileSystemOptions != null && builder.isDirectBuffers(fileSystemOptions);
         this.cache = Collections.synchronizedMap(new HashMap<FileName, RamFileData>());
         // create root
         final RamFileData rootData = new RamFileData(rootName);
@@ -126,14 +179,16 @@ public class RamFileSystem extends AbstractFileSystem implements Serializable {
             throw new FileSystemException("unable to delete root");
         }
 
-        // Remove reference from cache
-        this.cache.remove(file.getName());
-        // Notify the parent
         final RamFileObject parent = (RamFileObject) this.resolveFile(file.getParent().getName());
-        parent.getData().removeChild(file.getData());
+        synchronized (cache) {
+            // Remove reference from cache
+            this.cache.remove(file.getName());
+            // Notify the parent
+            parent.getData().removeChild(file.getData());
+        }
         parent.close();
         // Close the file
-        file.getData().clear();
+        discard(file.getData());
         file.close();
     }
 
@@ -150,18 +205,23 @@ public class RamFileSystem extends AbstractFileSystem implements Serializable {
             throw new FileSystemException(new IllegalStateException("The data has no name. " + file));
         }
 
-        // Add to the parent
-        if (file.getName().getDepth() > 0) {
-            final RamFileData parentData = this.cache.get(file.getParent().getName());
-            // Only if not already added
-            if (!parentData.hasChildren(file.getData())) {
-                final RamFileObject parent = (RamFileObject) file.getParent();
-                parent.getData().addChild(file.getData());
-                parent.close();
+        RamFileObject addedTo = null;
+        synchronized (cache) {
+            // Add to the parent
+            if (file.getName().getDepth() > 0) {
+                final RamFileData parentData = this.cache.get(file.getParent().getName());
+                // Only if not already added
+                if (!parentData.hasChildren(file.getData())) {
+                    addedTo = (RamFileObject) file.getParent();
+                    addedTo.getData().addChild(file.getData());
+                }
             }
+            // Store in cache
+            cache.put(file.getName(), file.getData());
+        }
+        if (addedTo != null) {
+            addedTo.close();
         }
-        // Store in cache
-        cache.put(file.getName(), file.getData());
         file.getData().updateLastModified();
         file.close();
     }
@@ -175,9 +235,16 @@ public class RamFileSystem extends AbstractFileSystem implements Serializable {
         if (!this.cache.containsKey(from.getName())) {
             throw new FileSystemException("File does not exist: " + from.getName());
         }
-        // Copy data
+        // A destination deleted by the move still refers to its cleared data
+        if (to.getData().getName() == null) {
+            attach(to);
+        }
 
-        to.getData().setContent(from.getData().getContent());
+        // Move data
+        synchronized (to.getData()) {
+            size.addAndGet(-to.getData().size());
+            to.getData().moveContent(from.getData());
+        }
         to.getData().setLastModified(from.getData().getLastModified());
         to.getData().setType(from.getData().getType());
 
@@ -191,64 +258,253 @@ public class RamFileSystem extends AbstractFileSystem implements Serializable {
         }
         RamFileData data = this.cache.get(fo.getName());
         if (data == null) {
-            data = new RamFileData(fo.getName());
+            data = new RamFileData(fo.getName(), directBuffers);
         }
         fo.setData(data);
     }
 
     /**
      * Import a Tree.
+     * <p>
+     * Copies the files below the given local folder into this file system in blocks. Sibling folders are imported
+     * concurrently on the traversal threads of this file system, see
+     * {@link org.apache.commons.vfs2.impl.DefaultFileSystemConfigBuilder#setTraversalThreads}.
      *
      * @param file The File
      * @throws FileSystemException if an error occurs.
      */
     public void importTree(final File file) throws FileSystemException {
-        final FileObject fileFo = getFileSystemManager().toFileObject(file);
-        this.toRamFileObject(fileFo, fileFo);
+        final Walk walk = new Walk(getTraversalExecutor());
+        walk.submit(new ImportTask(file, ""));
+        walk.await();
     }
 
     /**
-     * Import the given file with the name relative to the given root
+     * Export a Tree.
+     * <p>
+     * Writes the files of this file system below the given local folder, the reverse of {@link #importTree(File)}.
+     * Sibling folders are exported concurrently on the traversal threads of this file system.
      *
-     * @param fo
-     * @param root
-     * @throws FileSystemException
+     * @param file The local folder, created if it does not exist.
+     * @throws FileSystemException if an error occurs.
      */
-    void toRamFileObject(final FileObject fo, final FileObject root) throws FileSystemException {
-        final RamFileObject memFo = (RamFileObject) this
-                .resolveFile(fo.getName().getPath().substring(root.getName().getPath().length()));
-        if (fo.getType().hasChildren()) {
-            // Create Folder
-            memFo.createFolder();
-            // Import recursively
-            final FileObject[] fos = fo.getChildren();
-            for (final FileObject child : fos) {
-                this.toRamFileObject(child, root);
+    public void exportTree(final File file) throws FileSystemException {
+        final Walk walk = new Walk(getTraversalExecutor());
+        walk.submit(new ExportTask(cache.get(getRootName()), file));
+        walk.await();
+    }
+
+    /**
+     * Saves all files of this file system to a single snapshot file, to be restored with {@link #loadSnapshot(File)}.
+     * <p>
+     * The snapshot holds the contents of all files one after another, followed by an index of the paths, types, last
+     * modified times, content offsets and lengths. Files changed while the snapshot is saved may be saved in any
+     * state, files deleted while it is saved are saved empty.
+     *
+     * @param file The snapshot file.
+     * @throws FileSystemException if an error occurs.
+     */
+    public void saveSnapshot(final File file) throws FileSystemException {
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(0);
+            final FileChannel channel = raf.getChannel();
+            final List<RamFileData> files = new ArrayList<>();
+            final List<SnapshotEntry> listed = new ArrayList<>();
+            // the same lock delete() removes a file from the tree with, before its data is cleared
+            synchronized (cache) {
+                final Deque<RamFileData> pending = new ArrayDeque<>();
+                pending.push(cache.get(getRootName()));
+                while (!pending.isEmpty()) {
+                    final RamFileData data = pending.pop();
+                    final FileName name = data.getName();
+                    if (name == null) {
+                        continue;
+                    }
+                    files.add(data);
+                    listed.add(new SnapshotEntry(name.getPath(), data.getType(), data.getLastModified(), 0, 0));
+                    if (data.getType().hasChildren()) {
+                        for (final RamFileData child : childrenOf(data)) {
+                            pending.push(child);
+                        }
+                    }
+                }
             }
-        } else if (fo.isFile()) {
-            // Read bytes
-            try {
-                final InputStream is = fo.getContent().getInputStream();
+
+            final List<SnapshotEntry> index = new ArrayList<>(listed.size());
+            long position = SNAPSHOT_HEADER_SIZE;
+            for (int i = 0; i < listed.size(); i++) {
+                final SnapshotEntry entry = listed.get(i);
+                final long length = entry.type.hasContent() ? files.get(i).writeTo(channel, position) : 0;
+                index.add(new SnapshotEntry(entry.path, entry.type, entry.lastModified, position, length));
+                position += length;
+            }
+
+            channel.position(position);
+            final DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), SNAPSHOT_BUFFER_SIZE));
+            out.writeInt(index.size());
+            for (final SnapshotEntry entry : index) {
+                out.writeUTF(entry.path);
+                out.writeBoolean(entry.type.hasChildren());
+                out.writeLong(entry.lastModified);
+                out.writeLong(entry.offset);
+                out.writeLong(entry.length);
+            }
+            out.flush();
+
+            final ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_SIZE);
+            header.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putLong(position);
+            ((Buffer) header).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, SNAPSHOT_HEADER_SIZE - header.remaining());
+            }
+        } catch (final IOException e) {
+            throw new FileSystemException("Could not save the snapshot " + file, e);
+        }
+    }
+
+    /**
+     * Restores the files of a snapshot saved with {@link #saveSnapshot(File)}.
+     * <p>
+     * Files of the snapshot replace files of the same path, other files of this file system are kept. Contents are
+     * read from the snapshot straight into the content pages.
+     *
+     * @param file The snapshot file.
+     * @throws FileSystemException if an error occurs.
+     */
+    public void loadSnapshot(final File file) throws FileSystemException {
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            final FileChannel channel = raf.getChannel();
+            final ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new FileSystemException("Not a RAM file system snapshot: " + file);
+                }
+            }
+            ((Buffer) header).flip();
+            if (header.getInt() != SNAPSHOT_MAGIC || header.getInt() != SNAPSHOT_VERSION) {
+                throw new FileSystemException("Not a RAM file system snapshot: " + file);
+            }
+            channel.position(header.getLong());
+            final DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Channels.newInputStream(channel), SNAPSHOT_BUFFER_SIZE));
+            final int count = in.readInt();
+            final List<SnapshotEntry> index = new ArrayList<>(count);
+            final List<FileName> restored = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final String path = in.readUTF();
+                final FileType type = in.readBoolean() ? FileType.FOLDER : FileType.FILE;
+                index.add(new SnapshotEntry(path, type, in.readLong(), in.readLong(), in.readLong()));
+                restored.add(getFileSystemManager().resolveName(getRootName(), path));
+            }
+
+            // the same lock save() and delete() use to change the tree
+            synchronized (cache) {
+                final long growth = checkRestore(index, restored);
+                reserve(growth);
+                long delta = 0;
                 try {
-                    final OutputStream os = new BufferedOutputStream(memFo.getOutputStream(), BUFFER_SIZE);
-                    int i;
-                    while ((i = is.read()) != -1) {
-                        os.write(i);
+                    for (int i = 0; i < count; i++) {
+                        final SnapshotEntry entry = index.get(i);
+                        final RamFileData data = restored(restored.get(i), entry.type);
+                        delta += restoreContent(data, entry, channel);
+                        data.setLastModified(entry.lastModified);
                     }
-                    os.close();
                 } finally {
-                    try {
-                        is.close();
-                    } catch (final IOException ignored) {
-                        /* ignore on close exception. */
-                    }
-                    // TODO: close os
+                    // the reservation was made for the sizes seen by checkRestore
+                    size.addAndGet(delta - growth);
+                }
+            }
+
+            // let file objects of this file system attach to the restored data
+            for (final FileName name : restored) {
+                final FileObject fo = getFileFromCache(name);
+                if (fo != null) {
+                    fo.refresh();
                 }
-            } catch (final IOException e) {
-                throw new FileSystemException(e.getClass().getName() + " " + e.getMessage());
             }
-        } else {
-            throw new FileSystemException("File is not a folder nor a file " + memFo);
+        } catch (final FileSystemException e) {
+            throw e;
+        } catch (final IOException e) {
+            throw new FileSystemException("Could not load the snapshot " + file, e);
+        }
+    }
+
+    /**
+     * Checks that a snapshot can be restored before anything is changed.
+     *
+     * @return The content bytes the restore adds to this file system.
+     */
+    private long checkRestore(final List<SnapshotEntry> index, final List<FileName> names)
+            throws FileSystemException {
+        // the types the entries before the current one leave behind
+        final Map<FileName, FileType> planned = new HashMap<>();
+        long growth = 0;
+        for (int i = 0; i < index.size(); i++) {
+            final SnapshotEntry entry = index.get(i);
+            final FileName name = names.get(i);
+            final RamFileData data = cache.get(name);
+            if (data == null && !planned.containsKey(name)) {
+                final FileName parent = name.getParent();
+                FileType parentType = planned.get(parent);
+                if (parentType == null && cache.get(parent) != null) {
+                    parentType = cache.get(parent).getType();
+                }
+                if (parentType == null || !parentType.hasChildren()) {
+                    throw new FileSystemException("Cannot restore " + name + " without its folder");
+                }
+            } else if (data != null && data.getType() != entry.type && data.getType().hasChildren()
+                    && !data.getChildren().isEmpty()) {
+                throw new FileSystemException("Cannot restore a file over the folder " + name);
+            }
+            planned.put(name, entry.type);
+            final long current = data != null ? data.size() : 0;
+            final long length = entry.type.hasContent() ? entry.length : 0;
+            if (length > current) {
+                growth += length - current;
+            }
+        }
+        return growth;
+    }
+
+    /**
+     * Returns the data of a restored file, replacing the existing data of the same name. Sizes are not accounted.
+     */
+    private RamFileData restored(final FileName name, final FileType type) throws FileSystemException {
+        RamFileData data = cache.get(name);
+        if (data == null) {
+            data = new RamFileData(name, directBuffers);
+            data.setType(type);
+            cache.get(name.getParent()).addChild(data);
+            cache.put(name, data);
+        } else if (data.getType() != type) {
+            data.setType(type);
+        }
+        return data;
+    }
+
+    /**
+     * Reads the content of a restored file from the snapshot, the capacity has been reserved.
+     *
+     * @return The change of the content size.
+     */
+    private static long restoreContent(final RamFileData data, final SnapshotEntry entry, final FileChannel channel)
+            throws IOException {
+        synchronized (data) {
+            final long previous = data.size();
+            final long length = entry.type.hasContent() ? entry.length : 0;
+            data.resize(length);
+            if (length > 0) {
+                data.readFrom(channel, entry.offset);
+            }
+            return length - previous;
+        }
+    }
+
+    private static RamFileData[] childrenOf(final RamFileData data) {
+        final Collection<RamFileData> children = data.getChildren();
+        synchronized (children) {
+            return children.toArray(new RamFileData[children.size()]);
         }
     }
 
@@ -256,15 +512,57 @@ public class RamFileSystem extends AbstractFileSystem implements Serializable {
      * @return Returns the size of the FileSystem
      */
     long size() {
-        long size = 0;
-        synchronized (cache) {
-            final Iterator<RamFileData> iter = cache.values().iterator();
-            while (iter.hasNext()) {
-                final RamFileData data = iter.next();
-                size += data.size();
+        return size.get();
+    }
+
+    /**
+     * Resizes the content of a file within the maximum size of the file system.
+     *
+     * @param data The file data.
+     * @param newSize The new content size.
+     * @throws IOException if the new size exceeds the limit
+     */
+    void resize(final RamFileData data, final long newSize) throws IOException {
+        synchronized (data) {
+            final long delta = newSize - data.size();
+            if (delta > 0) {
+                reserve(delta);
+            }
+            try {
+                data.resize(newSize);
+            } catch (final RuntimeException | OutOfMemoryError e) {
+                if (delta > 0) {
+                    size.addAndGet(-delta);
+                }
+                throw e;
+            }
+            if (delta < 0) {
+                size.addAndGet(delta);
+            }
+        }
+    }
+
+    private void reserve(final long bytes) throws IOException {
+        for (;;) {
+            final long current = size.get();
+            final long next = current + bytes;
+            if (next > maxSize || next < 0) {
+                throw new IOException("FileSystem capacity (" + maxSize + ") exceeded.");
+            }
+            if (size.compareAndSet(current, next)) {
+                return;
             }
         }
-        return size;
+    }
+
+    /**
+     * Clears the data of a deleted file and gives its content bytes back.
+     */
+    private void discard(final RamFileData data) {
+        synchronized (data) {
+            size.addAndGet(-data.size());
+            data.clear();
+        }
     }
 
     /**
@@ -273,6 +571,198 @@ public class RamFileSystem extends AbstractFileSystem implements Serializable {
     @Override
     public void close() {
         this.cache.clear();
+        this.size.set(0);
         super.close();
     }
+
+    /**
+     * A task of a tree walk.
+     */
+    private interface WalkTask {
+        void run(Walk walk) throws Exception;
+    }
+
+    /**
+     * Runs the tasks of a tree walk on an executor, or on the calling thread if there is none, and waits for all of
+     * them. Tasks never wait for each other, they submit the tasks for the children of a folder.
+     */
+    private static final class Walk {
+        private final ExecutorService executor;
+        private final Deque<WalkTask> queue = new ArrayDeque<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+        Walk(final ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        void submit(final WalkTask task) {
+            if (executor == null) {
+                queue.add(task);
+                return;
+            }
+            pending.incrementAndGet();
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            if (failure.get() == null) {
+                                task.run(Walk.this);
+                            }
+                        } catch (final Exception e) {
+                            failure.compareAndSet(null, e);
+                        } finally {
+                            finished();
+                        }
+                    }
+                });
+            } catch (final RejectedExecutionException e) {
+                failure.compareAndSet(null, e);
+                finished();
+            }
+        }
+
+        private void finished() {
+            if (pending.decrementAndGet() == 0) {
+                done.countDown();
+            }
+        }
+
+        void await() throws FileSystemException {
+            if (executor == null) {
+                try {
+                    while (!queue.isEmpty()) {
+                        queue.poll().run(this);
+                    }
+                } catch (final Exception e) {
+                    failure.set(e);
+                }
+            } else {
+                try {
+                    done.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failure.compareAndSet(null, e);
+                }
+            }
+            final Exception e = failure.get();
+            if (e instanceof FileSystemException) {
+                throw (FileSystemException) e;
+            }
+            if (e != null) {
+                throw new FileSystemException(e.getClass().getName() + " " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Imports a local file or folder.
+     */
+    private final class ImportTask implements WalkTask {
+        private final File file;
+        private final String path;
+
+        ImportTask(final File file, final String path) {
+            this.file = file;
+            this.path = path;
+        }
+
+        @Override
+        public void run(final Walk walk) throws IOException {
+            final RamFileObject memFo = (RamFileObject) resolveFile(path);
+            if (file.isDirectory()) {
+                memFo.createFolder();
+                final File[] children = file.listFiles();
+                if (children == null) {
+                    throw new FileSystemException("Could not list the folder " + file);
+                }
+                for (final File child : children) {
+                    walk.submit(new ImportTask(child, path + FileName.SEPARATOR + UriParser.encode(child.getName())));
+                }
+            } else if (file.isFile()) {
+                try (final InputStream is = new FileInputStream(file);
+                        final OutputStream os = memFo.getContent().getOutputStream()) {
+                    final byte[] buffer = new byte[(int) Math.max(1, Math.min(BUFFER_SIZE, file.length()))];
+                    int n;
+                    while ((n = is.read(buffer)) != -1) {
+                        os.write(buffer, 0, n);
+                    }
+                }
+                memFo.getContent().setLastModifiedTime(file.lastModified());
+            } else {
+                throw new FileSystemException("File is not a folder nor a file " + memFo);
+            }
+        }
+    }
+
+    /**
+     * Exports a file or folder to the local file system.
+     */
+    private final class ExportTask implements WalkTask {
+        private final RamFileData data;
+        private final File file;
+
+        ExportTask(final RamFileData data, final File file) {
+            this.data = data;
+            this.file = file;
+        }
+
+        @Override
+        public void run(final Walk walk) throws IOException {
+            final FileType type;
+            RamFileData[] children = null;
+            String[] names = null;
+            // the same lock delete() removes a file from the tree with, before its data is cleared
+            synchronized (cache) {
+                if (data.getName() == null) {
+                    // deleted since its folder was listed
+                    return;
+                }
+                type = data.getType();
+                if (type.hasChildren()) {
+                    children = childrenOf(data);
+                    names = new String[children.length];
+                    for (int i = 0; i < children.length; i++) {
+                        names[i] = children[i].getName().getBaseName();
+                    }
+                }
+            }
+
+            if (type.hasChildren()) {
+                if (!file.isDirectory() && !file.mkdirs()) {
+                    throw new FileSystemException("Could not create the folder " + file);
+                }
+                for (int i = 0; i < children.length; i++) {
+                    walk.submit(new ExportTask(children[i], new File(file, UriParser.decode(names[i]))));
+                }
+            } else if (type.hasContent()) {
+                try (final FileOutputStream os = new FileOutputStream(file)) {
+                    data.writeTo(os.getChannel(), 0);
+                }
+                file.setLastModified(data.getLastModified());
+            }
+        }
+    }
+
+    /**
+     * A file in the index of a snapshot.
+     */
+    private static final class SnapshotEntry {
+        private final String path;
+        private final FileType type;
+        private final long lastModified;
+        private final long offset;
+        private final long length;
+
+        SnapshotEntry(final String path, final FileType type, final long lastModified, final long offset,
+                final long length) {
+            this.path = path;
+            this.type = type;
+            this.lastModified = lastModified;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
 }
@@ -28,6 +28,9 @@ public final class RamFileSystemConfigBuilder extends FileSystemConfigBuilder {
     /** max size key. */
     private static final String MAX_SIZE_KEY = "maxsize";
 
+    /** direct buffers key. */
+    private static final String DIRECT_BUFFERS_KEY = "directbuffers";
+
     /** config builder SINGLETON. */
     private static final RamFileSystemConfigBuilder SINGLETON = new RamFileSystemConfigBuilder();
 
@@ -100,4 +103,28 @@ public final class RamFileSystemConfigBuilder extends FileSystemConfigBuilder {
         setParam(opts, MAX_SIZE_KEY, Long.valueOf(sizeInBytes));
     }
 
+    /**
+     * Sets whether file content is kept in direct buffers outside the Java heap.
+     * <p>
+     * Direct buffers keep large contents out of garbage collection, but their memory is only given back when the
+     * buffers are collected, and it is bounded by {@code -XX:MaxDirectMemorySize}.
+     *
+     * @param opts The FileSystem options.
+     * @param directBuffers true to allocate file content in direct buffers.
+     */
+    public void setDirectBuffers(final FileSystemOptions opts, final boolean directBuffers) {
+        setParam(opts, DIRECT_BUFFERS_KEY, Boolean.valueOf(directBuffers));
+    }
+
+    /**
+     * Defaults to false.
+     *
+     * @param opts The FileSystem options.
+     * @return true if file content is kept in direct buffers.
+     * @see #setDirectBuffers(FileSystemOptions, boolean)
+     */
+    public boolean isDirectBuffers(final FileSystemOptions opts) {
+        return getBoolean(opts, DIRECT_BUFFERS_KEY, false);
+    }
+
 }
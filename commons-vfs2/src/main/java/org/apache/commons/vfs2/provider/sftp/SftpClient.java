@@ -35,13 +35,36 @@ public class SftpClient {
     private FileSystemOptions fso;
     private GenericFileName rootName;
 
+    /**
+     * The pooled session this client's channel is multiplexed on, or null when the client owns its session.
+     */
+    private final SftpClientPool.PooledSession pooledSession;
+
+    /**
+     * When this client was last handed back to its pool.
+     */
+    private long lastReturnedTime;
+
     public SftpClient(final FileSystemOptions fileSystemOptions, GenericFileName rootName) throws FileSystemException {
         this.fso = fileSystemOptions;
         this.rootName = rootName;
+        this.pooledSession = null;
         // create the session first
         ensureSession();
     }
 
+    /**
+     * Creates a client whose channel is opened on a session shared through a {@link SftpClientPool}. Closing the
+     * client only disconnects its channel, the session stays owned by the pool.
+     */
+    SftpClient(final FileSystemOptions fileSystemOptions, final GenericFileName rootName,
+            final SftpClientPool.PooledSession pooledSession) {
+        this.fso = fileSystemOptions;
+        this.rootName = rootName;
+        this.pooledSession = pooledSession;
+        this.session = pooledSession.getSession();
+    }
+
     public Channel getChannel(String type) throws FileSystemException, JSchException {
         ensureSession();
         Channel requestedChannel = session.openChannel(type);
@@ -58,6 +81,7 @@ public class SftpClient {
             try {
                 channel = (ChannelSftp) session.openChannel("sftp");
                 channel.connect();
+                channel.setBulkRequests(SftpFileSystemConfigBuilder.getInstance().getBulkRequests(fso));
                 final Boolean userDirIsRoot = SftpFileSystemConfigBuilder.getInstance().getUserDirIsRoot(fso);
                 final String workingDirectory = rootName.getPath();
                 if (workingDirectory != null && (userDirIsRoot == null || !userDirIsRoot.booleanValue())) {
@@ -81,33 +105,94 @@ public class SftpClient {
         }
 
         if (null != session) {
-            session.disconnect();
+            if (pooledSession == null) {
+                session.disconnect();
+            }
             session = null;
         }
     }
 
+    /**
+     * Checks whether the underlying session, and the SFTP channel if already opened, are still connected.
+     *
+     * @return true if the client can be reused.
+     */
+    boolean isConnected() {
+        if (session == null || !session.isConnected()) {
+            return false;
+        }
+        return channel == null || (channel.isConnected() && !channel.isClosed());
+    }
+
+    /**
+     * Validates the client with a round trip to the server.
+     *
+     * @return true if the server answered.
+     */
+    boolean validate() {
+        if (!isConnected()) {
+            return false;
+        }
+        try {
+            getChannel().realpath(".");
+            return true;
+        } catch (final FileSystemException | SftpException e) {
+            return false;
+        }
+    }
+
+    SftpClientPool.PooledSession getPooledSession() {
+        return pooledSession;
+    }
+
+    long getLastReturnedTime() {
+        return lastReturnedTime;
+    }
+
+    void setLastReturnedTime(final long lastReturnedTime) {
+        this.lastReturnedTime = lastReturnedTime;
+    }
+
     private void ensureSession() throws FileSystemException {
+        if (pooledSession != null) {
+            // the pool owns the session, a broken one is dropped when this client is returned
+            if (session == null || !session.isConnected()) {
+                throw new FileSystemException("vfs.provider.sftp/connect.error", rootName);
+            }
+            return;
+        }
         if (this.session == null || !this.session.isConnected()) {
             // if the session is unavailable, we make sure corresponding channel is also closed
             close();
             // channel closed. e.g. by freeUnusedResources, but now we need it again
-            Session session;
-            UserAuthenticationData authData = null;
-            try {
-                authData = UserAuthenticatorUtils.authenticate(fso,
-                        SftpFileProvider.AUTHENTICATOR_TYPES);
-
-                session = SftpClientFactory.createConnection(rootName.getHostName(), rootName.getPort(),
-                        UserAuthenticatorUtils.getData(authData, UserAuthenticationData.USERNAME,
-                                UserAuthenticatorUtils.toChar(rootName.getUserName())),
-                        UserAuthenticatorUtils.getData(authData, UserAuthenticationData.PASSWORD,
-                                UserAuthenticatorUtils.toChar(rootName.getPassword())), fso);
-            } catch (final Exception e) {
-                throw new FileSystemException("vfs.provider.sftp/connect.error", fso, e);
-            } finally {
-                UserAuthenticatorUtils.cleanup(authData);
-            }
-            this.session = session;
+            this.session = createSession(fso, rootName);
+        }
+    }
+
+    /**
+     * Opens and authenticates a new SSH session to the server of the given root name.
+     *
+     * @param fso The FileSystem options.
+     * @param rootName The root name of the file system.
+     * @return A connected session.
+     * @throws FileSystemException if the session cannot be created.
+     */
+    static Session createSession(final FileSystemOptions fso, final GenericFileName rootName)
+            throws FileSystemException {
+        UserAuthenticationData authData = null;
+        try {
+            authData = UserAuthenticatorUtils.authenticate(fso,
+                    SftpFileProvider.AUTHENTICATOR_TYPES);
+
+            return SftpClientFactory.createConnection(rootName.getHostName(), rootName.getPort(),
+                    UserAuthenticatorUtils.getData(authData, UserAuthenticationData.USERNAME,
+                            UserAuthenticatorUtils.toChar(rootName.getUserName())),
+                    UserAuthenticatorUtils.getData(authData, UserAuthenticationData.PASSWORD,
+                            UserAuthenticatorUtils.toChar(rootName.getPassword())), fso);
+        } catch (final Exception e) {
+            throw new FileSystemException("vfs.provider.sftp/connect.error", fso, e);
+        } finally {
+            UserAuthenticatorUtils.cleanup(authData);
         }
     }
 }
@@ -0,0 +1,451 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.commons.vfs2.provider.sftp;
+
+import com.jcraft.jsch.Session;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.FileSystemInstrumentation;
+import org.apache.commons.vfs2.FileSystemOptions;
+import org.apache.commons.vfs2.provider.GenericFileName;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded pool of {@link SftpClient}s for one {@link SftpFileSystem}.
+ * <p>
+ * The pool keeps a small number of authenticated SSH sessions open and multiplexes several SFTP channels over each of
+ * them, so concurrent streams do not each pay for a TCP connect, key exchange and authentication. Idle channels and
+ * surplus sessions are evicted lazily whenever a client is borrowed or returned.
+ * </p>
+ * <p>
+ * Once the pool is closed it keeps serving callers with unpooled clients, which are disconnected as soon as they are
+ * returned. This matches what {@link SftpFileSystem} did before pooling after its communication link was closed.
+ * </p>
+ *
+ * @see SftpFileSystemConfigBuilder#setPoolMaxSessions
+ * @see SftpFileSystemConfigBuilder#setPoolChannelsPerSession
+ */
+final class SftpClientPool {
+    private static final Log LOG = LogFactory.getLog(SftpClientPool.class);
+
+    private final SftpFileSystem fileSystem;
+    private final FileSystemOptions fileSystemOptions;
+    private final GenericFileName rootName;
+
+    private final int minSessions;
+    private final int maxSessions;
+    private final int channelsPerSession;
+    private final long idleTimeout;
+    private final long maxWait;
+    private final boolean validateOnBorrow;
+
+    /** Fair, so that waiting callers are served in arrival order. */
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition released = lock.newCondition();
+
+    private final List<PooledSession> sessions = new ArrayList<>();
+
+    /** Idle clients, most recently returned first. */
+    private final Deque<SftpClient> idleClients = new ArrayDeque<>();
+
+    /** Sessions being connected outside the lock, counted against {@link #maxSessions}. */
+    private int pendingSessions;
+
+    private boolean closed;
+
+    /**
+     * An SSH session shared by the channels of several pooled clients.
+     */
+    static final class PooledSession {
+        private final Session session;
+
+        /** Channels opened on this session, idle or leased. */
+        private int channels;
+
+        private long lastUsedTime;
+
+        private PooledSession(final Session session) {
+            this.session = session;
+            this.lastUsedTime = System.currentTimeMillis();
+        }
+
+        Session getSession() {
+            return session;
+        }
+    }
+
+    /**
+     * Creates the pool and opens the configured minimum number of sessions.
+     *
+     * @param fileSystem The file system the clients connect to.
+     * @param fileSystemOptions The FileSystem options.
+     * @param rootName The root name of the file system.
+     * @throws FileSystemException if an initial session cannot be created.
+     */
+    SftpClientPool(final SftpFileSystem fileSystem, final FileSystemOptions fileSystemOptions,
+            final GenericFileName rootName) throws FileSystemException {
+        this.fileSystem = fileSystem;
+        this.fileSystemOptions = fileSystemOptions;
+        this.rootName = rootName;
+
+        final SftpFileSystemConfigBuilder builder = SftpFileSystemConfigBuilder.getInstance();
+        this.maxSessions = Math.max(1, builder.getPoolMaxSessions(fileSystemOptions));
+        this.minSessions = Math.min(Math.max(0, builder.getPoolMinSessions(fileSystemOptions)), maxSessions);
+        this.channelsPerSession = Math.max(1, builder.getPoolChannelsPerSession(fileSystemOptions));
+        this.idleTimeout = builder.getPoolIdleTimeout(fileSystemOptions);
+        this.maxWait = builder.getPoolMaxWait(fileSystemOptions);
+        this.validateOnBorrow = builder.getPoolValidateOnBorrow(fileSystemOptions);
+
+        for (int i = 0; i < minSessions; i++) {
+            sessions.add(new PooledSession(SftpClient.createSession(fileSystemOptions, rootName)));
+        }
+    }
+
+    /**
+     * Borrows a client, reusing an idle channel, opening a new channel on a session with spare capacity or opening a
+     * new session, in that order. Waits when the pool is exhausted.
+     *
+     * @return a client which must be handed back through {@link #returnClient(SftpClient)}.
+     * @throws FileSystemException if a session cannot be created or no client became available in time.
+     */
+    SftpClient borrowClient() throws FileSystemException {
+        final SftpClient client = borrow(true);
+        reportUsage();
+        return client;
+    }
+
+    /**
+     * Borrows a client to open a channel other than SFTP on, like the exec channel of a command. The channel takes a
+     * slot of its session like an SFTP channel does, so no session carries more channels than configured. When every
+     * slot is taken and no session may be added, the least recently used idle SFTP channel is closed to make room.
+     *
+     * @return a client whose SFTP channel is not opened, which must be handed back through
+     *         {@link #returnExecClient(SftpClient)}.
+     * @throws FileSystemException if a session cannot be created or no slot became available in time.
+     */
+    SftpClient borrowExecClient() throws FileSystemException {
+        final SftpClient client = borrow(false);
+        reportUsage();
+        return client;
+    }
+
+    private SftpClient borrow(final boolean reuseIdle) throws FileSystemException {
+        final long deadline = maxWait > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWait) : 0;
+        while (true) {
+            final List<Object> evicted = new ArrayList<>();
+            SftpClient idleClient = null;
+            PooledSession target = null;
+            boolean connect = false;
+
+            lock.lock();
+            try {
+                if (closed) {
+                    return new SftpClient(fileSystemOptions, rootName);
+                }
+                evictIdle(System.currentTimeMillis(), evicted);
+                if (reuseIdle) {
+                    idleClient = idleClients.pollFirst();
+                } else if (findSessionWithCapacity() == null && sessions.size() + pendingSessions >= maxSessions
+                        && !idleClients.isEmpty()) {
+                    final SftpClient leastRecentlyUsed = idleClients.pollLast();
+                    leastRecentlyUsed.getPooledSession().channels--;
+                    evicted.add(leastRecentlyUsed);
+                }
+                if (idleClient == null) {
+                    target = findSessionWithCapacity();
+                    if (target != null) {
+                        target.channels++;
+                    } else if (sessions.size() + pendingSessions < maxSessions) {
+                        pendingSessions++;
+                        connect = true;
+                    } else if (evicted.isEmpty()) {
+                        awaitRelease(deadline);
+                        continue;
+                    } else {
+                        // the evicted clients and sessions free slots once they are disconnected
+                        continue;
+                    }
+                }
+            } finally {
+                lock.unlock();
+                disconnect(evicted);
+            }
+
+            if (idleClient != null) {
+                if (idleClient.isConnected() && (!validateOnBorrow || idleClient.validate())) {
+                    return idleClient;
+                }
+                destroyClient(idleClient);
+                continue;
+            }
+
+            if (connect) {
+                target = connectSession();
+            }
+            return new SftpClient(fileSystemOptions, rootName, target);
+        }
+    }
+
+    /**
+     * Hands a client back to the pool. Broken clients, and clients returned after the pool was closed, are
+     * disconnected.
+     *
+     * @param client the client obtained from {@link #borrowClient()}.
+     */
+    void returnClient(final SftpClient client) {
+        if (client.getPooledSession() == null) {
+            client.close();
+            return;
+        }
+        final List<Object> evicted = new ArrayList<>();
+        boolean keep = false;
+        lock.lock();
+        try {
+            if (!closed && client.isConnected()) {
+                final long now = System.currentTimeMillis();
+                client.setLastReturnedTime(now);
+                client.getPooledSession().lastUsedTime = now;
+                idleClients.addFirst(client);
+                released.signal();
+                keep = true;
+                evictIdle(now, evicted);
+            }
+        } finally {
+            lock.unlock();
+            disconnect(evicted);
+        }
+        if (!keep) {
+            destroyClient(client);
+        }
+        reportUsage();
+    }
+
+    /**
+     * Hands back a client obtained from {@link #borrowExecClient()}. Its channels must be disconnected already, the
+     * client is closed and its slot given back to the session.
+     *
+     * @param client the client obtained from {@link #borrowExecClient()}.
+     */
+    void returnExecClient(final SftpClient client) {
+        if (client.getPooledSession() == null) {
+            client.close();
+            return;
+        }
+        destroyClient(client);
+        reportUsage();
+    }
+
+    /**
+     * Closes all idle clients and every session without leased channels. Sessions still in use are disconnected when
+     * their last client is returned.
+     */
+    void close() {
+        final List<Object> evicted = new ArrayList<>();
+        lock.lock();
+        try {
+            closed = true;
+            for (final SftpClient client : idleClients) {
+                client.getPooledSession().channels--;
+                evicted.add(client);
+            }
+            idleClients.clear();
+            for (final Iterator<PooledSession> iterator = sessions.iterator(); iterator.hasNext();) {
+                final PooledSession pooledSession = iterator.next();
+                if (pooledSession.channels == 0) {
+                    iterator.remove();
+                    evicted.add(pooledSession);
+                }
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+            disconnect(evicted);
+        }
+        reportUsage();
+    }
+
+    /**
+     * Must be called with the lock held.
+     */
+    private PooledSession findSessionWithCapacity() {
+        PooledSession best = null;
+        for (final PooledSession pooledSession : sessions) {
+            if (pooledSession.channels < channelsPerSession && pooledSession.session.isConnected()
+                    && (best == null || pooledSession.channels < best.channels)) {
+                best = pooledSession;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Must be called with the lock held.
+     */
+    private void awaitRelease(final long deadline) throws FileSystemException {
+        try {
+            if (deadline == 0) {
+                released.await();
+            } else {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || released.awaitNanos(remaining) <= 0) {
+                    throw new FileSystemException("vfs.provider.sftp/pool-exhausted.error", rootName,
+                            Long.valueOf(maxWait));
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileSystemException("vfs.provider.sftp/pool-exhausted.error", e, rootName,
+                    Long.valueOf(maxWait));
+        }
+    }
+
+    private PooledSession connectSession() throws FileSystemException {
+        final FileSystemInstrumentation instrumentation = fileSystem.getInstrumentation();
+        final long startTime = instrumentation != null ? System.nanoTime() : 0L;
+        Session session = null;
+        try {
+            session = SftpClient.createSession(fileSystemOptions, rootName);
+        } finally {
+            if (instrumentation != null) {
+                instrumentation.operationCompleted(rootName, FileSystemInstrumentation.Operation.CONNECT,
+                        System.nanoTime() - startTime, 0L, session == null);
+            }
+            lock.lock();
+            try {
+                pendingSessions--;
+                if (session == null) {
+                    released.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        final PooledSession pooledSession = new PooledSession(session);
+        pooledSession.channels = 1;
+        lock.lock();
+        try {
+            sessions.add(pooledSession);
+            // callers which found no capacity while the session was connecting may use its other channels
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        return pooledSession;
+    }
+
+    /**
+     * Reports the number of leased and idle channels to the instrumentation of the file system.
+     */
+    private void reportUsage() {
+        final FileSystemInstrumentation instrumentation = fileSystem.getInstrumentation();
+        if (instrumentation == null) {
+            return;
+        }
+        int channels = 0;
+        final int idle;
+        lock.lock();
+        try {
+            for (final PooledSession pooledSession : sessions) {
+                channels += pooledSession.channels;
+            }
+            idle = idleClients.size();
+        } finally {
+            lock.unlock();
+        }
+        instrumentation.poolUsageChanged(rootName, channels - idle, idle, maxSessions * channelsPerSession);
+    }
+
+    /**
+     * Disconnects a client's channel and gives its slot back to the session.
+     */
+    private void destroyClient(final SftpClient client) {
+        final PooledSession pooledSession = client.getPooledSession();
+        client.close();
+        boolean dropSession = false;
+        lock.lock();
+        try {
+            pooledSession.channels--;
+            pooledSession.lastUsedTime = System.currentTimeMillis();
+            if (pooledSession.channels == 0 && (closed || !pooledSession.session.isConnected())) {
+                sessions.remove(pooledSession);
+                dropSession = true;
+            }
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (dropSession) {
+            pooledSession.session.disconnect();
+        }
+    }
+
+    /**
+     * Collects idle clients and surplus sessions which exceeded the idle timeout, as well as unused sessions which
+     * lost their connection. Must be called with the lock held, the collected objects are disconnected after the lock
+     * is released.
+     */
+    private void evictIdle(final long now, final List<Object> evicted) {
+        if (idleTimeout > 0) {
+            for (final Iterator<SftpClient> iterator = idleClients.descendingIterator(); iterator.hasNext();) {
+                final SftpClient client = iterator.next();
+                if (now - client.getLastReturnedTime() < idleTimeout) {
+                    // the deque is ordered by return time
+                    break;
+                }
+                iterator.remove();
+                client.getPooledSession().channels--;
+                evicted.add(client);
+            }
+        }
+        for (final Iterator<PooledSession> iterator = sessions.iterator(); iterator.hasNext();) {
+            final PooledSession pooledSession = iterator.next();
+            if (pooledSession.channels > 0) {
+                continue;
+            }
+            if (!pooledSession.session.isConnected() || idleTimeout > 0 && sessions.size() > minSessions
+                    && now - pooledSession.lastUsedTime >= idleTimeout) {
+                iterator.remove();
+                evicted.add(pooledSession);
+            }
+        }
+    }
+
+    private static void disconnect(final List<Object> evicted) {
+        for (final Object object : evicted) {
+            try {
+                if (object instanceof SftpClient) {
+                    ((SftpClient) object).close();
+                } else {
+                    ((PooledSession) object).session.disconnect();
+                }
+            } catch (final RuntimeException e) {
+                LOG.debug("Error while closing an idle SFTP connection", e);
+            }
+        }
+    }
+}
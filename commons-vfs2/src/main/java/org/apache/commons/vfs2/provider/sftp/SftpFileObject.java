@@ -244,6 +244,26 @@ public class SftpFileObject extends AbstractFileObject<SftpFileSystem> {
         }
     }
 
+    /**
+     * Renames the file with the {@code posix-rename@openssh.com} extension, which replaces the destination atomically.
+     * JSch uses the extension for every rename once the server advertises it.
+     */
+    @Override
+    protected boolean doRenameReplacing(final FileObject newFile) throws Exception {
+        final SftpClient sftpClient = getAbstractFileSystem().getClient();
+        try {
+            final ChannelSftp channel = sftpClient.getChannel();
+            if (!"1".equals(channel.getExtension("posix-rename@openssh.com"))) {
+                return false;
+            }
+            final SftpFileObject newSftpFileObject = (SftpFileObject) FileObjectUtils.getAbstractFileObject(newFile);
+            channel.rename(relPath, newSftpFileObject.relPath);
+            return true;
+        } finally {
+            getAbstractFileSystem().putClient(sftpClient);
+        }
+    }
+
     /**
      * Returns the POSIX type permissions of the file.
      *
@@ -479,44 +499,32 @@ public class SftpFileObject extends AbstractFileObject<SftpFileSystem> {
      */
     @Override
     protected InputStream doGetInputStream() throws Exception {
-        // VFS-113: avoid npe
-        synchronized (getAbstractFileSystem()) {
-            final SftpClient client = getAbstractFileSystem().getClient();
-            // return channel.get(getName().getPath());
-            // hmmm - using the in memory method is soooo much faster ...
-
-            // TODO - Don't read the entire file into memory. Use the
-            // stream-based methods on ChannelSftp once they work properly
-
-            /*
-             * final ByteArrayOutputStream outstr = new ByteArrayOutputStream(); channel.get(relPath, outstr);
-             * outstr.close(); return new ByteArrayInputStream(outstr.toByteArray());
-             */
-
-            InputStream is;
-            try {
-                final ChannelSftp channel = client.getChannel();
-                // VFS-210: sftp allows to gather an input stream even from a directory and will
-                // fail on first read. So we need to check the type anyway
-                if (!getType().hasContent()) {
-                    getAbstractFileSystem().putClient(client);
-                    throw new FileSystemException("vfs.provider/read-not-file.error", getName());
-                }
+        // VFS-210: sftp allows to gather an input stream even from a directory and will
+        // fail on first read. So we need to check the type anyway. This is done before taking
+        // a client from the pool, as fetching the type may need a client of its own.
+        if (!getType().hasContent()) {
+            throw new FileSystemException("vfs.provider/read-not-file.error", getName());
+        }
 
-                is = channel.get(relPath);
-            } catch (final SftpException e) {
-                if (e.id == ChannelSftp.SSH_FX_NO_SUCH_FILE) {
-                    getAbstractFileSystem().putClient(client);
-                    throw new FileNotFoundException(getName());
-                }
-                getAbstractFileSystem().putClient(client);
-                throw new FileSystemException(e);
-            } catch (Exception e){
+        // The stream has a channel of its own, so it is opened without holding the lock of the file system.
+        // JSch keeps the configured number of bulk read requests in flight while it is read.
+        final SftpClient client = getAbstractFileSystem().getClient();
+        InputStream is;
+        try {
+            final ChannelSftp channel = client.getChannel();
+            is = channel.get(relPath);
+        } catch (final SftpException e) {
+            if (e.id == ChannelSftp.SSH_FX_NO_SUCH_FILE) {
                 getAbstractFileSystem().putClient(client);
-                throw e;
+                throw new FileNotFoundException(getName());
             }
-            return new SftpInputStream(client, is);
+            getAbstractFileSystem().putClient(client);
+            throw new FileSystemException(e);
+        } catch (Exception e){
+            getAbstractFileSystem().putClient(client);
+            throw e;
         }
+        return new SftpInputStream(client, is);
     }
 
     /**
@@ -524,17 +532,11 @@ public class SftpFileObject extends AbstractFileObject<SftpFileSystem> {
      */
     @Override
     protected OutputStream doGetOutputStream(final boolean bAppend) throws Exception {
-        // TODO - Don't write the entire file into memory. Use the stream-based
-        // methods on ChannelSftp once the work properly
-        /*
-         * final ChannelSftp channel = getAbstractFileSystem().getChannel(); return new SftpOutputStream(channel);
-         */
-
         final SftpClient sftpClient = getAbstractFileSystem().getClient();
         SftpOutputStream outputStream;
         try {
             final ChannelSftp channel = sftpClient.getChannel();
-             outputStream = new SftpOutputStream(sftpClient, channel.put(relPath));
+            outputStream = new SftpOutputStream(sftpClient, channel.put(relPath));
         } catch (Exception e){
             getAbstractFileSystem().putClient(sftpClient);
             throw e;
@@ -542,13 +544,17 @@ public class SftpFileObject extends AbstractFileObject<SftpFileSystem> {
         return outputStream;
     }
 
+    private int getBufferSize() {
+        return SftpFileSystemConfigBuilder.getInstance().getBufferSize(getFileSystem().getFileSystemOptions());
+    }
+
     /**
      * An InputStream that monitors for end-of-file.
      */
     private class SftpInputStream extends MonitorInputStream {
         private final SftpClient client;
         public SftpInputStream(final SftpClient client, final InputStream in) throws FileSystemException {
-            super(in);
+            super(in, getBufferSize());
             this.client = client;
         }
 
@@ -568,7 +574,7 @@ public class SftpFileObject extends AbstractFileObject<SftpFileSystem> {
         private final SftpClient sftpClient;
 
         public SftpOutputStream(final SftpClient sftpClient, final OutputStream out) throws FileSystemException {
-            super(out);
+            super(out, getBufferSize());
             this.sftpClient = sftpClient;
         }
 
@@ -19,7 +19,6 @@ package org.apache.commons.vfs2.provider.sftp;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.Collection;
-import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.vfs2.Capability;
 import org.apache.commons.vfs2.FileObject;
@@ -42,9 +41,8 @@ public class SftpFileSystem extends AbstractFileSystem {
 
     private static final long LAST_MOD_TIME_ACCURACY = 1000L;
 
-    AtomicReference<SftpClient> sftpClientAtomicReference = new AtomicReference<>();
+    private final SftpClientPool clientPool;
 
-    private volatile boolean isFileSystemClosed;
     /**
      * Cache for the user ID (-1 when not set)
      */
@@ -57,31 +55,28 @@ public class SftpFileSystem extends AbstractFileSystem {
 
     protected SftpFileSystem(final GenericFileName rootName, final FileSystemOptions fileSystemOptions) throws FileSystemException {
         super(rootName, null, fileSystemOptions);
-        sftpClientAtomicReference.set(new SftpClient(fileSystemOptions, rootName));
+        clientPool = new SftpClientPool(this, fileSystemOptions, rootName);
     }
 
     @Override
     protected void doCloseCommunicationLink() {
-        isFileSystemClosed = true;
-        SftpClient existingSftpClient = sftpClientAtomicReference.getAndSet(null);
-        if (existingSftpClient != null) {
-            existingSftpClient.close();
-        }
+        clientPool.close();
     }
 
     /**
      * Returns an SFTP channel to the server.
+     * <p>
+     * Channels are taken from a pool which multiplexes them over a bounded number of SSH sessions, see
+     * {@link SftpFileSystemConfigBuilder#setPoolMaxSessions} and
+     * {@link SftpFileSystemConfigBuilder#setPoolChannelsPerSession}.
+     * </p>
      *
      * @return new or reused channel, never null.
      * @throws FileSystemException if a session cannot be created.
      * @throws IOException if an I/O error is detected.
      */
-    protected synchronized SftpClient getClient() throws IOException {
-        SftpClient existingSftpClient = sftpClientAtomicReference.getAndSet(null);
-        if (existingSftpClient == null) {
-            existingSftpClient = new SftpClient(getFileSystemOptions(), (GenericFileName) getRootName());
-        }
-        return existingSftpClient;
+    protected SftpClient getClient() throws IOException {
+        return clientPool.borrowClient();
     }
 
     /**
@@ -90,11 +85,7 @@ public class SftpFileSystem extends AbstractFileSystem {
      * @param sftpClient the used channel.
      */
     protected void putClient(final SftpClient sftpClient) {
-        if (isFileSystemClosed) {
-            sftpClient.close();
-        } else if (!sftpClientAtomicReference.compareAndSet(null, sftpClient)) {
-            sftpClient.close();
-        }
+        clientPool.returnClient(sftpClient);
     }
 
     /**
@@ -184,36 +175,39 @@ public class SftpFileSystem extends AbstractFileSystem {
      * @throws IOException if an I/O error is detected.
      */
     private int executeCommand(final String command, final StringBuilder output) throws JSchException, IOException {
-        SftpClient sftpClient = getClient();
+        // The exec channel takes a channel slot of its own, next to the SFTP channels of the session
+        final SftpClient sftpClient = clientPool.borrowExecClient();
         try {
             final ChannelExec channel = (ChannelExec) sftpClient.getChannel("exec");
-
-            channel.setCommand(command);
-            channel.setInputStream(null);
-            try (final InputStreamReader stream = new InputStreamReader(channel.getInputStream())) {
-                channel.setErrStream(System.err, true);
-                channel.connect();
-
-                // Read the stream
-                final char[] buffer = new char[EXEC_BUFFER_SIZE];
-                int read;
-                while ((read = stream.read(buffer, 0, buffer.length)) >= 0) {
-                    output.append(buffer, 0, read);
+            try {
+                channel.setCommand(command);
+                channel.setInputStream(null);
+                try (final InputStreamReader stream = new InputStreamReader(channel.getInputStream())) {
+                    channel.setErrStream(System.err, true);
+                    channel.connect();
+
+                    // Read the stream
+                    final char[] buffer = new char[EXEC_BUFFER_SIZE];
+                    int read;
+                    while ((read = stream.read(buffer, 0, buffer.length)) >= 0) {
+                        output.append(buffer, 0, read);
+                    }
                 }
-            }
 
-            // Wait until the command finishes (should not be long since we read the output stream)
-            while (!channel.isClosed()) {
-                try {
-                    Thread.sleep(SLEEP_MILLIS);
-                } catch (final Exception ee) {
-                    // TODO: swallow exception, really?
+                // Wait until the command finishes (should not be long since we read the output stream)
+                while (!channel.isClosed()) {
+                    try {
+                        Thread.sleep(SLEEP_MILLIS);
+                    } catch (final Exception ee) {
+                        // TODO: swallow exception, really?
+                    }
                 }
+                return channel.getExitStatus();
+            } finally {
+                channel.disconnect();
             }
-            channel.disconnect();
-            return channel.getExitStatus();
         } finally {
-            putClient(sftpClient);
+            clientPool.returnExecClient(sftpClient);
         }
     }
 }
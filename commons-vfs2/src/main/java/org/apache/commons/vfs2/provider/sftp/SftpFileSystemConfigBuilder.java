@@ -123,6 +123,36 @@ public final class SftpFileSystemConfigBuilder extends FileSystemConfigBuilder {
     private static final String PASS_PHRASE = "identitypassphrase";
     private static final String PERMISSION_CHECK = "avoidpermissioncheck";
 
+    private static final String POOL_MIN_SESSIONS = _PREFIX + ".POOL_MIN_SESSIONS";
+    private static final String POOL_MAX_SESSIONS = _PREFIX + ".POOL_MAX_SESSIONS";
+    private static final String POOL_CHANNELS_PER_SESSION = _PREFIX + ".POOL_CHANNELS_PER_SESSION";
+    private static final String POOL_IDLE_TIMEOUT = _PREFIX + ".POOL_IDLE_TIMEOUT";
+    private static final String POOL_MAX_WAIT = _PREFIX + ".POOL_MAX_WAIT";
+    private static final String POOL_VALIDATE_ON_BORROW = _PREFIX + ".POOL_VALIDATE_ON_BORROW";
+    private static final String BULK_REQUESTS = _PREFIX + ".BULK_REQUESTS";
+    private static final String BUFFER_SIZE = _PREFIX + ".BUFFER_SIZE";
+
+    /** Default number of SSH sessions kept open by the client pool. */
+    public static final int DEFAULT_POOL_MIN_SESSIONS = 1;
+
+    /** Default upper bound of SSH sessions opened by the client pool, unbounded. */
+    public static final int DEFAULT_POOL_MAX_SESSIONS = Integer.MAX_VALUE;
+
+    /** Default number of SFTP channels multiplexed over one SSH session. */
+    public static final int DEFAULT_POOL_CHANNELS_PER_SESSION = 1;
+
+    /** Default time in milliseconds after which idle channels and sessions are closed. */
+    public static final long DEFAULT_POOL_IDLE_TIMEOUT = 60000L;
+
+    /** Default time in milliseconds to wait for a client when the pool is exhausted. */
+    public static final long DEFAULT_POOL_MAX_WAIT = 30000L;
+
+    /** Default number of read requests a stream keeps in flight, the JSch default. */
+    public static final int DEFAULT_BULK_REQUESTS = 16;
+
+    /** Default size of the stream buffers, one full SFTP data packet. */
+    public static final int DEFAULT_BUFFER_SIZE = 32768;
+
 
     private SftpFileSystemConfigBuilder() {
         super("sftp.");
@@ -637,4 +667,167 @@ public final class SftpFileSystemConfigBuilder extends FileSystemConfigBuilder {
     public void setUserInfo(final FileSystemOptions opts, final UserInfo info) {
         this.setParam(opts, UserInfo.class.getName(), info);
     }
+
+    /**
+     * Sets the number of SSH sessions the client pool opens up front and keeps open while idle.
+     *
+     * @param opts The FileSystem options.
+     * @param minSessions The minimum number of sessions.
+     */
+    public void setPoolMinSessions(final FileSystemOptions opts, final int minSessions) {
+        this.setParam(opts, POOL_MIN_SESSIONS, Integer.valueOf(minSessions));
+    }
+
+    /**
+     * @param opts The FileSystem options.
+     * @return The minimum number of pooled sessions, defaults to {@value #DEFAULT_POOL_MIN_SESSIONS}.
+     * @see #setPoolMinSessions
+     */
+    public int getPoolMinSessions(final FileSystemOptions opts) {
+        return this.getInteger(opts, POOL_MIN_SESSIONS, DEFAULT_POOL_MIN_SESSIONS);
+    }
+
+    /**
+     * Sets the maximum number of SSH sessions the client pool opens to the server. Once all sessions carry
+     * {@linkplain #setPoolChannelsPerSession channels per session} channels, callers wait for a channel to be
+     * returned, see {@link #setPoolMaxWait}.
+     *
+     * @param opts The FileSystem options.
+     * @param maxSessions The maximum number of sessions.
+     */
+    public void setPoolMaxSessions(final FileSystemOptions opts, final int maxSessions) {
+        this.setParam(opts, POOL_MAX_SESSIONS, Integer.valueOf(maxSessions));
+    }
+
+    /**
+     * @param opts The FileSystem options.
+     * @return The maximum number of pooled sessions, unbounded by default.
+     * @see #setPoolMaxSessions
+     */
+    public int getPoolMaxSessions(final FileSystemOptions opts) {
+        return this.getInteger(opts, POOL_MAX_SESSIONS, DEFAULT_POOL_MAX_SESSIONS);
+    }
+
+    /**
+     * Sets how many SFTP channels are multiplexed over one SSH session. Must not exceed the {@code MaxSessions}
+     * setting of the server (10 for OpenSSH). The exec channels of the commands the file system runs, see
+     * {@link SftpFileSystem#getUId()}, count against the same limit.
+     *
+     * @param opts The FileSystem options.
+     * @param channelsPerSession The number of channels per session.
+     */
+    public void setPoolChannelsPerSession(final FileSystemOptions opts, final int channelsPerSession) {
+        this.setParam(opts, POOL_CHANNELS_PER_SESSION, Integer.valueOf(channelsPerSession));
+    }
+
+    /**
+     * @param opts The FileSystem options.
+     * @return The number of channels per session, defaults to {@value #DEFAULT_POOL_CHANNELS_PER_SESSION}.
+     * @see #setPoolChannelsPerSession
+     */
+    public int getPoolChannelsPerSession(final FileSystemOptions opts) {
+        return this.getInteger(opts, POOL_CHANNELS_PER_SESSION, DEFAULT_POOL_CHANNELS_PER_SESSION);
+    }
+
+    /**
+     * Sets the time after which idle channels, and sessions above the minimum, are closed. A value of 0 or less keeps
+     * them open until the file system is closed.
+     *
+     * @param opts The FileSystem options.
+     * @param idleTimeout The idle timeout in milliseconds.
+     */
+    public void setPoolIdleTimeout(final FileSystemOptions opts, final long idleTimeout) {
+        this.setParam(opts, POOL_IDLE_TIMEOUT, Long.valueOf(idleTimeout));
+    }
+
+    /**
+     * @param opts The FileSystem options.
+     * @return The idle timeout in milliseconds, defaults to {@value #DEFAULT_POOL_IDLE_TIMEOUT}.
+     * @see #setPoolIdleTimeout
+     */
+    public long getPoolIdleTimeout(final FileSystemOptions opts) {
+        return this.getLong(opts, POOL_IDLE_TIMEOUT, DEFAULT_POOL_IDLE_TIMEOUT);
+    }
+
+    /**
+     * Sets how long a caller waits for a client when the pool is exhausted before failing. A value of 0 or less waits
+     * indefinitely.
+     *
+     * @param opts The FileSystem options.
+     * @param maxWait The maximum wait in milliseconds.
+     */
+    public void setPoolMaxWait(final FileSystemOptions opts, final long maxWait) {
+        this.setParam(opts, POOL_MAX_WAIT, Long.valueOf(maxWait));
+    }
+
+    /**
+     * @param opts The FileSystem options.
+     * @return The maximum wait in milliseconds, defaults to {@value #DEFAULT_POOL_MAX_WAIT}.
+     * @see #setPoolMaxWait
+     */
+    public long getPoolMaxWait(final FileSystemOptions opts) {
+        return this.getLong(opts, POOL_MAX_WAIT, DEFAULT_POOL_MAX_WAIT);
+    }
+
+    /**
+     * Sets whether an idle client is validated with a round trip to the server before it is handed out.
+     *
+     * @param opts The FileSystem options.
+     * @param validateOnBorrow true to validate pooled clients on borrow.
+     */
+    public void setPoolValidateOnBorrow(final FileSystemOptions opts, final boolean validateOnBorrow) {
+        this.setParam(opts, POOL_VALIDATE_ON_BORROW, validateOnBorrow ? Boolean.TRUE : Boolean.FALSE);
+    }
+
+    /**
+     * @param opts The FileSystem options.
+     * @return true if pooled clients are validated on borrow, defaults to false.
+     * @see #setPoolValidateOnBorrow
+     */
+    public boolean getPoolValidateOnBorrow(final FileSystemOptions opts) {
+        return this.getBoolean(opts, POOL_VALIDATE_ON_BORROW, false);
+    }
+
+    /**
+     * Sets how many read requests an input stream keeps in flight. Each request asks for up to one SFTP data packet,
+     * so the read throughput of a single stream is bounded by bulk requests times 32 KB per round trip. Raise this on
+     * links with a high latency. JSch does not keep more than its 2 MB channel window in flight, so values above 64 do
+     * not help.
+     *
+     * @param opts The FileSystem options.
+     * @param bulkRequests The number of outstanding read requests.
+     */
+    public void setBulkRequests(final FileSystemOptions opts, final int bulkRequests) {
+        this.setParam(opts, BULK_REQUESTS, Integer.valueOf(bulkRequests));
+    }
+
+    /**
+     * @param opts The FileSystem options.
+     * @return The number of outstanding read requests, defaults to {@value #DEFAULT_BULK_REQUESTS}.
+     * @see #setBulkRequests
+     */
+    public int getBulkRequests(final FileSystemOptions opts) {
+        return this.getInteger(opts, BULK_REQUESTS, DEFAULT_BULK_REQUESTS);
+    }
+
+    /**
+     * Sets the buffer size of the streams returned for SFTP files. Writes are sent to the server when the buffer is
+     * full, so small writes are combined into full SFTP write requests, which JSch sends without waiting for the
+     * previous ones to be acknowledged.
+     *
+     * @param opts The FileSystem options.
+     * @param bufferSize The buffer size in bytes.
+     */
+    public void setBufferSize(final FileSystemOptions opts, final int bufferSize) {
+        this.setParam(opts, BUFFER_SIZE, Integer.valueOf(bufferSize));
+    }
+
+    /**
+     * @param opts The FileSystem options.
+     * @return The buffer size in bytes, defaults to {@value #DEFAULT_BUFFER_SIZE}.
+     * @see #setBufferSize
+     */
+    public int getBufferSize(final FileSystemOptions opts) {
+        return this.getInteger(opts, BUFFER_SIZE, DEFAULT_BUFFER_SIZE);
+    }
 }
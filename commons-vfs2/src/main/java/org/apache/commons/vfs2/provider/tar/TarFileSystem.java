@@ -18,11 +18,16 @@ package org.apache.commons.vfs2.provider.tar;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.zip.GZIPInputStream;
 
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
@@ -51,6 +56,15 @@ public class TarFileSystem extends AbstractFileSystem {
     private final File file;
     private TarArchiveInputStream tarFile;
 
+    /** Location of the data of every entry found while building the index. */
+    private final Map<TarArchiveEntry, EntryLocation> entryIndex = new IdentityHashMap<>();
+
+    /** The uncompressed tar the indexed offsets refer to, null if entries can only be reached by scanning. */
+    private File indexedFile;
+
+    /** Ordinal of the entry {@link #tarFile} is positioned at, -1 if it is not positioned at an entry. */
+    private int tarFileOrdinal = -1;
+
     protected TarFileSystem(final AbstractFileName rootName, final FileObject parentLayer,
             final FileSystemOptions fileSystemOptions) throws FileSystemException {
         super(rootName, parentLayer, fileSystemOptions);
@@ -72,11 +86,23 @@ public class TarFileSystem extends AbstractFileSystem {
     public void init() throws FileSystemException {
         super.init();
 
+        // A compressed archive can only be read at an offset once it has been decompressed to disk
+        File spoolFile = null;
+        if (isCompressed() && file.exists()
+                && TarFileSystemConfigBuilder.getInstance().isSpoolCompressed(getFileSystemOptions())) {
+            spoolFile = getContext().getTemporaryFileStore().allocateFile(file.getName() + ".tar");
+            tarFile = createSpoolingTarFile(spoolFile);
+        }
+
         // Build the index
         try {
             final List<TarFileObject> strongRef = new ArrayList<>(DEFAULT_INDEX_SIZE);
             TarArchiveEntry entry;
+            int ordinal = 0;
             while ((entry = getTarFile().getNextTarEntry()) != null) {
+                // The stream is now positioned at the first byte of the entry data
+                entryIndex.put(entry, new EntryLocation(ordinal++, tarFile.getBytesRead()));
+
                 final AbstractFileName name = (AbstractFileName) getFileSystemManager().resolveName(getRootName(),
                         UriParser.encode(entry.getName()));
 
@@ -112,6 +138,8 @@ public class TarFileSystem extends AbstractFileSystem {
                     parent.attachChild(fileObj.getName());
                 }
             }
+
+            indexedFile = isCompressed() ? spoolFile : file;
         } catch (final IOException e) {
             throw new FileSystemException(e);
         } finally {
@@ -120,16 +148,55 @@ public class TarFileSystem extends AbstractFileSystem {
     }
 
     public InputStream getInputStream(final TarArchiveEntry entry) throws FileSystemException {
-        resetTarFile();
+        final EntryLocation location = entryIndex.get(entry);
+        if (location != null && indexedFile != null && !entry.isSparse()) {
+            return openIndexedEntry(location.dataOffset, entry.getSize());
+        }
+
+        synchronized (this) {
+            // Entries after the current one can be reached by carrying on with the shared stream
+            if (location == null || tarFile == null || location.ordinal <= tarFileOrdinal) {
+                resetTarFile();
+            }
+            try {
+                TarArchiveEntry next;
+                do {
+                    next = tarFile.getNextTarEntry();
+                    tarFileOrdinal++;
+                    if (next == null) {
+                        throw new FileSystemException("vfs.provider.tar/open-tar-file.error", file);
+                    }
+                } while (location != null ? tarFileOrdinal < location.ordinal : !next.equals(entry));
+                return new SharedEntryInputStream(tarFile, tarFileOrdinal, next);
+            } catch (final IOException e) {
+                throw new FileSystemException(e);
+            }
+        }
+    }
+
+    /**
+     * Opens the data of an indexed entry directly at its offset in the uncompressed tar.
+     */
+    private InputStream openIndexedEntry(final long offset, final long size) throws FileSystemException {
         try {
-            while (!tarFile.getNextEntry().equals(entry)) {
+            final FileInputStream in = new FileInputStream(indexedFile);
+            try {
+                in.getChannel().position(offset);
+            } catch (final IOException e) {
+                in.close();
+                throw e;
             }
-            return tarFile;
+            return new BoundedEntryInputStream(in, size);
         } catch (final IOException e) {
-            throw new FileSystemException(e);
+            throw new FileSystemException("vfs.provider.tar/open-tar-file.error", indexedFile, e);
         }
     }
 
+    private boolean isCompressed() {
+        final String scheme = getRootName().getScheme();
+        return "tgz".equalsIgnoreCase(scheme) || "tbz2".equalsIgnoreCase(scheme);
+    }
+
     protected void resetTarFile() throws FileSystemException {
         // Reading specific entries requires skipping through the tar file from the beginning
         // Not especially elegant, but we don't have the ability to seek to specific positions
@@ -150,6 +217,7 @@ public class TarFileSystem extends AbstractFileSystem {
         }
         final TarArchiveInputStream tarFile = createTarFile(this.file);
         this.tarFile = tarFile;
+        tarFileOrdinal = -1;
     }
 
     protected TarArchiveInputStream getTarFile() throws FileSystemException {
@@ -179,6 +247,31 @@ public class TarFileSystem extends AbstractFileSystem {
         }
     }
 
+    /**
+     * Creates a tar stream over the compressed archive which also writes the decompressed tar to a file.
+     */
+    private TarArchiveInputStream createSpoolingTarFile(final File spoolFile) throws FileSystemException {
+        InputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            if ("tgz".equalsIgnoreCase(getRootName().getScheme())) {
+                in = new GZIPInputStream(in);
+            } else {
+                in = Bzip2FileObject.wrapInputStream(file.getAbsolutePath(), in);
+            }
+            return new TarArchiveInputStream(new SpoolingInputStream(in, new FileOutputStream(spoolFile)));
+        } catch (final IOException ioe) {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (final IOException e) {
+                    // ignore, the open failure is reported
+                }
+            }
+            throw new FileSystemException("vfs.provider.tar/open-tar-file.error", file, ioe);
+        }
+    }
+
     @Override
     protected void doCloseCommunicationLink() {
         // Release the tar file
@@ -188,6 +281,7 @@ public class TarFileSystem extends AbstractFileSystem {
                 tarFile = null;
             }
         } catch (final IOException e) {
+            tarFile = null;
             // getLogger().warn("vfs.provider.tar/close-tar-file.error :" + file, e);
             VfsLog.warn(getLogger(), LOG, "vfs.provider.tar/close-tar-file.error :" + file, e);
         }
@@ -210,6 +304,224 @@ public class TarFileSystem extends AbstractFileSystem {
         return new TarFileObject(name, null, this, false);
     }
 
+    /**
+     * Ordinal and data offset of an entry in the uncompressed tar.
+     */
+    private static final class EntryLocation {
+        private final int ordinal;
+        private final long dataOffset;
+
+        private EntryLocation(final int ordinal, final long dataOffset) {
+            this.ordinal = ordinal;
+            this.dataOffset = dataOffset;
+        }
+    }
+
+    /**
+     * The data of an entry read from the shared tar stream. Closing it leaves the tar stream open, so a following
+     * entry can be read without starting over. Once the shared stream has moved past the entry, reading fails
+     * rather than returning the data of a later entry.
+     */
+    private final class SharedEntryInputStream extends FilterInputStream {
+        private final int ordinal;
+        private final String entryName;
+        /** Bytes left in the entry, -1 if the end is only known once the tar stream reports it. */
+        private long remaining;
+        private boolean finished;
+
+        private SharedEntryInputStream(final InputStream in, final int ordinal, final TarArchiveEntry entry) {
+            super(in);
+            this.ordinal = ordinal;
+            this.entryName = entry.getName();
+            this.remaining = entry.isSparse() ? -1 : entry.getSize();
+            this.finished = remaining == 0;
+        }
+
+        private void consumed(final long n) {
+            if (n < 0) {
+                finished = true;
+            } else if (remaining > 0) {
+                remaining -= n;
+                finished = remaining == 0;
+            }
+        }
+
+        private void checkPositioned() throws FileSystemException {
+            if (tarFile != in || tarFileOrdinal != ordinal) {
+                throw new FileSystemException("vfs.provider.tar/entry-stream-stale.error", entryName, file);
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            synchronized (TarFileSystem.this) {
+                if (finished) {
+                    return -1;
+                }
+                checkPositioned();
+                final int b = in.read();
+                consumed(b < 0 ? -1 : 1);
+                return b;
+            }
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            synchronized (TarFileSystem.this) {
+                if (finished) {
+                    return -1;
+                }
+                checkPositioned();
+                final int n = in.read(b, off, len);
+                consumed(n);
+                return n;
+            }
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            synchronized (TarFileSystem.this) {
+                if (finished) {
+                    return 0;
+                }
+                checkPositioned();
+                final long skipped = in.skip(n);
+                consumed(skipped);
+                return skipped;
+            }
+        }
+
+        @Override
+        public int available() throws IOException {
+            synchronized (TarFileSystem.this) {
+                if (finished) {
+                    return 0;
+                }
+                checkPositioned();
+                return in.available();
+            }
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * The data of an entry read from its own handle on the uncompressed tar.
+     */
+    private static final class BoundedEntryInputStream extends FilterInputStream {
+        private long remaining;
+
+        private BoundedEntryInputStream(final InputStream in, final long size) {
+            super(in);
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            final int b = in.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            final int n = in.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final long skipped = in.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+    /**
+     * Copies everything read from the decompressed archive to the spool file. Skipped bytes are read as well, as
+     * the tar stream skips over the data of the entries while the index is built.
+     */
+    private static final class SpoolingInputStream extends FilterInputStream {
+        private final OutputStream spool;
+
+        private SpoolingInputStream(final InputStream in, final OutputStream spool) {
+            super(in);
+            this.spool = spool;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = in.read();
+            if (b >= 0) {
+                spool.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int n = in.read(b, off, len);
+            if (n > 0) {
+                spool.write(b, off, n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final byte[] buffer = new byte[(int) Math.min(n, 8192)];
+            final int read = read(buffer, 0, buffer.length);
+            return read < 0 ? 0 : read;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return in.available();
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                in.close();
+            } finally {
+                spool.close();
+            }
+        }
+    }
+
     /**
      * will be called after all file-objects closed their streams. protected void notifyAllStreamsClosed() {
      * closeCommunicationLink(); }
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.provider.tar;
+
+import org.apache.commons.vfs2.FileSystem;
+import org.apache.commons.vfs2.FileSystemConfigBuilder;
+import org.apache.commons.vfs2.FileSystemOptions;
+
+/**
+ * Config Builder for the Tar filesystem.
+ */
+public final class TarFileSystemConfigBuilder extends FileSystemConfigBuilder {
+
+    /** spool compressed archives key. */
+    private static final String SPOOL_COMPRESSED_KEY = "spoolCompressed";
+
+    /** config builder SINGLETON. */
+    private static final TarFileSystemConfigBuilder SINGLETON = new TarFileSystemConfigBuilder();
+
+    /**
+     * Constructor
+     */
+    private TarFileSystemConfigBuilder() {
+        super("tar.");
+    }
+
+    /**
+     * Gets the singleton builder.
+     *
+     * @return the singleton builder.
+     */
+    public static TarFileSystemConfigBuilder getInstance() {
+        return SINGLETON;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Class<? extends FileSystem> getConfigClass() {
+        return TarFileSystem.class;
+    }
+
+    /**
+     * Sets whether a gzip or bzip2 compressed archive is decompressed to a temporary file while the index is
+     * built.
+     * <p>
+     * The position of a compressor stream cannot be restored, so without this option reading an entry that lies
+     * before the previously read one decompresses the archive again from its start. With it, every entry is read
+     * directly from its offset in the temporary file, at the cost of disk space for the uncompressed archive.
+     *
+     * @param opts The FileSystem options.
+     * @param spoolCompressed true to decompress the archive to a temporary file.
+     */
+    public void setSpoolCompressed(final FileSystemOptions opts, final boolean spoolCompressed) {
+        setParam(opts, SPOOL_COMPRESSED_KEY, Boolean.valueOf(spoolCompressed));
+    }
+
+    /**
+     * Defaults to {@code false}.
+     *
+     * @param opts The FileSystem options.
+     * @return true if compressed archives are decompressed to a temporary file.
+     * @see #setSpoolCompressed(FileSystemOptions, boolean)
+     */
+    public boolean isSpoolCompressed(final FileSystemOptions opts) {
+        return getBoolean(opts, SPOOL_COMPRESSED_KEY, false);
+    }
+}
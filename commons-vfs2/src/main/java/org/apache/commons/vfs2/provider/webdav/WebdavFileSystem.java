@@ -36,7 +36,7 @@ import org.apache.commons.vfs2.provider.http.HttpFileSystem;
 public class WebdavFileSystem extends HttpFileSystem {
     protected WebdavFileSystem(final GenericFileName rootName, final HttpClient client,
             final FileSystemOptions fileSystemOptions) {
-        super(rootName, client, fileSystemOptions);
+        super(rootName, client, fileSystemOptions, WebdavFileSystemConfigBuilder.getInstance());
     }
 
     @Override
@@ -76,6 +76,15 @@ public class ZipFileObject extends AbstractFileObject<ZipFileSystem> {
         children.add(childName.getBaseName());
     }
 
+    /**
+     * Attaches a child by its base name.
+     *
+     * @param baseName The encoded base name of the child, as returned by {@link FileName#getBaseName()}.
+     */
+    void attachChild(final String baseName) {
+        children.add(baseName);
+    }
+
     /**
      * Determines if this file can be written to.
      *
@@ -54,6 +54,11 @@ public class ZipFileSystem extends AbstractFileSystem {
      */
     private final Map<FileName, FileObject> cache = new HashMap<>();
 
+    /**
+     * The index of the entries when the file objects are created on demand, null otherwise.
+     */
+    private ZipIndex index;
+
     public ZipFileSystem(final AbstractFileName rootName, final FileObject parentLayer,
             final FileSystemOptions fileSystemOptions) throws FileSystemException {
         super(rootName, parentLayer, fileSystemOptions);
@@ -75,6 +80,16 @@ public class ZipFileSystem extends AbstractFileSystem {
     public void init() throws FileSystemException {
         super.init();
 
+        if (ZipFileSystemConfigBuilder.getInstance().isLazyIndex(getFileSystemOptions())) {
+            try {
+                final ZipFile zip = getZipFile();
+                index = ZipIndex.build(zip == null ? null : zip.entries());
+            } finally {
+                closeCommunicationLink();
+            }
+            return;
+        }
+
         try {
             // Build the index
             final List<ZipFileObject> strongRef = new ArrayList<>(getZipFile().size());
@@ -97,8 +112,7 @@ public class ZipFileSystem extends AbstractFileSystem {
                 strongRef.add(fileObj);
                 fileObj.holdObject(strongRef);
 
-                // Make sure all ancestors exist
-                // TODO - create these on demand
+                // Make sure all ancestors exist, with a lazy index they are created on demand
                 ZipFileObject parent;
                 for (AbstractFileName parentName = (AbstractFileName) name
                         .getParent(); parentName != null; fileObj = parent, parentName = (AbstractFileName) parentName
@@ -169,15 +183,43 @@ public class ZipFileSystem extends AbstractFileSystem {
      */
     @Override
     protected FileObject createFile(final AbstractFileName name) throws FileSystemException {
+        if (index != null) {
+            final int entryIndex = index.find(name.getPathDecoded());
+            if (entryIndex != -1) {
+                return createIndexedFile(name, entryIndex);
+            }
+        }
         // This is only called for files which do not exist in the Zip file
         return new ZipFileObject(name, null, this, false);
     }
 
+    /**
+     * Creates the file object of an entry of the lazy index.
+     */
+    private ZipFileObject createIndexedFile(final AbstractFileName name, final int entryIndex)
+            throws FileSystemException {
+        final String entryName = index.getEntryName(entryIndex);
+        final ZipEntry entry = entryName == null ? null : getZipFile().getEntry(entryName);
+        final ZipFileObject fileObj = createZipFileObject(name, entry);
+        if (index.isFolder(entryIndex)) {
+            for (final String child : index.getChildren(entryIndex)) {
+                // the same form as the base name of the resolved child
+                fileObj.attachChild(UriParser.encode(child));
+            }
+        }
+        return fileObj;
+    }
+
     /**
      * Adds a file object to the cache.
      */
     @Override
     protected void putFileToCache(final FileObject file) {
+        if (index != null) {
+            // the files can be created again, let the files cache drop them
+            super.putFileToCache(file);
+            return;
+        }
         cache.put(file.getName(), file);
     }
 
@@ -186,6 +228,9 @@ public class ZipFileSystem extends AbstractFileSystem {
      */
     @Override
     protected FileObject getFileFromCache(final FileName name) {
+        if (index != null) {
+            return super.getFileFromCache(name);
+        }
         return cache.get(name);
     }
 
@@ -194,6 +239,10 @@ public class ZipFileSystem extends AbstractFileSystem {
      */
     @Override
     protected void removeFileFromCache(final FileName name) {
+        if (index != null) {
+            super.removeFileFromCache(name);
+            return;
+        }
         cache.remove(name);
     }
 
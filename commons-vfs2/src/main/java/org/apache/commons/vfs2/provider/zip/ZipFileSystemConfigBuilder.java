@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.provider.zip;
+
+import org.apache.commons.vfs2.FileSystem;
+import org.apache.commons.vfs2.FileSystemConfigBuilder;
+import org.apache.commons.vfs2.FileSystemOptions;
+
+/**
+ * Config Builder for the Zip filesystem, also used for Jar files.
+ */
+public final class ZipFileSystemConfigBuilder extends FileSystemConfigBuilder {
+
+    /** lazy index key. */
+    private static final String LAZY_INDEX_KEY = "lazyIndex";
+
+    /** config builder SINGLETON. */
+    private static final ZipFileSystemConfigBuilder SINGLETON = new ZipFileSystemConfigBuilder();
+
+    /**
+     * Constructor
+     */
+    private ZipFileSystemConfigBuilder() {
+        super("zip.");
+    }
+
+    /**
+     * Gets the singleton builder.
+     *
+     * @return the singleton builder.
+     */
+    public static ZipFileSystemConfigBuilder getInstance() {
+        return SINGLETON;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Class<? extends FileSystem> getConfigClass() {
+        return ZipFileSystem.class;
+    }
+
+    /**
+     * Sets whether the file system keeps a compact index of the entry names and creates the file objects only when
+     * they are resolved or listed.
+     * <p>
+     * By default a file object is created for every entry and every folder when the file system is opened, and they
+     * are all kept until it is closed. For archives with many entries the compact index needs a fraction of the
+     * memory and opens much faster.
+     *
+     * @param opts The FileSystem options.
+     * @param lazyIndex true to create the file objects on demand.
+     */
+    public void setLazyIndex(final FileSystemOptions opts, final boolean lazyIndex) {
+        setParam(opts, LAZY_INDEX_KEY, Boolean.valueOf(lazyIndex));
+    }
+
+    /**
+     * Defaults to {@code false}.
+     *
+     * @param opts The FileSystem options.
+     * @return true if the file objects are created on demand.
+     * @see #setLazyIndex(FileSystemOptions, boolean)
+     */
+    public boolean isLazyIndex(final FileSystemOptions opts) {
+        return getBoolean(opts, LAZY_INDEX_KEY, false);
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.provider.zip;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.vfs2.FileName;
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.provider.UriParser;
+
+/**
+ * A compact, read-only index of the entries of a zip file.
+ * <p>
+ * The normalised paths of all entries and their ancestor folders are sorted and packed into one char array, so a
+ * path is found with a binary search. The children of each folder are kept as ranges of an int array. Apart from
+ * the few entries whose name in the zip file differs from their normalised path, no object is kept per entry.
+ */
+final class ZipIndex {
+    private static final byte FOLDER = 1;
+    private static final byte ENTRY = 2;
+
+    /** The sorted paths, concatenated. */
+    private final char[] chars;
+
+    /** The start of each path in {@link #chars}, with the end of the last path at the end. */
+    private final int[] offsets;
+
+    private final byte[] flags;
+
+    /** The start of the children of each path in {@link #children}, with the end of the last at the end. */
+    private final int[] childOffsets;
+
+    /** The indexes of the children, grouped by parent. */
+    private final int[] children;
+
+    /** The entry names which differ from the path without its leading separator. */
+    private final Map<Integer, String> entryNames;
+
+    private ZipIndex(final char[] chars, final int[] offsets, final byte[] flags, final int[] childOffsets,
+            final int[] children, final Map<Integer, String> entryNames) {
+        this.chars = chars;
+        this.offsets = offsets;
+        this.flags = flags;
+        this.childOffsets = childOffsets;
+        this.children = children;
+        this.entryNames = entryNames;
+    }
+
+    /**
+     * Builds the index of the entries of a zip file.
+     *
+     * @param entries The entries of the zip file, may be null for a missing zip file.
+     * @return The index.
+     * @throws FileSystemException if an entry name cannot be normalised.
+     */
+    static ZipIndex build(final Enumeration<? extends ZipEntry> entries) throws FileSystemException {
+        final Map<String, Builder> builders = new HashMap<>();
+        builders.put(FileName.ROOT_PATH, new Builder(FOLDER));
+        while (entries != null && entries.hasMoreElements()) {
+            final ZipEntry entry = entries.nextElement();
+            final String name = entry.getName();
+            final StringBuilder buffer = new StringBuilder(name.length() + 1);
+            buffer.append(FileName.SEPARATOR_CHAR).append(name);
+            UriParser.fixSeparators(buffer);
+            UriParser.normalisePath(buffer);
+            if (buffer.length() == 0) {
+                buffer.append(FileName.SEPARATOR_CHAR);
+            }
+            final String path = buffer.toString();
+
+            Builder builder = builders.get(path);
+            if (builder == null) {
+                builder = new Builder(0);
+                builders.put(path, builder);
+                addAncestors(builders, path);
+            }
+            builder.flags |= ENTRY;
+            if (entry.isDirectory()) {
+                builder.flags |= FOLDER;
+            }
+            builder.entryName = name;
+        }
+
+        final String[] paths = builders.keySet().toArray(new String[builders.size()]);
+        Arrays.sort(paths);
+        final int count = paths.length;
+        final Map<String, Integer> indexes = new HashMap<>(count * 2);
+        int length = 0;
+        for (int i = 0; i < count; i++) {
+            indexes.put(paths[i], Integer.valueOf(i));
+            length += paths[i].length();
+        }
+
+        final char[] chars = new char[length];
+        final int[] offsets = new int[count + 1];
+        final byte[] flags = new byte[count];
+        final int[] parents = new int[count];
+        final int[] childOffsets = new int[count + 1];
+        final Map<Integer, String> entryNames = new HashMap<>();
+        int offset = 0;
+        for (int i = 0; i < count; i++) {
+            final String path = paths[i];
+            path.getChars(0, path.length(), chars, offset);
+            offsets[i] = offset;
+            offset += path.length();
+
+            final Builder builder = builders.get(path);
+            flags[i] = builder.flags;
+            if (builder.entryName != null && !isDefaultEntryName(path, builder.entryName)) {
+                entryNames.put(Integer.valueOf(i), builder.entryName);
+            }
+            if (i == 0) {
+                // the root sorts first
+                parents[i] = -1;
+            } else {
+                parents[i] = indexes.get(getParentPath(path)).intValue();
+                childOffsets[parents[i] + 1]++;
+            }
+        }
+        offsets[count] = offset;
+
+        // counting sort of the children by parent, keeping the sorted order within a parent
+        for (int i = 0; i < count; i++) {
+            childOffsets[i + 1] += childOffsets[i];
+        }
+        final int[] children = new int[Math.max(0, count - 1)];
+        final int[] next = Arrays.copyOf(childOffsets, count);
+        for (int i = 1; i < count; i++) {
+            children[next[parents[i]]++] = i;
+        }
+        return new ZipIndex(chars, offsets, flags, childOffsets, children, entryNames);
+    }
+
+    private static void addAncestors(final Map<String, Builder> builders, final String path) {
+        String parent = getParentPath(path);
+        while (parent != null && !builders.containsKey(parent)) {
+            builders.put(parent, new Builder(FOLDER));
+            parent = getParentPath(parent);
+        }
+        if (parent != null) {
+            builders.get(parent).flags |= FOLDER;
+        }
+    }
+
+    private static String getParentPath(final String path) {
+        if (path.length() <= 1) {
+            return null;
+        }
+        final int index = path.lastIndexOf(FileName.SEPARATOR_CHAR);
+        return index == 0 ? FileName.ROOT_PATH : path.substring(0, index);
+    }
+
+    private static boolean isDefaultEntryName(final String path, final String entryName) {
+        return entryName.equals(path.substring(1)) || entryName.equals(path.substring(1) + FileName.SEPARATOR_CHAR);
+    }
+
+    /**
+     * Finds a path.
+     *
+     * @param path The normalised, decoded path.
+     * @return The index of the path or -1 if it is not in the zip file.
+     */
+    int find(final String path) {
+        int low = 0;
+        int high = flags.length - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final int cmp = compare(middle, path);
+            if (cmp < 0) {
+                low = middle + 1;
+            } else if (cmp > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compares a path of the index with the given one, in the order of {@link String#compareTo(String)}.
+     */
+    private int compare(final int index, final String path) {
+        final int start = offsets[index];
+        final int length = offsets[index + 1] - start;
+        final int min = Math.min(length, path.length());
+        for (int i = 0; i < min; i++) {
+            final char c = chars[start + i];
+            final char other = path.charAt(i);
+            if (c != other) {
+                return c - other;
+            }
+        }
+        return length - path.length();
+    }
+
+    /**
+     * @return true if the path is a folder, which may be implied by the entries below it.
+     */
+    boolean isFolder(final int index) {
+        return (flags[index] & FOLDER) != 0;
+    }
+
+    /**
+     * @return The name of the zip entry for the path, or null for a folder without an entry.
+     */
+    String getEntryName(final int index) {
+        if ((flags[index] & ENTRY) == 0) {
+            return null;
+        }
+        final String entryName = entryNames.get(Integer.valueOf(index));
+        if (entryName != null) {
+            return entryName;
+        }
+        final String path = new String(chars, offsets[index] + 1, offsets[index + 1] - offsets[index] - 1);
+        return isFolder(index) ? path + FileName.SEPARATOR_CHAR : path;
+    }
+
+    /**
+     * @return The base names of the children of a path.
+     */
+    List<String> getChildren(final int index) {
+        final int start = childOffsets[index];
+        final int end = childOffsets[index + 1];
+        final List<String> names = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            final int child = children[i];
+            final int childEnd = offsets[child + 1];
+            int baseStart = childEnd;
+            while (chars[baseStart - 1] != FileName.SEPARATOR_CHAR) {
+                baseStart--;
+            }
+            names.add(new String(chars, baseStart, childEnd - baseStart));
+        }
+        return names;
+    }
+
+    /**
+     * @return The number of paths in the index, including the root and the implied folders.
+     */
+    int size() {
+        return flags.length;
+    }
+
+    /**
+     * Collects the details of a path while the index is built.
+     */
+    private static final class Builder {
+        private byte flags;
+        private String entryName;
+
+        private Builder(final int flags) {
+            this.flags = (byte) flags;
+        }
+    }
+}
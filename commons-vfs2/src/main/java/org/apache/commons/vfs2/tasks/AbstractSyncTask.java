@@ -192,11 +192,22 @@ public abstract class AbstractSyncTask extends VfsTask {
 
         // Perform the sync
         try {
-            if (destFileUrl != null) {
-                handleSingleFile();
-            } else {
-                handleFiles();
+            try {
+                if (destFileUrl != null) {
+                    handleSingleFile();
+                } else {
+                    handleFiles();
+                }
+            } catch (final Exception e) {
+                // Let the task release what it started, e.g. its copy threads, then report the first failure
+                try {
+                    handleFinished();
+                } catch (final Exception finishFailure) {
+                    log(finishFailure.getMessage(), Project.MSG_WARN);
+                }
+                throw e;
             }
+            handleFinished();
         } catch (final BuildException e) {
             throw e;
         } catch (final Exception e) {
@@ -389,6 +400,16 @@ public abstract class AbstractSyncTask extends VfsTask {
     protected void handleMissingSourceFile(final FileObject destFile) throws Exception {
     }
 
+    /**
+     * Handles the end of the sync, once every file has been handled.
+     * <p>
+     * This implementation does nothing.
+     *
+     * @throws Exception Implementation can throw any Exception.
+     */
+    protected void handleFinished() throws Exception {
+    }
+
     /**
      * Check if this task cares about destination files with a missing source file.
      * <p>
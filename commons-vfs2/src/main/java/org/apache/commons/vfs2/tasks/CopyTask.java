@@ -16,19 +16,28 @@
  */
 package org.apache.commons.vfs2.tasks;
 
+import java.util.Locale;
+
 import org.apache.commons.vfs2.Capability;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemException;
 import org.apache.commons.vfs2.Selectors;
+import org.apache.commons.vfs2.impl.FileTransfer;
 
 /**
  * An Ant task that copies matching files.
  * <p>
+ * If {@code threads} is set, the files are copied by a {@link FileTransfer} with that many threads.
+ * <p>
  * TODO - Copy folders that do not contain files.
  */
 public class CopyTask extends AbstractSyncTask {
     private boolean overwrite;
     private boolean preserveLastModified = true;
+    private int threads;
+    private String verify;
+    private boolean useTempFile = true;
+    private FileTransfer transfer;
 
     /**
      * Enable/disable overwriting of up-to-date files.
@@ -48,6 +57,36 @@ public class CopyTask extends AbstractSyncTask {
         this.preserveLastModified = preserveLastModified;
     }
 
+    /**
+     * Sets the number of files copied at the same time. Defaults to 0, which copies the files one after the other as
+     * they are found.
+     *
+     * @param threads The number of threads used to copy files.
+     */
+    public void setThreads(final int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Sets how copied files are checked against their source when {@code threads} is set: "none", "size" or
+     * "checksum". Defaults to "size".
+     *
+     * @param verify The name of the comparison.
+     */
+    public void setVerify(final String verify) {
+        this.verify = verify;
+    }
+
+    /**
+     * Enable/disable writing files to a temporary file which is then renamed, when {@code threads} is set.
+     *
+     * @param useTempFile true if files should be renamed into place.
+     * @see FileTransfer#setUseTempFile(boolean)
+     */
+    public void setUseTempFile(final boolean useTempFile) {
+        this.useTempFile = useTempFile;
+    }
+
     /**
      * @return the current value of overwrite
      */
@@ -71,6 +110,10 @@ public class CopyTask extends AbstractSyncTask {
     @Override
     protected void handleOutOfDateFile(final FileObject srcFile, final FileObject destFile) throws FileSystemException {
         log("Copying " + srcFile.getPublicURIString() + " to " + destFile.getPublicURIString());
+        if (getTransfer() != null) {
+            transfer.addCopy(srcFile, destFile);
+            return;
+        }
         destFile.copyFrom(srcFile, Selectors.SELECT_SELF);
         if (preserveLastModified && srcFile.getFileSystem().hasCapability(Capability.GET_LAST_MODIFIED)
                 && destFile.getFileSystem().hasCapability(Capability.SET_LAST_MODIFIED_FILE)) {
@@ -92,4 +135,34 @@ public class CopyTask extends AbstractSyncTask {
             handleOutOfDateFile(srcFile, destFile);
         }
     }
+
+    /**
+     * Waits for the queued files to be copied.
+     *
+     * @throws FileSystemException if any file could not be copied.
+     */
+    @Override
+    protected void handleFinished() throws FileSystemException {
+        if (transfer != null) {
+            transfer.await();
+        }
+    }
+
+    /**
+     * Returns the transfer that copies files, creating it on first use.
+     *
+     * @return The transfer, or null if files are copied one after the other.
+     */
+    protected FileTransfer getTransfer() {
+        if (threads > 0 && transfer == null) {
+            transfer = new FileTransfer();
+            transfer.setThreads(threads);
+            transfer.setUseTempFile(useTempFile);
+            transfer.setPreserveLastModified(preserveLastModified);
+            if (verify != null) {
+                transfer.setVerify(FileTransfer.Comparison.valueOf(verify.toUpperCase(Locale.ENGLISH)));
+            }
+        }
+        return transfer;
+    }
 }
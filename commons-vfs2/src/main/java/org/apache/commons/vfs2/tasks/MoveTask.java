@@ -44,6 +44,11 @@ public class MoveTask extends CopyTask {
     @Override
     protected void handleOutOfDateFile(final FileObject srcFile, final FileObject destFile) throws FileSystemException {
         if (!tryRename || !srcFile.canRenameTo(destFile)) {
+            if (getTransfer() != null) {
+                log("Moving " + srcFile.getPublicURIString() + " to " + destFile.getPublicURIString());
+                getTransfer().addMove(srcFile, destFile);
+                return;
+            }
             super.handleOutOfDateFile(srcFile, destFile);
 
             log("Deleting " + srcFile.getPublicURIString());
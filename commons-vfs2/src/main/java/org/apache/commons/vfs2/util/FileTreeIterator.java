@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSelectInfo;
+import org.apache.commons.vfs2.FileSelector;
+import org.apache.commons.vfs2.FileSystemException;
+
+/**
+ * Walks the descendants of a file lazily and returns those accepted by a {@link FileSelector}.
+ * <p>
+ * Unlike {@link FileObject#findFiles}, folders are only listed when the walk reaches them, and only the listings of the
+ * folders between the base folder and the current file are held. Memory use therefore depends on the depth of the
+ * tree, not on its size, and a walk can be abandoned at any time. Folders for which
+ * {@link FileSelector#traverseDescendents} returns false are not listed at all.
+ * <p>
+ * In depthwise order a folder is returned after its descendants, as {@link FileObject#findFiles(FileSelector)} does.
+ * Otherwise it is returned before them, and {@link FileSelector#includeFile} is called for the folder before it is
+ * called for its descendants.
+ * <p>
+ * The {@link Iterator} methods throw an {@link IllegalStateException} wrapping the {@link FileSystemException} if the
+ * walk fails; {@link #nextFile()} throws it directly.
+ */
+public class FileTreeIterator implements Iterator<FileObject> {
+    private static final FileObject[] EMPTY_FILE_ARRAY = {};
+
+    /**
+     * A file on the path from the base folder to the current file.
+     */
+    private final class Frame implements FileSelectInfo {
+        private final FileObject file;
+        private final int depth;
+        private FileObject[] children;
+        private int next;
+
+        Frame(final FileObject file, final int depth) {
+            this.file = file;
+            this.depth = depth;
+        }
+
+        @Override
+        public FileObject getBaseFolder() {
+            return baseFolder;
+        }
+
+        @Override
+        public FileObject getFile() {
+            return file;
+        }
+
+        @Override
+        public int getDepth() {
+            return depth;
+        }
+    }
+
+    private final FileObject baseFolder;
+    private final FileSelector selector;
+    private final boolean depthwise;
+    private final Deque<Frame> path = new ArrayDeque<>();
+    private boolean started;
+    private FileObject nextFile;
+
+    /**
+     * Creates a walk over a file and its descendants. Nothing is read until the first file is requested.
+     *
+     * @param baseFolder The file to start from.
+     * @param selector The selector.
+     * @param depthwise if true folders are returned after their descendants, before otherwise.
+     */
+    public FileTreeIterator(final FileObject baseFolder, final FileSelector selector, final boolean depthwise) {
+        this.baseFolder = baseFolder;
+        this.selector = selector;
+        this.depthwise = depthwise;
+    }
+
+    /**
+     * Returns the next selected file.
+     *
+     * @return The next file, or null at the end of the walk.
+     * @throws FileSystemException if a folder cannot be listed or the selector fails.
+     */
+    public FileObject nextFile() throws FileSystemException {
+        if (nextFile != null) {
+            final FileObject file = nextFile;
+            nextFile = null;
+            return file;
+        }
+        try {
+            return advance();
+        } catch (final FileSystemException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new FileSystemException("vfs.provider/find-files.error", baseFolder.getName(), e);
+        }
+    }
+
+    private FileObject advance() throws Exception {
+        if (!started) {
+            started = true;
+            if (baseFolder.exists()) {
+                path.push(new Frame(baseFolder, 0));
+            }
+        }
+        while (!path.isEmpty()) {
+            final Frame frame = path.peek();
+            if (frame.children == null) {
+                // first visit
+                frame.children = EMPTY_FILE_ARRAY;
+                if (frame.file.getType().hasChildren() && selector.traverseDescendents(frame)) {
+                    frame.children = frame.file.getChildren();
+                }
+                if (!depthwise && selector.includeFile(frame)) {
+                    return frame.file;
+                }
+            } else if (frame.next < frame.children.length) {
+                path.push(new Frame(frame.children[frame.next++], frame.depth + 1));
+            } else {
+                path.pop();
+                if (depthwise && selector.includeFile(frame)) {
+                    return frame.file;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextFile == null) {
+            try {
+                nextFile = nextFile();
+            } catch (final FileSystemException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return nextFile != null;
+    }
+
+    @Override
+    public FileObject next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final FileObject file = nextFile;
+        nextFile = null;
+        return file;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -34,6 +34,14 @@ public class MonitorInputStream extends BufferedInputStream {
         super(in);
     }
 
+    /**
+     * @param in The input stream to wrap.
+     * @param bufferSize The size of the read buffer.
+     */
+    public MonitorInputStream(final InputStream in, final int bufferSize) {
+        super(in, bufferSize);
+    }
+
     /**
      * Returns 0 if the stream is at EOF, else the underlying inputStream will be queried.
      *
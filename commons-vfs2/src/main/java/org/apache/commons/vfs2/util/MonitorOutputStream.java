@@ -20,6 +20,7 @@ import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.vfs2.FileSystemException;
 
@@ -28,11 +29,20 @@ import org.apache.commons.vfs2.FileSystemException;
  */
 public class MonitorOutputStream extends BufferedOutputStream {
     private final AtomicBoolean finished = new AtomicBoolean(false);
+    private final AtomicLong atomicCount = new AtomicLong(0);
 
     public MonitorOutputStream(final OutputStream out) {
         super(out);
     }
 
+    /**
+     * @param out The output stream to wrap.
+     * @param bufferSize The size of the write buffer.
+     */
+    public MonitorOutputStream(final OutputStream out, final int bufferSize) {
+        super(out, bufferSize);
+    }
+
     /**
      * Closes this output stream.
      * <p>
@@ -89,6 +99,7 @@ public class MonitorOutputStream extends BufferedOutputStream {
     public synchronized void write(final int b) throws IOException {
         assertOpen();
         super.write(b);
+        atomicCount.incrementAndGet();
     }
 
     /**
@@ -102,6 +113,7 @@ public class MonitorOutputStream extends BufferedOutputStream {
     public synchronized void write(final byte[] b, final int off, final int len) throws IOException {
         assertOpen();
         super.write(b, off, len);
+        atomicCount.addAndGet(len);
     }
 
     /**
@@ -150,4 +162,13 @@ public class MonitorOutputStream extends BufferedOutputStream {
     // IOException is needed because subclasses may need to throw it
     protected void onClose() throws IOException {
     }
+
+    /**
+     * Get the number of bytes written to this output stream.
+     *
+     * @return The number of bytes written to this output stream.
+     */
+    public long getCount() {
+        return atomicCount.get();
+    }
 }
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.vfs2.impl.DefaultFileSystemConfigBuilder;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests {@link FileObject#findFiles} with a file system that lists folders concurrently.
+ */
+public class ConcurrentFindFilesTest {
+
+    private static FileObject BaseFolder;
+
+    private static int FileCount;
+
+    /**
+     * Creates a RAM FS with a few levels of folders.
+     *
+     * @throws Exception
+     */
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        final FileSystemOptions opts = new FileSystemOptions();
+        DefaultFileSystemConfigBuilder.getInstance().setTraversalThreads(opts, 4);
+        DefaultFileSystemConfigBuilder.getInstance().setPerFileLocking(opts, true);
+        BaseFolder = VFS.getManager().resolveFile("ram://" + ConcurrentFindFilesTest.class.getName(), opts);
+        BaseFolder.deleteAll();
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 5; j++) {
+                BaseFolder.resolveFile("dir" + i + "/dir" + j + "/file.txt").createFile();
+                BaseFolder.resolveFile("dir" + i + "/dir" + j + "/empty").createFolder();
+            }
+            BaseFolder.resolveFile("dir" + i + "/file.xml").createFile();
+        }
+        // base, 5 * (dir, file.xml, 5 * (dir, file.txt, empty))
+        FileCount = 1 + 5 * (2 + 5 * 3);
+    }
+
+    /**
+     * Deletes RAM FS files.
+     *
+     * @throws Exception
+     */
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        if (BaseFolder != null) {
+            BaseFolder.deleteAll();
+        }
+    }
+
+    /**
+     * Wraps a selector so that it is traversed on the calling thread.
+     */
+    private static FileSelector sequential(final FileSelector selector) {
+        return new FileSelector() {
+            @Override
+            public boolean includeFile(final FileSelectInfo fileInfo) throws Exception {
+                return selector.includeFile(fileInfo);
+            }
+
+            @Override
+            public boolean traverseDescendents(final FileSelectInfo fileInfo) throws Exception {
+                return selector.traverseDescendents(fileInfo);
+            }
+        };
+    }
+
+    /**
+     * The recursive traversal findFiles did before folders could be listed concurrently.
+     */
+    private static void recursiveFindFiles(final FileObject file, final int depth, final FileSelector selector,
+            final boolean depthwise, final List<FileObject> selected) throws Exception {
+        final FileSelectInfo fileInfo = new FileSelectInfo() {
+            @Override
+            public FileObject getBaseFolder() {
+                return BaseFolder;
+            }
+
+            @Override
+            public FileObject getFile() {
+                return file;
+            }
+
+            @Override
+            public int getDepth() {
+                return depth;
+            }
+        };
+        final int index = selected.size();
+        if (file.getType().hasChildren() && selector.traverseDescendents(fileInfo)) {
+            for (final FileObject child : file.getChildren()) {
+                recursiveFindFiles(child, depth + 1, selector, depthwise, selected);
+            }
+        }
+        if (selector.includeFile(fileInfo)) {
+            if (depthwise) {
+                selected.add(file);
+            } else {
+                selected.add(index, file);
+            }
+        }
+    }
+
+    private static void assertSameOrder(final FileSelector selector, final boolean depthwise) throws Exception {
+        final List<FileObject> recursive = new ArrayList<>();
+        recursiveFindFiles(BaseFolder, 0, selector, depthwise, recursive);
+        final List<FileObject> expected = new ArrayList<>();
+        BaseFolder.findFiles(sequential(selector), depthwise, expected);
+        Assert.assertEquals(recursive, expected);
+        final List<FileObject> actual = new ArrayList<>();
+        BaseFolder.findFiles(selector, depthwise, actual);
+        Assert.assertEquals(recursive, actual);
+    }
+
+    @Test
+    public void testDepthwise() throws Exception {
+        final FileObject[] files = BaseFolder.findFiles(Selectors.SELECT_ALL);
+        Assert.assertEquals(FileCount, files.length);
+        Assert.assertEquals(BaseFolder, files[files.length - 1]);
+        assertSameOrder(Selectors.SELECT_ALL, true);
+    }
+
+    @Test
+    public void testNotDepthwise() throws Exception {
+        final List<FileObject> files = new ArrayList<>();
+        BaseFolder.findFiles(Selectors.SELECT_ALL, false, files);
+        Assert.assertEquals(FileCount, files.size());
+        Assert.assertEquals(BaseFolder, files.get(0));
+        assertSameOrder(Selectors.SELECT_ALL, false);
+    }
+
+    @Test
+    public void testSelectors() throws Exception {
+        assertSameOrder(Selectors.SELECT_FILES, true);
+        assertSameOrder(Selectors.SELECT_FOLDERS, false);
+        assertSameOrder(new FileDepthSelector(1, 2), false);
+        assertSameOrder(new FileExtensionSelector("xml"), true);
+        assertSameOrder(new InvertIncludeFileSelector(Selectors.SELECT_FILES), true);
+    }
+
+    @Test
+    public void testThreadSafety() {
+        Assert.assertTrue(Selectors.isThreadSafe(Selectors.SELECT_ALL));
+        Assert.assertTrue(Selectors.isThreadSafe(new InvertIncludeFileSelector(Selectors.SELECT_FILES)));
+        Assert.assertFalse(Selectors.isThreadSafe(new InvertIncludeFileSelector(sequential(Selectors.SELECT_FILES))));
+        Assert.assertFalse(Selectors.isThreadSafe(new FileFilterSelector()));
+        Assert.assertFalse(Selectors.isThreadSafe(new AllFileSelector() {
+            // a subclass may add state
+        }));
+        Assert.assertTrue(Selectors.isThreadSafe(new ConcurrentFileSelector() {
+            @Override
+            public boolean includeFile(final FileSelectInfo fileInfo) {
+                return true;
+            }
+
+            @Override
+            public boolean traverseDescendents(final FileSelectInfo fileInfo) {
+                return true;
+            }
+
+            @Override
+            public boolean isThreadSafe() {
+                return true;
+            }
+        }));
+    }
+
+    @Test
+    public void testSelectorFailure() throws Exception {
+        final class FailingSelector extends FileTypeSelector implements ConcurrentFileSelector {
+            FailingSelector() {
+                super(FileType.FILE);
+            }
+
+            @Override
+            public boolean includeFile(final FileSelectInfo fileInfo) throws FileSystemException {
+                if (fileInfo.getFile().getName().getBaseName().equals("file.xml")) {
+                    throw new FileSystemException("test");
+                }
+                return super.includeFile(fileInfo);
+            }
+
+            @Override
+            public boolean isThreadSafe() {
+                return true;
+            }
+        }
+        final FileSelector failing = new FailingSelector();
+        try {
+            BaseFolder.findFiles(failing);
+            Assert.fail();
+        } catch (final FileSystemException e) {
+            Assert.assertEquals("vfs.provider/find-files.error", e.getCode());
+        }
+    }
+
+    @Test
+    public void testDelete() throws Exception {
+        final FileObject folder = BaseFolder.resolveFile("dir0");
+        Assert.assertEquals(5, folder.delete(new FileExtensionSelector("txt")));
+        Assert.assertTrue(folder.resolveFile("dir0/empty").exists());
+        Assert.assertFalse(folder.resolveFile("dir0/file.txt").exists());
+        folder.resolveFile("dir0/file.txt").createFile();
+    }
+}
@@ -16,6 +16,9 @@
  */
 package org.apache.commons.vfs2;
 
+import org.apache.commons.vfs2.impl.DefaultFileSystemManager;
+import org.apache.commons.vfs2.provider.ram.RamFileProvider;
+import org.apache.commons.vfs2.provider.ram.RamFileSystemConfigBuilder;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -52,6 +55,63 @@ public class FileSystemOptionsTest {
         Assert.assertEquals(expected.hashCode(), actual.hashCode());
     }
 
+    @Test
+    public void testFreeze() {
+        final JUnitConfigBuilder builder = JUnitConfigBuilder.getInstance();
+        final FileSystemOptions options = new FileSystemOptions();
+        builder.setId(options, "Test");
+
+        final FileSystemOptions frozen = options.freeze();
+        Assert.assertTrue(frozen.isFrozen());
+        Assert.assertFalse(options.isFrozen());
+        Assert.assertSame(frozen, options.freeze());
+        Assert.assertSame(frozen, frozen.freeze());
+        Assert.assertEquals(options, frozen);
+        Assert.assertEquals(options.hashCode(), frozen.hashCode());
+
+        builder.setNames(options, new String[] { "A", "B", "C" });
+
+        Assert.assertNotSame(frozen, options.freeze());
+        Assert.assertNotEquals(options, frozen);
+        Assert.assertEquals("Test", builder.getParam(frozen, "id"));
+        Assert.assertNull(builder.getParam(frozen, "names"));
+
+        try {
+            builder.setId(frozen, "Other");
+            Assert.fail("Expected an UnsupportedOperationException");
+        } catch (final UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testFileSystemLookup() throws FileSystemException {
+        final DefaultFileSystemManager manager = new DefaultFileSystemManager();
+        try {
+            manager.addProvider("ram", new RamFileProvider());
+            manager.init();
+
+            final FileSystemOptions options = new FileSystemOptions();
+            RamFileSystemConfigBuilder.getInstance().setMaxSize(options, 1024);
+            final FileSystemOptions equalOptions = new FileSystemOptions();
+            RamFileSystemConfigBuilder.getInstance().setMaxSize(equalOptions, 1024);
+
+            final FileSystem fileSystem = manager.resolveFile("ram:///", options).getFileSystem();
+            Assert.assertSame(fileSystem, manager.resolveFile("ram:///", equalOptions).getFileSystem());
+            Assert.assertNotSame(fileSystem, manager.resolveFile("ram:///").getFileSystem());
+
+            // the file system stays cached with the options it was created with
+            RamFileSystemConfigBuilder.getInstance().setMaxSize(options, 2048);
+            Assert.assertSame(fileSystem, manager.resolveFile("ram:///", equalOptions).getFileSystem());
+            Assert.assertNotSame(fileSystem, manager.resolveFile("ram:///", options).getFileSystem());
+
+            manager.closeFileSystem(fileSystem);
+            Assert.assertNotSame(fileSystem, manager.resolveFile("ram:///", equalOptions).getFileSystem());
+        } finally {
+            manager.close();
+        }
+    }
+
     public static class JUnitConfigBuilder extends FileSystemConfigBuilder {
         private static final JUnitConfigBuilder BUILDER = new JUnitConfigBuilder();
 
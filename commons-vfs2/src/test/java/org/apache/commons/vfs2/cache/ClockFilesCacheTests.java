@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.cache;
+
+import org.apache.commons.vfs2.FileObject;
+
+/**
+ * Tests for {@link ClockFilesCache} used by {@link ClockFilesCacheTestCase}.
+ */
+public class ClockFilesCacheTests extends AbstractFilesCacheTestsBase {
+    public void testFilesCache() throws Exception {
+        final FileObject scratchFolder = getWriteFolder();
+
+        // releaseable
+        final FileObject dir1 = scratchFolder.resolveFile("dir1");
+
+        // avoid cache removal
+        final FileObject dir2 = scratchFolder.resolveFile("dir2");
+        dir2.getContent();
+
+        // releaseable
+        for (int i = 3; i <= 8; i++) {
+            scratchFolder.resolveFile("dir" + i);
+        }
+
+        // check if the cache still holds the right instance
+        final FileObject dir2_2 = scratchFolder.resolveFile("dir2");
+        assertTrue(dir2 == dir2_2);
+
+        // check if the cache still holds the right instance
+        final FileObject dir1_2 = scratchFolder.resolveFile("dir1");
+        assertFalse(dir1 == dir1_2);
+    }
+
+    public void testReferencedFileSurvives() throws Exception {
+        final ClockFilesCache cache = new ClockFilesCache(3);
+        final FileObject scratchFolder = getWriteFolder();
+        final FileObject hot = scratchFolder.resolveFile("hot");
+        cache.putFile(hot);
+        for (int i = 0; i < 10; i++) {
+            cache.putFile(scratchFolder.resolveFile("cold" + i));
+            assertSame(hot, cache.getFile(hot.getFileSystem(), hot.getName()));
+        }
+        assertEquals(3, cache.size());
+    }
+
+    public void testWeightBound() throws Exception {
+        final FileObject scratchFolder = getWriteFolder();
+        final FileObject file = scratchFolder.resolveFile("dir1");
+        final ClockFilesCache sizing = new ClockFilesCache(Integer.MAX_VALUE, Long.MAX_VALUE - 1);
+        sizing.putFile(file);
+        final long entryWeight = sizing.weight();
+        assertTrue(entryWeight > 0);
+
+        final ClockFilesCache cache = new ClockFilesCache(Integer.MAX_VALUE, entryWeight * 4);
+        for (int i = 0; i < 10; i++) {
+            cache.putFile(scratchFolder.resolveFile("dir" + i));
+        }
+        assertTrue(cache.size() <= 4);
+        assertTrue(cache.weight() <= entryWeight * 4);
+
+        cache.clear(file.getFileSystem());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weight());
+    }
+
+    public void testClass() {
+        assertTrue(getManager().getFilesCache() instanceof ClockFilesCache);
+    }
+}
@@ -169,6 +169,66 @@ public class DefaultFileMonitorTests extends AbstractVfsTestCase {
         }
     }
 
+    public void testLag() throws Exception {
+        writeToFile(testFile);
+        final FileObject fileObj = fsManager.resolveFile(testFile.toURI().toURL().toString());
+        final DefaultFileMonitor monitor = new DefaultFileMonitor(new TestFileListener());
+        monitor.setDelay(100);
+        monitor.addFile(fileObj);
+        monitor.start();
+        try {
+            Thread.sleep(500);
+            assertTrue("Lag too large: " + monitor.getMaxLag(), monitor.getMaxLag() < 300);
+            assertTrue("Lag too large: " + monitor.getAverageLag(), monitor.getAverageLag() < 300);
+        } finally {
+            monitor.stop();
+        }
+    }
+
+    public void testFileCreatedWorkerThreads() throws Exception {
+        final FileObject fileObj = fsManager.resolveFile(testFile.toURI().toURL().toString());
+        final DefaultFileMonitor monitor = new DefaultFileMonitor(new TestFileListener());
+        monitor.setDelay(100);
+        monitor.setWorkerThreads(2);
+        monitor.addFile(fileObj);
+        monitor.start();
+        try {
+            writeToFile(testFile);
+            Thread.sleep(300);
+            assertTrue("No event occurred", changeStatus != 0);
+            assertTrue("Incorrect event", changeStatus == 3);
+            assertTrue("Lag too large: " + monitor.getMaxLag(), monitor.getMaxLag() < 300);
+        } finally {
+            monitor.stop();
+        }
+    }
+
+    public void testChildFileRecreatedWorkerThreads() throws Exception {
+        writeToFile(testFile);
+        final FileObject fileObj = fsManager.resolveFile(testDir.toURI().toURL().toString());
+        final DefaultFileMonitor monitor = new DefaultFileMonitor(new TestFileListener());
+        monitor.setDelay(500);
+        monitor.setWorkerThreads(2);
+        monitor.addFile(fileObj);
+        monitor.start();
+        try {
+            changeStatus = 0;
+            Thread.sleep(300);
+            testFile.delete();
+            Thread.sleep(1500);
+            assertTrue("No event occurred", changeStatus != 0);
+            assertTrue("Incorrect event " + changeStatus, changeStatus == 2);
+            changeStatus = 0;
+            Thread.sleep(300);
+            writeToFile(testFile);
+            Thread.sleep(1500);
+            assertTrue("No event occurred", changeStatus != 0);
+            assertTrue("Incorrect event " + changeStatus, changeStatus == 3);
+        } finally {
+            monitor.stop();
+        }
+    }
+
     private void writeToFile(final File file) throws Exception {
         final FileWriter out = new FileWriter(file);
         out.write("string=value1");
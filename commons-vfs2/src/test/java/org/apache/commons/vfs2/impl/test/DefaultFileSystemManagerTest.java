@@ -20,8 +20,14 @@ import java.io.File;
 
 import org.apache.commons.vfs2.FileName;
 import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystem;
 import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.FileSystemOptions;
 import org.apache.commons.vfs2.VFS;
+import org.apache.commons.vfs2.impl.DefaultFileSystemManager;
+import org.apache.commons.vfs2.provider.ram.RamFileProvider;
+import org.apache.commons.vfs2.provider.ram.RamFileSystemConfigBuilder;
+import org.junit.Assert;
 import org.junit.Test;
 
 public class DefaultFileSystemManagerTest {
@@ -62,4 +68,42 @@ public class DefaultFileSystemManagerTest {
     public void testResolveFileNameNull() throws FileSystemException {
         VFS.getManager().resolveName((FileName) null, "../");
     }
+
+    @Test
+    public void testResolveFileCache() throws FileSystemException {
+        final DefaultFileSystemManager manager = new DefaultFileSystemManager();
+        try {
+            manager.addProvider("ram", new RamFileProvider());
+            manager.init();
+
+            final FileSystemOptions options = new FileSystemOptions();
+            RamFileSystemConfigBuilder.getInstance().setMaxSize(options, 1024);
+            final FileObject file = manager.resolveFile("ram:///dir/file", options);
+            final FileSystem fileSystem = file.getFileSystem();
+
+            // equal options resolve to the remembered file system and name
+            final FileSystemOptions equalOptions = new FileSystemOptions();
+            RamFileSystemConfigBuilder.getInstance().setMaxSize(equalOptions, 1024);
+            final FileObject again = manager.resolveFile("ram:///dir/file", equalOptions);
+            Assert.assertSame(fileSystem, again.getFileSystem());
+            Assert.assertEquals(file.getName(), again.getName());
+
+            // changed options are a different key
+            RamFileSystemConfigBuilder.getInstance().setMaxSize(options, 2048);
+            Assert.assertNotSame(fileSystem, manager.resolveFile("ram:///dir/file", options).getFileSystem());
+
+            // closing the file system forgets it
+            manager.closeFileSystem(fileSystem);
+            final FileObject reopened = manager.resolveFile("ram:///dir/file", equalOptions);
+            Assert.assertNotSame(fileSystem, reopened.getFileSystem());
+            Assert.assertSame(reopened.getFileSystem(),
+                    manager.resolveFile("ram:///dir/file", equalOptions).getFileSystem());
+
+            manager.setResolveCacheSize(0);
+            Assert.assertSame(reopened.getFileSystem(),
+                    manager.resolveFile("ram:///dir/file", equalOptions).getFileSystem());
+        } finally {
+            manager.close();
+        }
+    }
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.impl.test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystemInstrumentation.Operation;
+import org.apache.commons.vfs2.FileSystemOptions;
+import org.apache.commons.vfs2.FileUtil;
+import org.apache.commons.vfs2.impl.DefaultFileSystemManager;
+import org.apache.commons.vfs2.impl.EndpointMetrics;
+import org.apache.commons.vfs2.impl.FileSystemMetrics;
+import org.apache.commons.vfs2.impl.OperationMetrics;
+import org.apache.commons.vfs2.provider.ram.RamFileProvider;
+import org.apache.commons.vfs2.provider.ram.RamFileSystemConfigBuilder;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link FileSystemMetrics}.
+ */
+public class FileSystemMetricsTest {
+
+    private DefaultFileSystemManager manager;
+    private FileSystemMetrics metrics;
+    private MBeanServer mbeanServer;
+
+    @Before
+    public void setUp() throws Exception {
+        manager = new DefaultFileSystemManager();
+        manager.addProvider("ram", new RamFileProvider());
+        manager.init();
+        mbeanServer = ManagementFactory.getPlatformMBeanServer();
+        metrics = new FileSystemMetrics(mbeanServer);
+        manager.addInstrumentation(metrics);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        metrics.close();
+        manager.close();
+    }
+
+    private static void write(final FileObject file, final String content) throws Exception {
+        try (final OutputStream out = file.getContent().getOutputStream()) {
+            out.write(content.getBytes("UTF-8"));
+        }
+    }
+
+    @Test
+    public void testOperations() throws Exception {
+        final FileObject folder = manager.resolveFile("ram:///folder");
+        final FileObject file = folder.resolveFile("file.txt");
+        write(file, "0123456789");
+        Assert.assertEquals(10, FileUtil.getContent(file).length);
+        Assert.assertEquals(1, folder.getChildren().length);
+        final FileObject renamed = folder.resolveFile("renamed.txt");
+        file.moveTo(renamed);
+        renamed.delete();
+
+        final EndpointMetrics endpoint = metrics.getEndpointMetrics("ram", "");
+        Assert.assertNotNull(endpoint);
+        Assert.assertEquals(1, endpoint.getMetrics(Operation.CONNECT).getCount());
+        Assert.assertEquals(1, endpoint.getWrite().getCount());
+        Assert.assertEquals(10, endpoint.getWrite().getBytes());
+        Assert.assertEquals(1, endpoint.getRead().getCount());
+        Assert.assertEquals(10, endpoint.getRead().getBytes());
+        Assert.assertEquals(2, endpoint.getOpen().getCount());
+        Assert.assertEquals(1, endpoint.getList().getCount());
+        Assert.assertEquals(1, endpoint.getRename().getCount());
+        Assert.assertEquals(1, endpoint.getDelete().getCount());
+        Assert.assertTrue(endpoint.getStat().getCount() > 0);
+        Assert.assertEquals(0, endpoint.getStat().getFailures());
+        Assert.assertTrue(endpoint.getFilesCacheHits() > 0);
+        Assert.assertTrue(endpoint.getFilesCacheMisses() > 0);
+
+        final OperationMetrics read = endpoint.getRead();
+        long histogramCount = 0;
+        for (final long count : read.getHistogram()) {
+            histogramCount += count;
+        }
+        Assert.assertEquals(read.getCount(), histogramCount);
+        Assert.assertEquals(OperationMetrics.getHistogramBoundsMillis().length + 1, read.getHistogram().length);
+        Assert.assertTrue(read.getMaxNanos() <= read.getTotalNanos());
+    }
+
+    @Test
+    public void testWriteFailure() throws Exception {
+        final FileSystemOptions opts = new FileSystemOptions();
+        RamFileSystemConfigBuilder.getInstance().setMaxSize(opts, 5);
+        final FileObject file = manager.resolveFile("ram:///file.txt", opts);
+        try {
+            write(file, "0123456789");
+            Assert.fail("The write should exceed the capacity of the file system");
+        } catch (final IOException e) {
+            // expected
+        }
+
+        final OperationMetrics write = metrics.getEndpointMetrics("ram", "").getWrite();
+        Assert.assertEquals(1, write.getCount());
+        Assert.assertEquals(1, write.getFailures());
+    }
+
+    @Test
+    public void testMBean() throws Exception {
+        write(manager.resolveFile("ram:///file.txt"), "content");
+
+        final ObjectName name = FileSystemMetrics.getObjectName(metrics.getEndpointMetrics("ram", ""));
+        Assert.assertTrue(mbeanServer.isRegistered(name));
+        Assert.assertEquals("ram", mbeanServer.getAttribute(name, "Scheme"));
+        final CompositeData write = (CompositeData) mbeanServer.getAttribute(name, "Write");
+        Assert.assertEquals(Long.valueOf(1), write.get("count"));
+        Assert.assertEquals(Long.valueOf(7), write.get("bytes"));
+
+        metrics.close();
+        Assert.assertFalse(mbeanServer.isRegistered(name));
+    }
+
+    @Test
+    public void testRemoveInstrumentation() throws Exception {
+        final FileObject file = manager.resolveFile("ram:///file.txt");
+        write(file, "content");
+        manager.removeInstrumentation(metrics);
+        Assert.assertNull(manager.getInstrumentation());
+        write(file, "content");
+
+        Assert.assertEquals(1, metrics.getEndpointMetrics("ram", "").getWrite().getCount());
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.impl.test;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.FileTransferListener;
+import org.apache.commons.vfs2.FileUtil;
+import org.apache.commons.vfs2.Selectors;
+import org.apache.commons.vfs2.VFS;
+import org.apache.commons.vfs2.impl.FileTransfer;
+import org.apache.commons.vfs2.util.FileObjectUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link FileTransfer}.
+ */
+public class FileTransferTest {
+
+    private FileObject source;
+    private FileObject destination;
+
+    /**
+     * Creates a RAM FS tree of a few folders and files.
+     *
+     * @throws Exception
+     */
+    @Before
+    public void setUp() throws Exception {
+        final FileObject base = VFS.getManager().resolveFile("ram://" + FileTransferTest.class.getName());
+        base.deleteAll();
+        source = base.resolveFile("source");
+        destination = base.resolveFile("destination");
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 4; j++) {
+                write(source.resolveFile("dir" + i + "/file" + j + ".txt"), "content " + i + j);
+            }
+        }
+        source.resolveFile("empty").createFolder();
+    }
+
+    /**
+     * Deletes RAM FS files.
+     *
+     * @throws Exception
+     */
+    @After
+    public void tearDown() throws Exception {
+        source.getParent().deleteAll();
+    }
+
+    private static void write(final FileObject file, final String content) throws Exception {
+        try (final OutputStream out = file.getContent().getOutputStream()) {
+            out.write(content.getBytes("UTF-8"));
+        }
+    }
+
+    private static String read(final FileObject file) throws Exception {
+        return new String(FileUtil.getContent(file), "UTF-8");
+    }
+
+    private void assertCopied() throws Exception {
+        Assert.assertTrue(destination.resolveFile("empty").isFolder());
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 4; j++) {
+                Assert.assertEquals("content " + i + j, read(destination.resolveFile("dir" + i + "/file" + j + ".txt")));
+            }
+            Assert.assertEquals(4, destination.resolveFile("dir" + i).getChildren().length);
+        }
+    }
+
+    @Test
+    public void testCopy() throws Exception {
+        final FileTransfer transfer = new FileTransfer();
+        transfer.setThreads(3);
+        transfer.setMaxPerDestination(2);
+        transfer.setVerify(FileTransfer.Comparison.CHECKSUM);
+        transfer.copy(source, destination, Selectors.SELECT_ALL);
+
+        assertCopied();
+        Assert.assertTrue(source.resolveFile("dir0/file0.txt").exists());
+    }
+
+    @Test
+    public void testMove() throws Exception {
+        final FileTransfer transfer = new FileTransfer();
+        transfer.move(source, destination, Selectors.SELECT_ALL);
+
+        assertCopied();
+        Assert.assertFalse(source.exists());
+    }
+
+    @Test
+    public void testResume() throws Exception {
+        destination.resolveFile("dir1").createFolder();
+        destination.resolveFile("dir1/file1.txt").copyFrom(source.resolveFile("dir1/file1.txt"),
+                Selectors.SELECT_SELF);
+        write(destination.resolveFile("dir1/file2.txt"), "stale");
+
+        final Set<String> skipped = Collections.synchronizedSet(new HashSet<String>());
+        final AtomicInteger transferred = new AtomicInteger();
+        // the listener runs on the worker threads, so its findings are checked here
+        final Set<Long> sizes = Collections.synchronizedSet(new HashSet<Long>());
+        final AtomicReference<FileSystemException> failure = new AtomicReference<>();
+        final FileTransfer transfer = new FileTransfer();
+        transfer.setResume(FileTransfer.Comparison.CHECKSUM);
+        transfer.setListener(new FileTransferListener() {
+            @Override
+            public void fileTransferred(final FileObject src, final FileObject dest, final long bytes) {
+                sizes.add(Long.valueOf(bytes));
+                transferred.incrementAndGet();
+            }
+
+            @Override
+            public void fileSkipped(final FileObject src, final FileObject dest) {
+                skipped.add(dest.getName().getBaseName());
+            }
+
+            @Override
+            public void fileFailed(final FileObject src, final FileObject dest, final FileSystemException exception) {
+                failure.compareAndSet(null, exception);
+            }
+        });
+        transfer.copy(source, destination, Selectors.SELECT_ALL);
+
+        Assert.assertNull(failure.get());
+        Assert.assertEquals(Collections.singleton(Long.valueOf(10)), sizes);
+        assertCopied();
+        Assert.assertEquals(Collections.singleton("file1.txt"), skipped);
+        Assert.assertEquals(11, transferred.get());
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        // a folder in the way of a file cannot be replaced, its parent is the file
+        write(destination.resolveFile("dir2"), "not a folder");
+
+        final AtomicInteger failed = new AtomicInteger();
+        final FileTransfer transfer = new FileTransfer();
+        transfer.setListener(new FileTransferListener() {
+            @Override
+            public void fileTransferred(final FileObject src, final FileObject dest, final long bytes) {
+            }
+
+            @Override
+            public void fileSkipped(final FileObject src, final FileObject dest) {
+            }
+
+            @Override
+            public void fileFailed(final FileObject src, final FileObject dest, final FileSystemException exception) {
+                failed.incrementAndGet();
+            }
+        });
+        transfer.addCopy(source.resolveFile("dir2/file0.txt"), destination.resolveFile("dir2/file0.txt"));
+        try {
+            transfer.await();
+            Assert.fail("Expected a FileSystemException");
+        } catch (final FileSystemException e) {
+            Assert.assertEquals("vfs.impl/transfer.error", e.getCode());
+            Assert.assertNotNull(e.getCause());
+        }
+        Assert.assertEquals(1, failed.get());
+        Assert.assertEquals(1, destination.getChildren().length);
+    }
+
+    @Test
+    public void testListenerFailure() throws Exception {
+        final FileTransfer transfer = new FileTransfer();
+        transfer.setListener(new FileTransferListener() {
+            @Override
+            public void fileTransferred(final FileObject src, final FileObject dest, final long bytes) {
+                throw new IllegalStateException("listener failure");
+            }
+
+            @Override
+            public void fileSkipped(final FileObject src, final FileObject dest) {
+            }
+
+            @Override
+            public void fileFailed(final FileObject src, final FileObject dest, final FileSystemException exception) {
+            }
+        });
+        // the files are in place, so the listener does not fail the copy
+        transfer.copy(source, destination, Selectors.SELECT_ALL);
+
+        assertCopied();
+    }
+
+    @Test
+    public void testReplaceLocalFile() throws Exception {
+        final File dir = Files.createTempDirectory(FileTransferTest.class.getSimpleName()).toFile();
+        try {
+            final FileObject local = VFS.getManager().resolveFile(dir.toURI().toString());
+            final FileObject existing = local.resolveFile("dir0/file0.txt");
+            write(existing, "old");
+            final FileTransfer transfer = new FileTransfer();
+            transfer.copy(source, local, Selectors.SELECT_ALL);
+
+            Assert.assertEquals("content 00", read(existing));
+            // no temporary file is left behind
+            Assert.assertEquals(4, local.resolveFile("dir0").getChildren().length);
+
+            final FileObject replacement = local.resolveFile("replacement.txt");
+            write(replacement, "new");
+            Assert.assertTrue(FileObjectUtils.getAbstractFileObject(replacement).renameReplacing(existing));
+            Assert.assertEquals("new", read(existing));
+            Assert.assertFalse(replacement.exists());
+        } finally {
+            FileUtils.deleteDirectory(dir);
+        }
+    }
+}
@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.Enumeration;
 
 import org.apache.commons.AbstractVfsTestCase;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.vfs2.Capability;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemException;
@@ -140,6 +141,59 @@ public class VfsClassLoaderTests extends AbstractProviderTestCase {
                 url2.toString().endsWith("test.jar!/META-INF/MANIFEST.MF"));
     }
 
+    /**
+     * Tests a second class loader reads class bytes from the cache folder of the first.
+     */
+    public void testBytecodeCache() throws Exception {
+        final File cacheDir = File.createTempFile("vfs-bytecode-", "", new File(getTestDirectory()).getParentFile());
+        assertTrue(cacheDir.delete());
+        try {
+            final FileObject[] search = new FileObject[] { getBaseFolder() };
+            final VFSClassLoader loader = new VFSClassLoader(search, getManager(), null, cacheDir);
+            assertEquals("**PRIVATE**", loader.loadClass("code.ClassToLoad").newInstance().toString());
+            assertEquals(1, cacheDir.list().length);
+
+            final VFSClassLoader cachedLoader = new VFSClassLoader(search, getManager(), null, cacheDir);
+            final Class<?> testClass = cachedLoader.loadClass("code.ClassToLoad");
+            assertSame(cachedLoader, testClass.getClassLoader());
+            assertEquals("**PRIVATE**", testClass.newInstance().toString());
+        } finally {
+            FileUtils.deleteDirectory(cacheDir);
+        }
+    }
+
+    /**
+     * Tests loading classes and resources from the package index of JARs.
+     */
+    public void testLoadClassJARs() throws Exception {
+        final FileSystemManager manager = getManager();
+        try {
+            // hasProvider("file") cannot be used as it triggers default provider URL
+            manager.toFileObject(new File("."));
+        } catch (final FileSystemException e) {
+            System.out.println("VfsClassLoaderTests no local file provider, skipping.");
+            return;
+        }
+        final File baseDir = AbstractVfsTestCase.getTestDirectoryFile();
+        final FileObject nestedJar = manager.resolveFile(baseDir, "nested.jar");
+        final FileObject testJar = manager.resolveFile(baseDir, "test.jar");
+        if (!manager.canCreateFileSystem(testJar)) {
+            System.out.println("VfsClassLoaderTests no layered .jar provider, skipping.");
+            return;
+        }
+
+        final FileObject[] search = new FileObject[] { nestedJar, testJar };
+        final VFSClassLoader loader = new VFSClassLoader(search, getManager(), null);
+
+        final Class<?> testClass = loader.loadClass("code.sealed.AnotherClass");
+        assertEquals("code.sealed", testClass.getPackage().getName());
+        assertTrue(loader.getResource("code/ClassToLoad.class").toString()
+                .endsWith("test.jar!/code/ClassToLoad.class"));
+        assertNotNull(loader.getResource("code/../code/ClassToLoad.class"));
+        assertNull(loader.getResource("missing/ClassToLoad.class"));
+        assertNull(loader.getResource("code/Missing.class"));
+    }
+
     /**
      * Tests retrieving resources (from local directory with .jar extension).
      * <p>
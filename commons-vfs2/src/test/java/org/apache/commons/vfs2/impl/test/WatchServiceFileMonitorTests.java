@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.impl.test;
+
+import java.io.File;
+import java.io.FileWriter;
+
+import org.apache.commons.AbstractVfsTestCase;
+import org.apache.commons.vfs2.FileChangeEvent;
+import org.apache.commons.vfs2.FileListener;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystemManager;
+import org.apache.commons.vfs2.VFS;
+import org.apache.commons.vfs2.impl.WatchServiceFileMonitor;
+
+/**
+ * Test to verify WatchServiceFileMonitor
+ */
+public class WatchServiceFileMonitorTests extends AbstractVfsTestCase {
+    private static final long TIMEOUT = 5000;
+
+    private FileSystemManager fsManager;
+    private File testDir;
+    private volatile int changeStatus = 0;
+    private volatile String changedName;
+    private File testFile;
+    private File watchDir;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        fsManager = VFS.getManager();
+        testDir = AbstractVfsTestCase.getTestDirectoryFile();
+        changeStatus = 0;
+        testFile = new File(testDir, "testWatch.properties");
+        watchDir = new File(testDir, "watchTest");
+
+        if (testFile.exists()) {
+            testFile.delete();
+        }
+        delete(watchDir);
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        if (testFile != null && testFile.exists()) {
+            testFile.delete();
+        }
+        delete(watchDir);
+        super.tearDown();
+    }
+
+    public void testFileCreated() throws Exception {
+        final FileObject fileObj = fsManager.resolveFile(testFile.toURI().toURL().toString());
+        final WatchServiceFileMonitor monitor = new WatchServiceFileMonitor(new TestFileListener());
+        monitor.setDelay(100);
+        monitor.addFile(fileObj);
+        monitor.start();
+        try {
+            writeToFile(testFile);
+            assertEvent(3);
+        } finally {
+            monitor.stop();
+        }
+    }
+
+    public void testFileDeleted() throws Exception {
+        writeToFile(testFile);
+        final FileObject fileObj = fsManager.resolveFile(testFile.toURI().toString());
+        final WatchServiceFileMonitor monitor = new WatchServiceFileMonitor(new TestFileListener());
+        monitor.setDelay(100);
+        monitor.addFile(fileObj);
+        monitor.start();
+        try {
+            testFile.delete();
+            assertEvent(2);
+        } finally {
+            monitor.stop();
+        }
+    }
+
+    public void testFileModified() throws Exception {
+        writeToFile(testFile);
+        final FileObject fileObj = fsManager.resolveFile(testFile.toURI().toURL().toString());
+        final WatchServiceFileMonitor monitor = new WatchServiceFileMonitor(new TestFileListener());
+        monitor.setDelay(100);
+        monitor.addFile(fileObj);
+        monitor.start();
+        try {
+            // make sure the new timestamp differs from the current one
+            Thread.sleep(1000);
+            assertTrue("setLastModified succeeded", testFile.setLastModified(System.currentTimeMillis()));
+            assertEvent(1);
+        } finally {
+            monitor.stop();
+        }
+    }
+
+    public void testUnrelatedFileIgnored() throws Exception {
+        final FileObject fileObj = fsManager.resolveFile(testFile.toURI().toURL().toString());
+        final WatchServiceFileMonitor monitor = new WatchServiceFileMonitor(new TestFileListener());
+        monitor.setDelay(100);
+        monitor.addFile(fileObj);
+        monitor.start();
+        final File otherFile = new File(testDir, "testWatchOther.properties");
+        try {
+            writeToFile(otherFile);
+            writeToFile(testFile);
+            assertEvent(3);
+            assertEquals(testFile.getName(), changedName);
+        } finally {
+            monitor.stop();
+            otherFile.delete();
+        }
+    }
+
+    public void testRecursiveFolder() throws Exception {
+        final File subDir = new File(watchDir, "a");
+        assertTrue(subDir.mkdirs());
+        final FileObject folder = fsManager.resolveFile(watchDir.toURI().toString());
+        final WatchServiceFileMonitor monitor = new WatchServiceFileMonitor(new TestFileListener());
+        monitor.setDelay(100);
+        monitor.setRecursive(true);
+        monitor.addFile(folder);
+        monitor.start();
+        try {
+            writeToFile(new File(subDir, "file.txt"));
+            assertEvent(3);
+            assertEquals("file.txt", changedName);
+
+            // a new folder is watched too
+            changeStatus = 0;
+            final File newDir = new File(subDir, "b");
+            assertTrue(newDir.mkdir());
+            assertEvent(3);
+            changeStatus = 0;
+            writeToFile(new File(newDir, "other.txt"));
+            assertEvent(3);
+            assertEquals("other.txt", changedName);
+
+            changeStatus = 0;
+            assertTrue(new File(newDir, "other.txt").delete());
+            assertEvent(2);
+        } finally {
+            monitor.stop();
+        }
+    }
+
+    public void testNonLocalFileIsPolled() throws Exception {
+        final FileObject fileObj = fsManager.resolveFile("ram:///watchTest/file.txt");
+        final WatchServiceFileMonitor monitor = new WatchServiceFileMonitor(new TestFileListener());
+        monitor.setDelay(100);
+        monitor.addFile(fileObj);
+        monitor.start();
+        try {
+            fileObj.createFile();
+            assertEvent(3);
+        } finally {
+            monitor.stop();
+            fileObj.delete();
+        }
+    }
+
+    private void assertEvent(final int expected) throws InterruptedException {
+        final long end = System.currentTimeMillis() + TIMEOUT;
+        while (changeStatus == 0 && System.currentTimeMillis() < end) {
+            Thread.sleep(50);
+        }
+        // let further events arrive
+        Thread.sleep(200);
+        assertTrue("No event occurred", changeStatus != 0);
+        assertEquals("Incorrect event", expected, changeStatus);
+    }
+
+    private void writeToFile(final File file) throws Exception {
+        final FileWriter out = new FileWriter(file);
+        out.write("string=value1");
+        out.close();
+    }
+
+    private void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    public class TestFileListener implements FileListener {
+        @Override
+        public void fileChanged(final FileChangeEvent event) throws Exception {
+            changedName = event.getFile().getName().getBaseName();
+            changeStatus = 1;
+        }
+
+        @Override
+        public void fileDeleted(final FileChangeEvent event) throws Exception {
+            changedName = event.getFile().getName().getBaseName();
+            changeStatus = 2;
+        }
+
+        @Override
+        public void fileCreated(final FileChangeEvent event) throws Exception {
+            changedName = event.getFile().getName().getBaseName();
+            changeStatus = 3;
+        }
+    }
+}
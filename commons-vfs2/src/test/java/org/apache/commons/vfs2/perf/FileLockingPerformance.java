@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.perf;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.vfs2.CacheStrategy;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.FileSystemOptions;
+import org.apache.commons.vfs2.cache.SoftRefFilesCache;
+import org.apache.commons.vfs2.impl.DefaultFileSystemConfigBuilder;
+import org.apache.commons.vfs2.impl.DefaultFileSystemManager;
+import org.apache.commons.vfs2.provider.local.DefaultLocalFileProvider;
+
+/**
+ * Measures how many uncached type lookups threads working on different files get through, with the file system
+ * locked as a whole and with its file objects locked one by one.
+ */
+public class FileLockingPerformance {
+    private final static int NUOF_THREADS = 8;
+    private final static int NUOF_LOOKUPS = 20000;
+
+    public static void main(final String[] args) throws Exception {
+        final File dir = new File(System.getProperty("java.io.tmpdir"), "vfs-locking-perf");
+        dir.mkdirs();
+        for (int i = 0; i < NUOF_THREADS; i++) {
+            new File(dir, "file" + i).createNewFile();
+        }
+
+        for (int i = 0; i < 3; i++) {
+            // warmup jvm
+            run(dir, false);
+            run(dir, true);
+        }
+
+        System.err.println("file system lock: " + run(dir, false) + " lookups/s");
+        System.err.println("per file locks:   " + run(dir, true) + " lookups/s");
+    }
+
+    private static long run(final File dir, final boolean perFileLocking) throws Exception {
+        final DefaultFileSystemManager manager = new DefaultFileSystemManager();
+        manager.setFilesCache(new SoftRefFilesCache());
+        manager.setCacheStrategy(CacheStrategy.MANUAL);
+        manager.addProvider("file", new DefaultLocalFileProvider());
+        manager.init();
+        try {
+            final FileSystemOptions opts = new FileSystemOptions();
+            DefaultFileSystemConfigBuilder.getInstance().setPerFileLocking(opts, perFileLocking);
+            final FileObject folder = manager.resolveFile(dir.toURI().toString(), opts);
+
+            final CountDownLatch start = new CountDownLatch(1);
+            final AtomicLong failures = new AtomicLong();
+            final Thread[] threads = new Thread[NUOF_THREADS];
+            for (int i = 0; i < NUOF_THREADS; i++) {
+                final FileObject file = folder.resolveFile("file" + i);
+                threads[i] = new Thread() {
+                    @Override
+                    public void run() {
+                        try {
+                            start.await();
+                            for (int j = 0; j < NUOF_LOOKUPS; j++) {
+                                // a refresh forces the next lookup to stat the file again
+                                file.refresh();
+                                file.getType();
+                            }
+                        } catch (final InterruptedException | FileSystemException e) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                };
+                threads[i].start();
+            }
+
+            final long begin = System.nanoTime();
+            start.countDown();
+            for (final Thread thread : threads) {
+                thread.join();
+            }
+            final long elapsed = System.nanoTime() - begin;
+            if (failures.get() > 0) {
+                throw new IOException(failures.get() + " threads failed");
+            }
+            return NUOF_THREADS * (long) NUOF_LOOKUPS * 1000000000L / elapsed;
+        } finally {
+            manager.close();
+        }
+    }
+}
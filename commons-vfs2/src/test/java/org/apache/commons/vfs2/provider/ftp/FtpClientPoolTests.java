@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.provider.ftp;
+
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.FileSystemOptions;
+import org.apache.commons.vfs2.test.AbstractProviderTestCase;
+
+/**
+ * Tests the {@link FtpClientPool} of an {@link FtpFileSystem}.
+ */
+public class FtpClientPoolTests extends AbstractProviderTestCase {
+
+    /**
+     * Creates a file system of the server under test with its own pool.
+     */
+    private FtpFileSystem createFileSystem(final int maxTotal, final long maxWait) throws Exception {
+        final FileSystemOptions opts = (FileSystemOptions) getBaseFolder().getFileSystem().getFileSystemOptions()
+                .clone();
+        final FtpFileSystemConfigBuilder builder = FtpFileSystemConfigBuilder.getInstance();
+        builder.setPoolMaxTotal(opts, maxTotal);
+        builder.setPoolMaxIdle(opts, maxTotal);
+        builder.setPoolMaxWait(opts, maxWait);
+        return (FtpFileSystem) getManager().resolveFile(getBaseFolder().getName().getURI(), opts).getFileSystem();
+    }
+
+    /**
+     * A returned client is lent again.
+     */
+    public void testBorrowAndReturn() throws Exception {
+        final FtpFileSystem fs = createFileSystem(2, 0);
+        try {
+            final FtpClient client = fs.getClient();
+            assertTrue(client.isConnected());
+            fs.putClient(client);
+            final FtpClient reused = fs.getClient();
+            assertSame(client, reused);
+            // a second connection while the first is in use
+            final FtpClient other = fs.getClient();
+            assertNotSame(client, other);
+            fs.putClient(other);
+            fs.putClient(reused);
+        } finally {
+            getManager().closeFileSystem(fs);
+        }
+    }
+
+    /**
+     * A client whose connection broke while it was in use is dropped when it is returned.
+     */
+    public void testBrokenClientIsNotReused() throws Exception {
+        final FtpFileSystem fs = createFileSystem(1, 0);
+        try {
+            final FtpClient client = fs.getClient();
+            client.disconnect();
+            fs.putClient(client);
+            final FtpClient replacement = fs.getClient();
+            assertNotSame(client, replacement);
+            assertTrue(replacement.isConnected());
+            fs.putClient(replacement);
+        } finally {
+            getManager().closeFileSystem(fs);
+        }
+    }
+
+    /**
+     * Borrowing fails after the maximum wait when all clients are in use, and succeeds again once one is returned.
+     */
+    public void testExhausted() throws Exception {
+        final FtpFileSystem fs = createFileSystem(1, 100);
+        try {
+            final FtpClient client = fs.getClient();
+            try {
+                fs.getClient();
+                fail("The pool should be exhausted");
+            } catch (final FileSystemException e) {
+                assertEquals("vfs.provider.ftp/pool-exhausted.error", e.getCode());
+            }
+            fs.putClient(client);
+            final FtpClient reused = fs.getClient();
+            assertSame(client, reused);
+            fs.putClient(reused);
+        } finally {
+            getManager().closeFileSystem(fs);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.provider.ftp.test;
+
+import junit.framework.Test;
+import org.apache.commons.vfs2.provider.ftp.FtpStatStrategy;
+
+/**
+ * Tests for FTP file systems looking up single files with MLST, falling back to SIZE and MDTM.
+ */
+public class FtpProviderMlstTestCase extends FtpProviderTestCase {
+    /**
+     * Creates the test suite for the ftp file system.
+     */
+    public static Test suite() throws Exception {
+        return suite(new FtpProviderMlstTestCase());
+    }
+
+    @Override
+    protected FtpStatStrategy getStatStrategy() {
+        return FtpStatStrategy.MLST;
+    }
+}
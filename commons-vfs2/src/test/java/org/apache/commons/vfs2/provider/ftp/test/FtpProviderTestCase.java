@@ -23,9 +23,11 @@ import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemManager;
 import org.apache.commons.vfs2.FileSystemOptions;
 import org.apache.commons.vfs2.impl.DefaultFileSystemManager;
+import org.apache.commons.vfs2.provider.ftp.FtpClientPoolTests;
 import org.apache.commons.vfs2.provider.ftp.FtpFileProvider;
 import org.apache.commons.vfs2.provider.ftp.FtpFileSystemConfigBuilder;
 import org.apache.commons.vfs2.provider.ftp.FtpFileType;
+import org.apache.commons.vfs2.provider.ftp.FtpStatStrategy;
 import org.apache.commons.vfs2.test.AbstractProviderTestConfig;
 import org.apache.commons.vfs2.test.ProviderTestSuite;
 import org.apache.commons.vfs2.util.FreeSocketPortUtil;
@@ -121,13 +123,15 @@ public class FtpProviderTestCase extends AbstractProviderTestConfig {
      * Creates the test suite for the ftp file system.
      */
     public static Test suite() throws Exception {
-        return suite(new FtpProviderTestCase());
+        final ProviderTestSuite suite = suite(new FtpProviderTestCase());
+        suite.addTests(FtpClientPoolTests.class);
+        return suite;
     }
 
     /**
      * Creates the test suite for subclasses of the ftp file system.
      */
-    protected static Test suite(final FtpProviderTestCase testCase) throws Exception {
+    protected static ProviderTestSuite suite(final FtpProviderTestCase testCase) throws Exception {
         return new ProviderTestSuite(testCase) {
             @Override
             protected void setUp() throws Exception {
@@ -180,9 +184,25 @@ public class FtpProviderTestCase extends AbstractProviderTestConfig {
         builder.setFileType(opts, FtpFileType.BINARY);
         builder.setConnectTimeout(opts, 10000);
         builder.setControlEncoding(opts, "UTF-8");
+        builder.setStatStrategy(opts, getStatStrategy());
+        builder.setMlsdListing(opts, getMlsdListing());
         return manager.resolveFile(uri, opts);
     }
 
+    /**
+     * Gets the setting for MlsdListing.
+     */
+    protected boolean getMlsdListing() {
+        return false;
+    }
+
+    /**
+     * Gets the setting for StatStrategy.
+     */
+    protected FtpStatStrategy getStatStrategy() {
+        return FtpStatStrategy.LIST;
+    }
+
     /**
      * Gets the setting for UserDirIsRoot.
      */
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+package org.apache.commons.vfs2.provider.http;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.httpclient.Header;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystemOptions;
+import org.apache.commons.vfs2.provider.URLFileName;
+import org.apache.commons.vfs2.test.AbstractProviderTestCase;
+
+/**
+ * Tests the {@link HttpContentCache} of an {@link HttpFileSystem}.
+ */
+public class HttpContentCacheTests extends AbstractProviderTestCase {
+
+    /**
+     * The headers of a HEAD reply are reused when the server answers a later HEAD request with 304.
+     */
+    public void testMetadataRevalidated() throws Exception {
+        final File cacheDir = Files.createTempDirectory(HttpContentCacheTests.class.getSimpleName()).toFile();
+        final FileSystemOptions opts = new FileSystemOptions();
+        HttpFileSystemConfigBuilder.getInstance().setContentCacheDir(opts, cacheDir);
+        final FileObject file = getManager().resolveFile(getReadFolder().resolveFile("file1.txt").getName().getURI(),
+                opts);
+        try {
+            assertEquals(FILE1_CONTENT.length(), file.getContent().getSize());
+
+            final HttpContentCache cache = ((HttpFileSystem) file.getFileSystem()).getContentCache();
+            final String key = ((URLFileName) file.getName())
+                    .getPathQueryEncoded(HttpFileSystemConfigBuilder.getInstance().getUrlCharset(opts));
+            final HttpContentCache.Metadata cached = cache.getMetadata(key);
+            assertNotNull(cached);
+
+            // change the cached length, to see where the next attach takes it from
+            final List<Header> headers = new ArrayList<>();
+            for (final Header header : cached.getHeaders()) {
+                if (!"Content-Length".equalsIgnoreCase(header.getName())) {
+                    headers.add(header);
+                }
+            }
+            headers.add(new Header("Content-Length", "7"));
+            cache.putMetadata(key, new HttpContentCache.Metadata(headers.toArray(new Header[headers.size()])));
+
+            file.refresh();
+            assertEquals(7, file.getContent().getSize());
+        } finally {
+            getManager().closeFileSystem(file.getFileSystem());
+            FileUtils.deleteDirectory(cacheDir);
+        }
+    }
+}
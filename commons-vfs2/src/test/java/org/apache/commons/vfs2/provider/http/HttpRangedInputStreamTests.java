@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+package org.apache.commons.vfs2.provider.http;
+
+import java.io.InputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.FileSystemOptions;
+import org.apache.commons.vfs2.test.AbstractProviderTestCase;
+
+/**
+ * Tests the {@link HttpRangedInputStream} of an {@link HttpFileSystem}.
+ */
+public class HttpRangedInputStreamTests extends AbstractProviderTestCase {
+
+    /**
+     * A reader waiting for a range which has not started fails when the file system is closed.
+     */
+    public void testCloseFileSystemWhileReading() throws Exception {
+        final FileSystemOptions opts = new FileSystemOptions();
+        final HttpFileSystemConfigBuilder builder = HttpFileSystemConfigBuilder.getInstance();
+        builder.setParallelDownloadThreshold(opts, 1);
+        builder.setParallelDownloadSegments(opts, 1);
+        builder.setParallelDownloadSegmentSize(opts, 3);
+        final FileObject file = getManager().resolveFile(getReadFolder().resolveFile("file1.txt").getName().getURI(),
+                opts);
+        final HttpFileSystem fs = (HttpFileSystem) file.getFileSystem();
+
+        // keep the only range thread busy, so the ranges of the stream stay queued
+        final ThreadPoolExecutor rangeExecutor = (ThreadPoolExecutor) fs.getRangeExecutor();
+        final CountDownLatch release = new CountDownLatch(1);
+        rangeExecutor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                release.await();
+                return null;
+            }
+        });
+
+        final InputStream in = file.getContent().getInputStream();
+        final ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Integer> read = reader.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    return Integer.valueOf(in.read());
+                }
+            });
+            while (rangeExecutor.getQueue().isEmpty()) {
+                Thread.sleep(10);
+            }
+            getManager().closeFileSystem(fs);
+            try {
+                read.get(30, TimeUnit.SECONDS);
+                fail("The read should fail once the file system is closed");
+            } catch (final ExecutionException e) {
+                assertTrue(e.getCause() instanceof FileSystemException);
+            }
+        } finally {
+            release.countDown();
+            reader.shutdownNow();
+            in.close();
+        }
+    }
+}
@@ -18,10 +18,13 @@ package org.apache.commons.vfs2.provider.http.test;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.concurrent.TimeUnit;
 
 import junit.framework.Test;
 
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.vfs2.FileNotFolderException;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemException;
@@ -29,8 +32,10 @@ import org.apache.commons.vfs2.FileSystemManager;
 import org.apache.commons.vfs2.FileSystemOptions;
 import org.apache.commons.vfs2.VFS;
 import org.apache.commons.vfs2.impl.DefaultFileSystemManager;
+import org.apache.commons.vfs2.provider.http.HttpContentCacheTests;
 import org.apache.commons.vfs2.provider.http.HttpFileProvider;
 import org.apache.commons.vfs2.provider.http.HttpFileSystemConfigBuilder;
+import org.apache.commons.vfs2.provider.http.HttpRangedInputStreamTests;
 import org.apache.commons.vfs2.test.AbstractProviderTestConfig;
 import org.apache.commons.vfs2.test.ProviderTestSuite;
 import org.apache.commons.vfs2.util.FreeSocketPortUtil;
@@ -81,6 +86,8 @@ public class HttpProviderTestCase extends AbstractProviderTestConfig {
             protected void addBaseTests() throws Exception {
                 super.addBaseTests();
                 addTests(HttpProviderTestCase.class);
+                addTests(HttpContentCacheTests.class);
+                addTests(HttpRangedInputStreamTests.class);
             }
 
             @Override
@@ -181,6 +188,62 @@ public class HttpProviderTestCase extends AbstractProviderTestConfig {
         assert f.getContent().getSize() > 0;
     }
 
+    /** Downloads a file as parallel byte ranges and checks it matches a plain download. */
+    public void testParallelDownload() throws IOException {
+        final FileSystemOptions opts = new FileSystemOptions();
+        final HttpFileSystemConfigBuilder builder = HttpFileSystemConfigBuilder.getInstance();
+        builder.setParallelDownloadThreshold(opts, 1);
+        builder.setParallelDownloadSegments(opts, 2);
+        builder.setParallelDownloadSegmentSize(opts, 3);
+
+        final String uri = ConnectionUri + "/read-tests/file1.txt";
+        final FileObject plain = VFS.getManager().resolveFile(uri);
+        final FileObject ranged = VFS.getManager().resolveFile(uri, opts);
+        final byte[] expected;
+        try (final InputStream in = plain.getContent().getInputStream()) {
+            expected = IOUtils.toByteArray(in);
+        }
+        try (final InputStream in = ranged.getContent().getInputStream()) {
+            Assert.assertArrayEquals(expected, IOUtils.toByteArray(in));
+        }
+        // closing before the end must not block on the remaining ranges
+        try (final InputStream in = ranged.getContent().getInputStream()) {
+            Assert.assertEquals(expected[0], in.read());
+        }
+    }
+
+    /** Reads a file twice through the content cache and checks the second read is served from the local copy. */
+    public void testContentCache() throws Exception {
+        // outside of the served test directory
+        final File localCacheDir = new File(getTestDirectoryFile().getParentFile().getParentFile(), "http-cache");
+        FileUtils.deleteDirectory(localCacheDir);
+        final FileSystemOptions opts = new FileSystemOptions();
+        HttpFileSystemConfigBuilder.getInstance().setContentCacheDir(opts, localCacheDir);
+
+        final String uri = ConnectionUri + "/read-tests/file1.txt";
+        final FileObject file = VFS.getManager().resolveFile(uri, opts);
+        final byte[] expected;
+        try (final InputStream in = file.getContent().getInputStream()) {
+            expected = IOUtils.toByteArray(in);
+        }
+
+        // the first read stored a copy; tamper with it to see where the next read comes from
+        final File[] fsDirs = localCacheDir.listFiles();
+        Assert.assertEquals(1, fsDirs.length);
+        final File[] entries = fsDirs[0].listFiles();
+        Assert.assertEquals(1, entries.length);
+        Assert.assertArrayEquals(expected, FileUtils.readFileToByteArray(entries[0]));
+        FileUtils.writeStringToFile(entries[0], "cached", "UTF-8");
+
+        file.refresh();
+        try (final InputStream in = file.getContent().getInputStream()) {
+            Assert.assertEquals("cached", IOUtils.toString(in, "UTF-8"));
+        }
+
+        VFS.getManager().closeFileSystem(file.getFileSystem());
+        Assert.assertEquals(0, localCacheDir.listFiles().length);
+    }
+
     /** Ensure VFS-453 options are present. */
     public void testHttpTimeoutConfig() throws FileSystemException {
         final FileSystemOptions opts = new FileSystemOptions();
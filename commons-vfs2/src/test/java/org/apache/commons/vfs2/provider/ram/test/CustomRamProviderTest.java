@@ -22,20 +22,31 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.apache.commons.AbstractVfsTestCase;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.vfs2.FileContent;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemException;
 import org.apache.commons.vfs2.FileSystemOptions;
+import org.apache.commons.vfs2.FileUtil;
+import org.apache.commons.vfs2.RandomAccessContent;
+import org.apache.commons.vfs2.impl.DefaultFileSystemConfigBuilder;
 import org.apache.commons.vfs2.impl.DefaultFileSystemManager;
+import org.apache.commons.vfs2.provider.UriParser;
 import org.apache.commons.vfs2.provider.ram.RamFileProvider;
+import org.apache.commons.vfs2.provider.ram.RamFileSystem;
 import org.apache.commons.vfs2.provider.ram.RamFileSystemConfigBuilder;
+import org.apache.commons.vfs2.util.RandomAccessMode;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -247,4 +258,235 @@ public class CustomRamProviderTest {
         }
 
     }
+
+    @Test
+    public void testSmallFSReleasesDeletedFiles() throws Exception {
+        final FileObject fo = manager.resolveFile("ram:/fo", smallSizedFso);
+        for (int i = 0; i < 3; i++) {
+            final OutputStream os = fo.getContent().getOutputStream();
+            os.write(new byte[10]);
+            os.close();
+            fo.delete();
+        }
+    }
+
+    @Test
+    public void testAppendAcrossPages() throws Exception {
+        assertAppendAcrossPages(defaultRamFso);
+    }
+
+    @Test
+    public void testAppendAcrossPagesDirectBuffers() throws Exception {
+        final FileSystemOptions directFso = new FileSystemOptions();
+        RamFileSystemConfigBuilder.getInstance().setDirectBuffers(directFso, true);
+        assertAppendAcrossPages(directFso);
+    }
+
+    private void assertAppendAcrossPages(final FileSystemOptions fso) throws Exception {
+        final FileObject fo = manager.resolveFile("ram:/big", fso);
+        final byte[] expected = new byte[300000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = (byte) (i * 31);
+        }
+        // two appending streams writing 8 KB at a time
+        for (int half = 0; half < 2; half++) {
+            final OutputStream os = fo.getContent().getOutputStream(half > 0);
+            final int end = half == 0 ? expected.length / 2 : expected.length;
+            for (int pos = half == 0 ? 0 : expected.length / 2; pos < end; pos += 8192) {
+                os.write(expected, pos, Math.min(8192, end - pos));
+            }
+            os.close();
+        }
+        assertEquals(expected.length, fo.getContent().getSize());
+        assertArrayEquals(expected, FileUtil.getContent(fo));
+
+        final RandomAccessContent rac = fo.getContent().getRandomAccessContent(RandomAccessMode.READWRITE);
+        try {
+            // a write across a page boundary
+            rac.seek(65536 - 2);
+            rac.writeInt(0x01020304);
+            rac.seek(65536 - 2);
+            assertEquals(0x01020304, rac.readInt());
+
+            // shrinking and growing again reads zeros
+            rac.setLength(70000);
+            rac.setLength(140000);
+            assertEquals(140000, rac.length());
+            rac.seek(69999);
+            assertEquals(expected[69999], rac.readByte());
+            final byte[] tail = new byte[70000];
+            rac.readFully(tail);
+            assertArrayEquals(new byte[70000], tail);
+        } finally {
+            rac.close();
+        }
+    }
+
+    @Test
+    public void testInputStreamReadsContentAtOpen() throws Exception {
+        final FileObject fo = manager.resolveFile("ram:/snapshot", defaultRamFso);
+        final byte[] expected = new byte[150000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = (byte) (i * 7);
+        }
+        try (final OutputStream os = fo.getContent().getOutputStream()) {
+            os.write(expected);
+        }
+
+        try (final InputStream is = fo.getContent().getInputStream()) {
+            final byte[] actual = new byte[expected.length];
+            int pos = is.read(actual, 0, 10);
+
+            // overwrite the first page in place, then replace the whole content
+            final RandomAccessContent rac = fo.getContent().getRandomAccessContent(RandomAccessMode.READWRITE);
+            try {
+                rac.seek(100);
+                rac.write(new byte[1000]);
+            } finally {
+                rac.close();
+            }
+            // closing the output stream closes the streams of the file, so read before that
+            try (final OutputStream os = fo.getContent().getOutputStream()) {
+                os.write(NON_EMPTY_FILE_CONTENT);
+                int n;
+                while ((n = is.read(actual, pos, actual.length - pos)) > 0) {
+                    pos += n;
+                }
+            }
+            assertEquals(expected.length, pos);
+            assertArrayEquals(expected, actual);
+        }
+        assertArrayEquals(NON_EMPTY_FILE_CONTENT, FileUtil.getContent(fo));
+    }
+
+    @Test
+    public void testImportExportTree() throws Exception {
+        final File source = AbstractVfsTestCase.getTestDirectory("read-tests");
+        final File target = new File(AbstractVfsTestCase.getTestDirectoryFile().getParentFile().getParentFile(),
+                "ram-export");
+        FileUtils.deleteDirectory(target);
+
+        final FileSystemOptions parallelFso = new FileSystemOptions();
+        DefaultFileSystemConfigBuilder.getInstance().setTraversalThreads(parallelFso, 4);
+        final FileObject root = manager.resolveFile("ram:/", parallelFso);
+        final RamFileSystem fs = (RamFileSystem) root.getFileSystem();
+        fs.importTree(source);
+        assertSameTree(source, root);
+
+        fs.exportTree(target);
+        assertSameTree(target, root);
+        FileUtils.deleteDirectory(target);
+    }
+
+    @Test
+    public void testSnapshot() throws Exception {
+        final File source = AbstractVfsTestCase.getTestDirectory("read-tests");
+        final File snapshot = new File(AbstractVfsTestCase.getTestDirectoryFile().getParentFile().getParentFile(),
+                "ram.snapshot");
+
+        final FileObject root = manager.resolveFile("ram:/", defaultRamFso);
+        ((RamFileSystem) root.getFileSystem()).importTree(source);
+        ((RamFileSystem) root.getFileSystem()).saveSnapshot(snapshot);
+
+        final FileSystemOptions directFso = new FileSystemOptions();
+        RamFileSystemConfigBuilder.getInstance().setDirectBuffers(directFso, true);
+        final FileObject restoredRoot = manager.resolveFile("ram:/", directFso);
+        // a file object resolved before the restore sees the restored file
+        final FileObject file1 = manager.resolveFile("ram:/file1.txt", directFso);
+        assertTrue(!file1.exists());
+        ((RamFileSystem) restoredRoot.getFileSystem()).loadSnapshot(snapshot);
+        assertTrue(file1.exists());
+        assertSameTree(source, restoredRoot);
+        assertEquals(root.resolveFile("file1.txt").getContent().getLastModifiedTime(),
+                file1.getContent().getLastModifiedTime());
+        assertTrue(snapshot.delete());
+    }
+
+    @Test
+    public void testSnapshotAndExportWhileDeleting() throws Exception {
+        final File snapshot = new File(AbstractVfsTestCase.getTestDirectoryFile().getParentFile().getParentFile(),
+                "ram-deleting.snapshot");
+        final File target = new File(AbstractVfsTestCase.getTestDirectoryFile().getParentFile().getParentFile(),
+                "ram-deleting-export");
+        FileUtils.deleteDirectory(target);
+
+        final FileObject root = manager.resolveFile("ram:/", defaultRamFso);
+        final RamFileSystem fs = (RamFileSystem) root.getFileSystem();
+        final FileObject folder = root.resolveFile("folder");
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+        final Thread deleter = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    while (running.get()) {
+                        for (int i = 0; i < 20; i++) {
+                            final OutputStream os = folder.resolveFile("file" + i).getContent().getOutputStream();
+                            os.write(NON_EMPTY_FILE_CONTENT);
+                            os.close();
+                        }
+                        folder.deleteAll();
+                    }
+                } catch (final Exception e) {
+                    failure.set(e);
+                }
+            }
+        };
+        deleter.start();
+        try {
+            for (int i = 0; i < 200; i++) {
+                fs.saveSnapshot(snapshot);
+                fs.exportTree(target);
+            }
+        } finally {
+            running.set(false);
+            deleter.join();
+            FileUtils.deleteQuietly(snapshot);
+            FileUtils.deleteDirectory(target);
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    @Test
+    public void testSnapshotOverCapacityChangesNothing() throws Exception {
+        final File source = AbstractVfsTestCase.getTestDirectory("read-tests");
+        final File snapshot = new File(AbstractVfsTestCase.getTestDirectoryFile().getParentFile().getParentFile(),
+                "ram-small.snapshot");
+
+        final FileObject root = manager.resolveFile("ram:/", defaultRamFso);
+        ((RamFileSystem) root.getFileSystem()).importTree(source);
+        ((RamFileSystem) root.getFileSystem()).saveSnapshot(snapshot);
+
+        final FileObject smallRoot = manager.resolveFile("ram:/", smallSizedFso);
+        try {
+            ((RamFileSystem) smallRoot.getFileSystem()).loadSnapshot(snapshot);
+            fail("It shouldn't restore a snapshot bigger than the file system");
+        } catch (final FileSystemException e) {
+            // Expected
+        } finally {
+            assertTrue(snapshot.delete());
+        }
+        assertEquals(0, smallRoot.getChildren().length);
+        // nothing of the capacity is left reserved
+        final OutputStream os = smallRoot.resolveFile("fo").getContent().getOutputStream();
+        os.write(new byte[10]);
+        os.close();
+    }
+
+    private static void assertSameTree(final File expected, final FileObject actual) throws Exception {
+        if (expected.isDirectory()) {
+            assertTrue(actual.getName() + " should be a folder", actual.isFolder());
+            final String[] names = expected.list();
+            assertEquals(actual.getName().toString(), names.length, actual.getChildren().length);
+            for (final String name : names) {
+                assertSameTree(new File(expected, name), actual.resolveFile(UriParser.encode(name)));
+            }
+        } else {
+            assertTrue(actual.getName() + " should be a file", actual.isFile());
+            assertArrayEquals(actual.getName().toString(), FileUtils.readFileToByteArray(expected),
+                    FileUtil.getContent(actual));
+        }
+    }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.provider.sftp;
+
+import com.jcraft.jsch.ChannelSftp;
+
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.FileSystemOptions;
+import org.apache.commons.vfs2.test.AbstractProviderTestCase;
+
+/**
+ * Tests the {@link SftpClientPool} of an {@link SftpFileSystem}.
+ */
+public class SftpClientPoolTests extends AbstractProviderTestCase {
+
+    /**
+     * Creates a file system of the server under test with its own pool.
+     */
+    private SftpFileSystem createFileSystem(final int channelsPerSession, final long maxWait) throws Exception {
+        final FileSystemOptions opts = (FileSystemOptions) getBaseFolder().getFileSystem().getFileSystemOptions()
+                .clone();
+        final SftpFileSystemConfigBuilder builder = SftpFileSystemConfigBuilder.getInstance();
+        builder.setPoolMinSessions(opts, 0);
+        builder.setPoolMaxSessions(opts, 1);
+        builder.setPoolChannelsPerSession(opts, channelsPerSession);
+        builder.setPoolMaxWait(opts, maxWait);
+        return (SftpFileSystem) getManager().resolveFile(getBaseFolder().getName().getURI(), opts).getFileSystem();
+    }
+
+    /**
+     * A returned client is lent again.
+     */
+    public void testBorrowAndReturn() throws Exception {
+        final SftpFileSystem fs = createFileSystem(2, 0);
+        try {
+            final SftpClient client = fs.getClient();
+            assertNotNull(client.getChannel().pwd());
+            fs.putClient(client);
+            final SftpClient reused = fs.getClient();
+            assertSame(client, reused);
+            // a second channel on the same session while the first is in use
+            final SftpClient other = fs.getClient();
+            assertNotSame(client, other);
+            assertSame(client.getPooledSession(), other.getPooledSession());
+            fs.putClient(other);
+            fs.putClient(reused);
+        } finally {
+            getManager().closeFileSystem(fs);
+        }
+    }
+
+    /**
+     * A client whose channel broke while it was in use is dropped when it is returned.
+     */
+    public void testBrokenClientIsNotReused() throws Exception {
+        final SftpFileSystem fs = createFileSystem(1, 0);
+        try {
+            final SftpClient client = fs.getClient();
+            final ChannelSftp channel = client.getChannel();
+            channel.disconnect();
+            fs.putClient(client);
+            final SftpClient replacement = fs.getClient();
+            assertNotSame(client, replacement);
+            assertNotNull(replacement.getChannel().pwd());
+            fs.putClient(replacement);
+        } finally {
+            getManager().closeFileSystem(fs);
+        }
+    }
+
+    /**
+     * Borrowing fails after the maximum wait when all channels are in use, and succeeds again once one is returned.
+     */
+    public void testExhausted() throws Exception {
+        final SftpFileSystem fs = createFileSystem(1, 100);
+        try {
+            final SftpClient client = fs.getClient();
+            try {
+                fs.getClient();
+                fail("The pool should be exhausted");
+            } catch (final FileSystemException e) {
+                assertEquals("vfs.provider.sftp/pool-exhausted.error", e.getCode());
+            }
+            fs.putClient(client);
+            final SftpClient reused = fs.getClient();
+            assertSame(client, reused);
+            fs.putClient(reused);
+        } finally {
+            getManager().closeFileSystem(fs);
+        }
+    }
+
+    /**
+     * A command takes a channel slot of its own, closing an idle channel to make room when the session is full.
+     */
+    public void testCommandTakesChannelSlot() throws Exception {
+        final SftpFileSystem fs = createFileSystem(1, 100);
+        try {
+            final SftpClient client = fs.getClient();
+            try {
+                fs.getUId();
+                fail("The pool should be exhausted");
+            } catch (final FileSystemException e) {
+                assertEquals("vfs.provider.sftp/pool-exhausted.error", e.getCode());
+            }
+            fs.putClient(client);
+            fs.getUId();
+            final SftpClient replacement = fs.getClient();
+            assertNotSame(client, replacement);
+            fs.putClient(replacement);
+        } finally {
+            getManager().closeFileSystem(fs);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.provider.sftp;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystemOptions;
+import org.apache.commons.vfs2.test.AbstractProviderTestCase;
+import org.apache.commons.vfs2.util.FileObjectUtils;
+
+/**
+ * Tests the streams of an {@link SftpFileSystem}.
+ */
+public class SftpStreamTests extends AbstractProviderTestCase {
+
+    /**
+     * Returns a copy of the options of the file system under test.
+     */
+    private FileSystemOptions copyOptions() {
+        return (FileSystemOptions) getBaseFolder().getFileSystem().getFileSystemOptions().clone();
+    }
+
+    /**
+     * Resolves file1.txt of the read folder on a file system with the given options.
+     */
+    private FileObject resolveFile1(final FileSystemOptions opts) throws Exception {
+        return getManager().resolveFile(getReadFolder().resolveFile("file1.txt").getName().getURI(), opts);
+    }
+
+    /**
+     * The channels opened by the clients use the configured number of bulk requests.
+     */
+    public void testBulkRequestsApplied() throws Exception {
+        final FileSystemOptions opts = copyOptions();
+        SftpFileSystemConfigBuilder.getInstance().setBulkRequests(opts, 32);
+        final SftpFileSystem fs = (SftpFileSystem) resolveFile1(opts).getFileSystem();
+        try {
+            final SftpClient client = fs.getClient();
+            assertEquals(32, client.getChannel().getBulkRequests());
+            fs.putClient(client);
+        } finally {
+            getManager().closeFileSystem(fs);
+        }
+    }
+
+    /**
+     * The input streams fill a buffer of the configured size.
+     */
+    public void testBufferSizeApplied() throws Exception {
+        final FileSystemOptions opts = copyOptions();
+        SftpFileSystemConfigBuilder.getInstance().setBufferSize(opts, 7);
+        final FileObject file = resolveFile1(opts);
+        try {
+            final SftpFileObject sftpFile = (SftpFileObject) FileObjectUtils.getAbstractFileObject(file);
+            try (final InputStream in = sftpFile.doGetInputStream()) {
+                assertEquals(FILE1_CONTENT.charAt(0), in.read());
+                // the rest of the first buffer, the SFTP stream itself does not report what it has received
+                assertEquals(6, in.available());
+                assertEquals(FILE1_CONTENT.substring(1), IOUtils.toString(in, "UTF-8"));
+            }
+        } finally {
+            getManager().closeFileSystem(file.getFileSystem());
+        }
+    }
+
+    /**
+     * Several threads read the same file at the same time, each on its own channel.
+     */
+    public void testConcurrentReads() throws Exception {
+        final int threads = 4;
+        final FileSystemOptions opts = copyOptions();
+        SftpFileSystemConfigBuilder.getInstance().setPoolMaxSessions(opts, 2);
+        SftpFileSystemConfigBuilder.getInstance().setPoolChannelsPerSession(opts, 2);
+        final FileObject file = resolveFile1(opts);
+        final CyclicBarrier opened = new CyclicBarrier(threads);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        try (final InputStream in = file.getContent().getInputStream()) {
+                            // all the streams are open before any is read
+                            opened.await(5, TimeUnit.SECONDS);
+                            return IOUtils.toString(in, "UTF-8");
+                        }
+                    }
+                }));
+            }
+            for (final Future<String> result : results) {
+                assertEquals(FILE1_CONTENT, result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+            getManager().closeFileSystem(file.getFileSystem());
+        }
+    }
+}
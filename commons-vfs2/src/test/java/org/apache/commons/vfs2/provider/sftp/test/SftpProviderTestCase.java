@@ -41,10 +41,12 @@ import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemManager;
 import org.apache.commons.vfs2.FileSystemOptions;
 import org.apache.commons.vfs2.impl.DefaultFileSystemManager;
+import org.apache.commons.vfs2.provider.sftp.SftpClientPoolTests;
 import org.apache.commons.vfs2.provider.sftp.SftpFileProvider;
 import org.apache.commons.vfs2.provider.sftp.SftpFileSystem;
 import org.apache.commons.vfs2.provider.sftp.SftpFileSystemConfigBuilder;
 import org.apache.commons.vfs2.provider.sftp.SftpStreamProxy;
+import org.apache.commons.vfs2.provider.sftp.SftpStreamTests;
 import org.apache.commons.vfs2.provider.sftp.TrustEveryoneUserInfo;
 import org.apache.commons.vfs2.test.AbstractProviderTestConfig;
 import org.apache.commons.vfs2.test.PermissionsTests;
@@ -305,6 +307,9 @@ public class SftpProviderTestCase extends AbstractProviderTestConfig {
         // VFS-405: set/get permissions
         sftpSuite.addTests(PermissionsTests.class);
 
+        sftpSuite.addTests(SftpClientPoolTests.class);
+        sftpSuite.addTests(SftpStreamTests.class);
+
         suite.addTest(sftpSuite);
 
         // --- VFS-440: stream proxy test suite
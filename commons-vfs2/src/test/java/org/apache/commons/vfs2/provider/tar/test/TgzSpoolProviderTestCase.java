@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.provider.tar.test;
+
+import java.io.File;
+
+import org.apache.commons.AbstractVfsTestCase;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystemManager;
+import org.apache.commons.vfs2.FileSystemOptions;
+import org.apache.commons.vfs2.impl.DefaultFileSystemManager;
+import org.apache.commons.vfs2.provider.tar.TarFileProvider;
+import org.apache.commons.vfs2.provider.tar.TarFileSystemConfigBuilder;
+import org.apache.commons.vfs2.test.AbstractProviderTestConfig;
+import org.apache.commons.vfs2.test.ProviderTestSuite;
+
+import junit.framework.Test;
+
+/**
+ * Tests for the Tar file system reading a gzip compressed archive from its spooled, uncompressed copy.
+ */
+public class TgzSpoolProviderTestCase extends AbstractProviderTestConfig {
+    /**
+     * Creates the test suite for the tar file system.
+     */
+    public static Test suite() throws Exception {
+        return new ProviderTestSuite(new TgzSpoolProviderTestCase(), true);
+    }
+
+    /**
+     * Prepares the file system manager.
+     */
+    @Override
+    public void prepare(final DefaultFileSystemManager manager) throws Exception {
+        manager.addProvider("tgz", new TarFileProvider());
+        manager.addProvider("tar", new TarFileProvider());
+    }
+
+    /**
+     * Returns the base folder for read tests.
+     */
+    @Override
+    public FileObject getBaseTestFolder(final FileSystemManager manager) throws Exception {
+        final FileSystemOptions opts = new FileSystemOptions();
+        TarFileSystemConfigBuilder.getInstance().setSpoolCompressed(opts, true);
+        final File tarFile = AbstractVfsTestCase.getTestResource("test.tgz");
+        final String uri = "tgz:file:" + tarFile.getAbsolutePath() + "!/";
+        return manager.resolveFile(uri, opts);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.provider.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+
+import org.apache.commons.AbstractVfsTestCase;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileUtil;
+import org.apache.commons.vfs2.Selectors;
+import org.apache.commons.vfs2.impl.DefaultFileSystemManager;
+import org.apache.commons.vfs2.provider.local.DefaultLocalFileProvider;
+import org.apache.commons.vfs2.provider.ram.RamFileProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests copying content between local and RAM files, which transfer content without a copy buffer.
+ */
+public class FileContentTransferTestCase {
+    private static final int CONTENT_SIZE = 3 * 1024 * 1024 + 17;
+
+    private DefaultFileSystemManager manager;
+
+    private FileObject localFolder;
+
+    private byte[] content;
+
+    @Before
+    public void setUp() throws Exception {
+        manager = new DefaultFileSystemManager();
+        manager.addProvider("file", new DefaultLocalFileProvider());
+        manager.addProvider("ram", new RamFileProvider());
+        manager.init();
+
+        final File folder = new File(AbstractVfsTestCase.getTestDirectoryFile(), "transfer");
+        localFolder = manager.resolveFile(folder.getAbsolutePath());
+        localFolder.deleteAll();
+        localFolder.createFolder();
+
+        content = new byte[CONTENT_SIZE];
+        new Random(42).nextBytes(content);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        localFolder.deleteAll();
+        manager.close();
+    }
+
+    @Test
+    public void testLocalToLocal() throws Exception {
+        final FileObject source = createFile(localFolder.resolveFile("source.bin"));
+        final FileObject target = localFolder.resolveFile("target.bin");
+
+        FileUtil.copyContent(source, target);
+
+        assertContent(target);
+    }
+
+    @Test
+    public void testLocalToRam() throws Exception {
+        final FileObject source = createFile(localFolder.resolveFile("source.bin"));
+        final FileObject target = manager.resolveFile("ram:///target.bin");
+
+        assertEquals(CONTENT_SIZE, source.getContent().write(target));
+
+        assertContent(target);
+    }
+
+    @Test
+    public void testRamToLocal() throws Exception {
+        final FileObject source = createFile(manager.resolveFile("ram:///source.bin"));
+        final FileObject target = localFolder.resolveFile("target.bin");
+
+        target.copyFrom(source, Selectors.SELECT_SELF);
+
+        assertContent(target);
+    }
+
+    @Test
+    public void testRamToRam() throws Exception {
+        final FileObject source = createFile(manager.resolveFile("ram:///source.bin"));
+        final FileObject target = manager.resolveFile("ram:///target.bin");
+
+        assertEquals(CONTENT_SIZE, source.getContent().write(target));
+
+        assertContent(target);
+    }
+
+    @Test
+    public void testMoveAcrossFileSystems() throws Exception {
+        final FileObject source = createFile(localFolder.resolveFile("source.bin"));
+        final FileObject target = manager.resolveFile("ram:///moved.bin");
+
+        source.moveTo(target);
+
+        assertFalse(source.exists());
+        assertContent(target);
+    }
+
+    private FileObject createFile(final FileObject file) throws IOException {
+        final OutputStream output = file.getContent().getOutputStream();
+        try {
+            output.write(content);
+        } finally {
+            output.close();
+        }
+        return file;
+    }
+
+    private void assertContent(final FileObject file) throws IOException {
+        assertEquals(CONTENT_SIZE, file.getContent().getSize());
+        final byte[] actual = new byte[CONTENT_SIZE];
+        final InputStream input = file.getContent().getInputStream();
+        try {
+            int offset = 0;
+            int n;
+            while (offset < actual.length && (n = input.read(actual, offset, actual.length - offset)) != -1) {
+                offset += n;
+            }
+            assertEquals(-1, input.read());
+        } finally {
+            input.close();
+        }
+        assertArrayEquals(content, actual);
+    }
+}
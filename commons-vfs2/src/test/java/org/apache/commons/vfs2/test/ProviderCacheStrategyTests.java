@@ -16,6 +16,8 @@
  */
 package org.apache.commons.vfs2.test;
 
+import java.util.concurrent.TimeUnit;
+
 import org.apache.commons.vfs2.CacheStrategy;
 import org.apache.commons.vfs2.Capability;
 import org.apache.commons.vfs2.FileObject;
@@ -132,6 +134,45 @@ public class ProviderCacheStrategyTests extends AbstractProviderTestCase {
         assertContains(fos, "file1.txt");
     }
 
+    /**
+     * Test the on_expiry strategy
+     */
+    public void testOnExpiryCache() throws Exception {
+        final FileObject scratchFolder = getWriteFolder();
+        if (FileObjectUtils.isInstanceOf(getBaseFolder(), RamFileObject.class)
+                || scratchFolder.getFileSystem() instanceof VirtualFileSystem) {
+            // cant check ram filesystem as every manager holds its own ram filesystem data
+            return;
+        }
+
+        scratchFolder.delete(Selectors.EXCLUDE_SELF);
+
+        final long cacheTtl = 1000;
+        final DefaultFileSystemManager fs = createManager();
+        fs.setCacheStrategy(CacheStrategy.ON_EXPIRY);
+        fs.setCacheTtl(cacheTtl);
+        fs.init();
+        final FileObject foBase2 = getBaseTestFolder(fs);
+
+        final long start = System.nanoTime();
+        final FileObject cachedFolder = foBase2.resolveFile(scratchFolder.getName().getPath());
+
+        FileObject[] fos = cachedFolder.getChildren();
+        assertContainsNot(fos, "file1.txt");
+
+        scratchFolder.resolveFile("file1.txt").createFile();
+
+        fos = cachedFolder.getChildren();
+        if (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < cacheTtl) {
+            // only meaningful if the listing did not expire yet on a slow machine
+            assertContainsNot(fos, "file1.txt");
+        }
+
+        Thread.sleep(cacheTtl);
+        fos = cachedFolder.getChildren();
+        assertContains(fos, "file1.txt");
+    }
+
     public void assertContainsNot(final FileObject[] fos, final String string) {
         for (final FileObject fo : fos) {
             if (string.equals(fo.getName().getBaseName())) {
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.commons.vfs2.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.apache.commons.vfs2.FileDepthSelector;
+import org.apache.commons.vfs2.FileExtensionSelector;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSelectInfo;
+import org.apache.commons.vfs2.FileSelector;
+import org.apache.commons.vfs2.Selectors;
+import org.apache.commons.vfs2.VFS;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests {@link FileTreeIterator}.
+ */
+public class FileTreeIteratorTest {
+
+    private static FileObject BaseFolder;
+
+    /**
+     * Creates a RAM FS with a few levels of folders.
+     *
+     * @throws Exception
+     */
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        BaseFolder = VFS.getManager().resolveFile("ram://" + FileTreeIteratorTest.class.getName());
+        BaseFolder.deleteAll();
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                BaseFolder.resolveFile("dir" + i + "/dir" + j + "/file.txt").createFile();
+            }
+            BaseFolder.resolveFile("dir" + i + "/file.xml").createFile();
+        }
+    }
+
+    /**
+     * Deletes RAM FS files.
+     *
+     * @throws Exception
+     */
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        if (BaseFolder != null) {
+            BaseFolder.deleteAll();
+        }
+    }
+
+    private static List<FileObject> walk(final FileSelector selector, final boolean depthwise) {
+        final List<FileObject> files = new ArrayList<>();
+        final Iterator<FileObject> iterator = new FileTreeIterator(BaseFolder, selector, depthwise);
+        while (iterator.hasNext()) {
+            files.add(iterator.next());
+        }
+        return files;
+    }
+
+    private static void assertSameAsFindFiles(final FileSelector selector, final boolean depthwise)
+            throws Exception {
+        final List<FileObject> expected = new ArrayList<>();
+        BaseFolder.findFiles(selector, depthwise, expected);
+        Assert.assertEquals(expected, walk(selector, depthwise));
+    }
+
+    @Test
+    public void testOrder() throws Exception {
+        assertSameAsFindFiles(Selectors.SELECT_ALL, true);
+        assertSameAsFindFiles(Selectors.SELECT_ALL, false);
+        assertSameAsFindFiles(Selectors.SELECT_FILES, true);
+        assertSameAsFindFiles(new FileDepthSelector(1, 2), false);
+        assertSameAsFindFiles(new FileExtensionSelector("xml"), true);
+    }
+
+    @Test
+    public void testIterator() throws Exception {
+        final List<FileObject> files = new ArrayList<>();
+        for (final FileObject file : BaseFolder) {
+            files.add(file);
+        }
+        Assert.assertEquals(Arrays.asList(BaseFolder.findFiles(Selectors.SELECT_ALL)), files);
+    }
+
+    @Test
+    public void testPruning() throws Exception {
+        final List<FileObject> traversed = new ArrayList<>();
+        final FileSelector selector = new FileDepthSelector(0, 1) {
+            @Override
+            public boolean traverseDescendents(final FileSelectInfo fileInfo) {
+                traversed.add(fileInfo.getFile());
+                return super.traverseDescendents(fileInfo);
+            }
+        };
+        Assert.assertEquals(4, walk(selector, false).size());
+        // only the folders up to the maximum depth are offered for traversal
+        Assert.assertEquals(4, traversed.size());
+    }
+
+    @Test
+    public void testEarlyTermination() throws Exception {
+        final List<FileObject> traversed = new ArrayList<>();
+        final FileSelector selector = new FileDepthSelector(0, Integer.MAX_VALUE) {
+            @Override
+            public boolean traverseDescendents(final FileSelectInfo fileInfo) {
+                traversed.add(fileInfo.getFile());
+                return true;
+            }
+        };
+        final Iterator<FileObject> iterator = new FileTreeIterator(BaseFolder, selector, false);
+        Assert.assertEquals(BaseFolder, iterator.next());
+        Assert.assertEquals(BaseFolder.resolveFile("dir0"), iterator.next());
+        Assert.assertEquals(2, traversed.size());
+    }
+
+    @Test
+    public void testMissingBaseFolder() throws Exception {
+        final FileObject missing = BaseFolder.resolveFile("missing");
+        final FileTreeIterator iterator = new FileTreeIterator(missing, Selectors.SELECT_ALL, true);
+        Assert.assertNull(iterator.nextFile());
+        Assert.assertFalse(iterator.hasNext());
+        try {
+            iterator.next();
+            Assert.fail();
+        } catch (final NoSuchElementException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testDelete() throws Exception {
+        final FileObject folder = BaseFolder.resolveFile("dir2");
+        Assert.assertEquals(3, folder.delete(new FileExtensionSelector("txt")));
+        Assert.assertTrue(folder.resolveFile("dir0").exists());
+        Assert.assertEquals(5, folder.deleteAll());
+        Assert.assertFalse(folder.exists());
+        for (int j = 0; j < 3; j++) {
+            BaseFolder.resolveFile("dir2/dir" + j + "/file.txt").createFile();
+        }
+        BaseFolder.resolveFile("dir2/file.xml").createFile();
+    }
+
+    @Test
+    public void testDeleteSelectsBeforeDeleting() throws Exception {
+        final FileObject folder = BaseFolder.resolveFile("dir1");
+        // a folder is selected only while it has children, which it has until the delete starts
+        final FileSelector selector = new FileSelector() {
+            @Override
+            public boolean includeFile(final FileSelectInfo fileInfo) throws Exception {
+                final FileObject file = fileInfo.getFile();
+                return file.isFile() || file.getChildren().length > 0;
+            }
+
+            @Override
+            public boolean traverseDescendents(final FileSelectInfo fileInfo) {
+                return true;
+            }
+        };
+        Assert.assertEquals(8, folder.delete(selector));
+        Assert.assertFalse(folder.exists());
+        for (int j = 0; j < 3; j++) {
+            BaseFolder.resolveFile("dir1/dir" + j + "/file.txt").createFile();
+        }
+        BaseFolder.resolveFile("dir1/file.xml").createFile();
+    }
+}
@@ -27,6 +27,7 @@ package org.apache.commons.vfs2.util;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.security.KeyManagementException;
@@ -41,6 +42,7 @@ import java.util.concurrent.TimeUnit;
 import javax.net.ssl.SSLContext;
 
 import org.apache.http.ExceptionLogger;
+import org.apache.http.Header;
 import org.apache.http.HttpConnection;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpException;
@@ -50,10 +52,12 @@ import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.MethodNotSupportedException;
 import org.apache.http.entity.ContentType;
+import org.apache.http.impl.cookie.DateParseException;
 import org.apache.http.impl.cookie.DateUtils;
 import org.apache.http.impl.nio.bootstrap.HttpServer;
 import org.apache.http.impl.nio.bootstrap.ServerBootstrap;
 import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.entity.NByteArrayEntity;
 import org.apache.http.nio.entity.NFileEntity;
 import org.apache.http.nio.entity.NStringEntity;
 import org.apache.http.nio.protocol.BasicAsyncRequestConsumer;
@@ -120,11 +124,21 @@ public class NHttpFileServer {
 
                 final HttpCoreContext coreContext = HttpCoreContext.adapt(context);
                 final HttpConnection conn = coreContext.getConnection(HttpConnection.class);
-                response.setStatusCode(HttpStatus.SC_OK);
-                final HttpEntity body = file.isDirectory()
-                        ? new NStringEntity(file.toString(), ContentType.create(mimeType))
-                        : new NFileEntity(file, ContentType.create(mimeType));
-                response.setEntity(body);
+                final Header range = request.getFirstHeader(HttpHeaders.RANGE);
+                if (file.isFile() && isNotModified(request, file)) {
+                    response.setStatusCode(HttpStatus.SC_NOT_MODIFIED);
+                } else if (range != null && file.isFile() && range.getValue().startsWith("bytes=")) {
+                    serveRange(file, range.getValue().substring("bytes=".length()), mimeType, response);
+                } else {
+                    response.setStatusCode(HttpStatus.SC_OK);
+                    final HttpEntity body = file.isDirectory()
+                            ? new NStringEntity(file.toString(), ContentType.create(mimeType))
+                            : new NFileEntity(file, ContentType.create(mimeType));
+                    response.setEntity(body);
+                }
+                if (file.isFile()) {
+                    response.addHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+                }
                 if (!response.containsHeader(HttpHeaders.LAST_MODIFIED)) {
                     response.addHeader(HttpHeaders.LAST_MODIFIED, DateUtils.formatDate(new Date(file.lastModified())));
                 }
@@ -132,6 +146,47 @@ public class NHttpFileServer {
             }
         }
 
+        /**
+         * Checks the {@code If-Modified-Since} header of the request against the file, to the second.
+         */
+        private boolean isNotModified(final HttpRequest request, final File file) {
+            final Header ifModifiedSince = request.getFirstHeader(HttpHeaders.IF_MODIFIED_SINCE);
+            if (ifModifiedSince == null) {
+                return false;
+            }
+            try {
+                final Date since = DateUtils.parseDate(ifModifiedSince.getValue());
+                return file.lastModified() / 1000 <= since.getTime() / 1000;
+            } catch (final DateParseException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Serves a single {@code first-last} or {@code first-} byte range of the file.
+         */
+        private void serveRange(final File file, final String range, final String mimeType,
+                final HttpResponse response) throws IOException {
+            final long length = file.length();
+            final int dash = range.indexOf('-');
+            final long first = Long.parseLong(range.substring(0, dash).trim());
+            final String lastValue = range.substring(dash + 1).trim();
+            final long last = lastValue.isEmpty() ? length - 1 : Math.min(Long.parseLong(lastValue), length - 1);
+            if (first > last) {
+                response.setStatusCode(HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.addHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            final byte[] data = new byte[(int) (last - first + 1)];
+            try (final RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                raf.seek(first);
+                raf.readFully(data);
+            }
+            response.setStatusCode(HttpStatus.SC_PARTIAL_CONTENT);
+            response.addHeader(HttpHeaders.CONTENT_RANGE, "bytes " + first + "-" + last + "/" + length);
+            response.setEntity(new NByteArrayEntity(data, ContentType.create(mimeType)));
+        }
+
         @Override
         public HttpAsyncRequestConsumer<HttpRequest> processRequest(final HttpRequest request,
                 final HttpContext context) {